@@ -33,6 +33,8 @@ import org.jboss.as.controller.operations.validation.ParameterValidator;
 import org.jboss.as.controller.persistence.ConfigurationPersistenceException;
 import org.jboss.as.controller.persistence.ConfigurationPersister;
 import org.jboss.as.controller.persistence.ConfigurationPersisterProvider;
+import org.jboss.as.controller.persistence.GroupCommitConfigurationPersister;
+import org.jboss.as.controller.persistence.JournalingConfigurationPersister;
 import org.jboss.as.controller.registry.ModelNodeRegistration;
 import org.jboss.as.controller.registry.OperationEntry;
 import org.jboss.dmr.ModelNode;
@@ -54,8 +56,7 @@ import java.util.NoSuchElementException;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CANCELLED;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.COMPENSATING_OPERATION;
@@ -81,15 +82,24 @@ public class BasicModelController extends AbstractModelController<OperationContr
 
     private static final Logger log = Logger.getLogger("org.jboss.as.controller");
 
-    private final Lock writeLock = new ReentrantLock(true);
+    private final StripedModelLock writeLock = new StripedModelLock();
     private final ModelNodeRegistration registry;
     private final ModelNode model;
+    /** Incremented each time the model is modified; guarded by the model's monitor */
+    private final AtomicLong modelVersion = new AtomicLong();
+    /** The most recently published snapshot of the model, or {@code null} if it needs to be rebuilt */
+    private volatile ModelSnapshot modelSnapshot;
     private final ConfigurationPersister configurationPersister;
-    private final ModelProvider modelSource = new ModelProvider() {
+    private final ModelSnapshotProvider modelSource = new ModelSnapshotProvider() {
         @Override
         public ModelNode getModel() {
             return BasicModelController.this.model;
         }
+
+        @Override
+        public ModelSnapshot getModelSnapshot() {
+            return BasicModelController.this.getModelSnapshot();
+        }
     };
     private final OperationContextFactory contextFactory = new OperationContextFactory() {
         @Override
@@ -187,10 +197,12 @@ public class BasicModelController extends AbstractModelController<OperationContr
     }
 
     @Override
-    protected OperationControllerContext getOperationControllerContext(Operation operation) {
+    protected OperationControllerContext getOperationControllerContext(final Operation operation) {
 
         return new OperationControllerContext() {
 
+            private PathAddress lockAddress;
+
             @Override
             public ModelProvider getModelProvider() {
                 return modelSource;
@@ -213,18 +225,49 @@ public class BasicModelController extends AbstractModelController<OperationContr
 
             @Override
             public boolean lockInterruptibly() throws InterruptedException {
-                writeLock.lockInterruptibly();
-                return true;
+                final PathAddress address = getLockAddress(operation);
+                final boolean locked = writeLock.lockInterruptibly(address);
+                if (locked) {
+                    lockAddress = address;
+                }
+                return locked;
             }
 
             @Override
             public void unlock() {
-                writeLock.unlock();
+                writeLock.unlock(lockAddress);
             }
 
         };
     }
 
+    /**
+     * Gets the address that determines which part of the model must be locked while
+     * the given operation executes. Composite operations lock the whole model.
+     *
+     * @param operation the operation
+     * @return the address, or {@link PathAddress#EMPTY_ADDRESS} to lock the whole model
+     */
+    protected PathAddress getLockAddress(final Operation operation) {
+        final ModelNode op = operation.getOperation();
+        try {
+            final PathAddress address = PathAddress.pathAddress(op.get(OP_ADDR));
+            return isMultiStepOperation(op, address) ? PathAddress.EMPTY_ADDRESS : address;
+        } catch (IllegalArgumentException e) {
+            // Invalid address; let the operation fail after taking the global lock
+            return PathAddress.EMPTY_ADDRESS;
+        }
+    }
+
+    /**
+     * Gets the lock that serializes operations that modify the model.
+     *
+     * @return the lock
+     */
+    protected StripedModelLock getWriteLock() {
+        return writeLock;
+    }
+
     @Override
     public OperationResult execute(final Operation operation, final ResultHandler handler,
             final OperationControllerContext operationExecutionContext) {
@@ -287,6 +330,9 @@ public class BasicModelController extends AbstractModelController<OperationContr
             if (locked) {
                 operationExecutionContext.unlock();
             }
+            // Only wait for the configuration to be written once the lock is released, so the
+            // operations executing meanwhile can be written along with this one
+            awaitConfigurationPersisted(operationExecutionContext.getConfigurationPersisterProvider());
         }
     }
 
@@ -319,9 +365,16 @@ public class BasicModelController extends AbstractModelController<OperationContr
             subModel = new ModelNode();
         } else if (operationHandler instanceof ModelQueryOperationHandler) {
             // or model update operation handler...
-            final ModelNode model = modelSource.getModel();
-            synchronized (model) {
-                subModel = address.navigate(model, false).clone();
+            if (modelSource instanceof ModelSnapshotProvider) {
+                // The snapshot is immutable so no locking is needed. Only an update handler
+                // gets its own copy to modify; a query handler reads the protected node itself
+                final ModelNode node = ((ModelSnapshotProvider) modelSource).getModelSnapshot().navigate(address);
+                subModel = operationHandler instanceof ModelUpdateOperationHandler ? node.clone() : node;
+            } else {
+                final ModelNode model = modelSource.getModel();
+                synchronized (model) {
+                    subModel = address.navigate(model, false).clone();
+                }
             }
         } else {
             subModel = null;
@@ -350,6 +403,47 @@ public class BasicModelController extends AbstractModelController<OperationContr
         }
     }
 
+    /**
+     * Persist the configuration after an update was executed. If the configuration persister is a
+     * {@link JournalingConfigurationPersister} only the operation is recorded; otherwise this
+     * delegates to {@link #persistConfiguration(ModelNode, ConfigurationPersisterProvider)}.
+     *
+     * @param model the new model
+     * @param configurationPersisterFactory factory for the configuration persister
+     * @param operation the operation that modified the model
+     */
+    protected void persistConfiguration(final ModelNode model, final ConfigurationPersisterProvider configurationPersisterFactory, final ModelNode operation) {
+        ConfigurationPersister configurationPersister =  configurationPersisterFactory.getConfigurationPersister();
+        if (configurationPersister instanceof JournalingConfigurationPersister) {
+            try {
+                ((JournalingConfigurationPersister) configurationPersister).store(model, operation);
+            } catch (final ConfigurationPersistenceException e) {
+                log.warnf(e, "Failed to persist configuration change: %s", e);
+            }
+        } else {
+            persistConfiguration(model, configurationPersisterFactory);
+        }
+    }
+
+    /**
+     * Waits for the configuration persisted by this thread to be written, if the configuration persister
+     * is a {@link GroupCommitConfigurationPersister}. Called once the operation has released the write lock
+     * and the model's monitor, so concurrent updates can be written together. Does nothing if the thread
+     * persisted nothing.
+     *
+     * @param configurationPersisterFactory factory for the configuration persister
+     */
+    protected void awaitConfigurationPersisted(final ConfigurationPersisterProvider configurationPersisterFactory) {
+        ConfigurationPersister configurationPersister =  configurationPersisterFactory.getConfigurationPersister();
+        if (configurationPersister instanceof GroupCommitConfigurationPersister) {
+            try {
+                ((GroupCommitConfigurationPersister) configurationPersister).awaitStored();
+            } catch (final ConfigurationPersistenceException e) {
+                log.warnf(e, "Failed to persist configuration change: %s", e);
+            }
+        }
+    }
+
     /**
      * Registers {@link OperationHandler}s for operations that require
      * access to controller internals not meant to be exposed via an
@@ -357,7 +451,7 @@ public class BasicModelController extends AbstractModelController<OperationContr
      * <p>
      * This default implementation registers a handler for the
      * {@link CommonDescriptions#getReadConfigAsXmlOperation(Locale) read-config-as-xml}
-     * operation.
+     * operation and the {@link WriteLockMetricHandler write lock metrics}.
      * </p>
      */
     protected void registerInternalOperations() {
@@ -367,6 +461,10 @@ public class BasicModelController extends AbstractModelController<OperationContr
             XmlMarshallingHandler handler = new XmlMarshallingHandler(configurationPersister, model);
             this.registry.registerOperationHandler(CommonDescriptions.READ_CONFIG_AS_XML, handler, handler, false, OperationEntry.EntryType.PRIVATE);
         }
+        final WriteLockMetricHandler lockMetrics = new WriteLockMetricHandler(writeLock);
+        this.registry.registerMetric(WriteLockMetricHandler.WAIT_COUNT, lockMetrics);
+        this.registry.registerMetric(WriteLockMetricHandler.WAIT_TIME, lockMetrics);
+        this.registry.registerMetric(WriteLockMetricHandler.MAX_WAIT_TIME, lockMetrics);
     }
 
     /**
@@ -409,7 +507,8 @@ public class BasicModelController extends AbstractModelController<OperationContr
                 } else {
                     address.navigate(model, true).set(operationHandlerContext.getSubModel());
                 }
-                persistConfiguration(model, operationControllerContext.getConfigurationPersisterProvider());
+                modelChanged(model, address);
+                persistConfiguration(model, operationControllerContext.getConfigurationPersisterProvider(), operation.getOperation());
             }
         }
         return result;
@@ -423,6 +522,47 @@ public class BasicModelController extends AbstractModelController<OperationContr
         return model;
     }
 
+    /**
+     * Gets the current snapshot of the model. The first snapshot is created from the model
+     * when it is first requested; after that, {@link #modelChanged(ModelNode, PathAddress)}
+     * publishes each new one, so no locking or copying is involved.
+     *
+     * @return the snapshot. Will not be {@code null}
+     */
+    protected ModelSnapshot getModelSnapshot() {
+        ModelSnapshot snapshot = modelSnapshot;
+        if (snapshot == null) {
+            synchronized (model) {
+                snapshot = modelSnapshot;
+                if (snapshot == null) {
+                    snapshot = ModelSnapshot.create(model, modelVersion.get());
+                    modelSnapshot = snapshot;
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Publishes a new snapshot after the model was modified. Must be called while holding the
+     * model's monitor by anything that modifies the model. If the modified node is not the
+     * model of this controller, the call is ignored.
+     *
+     * @param model the node that was modified
+     * @param address the address of the modification, or {@link PathAddress#EMPTY_ADDRESS} if
+     *                the modification was not limited to a single top-level resource, in which
+     *                case the top-level resources are compared to find the changed ones
+     */
+    protected void modelChanged(final ModelNode model, final PathAddress address) {
+        if (model != this.model) {
+            return;
+        }
+        final long version = modelVersion.incrementAndGet();
+        final ModelSnapshot snapshot = modelSnapshot;
+        // Only the changed top-level resources are copied; if there is no snapshot yet, the next reader creates it
+        modelSnapshot = snapshot == null ? null : snapshot.update(model, address, version);
+    }
+
     /**
      * Validates that it is valid to add a resource to the model at the given
      * address. Confirms that:
@@ -510,13 +650,44 @@ public class BasicModelController extends AbstractModelController<OperationContr
         }
     }
 
+    /** An {@link OperationHandler} that reports the {@link StripedModelLock} statistics */
+    public static final class WriteLockMetricHandler implements ModelQueryOperationHandler {
+
+        public static final String WAIT_COUNT = "management-lock-wait-count";
+        public static final String WAIT_TIME = "management-lock-wait-time";
+        public static final String MAX_WAIT_TIME = "management-lock-max-wait-time";
+
+        private final StripedModelLock lock;
+
+        public WriteLockMetricHandler(final StripedModelLock lock) {
+            this.lock = lock;
+        }
+
+        @Override
+        public OperationResult execute(OperationContext context, ModelNode operation, ResultHandler resultHandler) {
+            final String attributeName = operation.require(ModelDescriptionConstants.NAME).asString();
+            final ModelNode result = new ModelNode();
+            if (WAIT_COUNT.equals(attributeName)) {
+                result.set(lock.getWaitCount());
+            } else if (WAIT_TIME.equals(attributeName)) {
+                result.set(lock.getTotalWaitTime());
+            } else if (MAX_WAIT_TIME.equals(attributeName)) {
+                result.set(lock.getMaxWaitTime());
+            }
+            resultHandler.handleResultFragment(ResultHandler.EMPTY_LOCATION, result);
+            resultHandler.handleResultComplete();
+            return new BasicOperationResult();
+        }
+    }
+
     /**
      * Attempts to acquire the {@link OperationControllerContext#lockInterruptibly() context's write lock},
-     * translating any InterruptedException to OperationFailedException.
+     * translating any InterruptedException or timed out nested acquisition to OperationFailedException.
      *
      * @param context the context
      * @return true if the lock was acquired
-     * @throws OperationFailedException if an InterruptedException was thrown
+     * @throws OperationFailedException if an InterruptedException was thrown, or the thread already
+     *         holds the lock for another part of the model and timed out waiting for this one
      */
     private static boolean acquireWriteLock(OperationControllerContext context) throws OperationFailedException {
         try {
@@ -526,6 +697,9 @@ public class BasicModelController extends AbstractModelController<OperationContr
             Thread.currentThread().interrupt();
             throw new OperationFailedException(new ModelNode().set("Interrupted while attempting to acquire the operation execution write lock"));
         }
+        catch (IllegalStateException e) {
+            throw new OperationFailedException(new ModelNode().set(e.getMessage()));
+        }
     }
 
     protected class MultiStepOperationController implements ModelProvider, OperationContextFactory, ConfigurationPersisterProvider {
@@ -665,7 +839,9 @@ public class BasicModelController extends AbstractModelController<OperationContr
                     || !operationNode.get(OPERATION_HEADERS).hasDefined(ROLLBACK_ON_RUNTIME_FAILURE)
                     || operationNode.get(OPERATION_HEADERS, ROLLBACK_ON_RUNTIME_FAILURE).asBoolean());
             this.modelSource = modelProvider;
-            this.localModel = this.modelSource.getModel().clone();
+            this.localModel = modelProvider instanceof ModelSnapshotProvider
+                    ? ((ModelSnapshotProvider) modelProvider).getModelSnapshot().getRoot().clone()
+                    : modelProvider.getModel().clone();
             this.injectedConfigPersisterProvider = injectedConfigPersisterProvider;
             this.injectedOperationControllerContext = injectedOperationControllerContext;
             // Ensure the outcome and result fields come first for each result
@@ -759,9 +935,9 @@ public class BasicModelController extends AbstractModelController<OperationContr
             final ModelNode model = modelSource.getModel();
             synchronized (model) {
                 model.set(localModel);
-                BasicModelController.this.persistConfiguration(model, injectedConfigPersisterProvider);
+                BasicModelController.this.modelChanged(model, PathAddress.EMPTY_ADDRESS);
+                BasicModelController.this.persistConfiguration(model, injectedConfigPersisterProvider, operation.getOperation());
             }
-
         }
 
         protected final String getStepKey(int id) {
@@ -3,7 +3,9 @@
  */
 package org.jboss.as.controller;
 
+import java.util.ArrayList;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 
@@ -11,7 +13,8 @@ import org.jboss.dmr.ModelNode;
 import org.jboss.logging.Logger;
 
 /**
- * A transactional context in which operations on a {@link ModelController} execute.
+ * A transactional context in which operations on a {@link ModelController} execute. Resources and synchronizations
+ * may be registered from several threads, such as those pushing an operation to the hosts of a domain.
  *
  * @author Brian Stansberry (c) 2011 Red Hat Inc.
  */
@@ -22,6 +25,8 @@ public class ControllerTransaction implements ControllerTransactionContext {
     private final Set<ControllerResource> resources = new LinkedHashSet<ControllerResource>();
     private final Set<ControllerTransactionSynchronization> synchronizations = new LinkedHashSet<ControllerTransactionSynchronization>();
     private volatile boolean rollbackOnly;
+    // @GuardedBy(this)
+    private boolean completed;
     private final ModelNode id;
     private final long creationTime = System.currentTimeMillis();
 
@@ -38,6 +43,14 @@ public class ControllerTransaction implements ControllerTransactionContext {
 
     public void commit() {
 
+        final List<ControllerTransactionSynchronization> synchronizations;
+        final List<ControllerResource> resources;
+        synchronized (this) {
+            completed = true;
+            synchronizations = new ArrayList<ControllerTransactionSynchronization>(this.synchronizations);
+            resources = new ArrayList<ControllerResource>(this.resources);
+        }
+
         for (ControllerTransactionSynchronization sync : synchronizations) {
             try {
                 sync.beforeCompletion();
@@ -90,13 +103,22 @@ public class ControllerTransaction implements ControllerTransactionContext {
         this.rollbackOnly = true;
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalStateException if the transaction has already completed, so the resource would never be
+     *         committed or rolled back
+     */
     @Override
-    public void registerResource(ControllerResource resource) {
+    public synchronized void registerResource(ControllerResource resource) {
+        if (completed) {
+            throw new IllegalStateException("Transaction " + id + " has already completed");
+        }
         resources.add(resource);
     }
 
     @Override
-    public void deregisterResource(ControllerResource resource) {
+    public synchronized void deregisterResource(ControllerResource resource) {
         resources.remove(resource);
     }
 
@@ -105,7 +127,7 @@ public class ControllerTransaction implements ControllerTransactionContext {
     }
 
     @Override
-    public void registerSynchronization(ControllerTransactionSynchronization synchronization) {
+    public synchronized void registerSynchronization(ControllerTransactionSynchronization synchronization) {
         synchronizations.add(synchronization);
     }
 }
@@ -0,0 +1,223 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+
+/**
+ * An immutable, versioned view of a model.
+ * <p>
+ * Each top-level resource (e.g. {@code subsystem=web}) is held as its own protected copy, so
+ * the snapshot published after a write only copies the top-level resource that was changed and
+ * shares all the others with its predecessor. Readers may navigate a snapshot without any
+ * locking; the nodes it returns must not be modified.
+ * </p>
+ *
+ * @author agent
+ */
+public final class ModelSnapshot {
+
+    private final long version;
+    /** The root level attributes; child types are present as empty objects */
+    private final ModelNode attributes;
+    /** The top-level resources, keyed by child type and then by name */
+    private final Map<String, Map<String, ModelNode>> resources;
+    /** The lazily assembled root node */
+    private volatile ModelNode root;
+
+    private ModelSnapshot(final long version, final ModelNode attributes, final Map<String, Map<String, ModelNode>> resources) {
+        this.version = version;
+        this.attributes = attributes;
+        this.resources = resources;
+    }
+
+    /**
+     * Create a snapshot of the given model. The caller must prevent concurrent modification
+     * of the model while this method executes.
+     *
+     * @param model the model. Cannot be {@code null}
+     * @param version the version of the model
+     * @return the snapshot
+     */
+    public static ModelSnapshot create(final ModelNode model, final long version) {
+        final Map<String, Map<String, ModelNode>> resources = new LinkedHashMap<String, Map<String, ModelNode>>();
+        if (model.getType() == ModelType.OBJECT) {
+            for (String type : model.keys()) {
+                final ModelNode children = model.require(type);
+                if (children.getType() == ModelType.OBJECT) {
+                    final Map<String, ModelNode> byName = new LinkedHashMap<String, ModelNode>();
+                    for (String name : children.keys()) {
+                        byName.put(name, protectedCopy(children.require(name)));
+                    }
+                    resources.put(type, byName);
+                }
+            }
+        }
+        return new ModelSnapshot(version, createAttributes(model), resources);
+    }
+
+    /**
+     * Gets the version of the model this snapshot was taken from.
+     *
+     * @return the version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Navigate to the node at the given address, following the same rules as
+     * {@link PathAddress#navigate(ModelNode, boolean) address.navigate(model, false)}.
+     *
+     * @param address the address. Cannot be {@code null}
+     * @return the node. Will not be {@code null}; must not be modified
+     *
+     * @throws NoSuchElementException if there is no node at the given address
+     */
+    public ModelNode navigate(final PathAddress address) throws NoSuchElementException {
+        if (address.size() == 0) {
+            return getRoot();
+        }
+        final PathElement element = address.getElement(0);
+        final Map<String, ModelNode> byName = resources.get(element.getKey());
+        final ModelNode node = byName == null ? null : byName.get(element.getValue());
+        if (node == null) {
+            throw new NoSuchElementException("No child '" + element.getValue() + "' exists");
+        }
+        return address.subAddress(1).navigate(node, false);
+    }
+
+    /**
+     * Gets the complete model. The node is assembled the first time it is requested.
+     *
+     * @return the model. Will not be {@code null}; must not be modified
+     */
+    public ModelNode getRoot() {
+        ModelNode root = this.root;
+        if (root == null) {
+            root = attributes.clone();
+            for (Map.Entry<String, Map<String, ModelNode>> type : resources.entrySet()) {
+                final ModelNode children = root.get(type.getKey());
+                for (Map.Entry<String, ModelNode> child : type.getValue().entrySet()) {
+                    children.get(child.getKey()).set(child.getValue());
+                }
+            }
+            root.protect();
+            this.root = root;
+        }
+        return root;
+    }
+
+    /**
+     * Create the snapshot that follows this one after the given model was modified at
+     * the given address. Only the top-level resource containing the address is copied
+     * from the model. If the address is the root address, only the top-level resources
+     * which differ from those of this snapshot are copied. The caller must prevent concurrent
+     * modification of the model while this method executes.
+     *
+     * @param model the modified model. Cannot be {@code null}
+     * @param address the address of the modification. Cannot be {@code null}
+     * @param version the version of the modified model
+     * @return the new snapshot
+     */
+    ModelSnapshot update(final ModelNode model, final PathAddress address, final long version) {
+        if (model.getType() != ModelType.OBJECT) {
+            return create(model, version);
+        }
+        if (address.size() == 0) {
+            return updateAll(model, version);
+        }
+        final PathElement element = address.getElement(0);
+        final String type = element.getKey();
+        final String name = element.getValue();
+
+        final Map<String, Map<String, ModelNode>> resources = new LinkedHashMap<String, Map<String, ModelNode>>(this.resources);
+        final ModelNode children = model.has(type) ? model.require(type) : null;
+        if (children == null || children.getType() != ModelType.OBJECT) {
+            resources.remove(type);
+        } else {
+            final Map<String, ModelNode> old = this.resources.get(type);
+            final Map<String, ModelNode> byName = old == null ? new LinkedHashMap<String, ModelNode>() : new LinkedHashMap<String, ModelNode>(old);
+            if (children.has(name)) {
+                byName.put(name, protectedCopy(children.require(name)));
+            } else {
+                byName.remove(name);
+            }
+            resources.put(type, byName);
+        }
+        return new ModelSnapshot(version, createAttributes(model), resources);
+    }
+
+    /**
+     * Create the snapshot that follows this one after the given model was modified anywhere,
+     * e.g. by a composite operation. Comparing the resources is cheaper than copying them, so
+     * the unchanged ones are shared with this snapshot.
+     */
+    private ModelSnapshot updateAll(final ModelNode model, final long version) {
+        final Map<String, Map<String, ModelNode>> resources = new LinkedHashMap<String, Map<String, ModelNode>>();
+        for (String type : model.keys()) {
+            final ModelNode children = model.require(type);
+            if (children.getType() == ModelType.OBJECT) {
+                final Map<String, ModelNode> old = this.resources.get(type);
+                final Map<String, ModelNode> byName = new LinkedHashMap<String, ModelNode>();
+                for (String name : children.keys()) {
+                    final ModelNode child = children.require(name);
+                    final ModelNode previous = old == null ? null : old.get(name);
+                    byName.put(name, previous != null && previous.equals(child) ? previous : protectedCopy(child));
+                }
+                resources.put(type, byName);
+            }
+        }
+        return new ModelSnapshot(version, createAttributes(model), resources);
+    }
+
+    private static ModelNode createAttributes(final ModelNode model) {
+        final ModelNode attributes;
+        if (model.getType() == ModelType.OBJECT) {
+            attributes = new ModelNode().setEmptyObject();
+            for (String key : model.keys()) {
+                final ModelNode value = model.require(key);
+                if (value.getType() == ModelType.OBJECT) {
+                    attributes.get(key).setEmptyObject();
+                } else {
+                    attributes.get(key).set(value);
+                }
+            }
+        } else {
+            attributes = model.clone();
+        }
+        attributes.protect();
+        return attributes;
+    }
+
+    private static ModelNode protectedCopy(final ModelNode node) {
+        final ModelNode copy = node.clone();
+        copy.protect();
+        return copy;
+    }
+}
@@ -81,6 +81,10 @@ public class OperationContextImpl implements OperationContext {
 
     @Override
     public ModelNode getSubModel(PathAddress address) throws IllegalArgumentException {
+        if (modelProvider instanceof ModelSnapshotProvider) {
+            // The protected snapshot node is a read-only view by itself
+            return ((ModelSnapshotProvider) modelProvider).getModelSnapshot().navigate(address);
+        }
         ModelNode model = modelProvider.getModel();
         return address.navigate(model, false).clone();
     }
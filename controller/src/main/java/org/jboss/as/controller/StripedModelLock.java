@@ -0,0 +1,201 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The lock used to serialize operations that modify a model.
+ * <p>
+ * The top-level resources (e.g. {@code subsystem=web}) are spread over a fixed number of
+ * stripes by hash. An operation that targets a single top-level resource only locks its
+ * stripe, and so only excludes other operations on the same stripe. Any other operation
+ * (one that targets the root, a wildcard address or a composite operation) locks all stripes.
+ * </p>
+ * <p>
+ * Stripes are always locked in ascending order. A thread that already holds some stripes, because
+ * an operation executes another one, blocks only for the stripes above the highest one it holds;
+ * for a lower one it waits at most {@link #DEFAULT_OUT_OF_ORDER_TIMEOUT 30 seconds}, since waiting
+ * without a limit could deadlock with a thread that holds that stripe and waits for one of ours.
+ * </p>
+ *
+ * @author agent
+ */
+public final class StripedModelLock {
+
+    /** The number of stripes; a power of two */
+    private static final int STRIPE_COUNT = 64;
+    /** The number of seconds a thread waits for a stripe below one it already holds */
+    private static final long DEFAULT_OUT_OF_ORDER_TIMEOUT = 30;
+
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPE_COUNT];
+    private final long outOfOrderTimeout;
+
+    private final AtomicLong waitCount = new AtomicLong();
+    private final AtomicLong totalWaitTime = new AtomicLong();
+    private final AtomicLong maxWaitTime = new AtomicLong();
+
+    public StripedModelLock() {
+        this(DEFAULT_OUT_OF_ORDER_TIMEOUT, TimeUnit.SECONDS);
+    }
+
+    StripedModelLock(final long outOfOrderTimeout, final TimeUnit unit) {
+        this.outOfOrderTimeout = unit.toNanos(outOfOrderTimeout);
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock(true);
+        }
+    }
+
+    /**
+     * Acquire the lock for an operation targeting the given address, blocking until it is available.
+     *
+     * @param address the address of the operation. Cannot be {@code null}
+     * @return {@code true} if the lock was acquired and {@link #unlock(PathAddress)} must be
+     *         called, {@code false} if the current thread already holds the lock
+     *
+     * @throws InterruptedException if the thread is interrupted while waiting
+     * @throws IllegalStateException if the current thread holds a higher stripe and could not
+     *         acquire a lower one within the timeout
+     */
+    public boolean lockInterruptibly(final PathAddress address) throws InterruptedException {
+        final int stripe = getStripe(address);
+        final int first = stripe < 0 ? 0 : stripe;
+        final int last = stripe < 0 ? STRIPE_COUNT - 1 : stripe;
+        int highestHeld = -1;
+        boolean held = true;
+        for (int i = 0; i < STRIPE_COUNT; i++) {
+            if (stripes[i].isHeldByCurrentThread()) {
+                highestHeld = i;
+            } else if (i >= first && i <= last) {
+                held = false;
+            }
+        }
+        if (held) {
+            return false;
+        }
+        long start = 0;
+        int i = first;
+        try {
+            for (; i <= last; i++) {
+                final ReentrantLock lock = stripes[i];
+                // a zero timeout respects the fairness of the lock, unlike tryLock()
+                if (lock.tryLock(0, TimeUnit.NANOSECONDS)) {
+                    continue;
+                }
+                if (start == 0) {
+                    start = System.nanoTime();
+                }
+                if (i > highestHeld) {
+                    lock.lockInterruptibly();
+                } else if (!lock.tryLock(outOfOrderTimeout, TimeUnit.NANOSECONDS)) {
+                    throw new IllegalStateException("Timed out waiting for the lock of " + address + " while holding the lock of another part of the model");
+                }
+            }
+        } finally {
+            if (i <= last) {
+                // release the stripes acquired before the failure
+                for (int j = first; j < i; j++) {
+                    stripes[j].unlock();
+                }
+            }
+        }
+        if (start != 0) {
+            recordWaitTime(System.nanoTime() - start);
+        }
+        return true;
+    }
+
+    /**
+     * Release the lock acquired by {@link #lockInterruptibly(PathAddress)} for the given address.
+     *
+     * @param address the address passed to {@code lockInterruptibly}
+     */
+    public void unlock(final PathAddress address) {
+        final int stripe = getStripe(address);
+        if (stripe < 0) {
+            for (int i = STRIPE_COUNT - 1; i >= 0; i--) {
+                stripes[i].unlock();
+            }
+        } else {
+            stripes[stripe].unlock();
+        }
+    }
+
+    /**
+     * Gets the number of times a thread had to wait to acquire the lock.
+     *
+     * @return the number of contended acquisitions
+     */
+    public long getWaitCount() {
+        return waitCount.get();
+    }
+
+    /**
+     * Gets the total time spent waiting to acquire the lock, in milliseconds.
+     *
+     * @return the total wait time
+     */
+    public long getTotalWaitTime() {
+        return TimeUnit.NANOSECONDS.toMillis(totalWaitTime.get());
+    }
+
+    /**
+     * Gets the longest time spent waiting to acquire the lock, in milliseconds.
+     *
+     * @return the maximum wait time
+     */
+    public long getMaxWaitTime() {
+        return TimeUnit.NANOSECONDS.toMillis(maxWaitTime.get());
+    }
+
+    private void recordWaitTime(final long waitTime) {
+        waitCount.incrementAndGet();
+        totalWaitTime.addAndGet(waitTime);
+        long max;
+        do {
+            max = maxWaitTime.get();
+        } while (waitTime > max && !maxWaitTime.compareAndSet(max, waitTime));
+    }
+
+    /**
+     * Gets the stripe of the top-level resource the given address belongs to.
+     *
+     * @param address the address
+     * @return the index of the stripe, or {@code -1} if the address requires all stripes
+     */
+    static int getStripe(final PathAddress address) {
+        if (address.size() == 0) {
+            return -1;
+        }
+        final PathElement element = address.getElement(0);
+        if (element.isMultiTarget()) {
+            return -1;
+        }
+        int h = element.hashCode();
+        h ^= (h >>> 20) ^ (h >>> 12);
+        h ^= (h >>> 7) ^ (h >>> 4);
+        return h & (STRIPE_COUNT - 1);
+    }
+}
@@ -63,6 +63,7 @@ public class ModelDescriptionConstants {
     public static final String DEFAULT_INTERFACE = "default-interface";
     public static final String DEPLOY = "deploy";
     public static final String DEPLOYMENT = "deployment";
+    public static final String DEPLOYMENT_METADATA_CACHE = "deployment-metadata-cache";
     public static final String DESCRIBE = "describe";
     public static final String DESCRIPTION = "description";
     public static final String DIRECTORY = "directory";
@@ -85,6 +86,7 @@ public class ModelDescriptionConstants {
     public static final String HOST = "host";
     public static final String HOST_FAILURE_DESCRIPTION = "host-failure-description";
     public static final String HOST_FAILURE_DESCRIPTIONS = "host-failure-descriptions";
+    public static final String HOST_RESPONSE_TIMEOUT = "host-response-timeout";
     public static final String HTTP_INTERFACE = "http-interface";
     public static final String IGNORED = "ignored";
     public static final String IN_SERIES = "in-series";
@@ -96,6 +98,7 @@ public class ModelDescriptionConstants {
     public static final String INITIAL_CONTEXT_FACTORY = "initial-context-factory";
     public static final String INPUT_STREAM_INDEX = "input-stream-index";
     public static final String INTERFACE = "interface";
+    public static final String IO_THREADS = "io-threads";
     public static final String JVM = "jvm";
     public static final String JVM_TYPE = "type";
     public static final String KEYSTORE = "keystore";
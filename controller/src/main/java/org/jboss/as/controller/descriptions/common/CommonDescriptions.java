@@ -43,6 +43,7 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.VAL
 import java.util.Locale;
 import java.util.ResourceBundle;
 
+import org.jboss.as.controller.BasicModelController.WriteLockMetricHandler;
 import org.jboss.as.controller.operations.common.NamespaceAddHandler;
 import org.jboss.as.controller.operations.common.NamespaceRemoveHandler;
 import org.jboss.as.controller.operations.common.SchemaLocationAddHandler;
@@ -85,6 +86,27 @@ public class CommonDescriptions {
         return root;
     }
 
+    /**
+     * Adds the descriptions of the {@link org.jboss.as.controller.BasicModelController.WriteLockMetricHandler
+     * management lock metrics} to the attributes of a root resource.
+     *
+     * @param root the description of the root resource
+     * @param locale the locale
+     */
+    public static void addManagementLockMetrics(final ModelNode root, final Locale locale) {
+        final ResourceBundle bundle = getResourceBundle(locale);
+        addLongMetric(root, WriteLockMetricHandler.WAIT_COUNT, bundle.getString("management-lock-wait-count"));
+        addLongMetric(root, WriteLockMetricHandler.WAIT_TIME, bundle.getString("management-lock-wait-time"));
+        addLongMetric(root, WriteLockMetricHandler.MAX_WAIT_TIME, bundle.getString("management-lock-max-wait-time"));
+    }
+
+    private static void addLongMetric(final ModelNode root, final String name, final String description) {
+        root.get(ATTRIBUTES, name, DESCRIPTION).set(description);
+        root.get(ATTRIBUTES, name, TYPE).set(ModelType.LONG);
+        root.get(ATTRIBUTES, name, REQUIRED).set(false);
+        root.get(ATTRIBUTES, name, NILLABLE).set(false);
+    }
+
     public static ModelNode getAddNamespaceOperation(final Locale locale) {
         final ResourceBundle bundle = getResourceBundle(locale);
         final ModelNode root = new ModelNode();
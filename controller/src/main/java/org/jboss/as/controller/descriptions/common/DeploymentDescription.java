@@ -147,9 +147,10 @@ public class DeploymentDescription {
         root.get(DESCRIPTION).set(bundle.getString("deployment.upload-bytes"));
         root.get(REQUEST_PROPERTIES, BYTES, TYPE).set(ModelType.BYTES);
         root.get(REQUEST_PROPERTIES, BYTES, DESCRIPTION).set(bundle.getString("deployment.bytes"));
-        root.get(REQUEST_PROPERTIES, BYTES, REQUIRED).set(true);
+        root.get(REQUEST_PROPERTIES, BYTES, REQUIRED).set(false);
         root.get(REQUEST_PROPERTIES, BYTES, MIN_LENGTH).set(1);
-        root.get(REQUEST_PROPERTIES, BYTES, NILLABLE).set(false);
+        root.get(REQUEST_PROPERTIES, BYTES, NILLABLE).set(true);
+        addExpectedHashParameter(root, bundle);
         root.get(REPLY_PROPERTIES, TYPE).set(ModelType.BYTES);
         root.get(REPLY_PROPERTIES, DESCRIPTION).set(bundle.getString("deployment.hash"));
         root.get(REPLY_PROPERTIES, MIN_LENGTH).set(20);
@@ -165,9 +166,10 @@ public class DeploymentDescription {
         root.get(DESCRIPTION).set(bundle.getString("deployment.upload-url"));
         root.get(REQUEST_PROPERTIES, URL, TYPE).set(ModelType.STRING);
         root.get(REQUEST_PROPERTIES, URL, DESCRIPTION).set(bundle.getString("deployment.url"));
-        root.get(REQUEST_PROPERTIES, URL, REQUIRED).set(true);
+        root.get(REQUEST_PROPERTIES, URL, REQUIRED).set(false);
         root.get(REQUEST_PROPERTIES, URL, MIN_LENGTH).set(1);
-        root.get(REQUEST_PROPERTIES, URL, NILLABLE).set(false);
+        root.get(REQUEST_PROPERTIES, URL, NILLABLE).set(true);
+        addExpectedHashParameter(root, bundle);
         root.get(REPLY_PROPERTIES, TYPE).set(ModelType.BYTES);
         root.get(REPLY_PROPERTIES, DESCRIPTION).set(bundle.getString("deployment.hash"));
         root.get(REPLY_PROPERTIES, MIN_LENGTH).set(20);
@@ -183,9 +185,10 @@ public class DeploymentDescription {
         root.get(DESCRIPTION).set(bundle.getString("deployment.upload-stream"));
         root.get(REQUEST_PROPERTIES, INPUT_STREAM_INDEX, TYPE).set(ModelType.STRING);
         root.get(REQUEST_PROPERTIES, INPUT_STREAM_INDEX, DESCRIPTION).set(bundle.getString("deployment.inputstream"));
-        root.get(REQUEST_PROPERTIES, INPUT_STREAM_INDEX, REQUIRED).set(true);
+        root.get(REQUEST_PROPERTIES, INPUT_STREAM_INDEX, REQUIRED).set(false);
         root.get(REQUEST_PROPERTIES, INPUT_STREAM_INDEX, MIN_VALUE).set(0);
-        root.get(REQUEST_PROPERTIES, INPUT_STREAM_INDEX, NILLABLE).set(false);
+        root.get(REQUEST_PROPERTIES, INPUT_STREAM_INDEX, NILLABLE).set(true);
+        addExpectedHashParameter(root, bundle);
         root.get(REPLY_PROPERTIES, TYPE).set(ModelType.BYTES);
         root.get(REPLY_PROPERTIES, DESCRIPTION).set(bundle.getString("deployment.hash"));
         root.get(REPLY_PROPERTIES, MIN_LENGTH).set(20);
@@ -194,6 +197,15 @@ public class DeploymentDescription {
         return root;
     }
 
+    private static void addExpectedHashParameter(final ModelNode root, final ResourceBundle bundle) {
+        root.get(REQUEST_PROPERTIES, HASH, TYPE).set(ModelType.BYTES);
+        root.get(REQUEST_PROPERTIES, HASH, DESCRIPTION).set(bundle.getString("deployment.upload.hash"));
+        root.get(REQUEST_PROPERTIES, HASH, REQUIRED).set(false);
+        root.get(REQUEST_PROPERTIES, HASH, MIN_LENGTH).set(20);
+        root.get(REQUEST_PROPERTIES, HASH, MAX_LENGTH).set(20);
+        root.get(REQUEST_PROPERTIES, HASH, NILLABLE).set(true);
+    }
+
     public static final ModelNode getAddDeploymentOperation(Locale locale, boolean includeEnabled) {
         final ResourceBundle bundle = getResourceBundle(locale);
         final ModelNode root = new ModelNode();
@@ -26,6 +26,7 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ATT
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DESCRIPTION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HEAD_COMMENT_ALLOWED;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INTERFACE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.IO_THREADS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.PORT;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REQUEST_PROPERTIES;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REQUIRED;
@@ -64,6 +65,9 @@ public class ManagementDescription {
         root.get(ATTRIBUTES, PORT, TYPE).set(ModelType.STRING);
         root.get(ATTRIBUTES, PORT, DESCRIPTION).set(bundle.getString("server.management.native-interface.port"));
         root.get(ATTRIBUTES, PORT, REQUIRED).set(false);
+        root.get(ATTRIBUTES, IO_THREADS, TYPE).set(ModelType.INT);
+        root.get(ATTRIBUTES, IO_THREADS, DESCRIPTION).set(bundle.getString("server.management.native-interface.io-threads"));
+        root.get(ATTRIBUTES, IO_THREADS, REQUIRED).set(false);
         root.get(HEAD_COMMENT_ALLOWED).set(true);
         root.get(TAIL_COMMENT_ALLOWED).set(false);
         return root;
@@ -94,6 +98,9 @@ public class ManagementDescription {
         op.get(REQUEST_PROPERTIES, PORT, TYPE).set(ModelType.STRING);
         op.get(REQUEST_PROPERTIES, PORT, DESCRIPTION).set(bundle.getString("server.management.native-interface.port"));
         op.get(REQUEST_PROPERTIES, PORT, REQUIRED).set(false);
+        op.get(REQUEST_PROPERTIES, IO_THREADS, TYPE).set(ModelType.INT);
+        op.get(REQUEST_PROPERTIES, IO_THREADS, DESCRIPTION).set(bundle.getString("server.management.native-interface.io-threads"));
+        op.get(REQUEST_PROPERTIES, IO_THREADS, REQUIRED).set(false);
 
         return op;
     }
@@ -26,6 +26,7 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DES
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HEAD_COMMENT_ALLOWED;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HTTP_INTERFACE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INTERFACE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.IO_THREADS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MANAGEMENT_INTERFACE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NATIVE_INTERFACE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.PORT;
@@ -75,6 +76,9 @@ public class ManagementInterfaceDescription {
         root.get(MANAGEMENT_INTERFACE, ATTRIBUTES, NATIVE_INTERFACE, VALUE_TYPE, PORT, TYPE).set(ModelType.STRING);
         root.get(MANAGEMENT_INTERFACE, ATTRIBUTES, NATIVE_INTERFACE, VALUE_TYPE, PORT, DESCRIPTION).set(bundle.getString("server.management.native-interface.port"));
         root.get(MANAGEMENT_INTERFACE, ATTRIBUTES, NATIVE_INTERFACE, VALUE_TYPE, PORT, REQUIRED).set(false);
+        root.get(MANAGEMENT_INTERFACE, ATTRIBUTES, NATIVE_INTERFACE, VALUE_TYPE, IO_THREADS, TYPE).set(ModelType.INT);
+        root.get(MANAGEMENT_INTERFACE, ATTRIBUTES, NATIVE_INTERFACE, VALUE_TYPE, IO_THREADS, DESCRIPTION).set(bundle.getString("server.management.native-interface.io-threads"));
+        root.get(MANAGEMENT_INTERFACE, ATTRIBUTES, NATIVE_INTERFACE, VALUE_TYPE, IO_THREADS, REQUIRED).set(false);
         root.get(MANAGEMENT_INTERFACE, ATTRIBUTES, NATIVE_INTERFACE, REQUIRED).set(false);
         root.get(MANAGEMENT_INTERFACE, ATTRIBUTES, NATIVE_INTERFACE, HEAD_COMMENT_ALLOWED).set(true);
         root.get(MANAGEMENT_INTERFACE, ATTRIBUTES, NATIVE_INTERFACE, TAIL_COMMENT_ALLOWED).set(false);
@@ -125,18 +125,15 @@ public class GlobalOperationHandlers {
 
                     final Set<String> childNames = registry.getChildNames(address);
 
-                    final ModelNode subModel = model.clone();
-                    for (final String key : subModel.keys()) {
-                        final ModelNode child = subModel.get(key);
-                        if (childNames.contains(key)) {
+                    // getSubModel(address) returns a read-only view, so build the result without modifying it
+                    for (final String key : model.keys()) {
+                        final ModelNode child = model.get(key);
+                        if (childNames.contains(key) && child.isDefined()) {
                             //Prune the value for this child
-                            if (subModel.get(key).isDefined()) {
-                                for (final String childKey : child.keys()) {
-                                    subModel.get(key, childKey).set(new ModelNode());
-                                }
+                            final ModelNode pruned = result.get(key).setEmptyObject();
+                            for (final String childKey : child.keys()) {
+                                pruned.get(childKey);
                             }
-
-                            result.get(key).set(child);
                         } else {
                             result.get(key).set(child);
                         }
@@ -250,7 +247,8 @@ public class GlobalOperationHandlers {
                     throw new OperationFailedException(new ModelNode().set("No known attribute called " + attributeName)); // TODO i18n
                 }
             } else if (attributeAccess.getReadHandler() == null) {
-                final ModelNode result = context.getSubModel().get(attributeName).clone();
+                final ModelNode subModel = context.getSubModel();
+                final ModelNode result = subModel.has(attributeName) ? subModel.get(attributeName).clone() : new ModelNode();
                 resultHandler.handleResultFragment(Util.NO_LOCATION, result);
                 resultHandler.handleResultComplete();
             } else {
@@ -46,14 +46,17 @@ public enum Attribute {
     DEFAULT_INTERFACE("default-interface"),
     DEBUG_ENABLED("debug-enabled"),
     DEBUG_OPTIONS("debug-options"),
+    DEPLOYMENT_METADATA_CACHE("deployment-metadata-cache"),
     ENABLED("enabled"),
     ENV_CLASSPATH_IGNORED("env-classpath-ignored"),
     FILE("file"),
     FIXED_PORT("fixed-port"),
     GROUP("group"),
     HOST("host"),
+    HOST_RESPONSE_TIMEOUT("host-response-timeout"),
     INITIAL_CONTEXT_FACTORY("initial-context-factory"),
     INTERFACE("interface"),
+    IO_THREADS("io-threads"),
     JAVA_HOME("java-home"),
     MAX_SIZE("max-size"),
     MAX_THREADS("max-threads"),
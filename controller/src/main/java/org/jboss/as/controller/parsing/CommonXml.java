@@ -42,6 +42,7 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HTT
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INCLUDES;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INITIAL_CONTEXT_FACTORY;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INTERFACE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.IO_THREADS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.JVM_TYPE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.KEYSTORE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.LDAP;
@@ -1133,6 +1134,7 @@ public abstract class CommonXml implements XMLElementReader<List<ModelNode>>, XM
         String interfaceName = null;
         int port = 0;
         int maxThreads = -1;
+        int ioThreads = -1;
         final int count = reader.getAttributeCount();
         for (int i = 0; i < count; i ++) {
             final String value = reader.getAttributeValue(i);
@@ -1163,6 +1165,15 @@ public abstract class CommonXml implements XMLElementReader<List<ModelNode>>, XM
                         }
                         break;
                     }
+                    case IO_THREADS: {
+                        ioThreads = Integer.parseInt(value);
+                        if (ioThreads < 0) {
+                            throw new XMLStreamException("Illegal '" + attribute.getLocalName() +
+                                    "' value " + ioThreads + " -- cannot be negative",
+                                    reader.getLocation());
+                        }
+                        break;
+                    }
                     default:
                         throw unexpectedAttribute(reader, i);
                 }
@@ -1175,6 +1186,9 @@ public abstract class CommonXml implements XMLElementReader<List<ModelNode>>, XM
         final ModelNode mgmtSocket = new ModelNode();
         mgmtSocket.get(INTERFACE).set(interfaceName);
         mgmtSocket.get(PORT).set(port);
+        if (ioThreads >= 0) {
+            mgmtSocket.get(IO_THREADS).set(ioThreads);
+        }
         mgmtSocket.get(OP).set(ADD);
         ModelNode operationAddress = address.clone();
         operationAddress.add(MANAGEMENT_INTERFACE, NATIVE_INTERFACE);
@@ -2412,6 +2426,9 @@ public abstract class CommonXml implements XMLElementReader<List<ModelNode>>, XM
         if (protocol.hasDefined(MAX_THREADS)) {
             writeAttribute(writer, Attribute.MAX_THREADS, protocol.get(MAX_THREADS).asString());
         }
+        if (protocol.hasDefined(IO_THREADS)) {
+            writeAttribute(writer, Attribute.IO_THREADS, protocol.get(IO_THREADS).asString());
+        }
         if (protocol.hasDefined(SECURITY_REALM)) {
             writeAttribute(writer, Attribute.SECURITY_REALM, protocol.get(SECURITY_REALM).asString());
         }
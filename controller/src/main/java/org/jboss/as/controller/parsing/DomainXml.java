@@ -24,6 +24,7 @@ package org.jboss.as.controller.parsing;
 
 import org.jboss.as.controller.HashUtil;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
+import org.jboss.as.controller.operations.common.Util;
 import org.jboss.as.controller.persistence.ModelMarshallingContext;
 import org.jboss.as.controller.persistence.SubsystemMarshallingContext;
 import org.jboss.dmr.ModelNode;
@@ -49,6 +50,7 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DEP
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ENABLED;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.EXTENSION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HASH;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HOST_RESPONSE_TIMEOUT;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INCLUDES;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INTERFACE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.JVM;
@@ -94,6 +96,10 @@ public class DomainXml extends CommonXml {
         writer.writeStartDocument();
         writer.writeStartElement(Element.DOMAIN.getLocalName());
 
+        if (modelNode.hasDefined(HOST_RESPONSE_TIMEOUT)) {
+            writeAttribute(writer, Attribute.HOST_RESPONSE_TIMEOUT, modelNode.get(HOST_RESPONSE_TIMEOUT).asString());
+        }
+
         writer.writeDefaultNamespace(Namespace.CURRENT.getUriString());
         writeNamespaces(writer, modelNode);
         writeSchemaLocation(writer, modelNode);
@@ -147,6 +153,24 @@ public class DomainXml extends CommonXml {
         final int count = reader.getAttributeCount();
         for (int i = 0; i < count; i ++) {
             switch (Namespace.forUri(reader.getAttributeNamespace(i))) {
+                case NONE: {
+                    final String value = reader.getAttributeValue(i);
+                    final Attribute attribute = Attribute.forName(reader.getAttributeLocalName(i));
+                    switch (attribute) {
+                        case HOST_RESPONSE_TIMEOUT: {
+                            final int timeout = Integer.parseInt(value);
+                            if (timeout < 1) {
+                                throw new XMLStreamException("Illegal '" + attribute.getLocalName() +
+                                        "' value " + timeout + " -- must be greater than 0",
+                                        reader.getLocation());
+                            }
+                            list.add(Util.getWriteAttributeOperation(address, HOST_RESPONSE_TIMEOUT, timeout));
+                            break;
+                        }
+                        default: throw unexpectedAttribute(reader, i);
+                    }
+                    break;
+                }
                 case DOMAIN_1_0: {
                     throw unexpectedAttribute(reader, i);
                 } case XML_SCHEMA_INSTANCE: {
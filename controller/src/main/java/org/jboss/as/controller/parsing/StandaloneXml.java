@@ -47,6 +47,7 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADD
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CONTENT;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DEFAULT_INTERFACE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DEPLOYMENT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DEPLOYMENT_METADATA_CACHE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ENABLED;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.EXTENSION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INTERFACE;
@@ -92,6 +93,7 @@ public class StandaloneXml extends CommonXml {
         parseNamespaces(reader, address, list);
 
         String serverName = null;
+        ModelNode deploymentMetadataCache = null;
 
         // attributes
         final int count = reader.getAttributeCount();
@@ -105,6 +107,10 @@ public class StandaloneXml extends CommonXml {
                             serverName = value;
                             break;
                         }
+                        case DEPLOYMENT_METADATA_CACHE: {
+                            deploymentMetadataCache = Util.getWriteAttributeOperation(address, DEPLOYMENT_METADATA_CACHE, Boolean.parseBoolean(value));
+                            break;
+                        }
                         default: throw unexpectedAttribute(reader, i);
                     }
                     break;
@@ -133,6 +139,9 @@ public class StandaloneXml extends CommonXml {
             serverName = getDefaultName();
         }
         setServerName(address, list, serverName);
+        if (deploymentMetadataCache != null) {
+            list.add(deploymentMetadataCache);
+        }
 
         // elements - sequence
 
@@ -342,6 +351,9 @@ public class StandaloneXml extends CommonXml {
         if (modelNode.hasDefined(NAME)) {
             writeAttribute(writer, Attribute.NAME, modelNode.get(NAME).asString());
         }
+        if (modelNode.hasDefined(DEPLOYMENT_METADATA_CACHE)) {
+            writeAttribute(writer, Attribute.DEPLOYMENT_METADATA_CACHE, modelNode.get(DEPLOYMENT_METADATA_CACHE).asString());
+        }
 
         writer.writeDefaultNamespace(Namespace.CURRENT.getUriString());
         writeNamespaces(writer, modelNode);
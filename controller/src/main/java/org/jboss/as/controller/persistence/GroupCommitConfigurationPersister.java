@@ -0,0 +1,307 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.persistence;
+
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.staxmapper.XMLElementWriter;
+
+/**
+ * A configuration persister which coalesces the {@link #store(ModelNode)} calls that arrive within
+ * a configurable window into a single call to the persister it wraps.
+ * <p>
+ * {@link #store(ModelNode)} only adds the caller to the current group and returns; it is expected to
+ * be called while holding the model's monitor, as {@code BasicModelController} does. Once the window
+ * has elapsed, a copy of the model is taken under its monitor and written once for the whole group.
+ * Callers that need to know the outcome call {@link #awaitStored()} after releasing the model's
+ * monitor, which blocks until the write covering their last store has completed.
+ * </p>
+ *
+ * @author agent
+ */
+public class GroupCommitConfigurationPersister implements ExtensibleConfigurationPersister {
+
+    /** The default window in ms within which store calls are coalesced */
+    public static final long DEFAULT_WINDOW = 50;
+
+    private final ExtensibleConfigurationPersister delegate;
+    private final long window;
+    private final ScheduledExecutorService executor;
+    private final ThreadLocal<Group> lastGroup = new ThreadLocal<Group>();
+    private final Runnable flushTask = new Runnable() {
+        @Override
+        public void run() {
+            writeGroup();
+        }
+    };
+
+    // Guarded by this
+    private Group currentGroup;
+    private ModelNode model;
+    private boolean closed;
+
+    /** Held while the delegate is writing, so groups are written in order */
+    private final Object writeLock = new Object();
+
+    /**
+     * Construct a new instance using the {@link #DEFAULT_WINDOW default window}.
+     *
+     * @param delegate the persister to write the configuration with
+     */
+    public GroupCommitConfigurationPersister(final ExtensibleConfigurationPersister delegate) {
+        this(delegate, DEFAULT_WINDOW);
+    }
+
+    /**
+     * Construct a new instance.
+     *
+     * @param delegate the persister to write the configuration with
+     * @param window the time in ms within which store calls are coalesced
+     */
+    public GroupCommitConfigurationPersister(final ExtensibleConfigurationPersister delegate, final long window) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("delegate is null");
+        }
+        if (window < 0) {
+            throw new IllegalArgumentException("window is negative");
+        }
+        this.delegate = delegate;
+        this.window = window;
+        this.executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(final Runnable r) {
+                final Thread thread = new Thread(r, "Configuration group commit");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    /**
+     * Gets the persister this persister writes the configuration with.
+     *
+     * @return the persister. Will not be {@code null}
+     */
+    public ExtensibleConfigurationPersister getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * Adds the caller to the group that will be written once the window has elapsed. Writers to the
+     * model must hold its monitor; the model is copied under it before being written.
+     *
+     * @param model the model to persist
+     */
+    @Override
+    public void store(final ModelNode model) {
+        final Group group;
+        final boolean writeNow;
+        synchronized (this) {
+            this.model = model;
+            writeNow = closed;
+            if (currentGroup == null) {
+                currentGroup = new Group();
+                if (!closed) {
+                    executor.schedule(flushTask, window, TimeUnit.MILLISECONDS);
+                }
+            }
+            group = currentGroup;
+        }
+        lastGroup.set(group);
+        if (writeNow) {
+            // No more groups once closed; the caller holds the model's monitor, which the write takes again
+            writeGroup();
+        }
+    }
+
+    /**
+     * Waits until the write covering the last {@link #store(ModelNode)} call made by the calling thread
+     * has completed. Returns immediately if the thread has no outstanding store. Must not be called
+     * while holding the model's monitor.
+     *
+     * @throws ConfigurationPersistenceException if the write failed
+     */
+    public void awaitStored() throws ConfigurationPersistenceException {
+        final Group group = lastGroup.get();
+        if (group != null) {
+            lastGroup.remove();
+            group.await();
+        }
+    }
+
+    /**
+     * Writes the current group, if any, immediately and waits for the write to complete.
+     *
+     * @throws ConfigurationPersistenceException if the write failed
+     */
+    public void flush() throws ConfigurationPersistenceException {
+        final Group group;
+        synchronized (this) {
+            group = currentGroup;
+        }
+        if (group != null) {
+            writeGroup();
+            group.await();
+        }
+    }
+
+    /**
+     * Writes the current group, if any, and stops the thread writing the groups. Changes stored afterwards
+     * are written right away by the thread storing them.
+     *
+     * @throws ConfigurationPersistenceException if the write of the current group failed
+     */
+    public void close() throws ConfigurationPersistenceException {
+        synchronized (this) {
+            closed = true;
+        }
+        try {
+            flush();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void marshallAsXml(final ModelNode model, final OutputStream output) throws ConfigurationPersistenceException {
+        delegate.marshallAsXml(model, output);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public List<ModelNode> load() throws ConfigurationPersistenceException {
+        return delegate.load();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void successfulBoot() throws ConfigurationPersistenceException {
+        delegate.successfulBoot();
+    }
+
+    /**
+     * Writes any pending group before taking the snapshot, so the snapshot includes all stored changes.
+     */
+    @Override
+    public String snapshot() throws ConfigurationPersistenceException {
+        flush();
+        return delegate.snapshot();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public SnapshotInfo listSnapshots() {
+        return delegate.listSnapshots();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void deleteSnapshot(final String name) {
+        delegate.deleteSnapshot(name);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void registerSubsystemWriter(final String name, final XMLElementWriter<SubsystemMarshallingContext> writer) {
+        delegate.registerSubsystemWriter(name, writer);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void registerSubsystemDeploymentWriter(final String name, final XMLElementWriter<SubsystemMarshallingContext> writer) {
+        delegate.registerSubsystemDeploymentWriter(name, writer);
+    }
+
+    private void writeGroup() {
+        synchronized (writeLock) {
+            final Group group;
+            final ModelNode model;
+            synchronized (this) {
+                group = currentGroup;
+                model = this.model;
+                currentGroup = null;
+            }
+            if (group == null) {
+                // Already written by flush()
+                return;
+            }
+            // Every store in the group was called after its change was made under the model's
+            // monitor, so the copy includes all of them. Changes stored after the group was
+            // closed may be included as well; they are written again with their own group.
+            final ModelNode copy;
+            synchronized (model) {
+                copy = model.clone();
+            }
+            ConfigurationPersistenceException failure = null;
+            try {
+                delegate.store(copy);
+            } catch (ConfigurationPersistenceException e) {
+                failure = e;
+            } catch (RuntimeException e) {
+                failure = new ConfigurationPersistenceException("Failed to store configuration", e);
+            }
+            group.complete(failure);
+        }
+    }
+
+    /**
+     * The store calls that are written together.
+     */
+    private static final class Group {
+        private boolean complete;
+        private ConfigurationPersistenceException failure;
+
+        synchronized void complete(final ConfigurationPersistenceException failure) {
+            this.failure = failure;
+            this.complete = true;
+            notifyAll();
+        }
+
+        synchronized void await() throws ConfigurationPersistenceException {
+            boolean interrupted = false;
+            try {
+                while (!complete) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+            } finally {
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.persistence;
+
+import org.jboss.dmr.ModelNode;
+
+/**
+ * An {@link ExtensibleConfigurationPersister} that can record the individual operations
+ * that modified the model, rather than storing the complete model after each change.
+ *
+ * @author agent
+ */
+public interface JournalingConfigurationPersister extends ExtensibleConfigurationPersister {
+
+    /**
+     * Record an operation that has been applied to the model. The caller must hold the
+     * model's monitor, which is also how the persister obtains a stable view of the model
+     * when it later writes it out in full.
+     *
+     * @param model the model, after the operation was applied
+     * @param operation the operation
+     * @throws ConfigurationPersistenceException if the operation could not be recorded
+     */
+    void store(ModelNode model, ModelNode operation) throws ConfigurationPersistenceException;
+
+    /**
+     * Write all recorded operations to the configuration, blocking until this is done.
+     *
+     * @throws ConfigurationPersistenceException if the configuration could not be written
+     */
+    void compact() throws ConfigurationPersistenceException;
+
+    /**
+     * Write all recorded operations to the configuration and release any resources, such as
+     * threads, held by the persister.
+     *
+     * @throws ConfigurationPersistenceException if the configuration could not be written
+     */
+    void close() throws ConfigurationPersistenceException;
+}
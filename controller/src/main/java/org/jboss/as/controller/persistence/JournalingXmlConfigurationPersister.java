@@ -0,0 +1,476 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.persistence;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.namespace.QName;
+
+import org.jboss.as.controller.HashUtil;
+import org.jboss.dmr.ModelNode;
+import org.jboss.logging.Logger;
+import org.jboss.staxmapper.XMLElementReader;
+import org.jboss.staxmapper.XMLElementWriter;
+
+/**
+ * An XML configuration persister which appends each operation that modified the model to a
+ * journal instead of rewriting the configuration file after every change.
+ * <p>
+ * The journal is a sequence of numbered segment files holding the operations in DMR binary form.
+ * It is compacted into the configuration file in the background once a number of operations have
+ * been recorded or once no operation has been recorded for a while, and synchronously when
+ * {@link #compact()} is called. Before the configuration file is written, a marker recording the
+ * last segment it includes and the SHA-1 of its content is written, so {@link #load()} can tell
+ * which segments still have to be replayed after the operations parsed from the file.
+ * </p>
+ *
+ * @author agent
+ */
+public class JournalingXmlConfigurationPersister extends BackupXmlConfigurationPersister implements JournalingConfigurationPersister {
+
+    private static final Logger log = Logger.getLogger("org.jboss.as.controller");
+
+    /** The default number of recorded operations that triggers a compaction */
+    public static final int DEFAULT_COMPACTION_THRESHOLD = 256;
+    /** The default time in ms without a recorded operation after which the journal is compacted */
+    public static final long DEFAULT_COMPACTION_DELAY = 5000;
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String MARKER = "compacted";
+    private static final int OPERATION = 'O';
+
+    private final File journalDir;
+    private final int compactionThreshold;
+    private final long compactionDelay;
+    private final Runnable compactionTask = new Runnable() {
+        @Override
+        public void run() {
+            try {
+                compactJournal();
+            } catch (ConfigurationPersistenceException e) {
+                log.warnf(e, "Failed to compact configuration journal %s", journalDir);
+            }
+        }
+    };
+
+    /** The model last passed to a store method; writers to it hold its monitor */
+    private volatile ModelNode model;
+
+    // Guarded by this
+    private FileOutputStream segmentStream;
+    private DataOutputStream segmentOutput;
+    private int lastSegment;
+    private int pendingOperations;
+    private ScheduledFuture<?> scheduledCompaction;
+    private ScheduledExecutorService executor;
+
+    /** The last segment included in the configuration file; only written while holding compactionLock */
+    private volatile int compactedSegment;
+    private final Object compactionLock = new Object();
+
+    /**
+     * Construct a new instance using the default compaction settings.
+     *
+     * @param file the configuration base file
+     * @param rootElement the root element of the configuration file
+     * @param rootParser the root model parser
+     * @param rootDeparser the root model deparser
+     */
+    public JournalingXmlConfigurationPersister(final ConfigurationFile file, final QName rootElement, final XMLElementReader<List<ModelNode>> rootParser, final XMLElementWriter<ModelMarshallingContext> rootDeparser) {
+        this(file, rootElement, rootParser, rootDeparser, DEFAULT_COMPACTION_THRESHOLD, DEFAULT_COMPACTION_DELAY);
+    }
+
+    /**
+     * Construct a new instance.
+     *
+     * @param file the configuration base file
+     * @param rootElement the root element of the configuration file
+     * @param rootParser the root model parser
+     * @param rootDeparser the root model deparser
+     * @param compactionThreshold the number of recorded operations that triggers a compaction
+     * @param compactionDelay the time in ms without a recorded operation after which the journal is compacted
+     */
+    public JournalingXmlConfigurationPersister(final ConfigurationFile file, final QName rootElement, final XMLElementReader<List<ModelNode>> rootParser, final XMLElementWriter<ModelMarshallingContext> rootDeparser,
+            final int compactionThreshold, final long compactionDelay) {
+        super(file, rootElement, rootParser, rootDeparser);
+        final File mainFile = file.getMainFile();
+        this.journalDir = new File(mainFile.getParentFile(), mainFile.getName().replace('.', '_') + "_journal");
+        this.compactionThreshold = compactionThreshold;
+        this.compactionDelay = compactionDelay;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public List<ModelNode> load() throws ConfigurationPersistenceException {
+        final List<ModelNode> operations = super.load();
+        try {
+            recoverJournal(operations);
+        } catch (IOException e) {
+            throw new ConfigurationPersistenceException("Failed to read configuration journal " + journalDir, e);
+        }
+        return operations;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void store(final ModelNode model, final ModelNode operation) throws ConfigurationPersistenceException {
+        this.model = model;
+        synchronized (this) {
+            try {
+                if (segmentOutput == null) {
+                    openSegment();
+                }
+                segmentOutput.writeByte(OPERATION);
+                operation.writeExternal((OutputStream) segmentOutput);
+                segmentOutput.flush();
+                segmentStream.getChannel().force(false);
+            } catch (IOException e) {
+                // Start a new segment next time rather than appending after a partial record
+                closeSegment();
+                throw new ConfigurationPersistenceException("Failed to record operation in configuration journal " + journalDir, e);
+            }
+            pendingOperations++;
+            scheduleCompaction(pendingOperations >= compactionThreshold ? 0 : compactionDelay);
+        }
+    }
+
+    /**
+     * Stores the whole model immediately, as a change that is not described by an operation
+     * cannot be journaled. Any operations already journaled are included.
+     *
+     * @param model the model to persist
+     */
+    @Override
+    public void store(final ModelNode model) throws ConfigurationPersistenceException {
+        this.model = model;
+        final int segment;
+        synchronized (this) {
+            closeSegment();
+            pendingOperations = 0;
+            segment = ++lastSegment;
+        }
+        // The caller holds the model's monitor, so no copy is needed
+        writeConfiguration(model, segment);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void compact() throws ConfigurationPersistenceException {
+        synchronized (this) {
+            if (scheduledCompaction != null) {
+                scheduledCompaction.cancel(false);
+                scheduledCompaction = null;
+            }
+        }
+        compactJournal();
+    }
+
+    /**
+     * Writes all recorded operations to the configuration and stops the background compaction
+     * thread. The thread is started again if more operations are recorded.
+     */
+    @Override
+    public void close() throws ConfigurationPersistenceException {
+        final ScheduledExecutorService executor;
+        synchronized (this) {
+            if (scheduledCompaction != null) {
+                scheduledCompaction.cancel(false);
+                scheduledCompaction = null;
+            }
+            executor = this.executor;
+            this.executor = null;
+        }
+        if (executor != null) {
+            executor.shutdown();
+        }
+        compactJournal();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String snapshot() throws ConfigurationPersistenceException {
+        compact();
+        return super.snapshot();
+    }
+
+    private void compactJournal() throws ConfigurationPersistenceException {
+        final ModelNode model = this.model;
+        if (model == null) {
+            // Nothing was stored since the journal was loaded
+            return;
+        }
+        final ModelNode copy;
+        final int segment;
+        synchronized (model) {
+            synchronized (this) {
+                if (lastSegment <= compactedSegment) {
+                    return;
+                }
+                closeSegment();
+                pendingOperations = 0;
+                segment = lastSegment;
+                copy = model.clone();
+            }
+        }
+        writeConfiguration(copy, segment);
+    }
+
+    private void writeConfiguration(final ModelNode model, final int segment) throws ConfigurationPersistenceException {
+        synchronized (compactionLock) {
+            if (segment <= compactedSegment) {
+                // A later state has already been written
+                return;
+            }
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            marshallAsXml(model, bytes);
+            final byte[] xml = bytes.toByteArray();
+            try {
+                // Segments older than the current marker must be gone before the marker moves on
+                deleteSegments(compactedSegment);
+                writeMarker(segment, xml);
+                configurationFile.backup();
+                writeFile(configurationFile.getMainFile(), xml);
+                configurationFile.fileWritten();
+                compactedSegment = segment;
+                deleteSegments(segment);
+            } catch (IOException e) {
+                throw new ConfigurationPersistenceException("Failed to store configuration", e);
+            }
+        }
+    }
+
+    private void recoverJournal(final List<ModelNode> operations) throws IOException {
+        synchronized (compactionLock) {
+            final int[] segments = listSegments();
+            final File markerFile = new File(journalDir, MARKER);
+            if (!configurationFile.isMainFile()) {
+                if (segments.length > 0) {
+                    log.warnf("Discarding configuration journal %s as the configuration is not being loaded from %s", journalDir, configurationFile.getMainFile());
+                }
+                deleteSegments(Integer.MAX_VALUE);
+                markerFile.delete();
+                return;
+            }
+
+            int markedSegment = 0;
+            if (markerFile.exists()) {
+                final DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(markerFile)));
+                try {
+                    markedSegment = input.readInt();
+                    final String hash = input.readUTF();
+                    if (hash.equals(hash(readFile(configurationFile.getMainFile())))) {
+                        compactedSegment = markedSegment;
+                    }
+                } finally {
+                    safeClose(input);
+                }
+            }
+
+            int replayed = 0;
+            int last = markedSegment;
+            for (int segment : segments) {
+                last = Math.max(last, segment);
+                if (segment <= compactedSegment) {
+                    segmentFile(segment).delete();
+                } else {
+                    replayed += readSegment(segment, operations);
+                }
+            }
+            synchronized (this) {
+                lastSegment = last;
+            }
+            if (replayed > 0) {
+                log.infof("Replaying %d operations from configuration journal %s", replayed, journalDir);
+            }
+        }
+    }
+
+    private int readSegment(final int segment, final List<ModelNode> operations) throws IOException {
+        final File file = segmentFile(segment);
+        final DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+        int count = 0;
+        try {
+            int type;
+            while ((type = input.read()) == OPERATION) {
+                final ModelNode operation = new ModelNode();
+                operation.readExternal((InputStream) input);
+                operations.add(operation);
+                count++;
+            }
+            if (type != -1) {
+                log.warnf("Ignoring unknown record type %d in configuration journal segment %s", type, file);
+            }
+        } catch (IOException e) {
+            // A crash while the last operation was being recorded
+            log.warnf("Ignoring incomplete operation at the end of configuration journal segment %s", file);
+        } finally {
+            safeClose(input);
+        }
+        return count;
+    }
+
+    private void scheduleCompaction(final long delay) {
+        if (scheduledCompaction != null) {
+            scheduledCompaction.cancel(false);
+        }
+        if (executor == null) {
+            final String name = configurationFile.getMainFile().getName();
+            executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(final Runnable r) {
+                    final Thread thread = new Thread(r, "Configuration journal compaction for " + name);
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        scheduledCompaction = executor.schedule(compactionTask, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void openSegment() throws IOException {
+        if (!journalDir.exists() && !journalDir.mkdirs()) {
+            throw new IOException("Failed to create " + journalDir);
+        }
+        segmentStream = new FileOutputStream(segmentFile(++lastSegment));
+        segmentOutput = new DataOutputStream(new BufferedOutputStream(segmentStream));
+    }
+
+    private void closeSegment() {
+        safeClose(segmentOutput);
+        segmentOutput = null;
+        segmentStream = null;
+    }
+
+    private File segmentFile(final int segment) {
+        return new File(journalDir, SEGMENT_PREFIX + segment);
+    }
+
+    private int[] listSegments() {
+        final String[] names = journalDir.list(new FilenameFilter() {
+            @Override
+            public boolean accept(final File dir, final String name) {
+                return name.startsWith(SEGMENT_PREFIX);
+            }
+        });
+        if (names == null) {
+            return new int[0];
+        }
+        final int[] segments = new int[names.length];
+        for (int i = 0; i < names.length; i++) {
+            segments[i] = Integer.parseInt(names[i].substring(SEGMENT_PREFIX.length()));
+        }
+        Arrays.sort(segments);
+        return segments;
+    }
+
+    private void deleteSegments(final int last) throws IOException {
+        for (int segment : listSegments()) {
+            if (segment <= last) {
+                final File file = segmentFile(segment);
+                if (!file.delete() && file.exists()) {
+                    throw new IOException("Failed to delete configuration journal segment " + file);
+                }
+            }
+        }
+    }
+
+    private void writeMarker(final int segment, final byte[] xml) throws IOException {
+        if (!journalDir.exists() && !journalDir.mkdirs()) {
+            throw new IOException("Failed to create " + journalDir);
+        }
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream output = new DataOutputStream(bytes);
+        output.writeInt(segment);
+        output.writeUTF(hash(xml));
+        output.close();
+
+        final File marker = new File(journalDir, MARKER);
+        final File tmp = new File(journalDir, MARKER + ".tmp");
+        writeFile(tmp, bytes.toByteArray());
+        if (!tmp.renameTo(marker)) {
+            marker.delete();
+            if (!tmp.renameTo(marker)) {
+                throw new IOException("Failed to rename " + tmp + " to " + marker);
+            }
+        }
+    }
+
+    private static void writeFile(final File file, final byte[] bytes) throws IOException {
+        final FileOutputStream fos = new FileOutputStream(file);
+        try {
+            fos.write(bytes);
+            fos.getFD().sync();
+            fos.close();
+        } finally {
+            safeClose(fos);
+        }
+    }
+
+    private static byte[] readFile(final File file) throws IOException {
+        final byte[] bytes = new byte[(int) file.length()];
+        final DataInputStream input = new DataInputStream(new FileInputStream(file));
+        try {
+            input.readFully(bytes);
+        } finally {
+            safeClose(input);
+        }
+        return bytes;
+    }
+
+    private static String hash(final byte[] bytes) {
+        try {
+            return HashUtil.bytesToHexString(MessageDigest.getInstance("SHA-1").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void safeClose(final Closeable closeable) {
+        if (closeable != null) try {
+            closeable.close();
+        } catch (Throwable t) {
+            log.errorf(t, "Failed to close resource %s", closeable);
+        }
+    }
+}
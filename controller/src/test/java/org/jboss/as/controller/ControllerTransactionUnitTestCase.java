@@ -0,0 +1,81 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.jboss.as.controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link ControllerTransaction}
+ *
+ * @author agent
+ */
+public class ControllerTransactionUnitTestCase {
+
+    @Test
+    public void testResourcesAreCompleted() {
+        final List<String> completions = new ArrayList<String>();
+        final ControllerTransaction transaction = new ControllerTransaction();
+        transaction.registerResource(new RecordingResource("a", completions));
+        transaction.registerResource(new RecordingResource("b", completions));
+        transaction.setRollbackOnly();
+        transaction.commit();
+        assertEquals(2, completions.size());
+        assertEquals("a rollback", completions.get(0));
+        assertEquals("b rollback", completions.get(1));
+    }
+
+    @Test
+    public void testRegistrationAfterCompletionIsRejected() {
+        final List<String> completions = new ArrayList<String>();
+        final ControllerTransaction transaction = new ControllerTransaction();
+        transaction.commit();
+        try {
+            transaction.registerResource(new RecordingResource("late", completions));
+            fail("Registered a resource with a completed transaction");
+        } catch (IllegalStateException expected) {
+        }
+        assertEquals(0, completions.size());
+    }
+
+    private static class RecordingResource implements ControllerResource {
+        private final String name;
+        private final List<String> completions;
+
+        RecordingResource(final String name, final List<String> completions) {
+            this.name = name;
+            this.completions = completions;
+        }
+
+        @Override
+        public void commit() {
+            completions.add(name + " commit");
+        }
+
+        @Override
+        public void rollback() {
+            completions.add(name + " rollback");
+        }
+    }
+}
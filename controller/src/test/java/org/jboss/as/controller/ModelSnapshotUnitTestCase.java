@@ -0,0 +1,115 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.jboss.as.controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.util.NoSuchElementException;
+
+import org.jboss.dmr.ModelNode;
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link ModelSnapshot}
+ *
+ * @author agent
+ */
+public class ModelSnapshotUnitTestCase {
+
+    private static final PathAddress WEB = PathAddress.pathAddress(PathElement.pathElement("subsystem", "web"));
+    private static final PathAddress DATASOURCES = PathAddress.pathAddress(PathElement.pathElement("subsystem", "datasources"));
+
+    @Test
+    public void testNavigate() {
+        ModelNode model = createModel();
+        ModelSnapshot snapshot = ModelSnapshot.create(model, 0);
+
+        assertEquals(model, snapshot.getRoot());
+        assertEquals(model.get("subsystem", "web"), snapshot.navigate(WEB));
+        assertEquals("8080", snapshot.navigate(WEB.append(PathElement.pathElement("connector", "http"))).get("port").asString());
+        try {
+            snapshot.navigate(PathAddress.pathAddress(PathElement.pathElement("subsystem", "messaging")));
+            fail("Navigated to a missing resource");
+        } catch (NoSuchElementException good) {
+        }
+    }
+
+    @Test
+    public void testUpdateSharesUntouchedResources() {
+        ModelNode model = createModel();
+        ModelSnapshot snapshot = ModelSnapshot.create(model, 0);
+        ModelNode datasources = snapshot.navigate(DATASOURCES);
+
+        model.get("subsystem", "web", "connector", "http", "port").set(8081);
+        ModelSnapshot updated = snapshot.update(model, WEB, 1);
+
+        assertEquals(1, updated.getVersion());
+        assertSame(datasources, updated.navigate(DATASOURCES));
+        assertEquals(8081, updated.navigate(WEB).get("connector", "http", "port").asInt());
+        assertEquals(8080, snapshot.navigate(WEB).get("connector", "http", "port").asInt());
+        assertEquals(model, updated.getRoot());
+    }
+
+    @Test
+    public void testUpdateRemovedResource() {
+        ModelNode model = createModel();
+        ModelSnapshot snapshot = ModelSnapshot.create(model, 0);
+
+        model.get("subsystem").remove("web");
+        ModelSnapshot updated = snapshot.update(model, WEB, 1);
+
+        assertFalse(updated.getRoot().get("subsystem").has("web"));
+        assertEquals(model, updated.getRoot());
+    }
+
+    @Test
+    public void testRootUpdateCopiesOnlyChangedResources() {
+        ModelNode model = createModel();
+        ModelSnapshot snapshot = ModelSnapshot.create(model, 0);
+        ModelNode datasources = snapshot.navigate(DATASOURCES);
+        ModelNode web = snapshot.navigate(WEB);
+
+        // replace the whole model, as a composite operation does
+        ModelNode replacement = createModel();
+        replacement.get("name").set("changed");
+        replacement.get("subsystem", "web", "connector", "http", "port").set(8081);
+        replacement.get("subsystem", "messaging").setEmptyObject();
+        model.set(replacement);
+        ModelSnapshot updated = snapshot.update(model, PathAddress.EMPTY_ADDRESS, 1);
+
+        assertSame(datasources, updated.navigate(DATASOURCES));
+        assertNotSame(web, updated.navigate(WEB));
+        assertEquals(8081, updated.navigate(WEB).get("connector", "http", "port").asInt());
+        assertEquals("changed", updated.getRoot().get("name").asString());
+        assertEquals(model, updated.getRoot());
+    }
+
+    private static ModelNode createModel() {
+        ModelNode model = new ModelNode();
+        model.get("name").set("test");
+        model.get("subsystem", "web", "connector", "http", "port").set("8080");
+        model.get("subsystem", "datasources", "data-source", "ExampleDS", "enabled").set(true);
+        model.get("interface").setEmptyObject();
+        return model;
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.jboss.as.controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link StripedModelLock}
+ *
+ * @author agent
+ */
+public class StripedModelLockUnitTestCase {
+
+    private static final PathAddress WEB = PathAddress.pathAddress(PathElement.pathElement("subsystem", "web"));
+    /** A top-level resource on a higher stripe than {@link #WEB} */
+    private static final PathAddress HIGHER = otherStripe(true);
+    /** A top-level resource on a lower stripe than {@link #WEB} */
+    private static final PathAddress LOWER = otherStripe(false);
+
+    private final StripedModelLock lock = new StripedModelLock(500, TimeUnit.MILLISECONDS);
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testDisjointSubtreesDoNotBlock() throws Exception {
+        assertTrue(lock.lockInterruptibly(WEB));
+        try {
+            assertTrue(lockInOtherThread(HIGHER).get(5, TimeUnit.SECONDS));
+        } finally {
+            lock.unlock(WEB);
+        }
+        assertEquals(0, lock.getWaitCount());
+    }
+
+    @Test
+    public void testSameSubtreeBlocks() throws Exception {
+        assertTrue(lock.lockInterruptibly(WEB.append(PathElement.pathElement("connector", "http"))));
+        final Future<Boolean> other = lockInOtherThread(WEB);
+        try {
+            other.get(100, TimeUnit.MILLISECONDS);
+            throw new AssertionError("Lock was acquired for the same subtree");
+        } catch (TimeoutException good) {
+        } finally {
+            lock.unlock(WEB);
+        }
+        assertTrue(other.get(5, TimeUnit.SECONDS));
+        assertEquals(1, lock.getWaitCount());
+    }
+
+    @Test
+    public void testRootBlocksSubtrees() throws Exception {
+        assertTrue(lock.lockInterruptibly(PathAddress.EMPTY_ADDRESS));
+        final Future<Boolean> other = lockInOtherThread(LOWER);
+        try {
+            other.get(100, TimeUnit.MILLISECONDS);
+            throw new AssertionError("Lock was acquired while the root was locked");
+        } catch (TimeoutException good) {
+        } finally {
+            lock.unlock(PathAddress.EMPTY_ADDRESS);
+        }
+        assertTrue(other.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testNestedAcquisitionOfSameSubtree() throws Exception {
+        assertTrue(lock.lockInterruptibly(WEB));
+        try {
+            assertFalse(lock.lockInterruptibly(WEB.append(PathElement.pathElement("connector", "http"))));
+        } finally {
+            lock.unlock(WEB);
+        }
+        assertTrue(lockInOtherThread(WEB).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testNestedAcquisitionUnderRoot() throws Exception {
+        assertTrue(lock.lockInterruptibly(PathAddress.EMPTY_ADDRESS));
+        try {
+            assertFalse(lock.lockInterruptibly(WEB));
+            assertFalse(lock.lockInterruptibly(PathAddress.EMPTY_ADDRESS));
+        } finally {
+            lock.unlock(PathAddress.EMPTY_ADDRESS);
+        }
+        assertTrue(lockInOtherThread(WEB).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testNestedAcquisitionOfOtherParts() throws Exception {
+        assertTrue(lock.lockInterruptibly(WEB));
+        final Future<Boolean> other;
+        try {
+            assertTrue(lock.lockInterruptibly(LOWER));
+            lock.unlock(LOWER);
+            assertTrue(lock.lockInterruptibly(HIGHER));
+            lock.unlock(HIGHER);
+            assertTrue(lock.lockInterruptibly(PathAddress.EMPTY_ADDRESS));
+            lock.unlock(PathAddress.EMPTY_ADDRESS);
+            // the outer acquisition still holds the lock
+            other = lockInOtherThread(WEB);
+            try {
+                other.get(100, TimeUnit.MILLISECONDS);
+                throw new AssertionError("Lock was acquired while held by the outer acquisition");
+            } catch (TimeoutException good) {
+            }
+        } finally {
+            lock.unlock(WEB);
+        }
+        assertTrue(other.get(5, TimeUnit.SECONDS));
+        assertTrue(lockInOtherThread(PathAddress.EMPTY_ADDRESS).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testNestedAcquisitionOutOfOrderDoesNotDeadlock() throws Exception {
+        assertTrue(lock.lockInterruptibly(WEB));
+        final CountDownLatch lowerLocked = new CountDownLatch(1);
+        // another thread holds the lower stripe and waits for ours
+        final Future<Boolean> other = executor.submit(new Callable<Boolean>() {
+            @Override
+            public Boolean call() throws Exception {
+                lock.lockInterruptibly(LOWER);
+                try {
+                    lowerLocked.countDown();
+                    return lock.lockInterruptibly(WEB);
+                } finally {
+                    lock.unlock(WEB);
+                    lock.unlock(LOWER);
+                }
+            }
+        });
+        try {
+            assertTrue(lowerLocked.await(5, TimeUnit.SECONDS));
+            try {
+                lock.lockInterruptibly(LOWER);
+                fail("Lock for a lower stripe was acquired while another thread holds it");
+            } catch (IllegalStateException good) {
+            }
+        } finally {
+            lock.unlock(WEB);
+        }
+        assertTrue(other.get(5, TimeUnit.SECONDS));
+    }
+
+    private Future<Boolean> lockInOtherThread(final PathAddress address) {
+        return executor.submit(new Callable<Boolean>() {
+            @Override
+            public Boolean call() throws Exception {
+                final boolean locked = lock.lockInterruptibly(address);
+                if (locked) {
+                    lock.unlock(address);
+                }
+                return locked;
+            }
+        });
+    }
+
+    private static PathAddress otherStripe(final boolean higher) {
+        final int web = StripedModelLock.getStripe(WEB);
+        for (int i = 0; ; i++) {
+            final PathAddress address = PathAddress.pathAddress(PathElement.pathElement("subsystem", "s" + i));
+            final int stripe = StripedModelLock.getStripe(address);
+            if (higher ? stripe > web : stripe < web) {
+                return address;
+            }
+        }
+    }
+}
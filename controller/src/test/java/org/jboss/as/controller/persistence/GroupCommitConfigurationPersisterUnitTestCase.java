@@ -0,0 +1,184 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.persistence;
+
+import static org.jboss.as.controller.BaseModelControllerUnitTestCase.DESC_PROVIDER;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.BaseModelControllerUnitTestCase;
+import org.jboss.as.controller.BasicModelController;
+import org.jboss.dmr.ModelNode;
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link GroupCommitConfigurationPersister}
+ *
+ * @author agent
+ */
+public class GroupCommitConfigurationPersisterUnitTestCase {
+
+    @Test
+    public void testStoresWithinWindowAreWrittenOnce() throws Exception {
+        final RecordingPersister delegate = new RecordingPersister();
+        final GroupCommitConfigurationPersister persister = new GroupCommitConfigurationPersister(delegate, 200);
+        final ModelNode model = new ModelNode();
+        for (int i = 0; i < 10; i++) {
+            synchronized (model) {
+                model.get("value").set(i);
+                persister.store(model);
+            }
+        }
+        persister.awaitStored();
+        assertEquals(1, delegate.stored.size());
+        assertEquals(9, delegate.stored.get(0).get("value").asInt());
+    }
+
+    @Test
+    public void testFlushWritesPendingChanges() throws Exception {
+        final RecordingPersister delegate = new RecordingPersister();
+        final GroupCommitConfigurationPersister persister = new GroupCommitConfigurationPersister(delegate, 60000);
+        final ModelNode model = new ModelNode();
+        synchronized (model) {
+            model.get("value").set(1);
+            persister.store(model);
+        }
+        persister.flush();
+        assertEquals(1, delegate.stored.size());
+        // Nothing pending
+        persister.flush();
+        persister.awaitStored();
+        assertEquals(1, delegate.stored.size());
+    }
+
+    @Test
+    public void testFailureReportedToWaiters() throws Exception {
+        final RecordingPersister delegate = new RecordingPersister();
+        delegate.fail = true;
+        final GroupCommitConfigurationPersister persister = new GroupCommitConfigurationPersister(delegate, 0);
+        final ModelNode model = new ModelNode();
+        synchronized (model) {
+            model.get("value").set(1);
+            persister.store(model);
+        }
+        try {
+            persister.awaitStored();
+            fail("Expected ConfigurationPersistenceException");
+        } catch (ConfigurationPersistenceException expected) {
+        }
+    }
+
+    @Test
+    public void testConcurrentOperationsShareOneWrite() throws Exception {
+        final RecordingPersister delegate = new RecordingPersister();
+        final GroupCommitConfigurationPersister persister = new GroupCommitConfigurationPersister(delegate, 1000);
+        final TestModelController controller = new TestModelController(persister);
+        final int count = 5;
+        final CyclicBarrier barrier = new CyclicBarrier(count);
+        final ExecutorService executor = Executors.newFixedThreadPool(count);
+        try {
+            final List<Future<ModelNode>> results = new ArrayList<Future<ModelNode>>();
+            for (int i = 0; i < count; i++) {
+                final int value = i;
+                results.add(executor.submit(new Callable<ModelNode>() {
+                    @Override
+                    public ModelNode call() throws Exception {
+                        barrier.await(10, TimeUnit.SECONDS);
+                        // all the operations write the same attribute, so they all take the same lock
+                        return controller.execute(BaseModelControllerUnitTestCase.getOperation("good", "attr1", value));
+                    }
+                }));
+            }
+            for (Future<ModelNode> result : results) {
+                assertEquals(SUCCESS, result.get(10, TimeUnit.SECONDS).get(OUTCOME).asString());
+            }
+        } finally {
+            executor.shutdownNow();
+            persister.close();
+        }
+        // had an operation kept the lock while waiting for its write, the others would have missed its group
+        assertEquals(1, delegate.stored.size());
+    }
+
+    @Test
+    public void testCloseWritesPendingChanges() throws Exception {
+        final RecordingPersister delegate = new RecordingPersister();
+        final GroupCommitConfigurationPersister persister = new GroupCommitConfigurationPersister(delegate, 60000);
+        final ModelNode model = new ModelNode();
+        synchronized (model) {
+            model.get("value").set(1);
+            persister.store(model);
+        }
+        persister.close();
+        assertEquals(1, delegate.stored.size());
+        // stores after closing are written right away
+        synchronized (model) {
+            model.get("value").set(2);
+            persister.store(model);
+        }
+        persister.awaitStored();
+        assertEquals(2, delegate.stored.size());
+        assertEquals(2, delegate.stored.get(1).get("value").asInt());
+    }
+
+    private static class TestModelController extends BasicModelController {
+        TestModelController(final GroupCommitConfigurationPersister persister) {
+            super(BaseModelControllerUnitTestCase.createTestNode(), persister, DESC_PROVIDER);
+            getRegistry().registerOperationHandler("good", new BaseModelControllerUnitTestCase.GoodHandler(), DESC_PROVIDER, false);
+        }
+    }
+
+    private static class RecordingPersister extends AbstractConfigurationPersister {
+        private final List<ModelNode> stored = Collections.synchronizedList(new ArrayList<ModelNode>());
+        private volatile boolean fail;
+
+        RecordingPersister() {
+            super(null);
+        }
+
+        @Override
+        public void store(final ModelNode model) throws ConfigurationPersistenceException {
+            if (fail) {
+                throw new ConfigurationPersistenceException("failed");
+            }
+            stored.add(model);
+        }
+
+        @Override
+        public List<ModelNode> load() {
+            return Collections.emptyList();
+        }
+    }
+}
@@ -0,0 +1,261 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.controller.persistence;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.List;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamException;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.staxmapper.XMLElementReader;
+import org.jboss.staxmapper.XMLElementWriter;
+import org.jboss.staxmapper.XMLExtendedStreamReader;
+import org.jboss.staxmapper.XMLExtendedStreamWriter;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link JournalingXmlConfigurationPersister}
+ *
+ * @author agent
+ */
+public class JournalingXmlConfigurationPersisterUnitTestCase {
+
+    private static final String FILE_NAME = "journal-test.xml";
+    private static final QName ROOT = new QName("urn:test", "test");
+    private static final String THREAD_NAME = "Configuration journal compaction for " + FILE_NAME;
+
+    private File dir;
+    private File journalDir;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = File.createTempFile("journal", "test");
+        dir.delete();
+        dir.mkdirs();
+        journalDir = new File(dir, FILE_NAME.replace('.', '_') + "_journal");
+        final FileWriter writer = new FileWriter(new File(dir, FILE_NAME));
+        try {
+            writer.write("<test xmlns=\"urn:test\" value=\"0\"/>");
+        } finally {
+            writer.close();
+        }
+    }
+
+    @After
+    public void tearDown() {
+        delete(dir);
+    }
+
+    @Test
+    public void testReplayAfterCrash() throws Exception {
+        final JournalingXmlConfigurationPersister crashed = createPersister();
+        final ModelNode model = load(crashed);
+        for (int i = 1; i <= 3; i++) {
+            synchronized (model) {
+                model.get("value").set(i);
+                crashed.store(model, operation(i));
+            }
+        }
+        // A crash while the next operation was being recorded leaves a partial record
+        final FileOutputStream out = new FileOutputStream(new File(journalDir, "segment-1"), true);
+        try {
+            out.write('O');
+            out.write(new byte[] {1, 2});
+        } finally {
+            out.close();
+        }
+
+        final JournalingXmlConfigurationPersister restarted = createPersister();
+        try {
+            final List<ModelNode> operations = restarted.load();
+            assertEquals(4, operations.size());
+            for (int i = 0; i < 4; i++) {
+                assertEquals(i, operations.get(i).get("value").asInt());
+            }
+        } finally {
+            restarted.close();
+            crashed.close();
+        }
+    }
+
+    @Test
+    public void testCompaction() throws Exception {
+        final JournalingXmlConfigurationPersister persister = createPersister();
+        try {
+            final ModelNode model = load(persister);
+            for (int i = 1; i <= 3; i++) {
+                synchronized (model) {
+                    model.get("value").set(i);
+                    persister.store(model, operation(i));
+                }
+            }
+            assertEquals(1, listSegments().length);
+            persister.compact();
+            assertEquals(0, listSegments().length);
+        } finally {
+            persister.close();
+        }
+
+        final JournalingXmlConfigurationPersister restarted = createPersister();
+        try {
+            final List<ModelNode> operations = restarted.load();
+            assertEquals(1, operations.size());
+            assertEquals(3, operations.get(0).get("value").asInt());
+        } finally {
+            restarted.close();
+        }
+    }
+
+    @Test
+    public void testThresholdTriggersCompaction() throws Exception {
+        final JournalingXmlConfigurationPersister persister = createPersister(2, 60000);
+        try {
+            final ModelNode model = load(persister);
+            for (int i = 1; i <= 2; i++) {
+                synchronized (model) {
+                    model.get("value").set(i);
+                    persister.store(model, operation(i));
+                }
+            }
+            final long deadline = System.currentTimeMillis() + 10000;
+            while (listSegments().length > 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(0, listSegments().length);
+        } finally {
+            persister.close();
+        }
+    }
+
+    @Test
+    public void testCloseStopsCompactionThread() throws Exception {
+        final JournalingXmlConfigurationPersister persister = createPersister();
+        final ModelNode model = load(persister);
+        synchronized (model) {
+            model.get("value").set(1);
+            persister.store(model, operation(1));
+        }
+        assertTrue(isCompactionThreadAlive());
+        persister.close();
+        assertEquals(0, listSegments().length);
+
+        final long deadline = System.currentTimeMillis() + 10000;
+        while (isCompactionThreadAlive() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertFalse(isCompactionThreadAlive());
+    }
+
+    private JournalingXmlConfigurationPersister createPersister() {
+        return createPersister(JournalingXmlConfigurationPersister.DEFAULT_COMPACTION_THRESHOLD, 60000);
+    }
+
+    private JournalingXmlConfigurationPersister createPersister(final int threshold, final long delay) {
+        final TestXml xml = new TestXml();
+        return new JournalingXmlConfigurationPersister(new ConfigurationFile(dir, FILE_NAME, null), ROOT, xml, xml, threshold, delay);
+    }
+
+    private static ModelNode load(final JournalingXmlConfigurationPersister persister) throws ConfigurationPersistenceException {
+        final ModelNode model = new ModelNode();
+        for (ModelNode operation : persister.load()) {
+            model.get("value").set(operation.get("value"));
+        }
+        return model;
+    }
+
+    private static ModelNode operation(final int value) {
+        final ModelNode operation = new ModelNode();
+        operation.get("operation").set("write-value");
+        operation.get("value").set(value);
+        return operation;
+    }
+
+    private String[] listSegments() {
+        final String[] names = journalDir.list();
+        if (names == null) {
+            return new String[0];
+        }
+        int count = 0;
+        for (String name : names) {
+            if (name.startsWith("segment-")) {
+                names[count++] = name;
+            }
+        }
+        final String[] segments = new String[count];
+        System.arraycopy(names, 0, segments, 0, count);
+        return segments;
+    }
+
+    private static boolean isCompactionThreadAlive() {
+        final Thread[] threads = new Thread[Thread.activeCount() + 16];
+        final int count = Thread.enumerate(threads);
+        for (int i = 0; i < count; i++) {
+            if (THREAD_NAME.equals(threads[i].getName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void delete(final File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+
+    /**
+     * Parses {@code <test value="n"/>} into an operation setting the value, and writes the model back the same way.
+     */
+    private static class TestXml implements XMLElementReader<List<ModelNode>>, XMLElementWriter<ModelMarshallingContext> {
+
+        @Override
+        public void readElement(final XMLExtendedStreamReader reader, final List<ModelNode> operations) throws XMLStreamException {
+            operations.add(operation(Integer.parseInt(reader.getAttributeValue(null, "value"))));
+            reader.nextTag();
+        }
+
+        @Override
+        public void writeContent(final XMLExtendedStreamWriter writer, final ModelMarshallingContext context) throws XMLStreamException {
+            writer.writeStartDocument();
+            writer.writeStartElement(ROOT.getLocalPart());
+            writer.writeDefaultNamespace(ROOT.getNamespaceURI());
+            writer.writeAttribute("value", context.getModelNode().get("value").asString());
+            writer.writeEndElement();
+            writer.writeEndDocument();
+        }
+    }
+}
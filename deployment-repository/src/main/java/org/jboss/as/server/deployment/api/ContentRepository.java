@@ -51,6 +51,22 @@ public interface ContentRepository {
      */
     byte[] addContent(InputStream stream) throws IOException;
 
+    /**
+     * Add the given content to the repository unless the repository already has content with
+     * the expected hash, in which case the stream is not read.
+     *
+     * @param stream stream from which the content can be read. May be <code>null</code> if the
+     *               repository {@link #hasContent(byte[]) has content} with the expected hash
+     * @param expectedHash the hash the content is expected to have, or <code>null</code> if it is not known
+     * @return the hash of the content that will be used as an internal identifier
+     *         for the content. Will not be <code>null</code>, and may differ from the expected hash
+     *         if the content read from the stream does not match it
+     * @throws IOException
+     * @throws IllegalArgumentException if <code>stream</code> is <code>null</code> and the repository
+     *         has no valid content with the expected hash
+     */
+    byte[] addContent(InputStream stream, byte[] expectedHash) throws IOException;
+
     /**
      * Get the content as a virtual file.
      *
@@ -32,17 +32,19 @@ import org.jboss.msc.service.StopContext;
 import org.jboss.vfs.VFS;
 import org.jboss.vfs.VirtualFile;
 
-import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
 import java.io.Closeable;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.security.DigestOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
 
 /**
  * Default implementation of {@link org.jboss.as.server.deployment.api.ContentRepository}.
@@ -52,17 +54,51 @@ public class ContentRepositoryImpl implements ContentRepository, Service<Content
     private static final Logger log = Logger.getLogger("org.jboss.as.server.deployment");
 
     protected static final String CONTENT = "content";
+    /** The size of the buffer used to copy content into the repository */
+    private static final int BUFFER_SIZE = 64 * 1024;
+    /** The maximum number of bytes handed to the file system in one channel transfer */
+    private static final long TRANSFER_SIZE = 64 * 1024 * 1024;
+
+    /** SHA-1 digests, one per thread so concurrent additions do not serialize on one instance */
+    private static final ThreadLocal<MessageDigest> messageDigests = new ThreadLocal<MessageDigest>() {
+        @Override
+        protected MessageDigest initialValue() {
+            try {
+                return MessageDigest.getInstance("SHA-1");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("Cannot obtain SHA-1 " + MessageDigest.class.getSimpleName(), e);
+            }
+        }
+    };
+
     private final File repoRoot;
-    protected final MessageDigest messageDigest;
+    private final boolean verifyContent;
 
     // TODO: return void
     public static ContentRepositoryImpl addService(final ServiceTarget serviceTarget, final File repoRoot) {
-        ContentRepositoryImpl contentRepository = new ContentRepositoryImpl(repoRoot);
+        return addService(serviceTarget, repoRoot, false);
+    }
+
+    /**
+     * Install the content repository service.
+     *
+     * @param serviceTarget the service target
+     * @param repoRoot the root directory of the repository
+     * @param verifyContent {@code true} if content already in the repository should be re-hashed
+     *                      when the same content is added again
+     * @return the content repository
+     */
+    public static ContentRepositoryImpl addService(final ServiceTarget serviceTarget, final File repoRoot, final boolean verifyContent) {
+        ContentRepositoryImpl contentRepository = new ContentRepositoryImpl(repoRoot, verifyContent);
         serviceTarget.addService(ContentRepository.SERVICE_NAME, contentRepository).install();
         return contentRepository;
     }
 
     protected ContentRepositoryImpl(final File repoRoot) {
+        this(repoRoot, false);
+    }
+
+    protected ContentRepositoryImpl(final File repoRoot, final boolean verifyContent) {
         if (repoRoot == null)
             throw new IllegalArgumentException("repoRoot is null");
         if (repoRoot.exists()) {
@@ -77,37 +113,50 @@ public class ContentRepositoryImpl implements ContentRepository, Service<Content
             throw new IllegalStateException("Failed to create a directory at " + repoRoot.getAbsolutePath());
         }
         this.repoRoot = repoRoot;
-
-        try {
-            this.messageDigest = MessageDigest.getInstance("SHA-1");
-        } catch (NoSuchAlgorithmException e) {
-            throw new IllegalStateException("Cannot obtain SHA-1 " + MessageDigest.class.getSimpleName(), e);
-        }
+        this.verifyContent = verifyContent;
     }
 
     @Override
     public byte[] addContent(InputStream stream) throws IOException {
-        byte[] sha1Bytes = null;
+        final byte[] sha1Bytes;
         File tmp = File.createTempFile(CONTENT, "tmp", repoRoot);
         FileOutputStream fos = new FileOutputStream(tmp);
-        synchronized (messageDigest) {
-            messageDigest.reset();
-            try {
-                DigestOutputStream dos = new DigestOutputStream(fos, messageDigest);
-                BufferedInputStream bis = new BufferedInputStream(stream);
-                byte[] bytes = new byte[8192];
-                int read;
-                while ((read = bis.read(bytes)) > -1) {
-                    dos.write(bytes, 0, read);
+        try {
+            final FileChannel out = fos.getChannel();
+            final ReadableByteChannel in = Channels.newChannel(stream);
+            if (in instanceof FileChannel) {
+                // Let the file system copy local content and hash the copy afterwards
+                final FileChannel source = (FileChannel) in;
+                long position = 0;
+                long transferred;
+                while ((transferred = out.transferFrom(source, position, TRANSFER_SIZE)) > 0) {
+                    position += transferred;
                 }
+                sha1Bytes = null;
+            } else {
+                final MessageDigest messageDigest = messageDigests.get();
+                messageDigest.reset();
+                final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+                while (in.read(buffer) > -1) {
+                    buffer.flip();
+                    messageDigest.update(buffer.array(), 0, buffer.limit());
+                    while (buffer.hasRemaining()) {
+                        out.write(buffer);
+                    }
+                    buffer.clear();
+                }
+                sha1Bytes = messageDigest.digest();
             }
-            finally {
-                safeClose(fos);
-            }
-            sha1Bytes = messageDigest.digest();
         }
+        finally {
+            safeClose(fos);
+        }
+        return storeTempContent(tmp, sha1Bytes == null ? hashContent(tmp) : sha1Bytes);
+    }
+
+    private byte[] storeTempContent(final File tmp, final byte[] sha1Bytes) throws IOException {
         final File realFile = getDeploymentContentFile(sha1Bytes, true);
-        if(hasContent(sha1Bytes)) {
+        if(hasContent(sha1Bytes) && (!verifyContent || verifyContent(realFile, sha1Bytes))) {
             // we've already got this content
             if (!tmp.delete()) {
                 tmp.deleteOnExit();
@@ -121,6 +170,66 @@ public class ContentRepositoryImpl implements ContentRepository, Service<Content
         return sha1Bytes;
     }
 
+    @Override
+    public byte[] addContent(InputStream stream, byte[] expectedHash) throws IOException {
+        if (expectedHash != null && hasContent(expectedHash)
+                && (!verifyContent || verifyContent(getDeploymentContentFile(expectedHash), expectedHash))) {
+            log.debugf("Content with hash %s was already present in repository", HashUtil.bytesToHexString(expectedHash));
+            return expectedHash;
+        }
+        if (stream == null)
+            throw new IllegalArgumentException("stream is null");
+        final byte[] sha1Bytes = addContent(stream);
+        if (expectedHash != null && !Arrays.equals(expectedHash, sha1Bytes)) {
+            log.warnf("Content added with hash %s was expected to have hash %s", HashUtil.bytesToHexString(sha1Bytes), HashUtil.bytesToHexString(expectedHash));
+        }
+        return sha1Bytes;
+    }
+
+    /**
+     * Re-hash the stored content with the given hash and check it still matches the hash.
+     *
+     * @param hash the hash. Cannot be {@code null}
+     * @return {@code true} if the content is present and matches the hash
+     * @throws IOException if the content cannot be read
+     */
+    public boolean verifyContent(byte[] hash) throws IOException {
+        if (hash == null)
+            throw new IllegalArgumentException("hash is null");
+        final File file = getDeploymentContentFile(hash);
+        return file.exists() && verifyContent(file, hash);
+    }
+
+    private boolean verifyContent(final File file, final byte[] hash) throws IOException {
+        final boolean valid = Arrays.equals(hash, hashContent(file));
+        if (!valid) {
+            log.warnf("Content at location %s does not match its hash", file.getAbsolutePath());
+        }
+        return valid;
+    }
+
+    /**
+     * Compute the SHA-1 of a file by reading it through a buffer. The file is deliberately not memory mapped,
+     * as a mapping stays open until it is garbage collected and would keep the file locked on Windows.
+     */
+    private static byte[] hashContent(final File file) throws IOException {
+        final MessageDigest messageDigest = messageDigests.get();
+        messageDigest.reset();
+        final FileInputStream fis = new FileInputStream(file);
+        try {
+            final FileChannel channel = fis.getChannel();
+            final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            while (channel.read(buffer) > -1) {
+                buffer.flip();
+                messageDigest.update(buffer.array(), 0, buffer.limit());
+                buffer.clear();
+            }
+        } finally {
+            safeClose(fis);
+        }
+        return messageDigest.digest();
+    }
+
     @Override
     public VirtualFile getContent(byte[] hash) {
         if (hash == null)
@@ -133,6 +242,19 @@ public class ContentRepositoryImpl implements ContentRepository, Service<Content
         return getDeploymentContentFile(hash).exists();
     }
 
+    /**
+     * Gets the file in which a repository rooted at the given directory keeps the content with the given hash,
+     * whether or not the repository has that content.
+     *
+     * @param repoRoot the root directory of the repository
+     * @param hash the hash. Cannot be {@code null}
+     * @return the content file
+     */
+    public static File getContentFile(final File repoRoot, final byte[] hash) {
+        final String sha1 = HashUtil.bytesToHexString(hash);
+        return new File(new File(new File(repoRoot, sha1.substring(0, 2)), sha1.substring(2)), CONTENT);
+    }
+
     protected File getRepoRoot() {
         return repoRoot;
     }
@@ -177,20 +299,18 @@ public class ContentRepositoryImpl implements ContentRepository, Service<Content
 
         if (!tmpFile.renameTo(permanentFile)) {
             FileOutputStream fos = null;
-            BufferedOutputStream bos = null;
             FileInputStream fis = null;
             try {
                 fos = new FileOutputStream(permanentFile);
-                bos = new BufferedOutputStream(fos);
                 fis = new FileInputStream(tmpFile);
-                BufferedInputStream bis = new BufferedInputStream(fis);
-                byte[] bytes = new byte[8192];
-                int read;
-                while ((read = bis.read(bytes)) > -1) {
-                    bos.write(bytes, 0, read);
+                final FileChannel in = fis.getChannel();
+                final FileChannel out = fos.getChannel();
+                final long size = in.size();
+                long position = 0;
+                while (position < size) {
+                    position += in.transferTo(position, size - position, out);
                 }
             } finally {
-                safeClose(bos);
                 safeClose(fos);
                 safeClose(fis);
                 if (!tmpFile.delete()) {
@@ -40,6 +40,8 @@ enum Attribute {
     AUTO_DEPLOY_ZIPPED(CommonAttributes.AUTO_DEPLOY_ZIPPED),
     AUTO_DEPLOY_EXPLODED(CommonAttributes.AUTO_DEPLOY_EXPLODED),
     DEPLOYMENT_TIMEOUT(CommonAttributes.DEPLOYMENT_TIMEOUT),
+    INCREMENTAL_SCAN(CommonAttributes.INCREMENTAL_SCAN),
+    PARALLEL_DEPLOYMENT(CommonAttributes.PARALLEL_DEPLOYMENT),
     ;
 
     private final String name;
@@ -31,7 +31,9 @@ interface CommonAttributes {
     String AUTO_DEPLOY_EXPLODED = "auto-deploy-exploded";
     String DEPLOYMENT_SCANNER = "deployment-scanner";
     String DEPLOYMENT_TIMEOUT = "deployment-timeout";
+    String INCREMENTAL_SCAN = "incremental-scan";
     String NAME = "name";
+    String PARALLEL_DEPLOYMENT = "parallel-deployment";
     String PATH = "path";
     String RELATIVE_TO = "relative-to";
     String SCANNER = "scanner";
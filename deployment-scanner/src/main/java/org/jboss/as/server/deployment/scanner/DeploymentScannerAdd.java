@@ -84,6 +84,12 @@ class DeploymentScannerAdd implements ModelAddOperationHandler, DescriptionProvi
         final Long deploymentTimeout =  operation.hasDefined(CommonAttributes.DEPLOYMENT_TIMEOUT)
                     ? operation.get(CommonAttributes.DEPLOYMENT_TIMEOUT).asLong()
                     : 60L;
+        final Boolean incrementalScan = operation.hasDefined(CommonAttributes.INCREMENTAL_SCAN)
+                    ? operation.get(CommonAttributes.INCREMENTAL_SCAN).asBoolean()
+                    : false;
+        final Boolean parallelDeployment = operation.hasDefined(CommonAttributes.PARALLEL_DEPLOYMENT)
+                    ? operation.get(CommonAttributes.PARALLEL_DEPLOYMENT).asBoolean()
+                    : false;
 
         final ModelNode compensatingOperation = Util.getResourceRemoveOperation(opAddr);
 
@@ -96,6 +102,8 @@ class DeploymentScannerAdd implements ModelAddOperationHandler, DescriptionProvi
         if (autoDeployExp != null) subModel.get(CommonAttributes.AUTO_DEPLOY_EXPLODED).set(autoDeployExp);
         if(relativeTo != null) subModel.get(CommonAttributes.RELATIVE_TO).set(relativeTo);
         if (deploymentTimeout != null) subModel.get(CommonAttributes.DEPLOYMENT_TIMEOUT).set(deploymentTimeout);
+        if (incrementalScan != null) subModel.get(CommonAttributes.INCREMENTAL_SCAN).set(incrementalScan);
+        if (parallelDeployment != null) subModel.get(CommonAttributes.PARALLEL_DEPLOYMENT).set(parallelDeployment);
 
         if (context.getRuntimeContext() != null) {
             context.getRuntimeContext().setRuntimeTask(new RuntimeTask() {
@@ -103,7 +111,8 @@ class DeploymentScannerAdd implements ModelAddOperationHandler, DescriptionProvi
                 public void execute(RuntimeTaskContext context) throws OperationFailedException {
                     final ServiceTarget serviceTarget = context.getServiceTarget();
                     DeploymentScannerService.addService(serviceTarget, name, relativeTo, path, interval, TimeUnit.MILLISECONDS,
-                                                        autoDeployZip, autoDeployExp, enabled, deploymentTimeout);
+                                                        autoDeployZip, autoDeployExp, enabled, deploymentTimeout, incrementalScan,
+                                                        parallelDeployment);
                     resultHandler.handleResultComplete();
                 }
             });
@@ -106,6 +106,8 @@ public class DeploymentScannerExtension implements Extension {
         scanners.registerReadWriteAttribute(Attribute.AUTO_DEPLOY_ZIPPED.getLocalName(), null, WriteAutoDeployZipAttributeHandler.INSTANCE, Storage.CONFIGURATION);
         scanners.registerReadWriteAttribute(Attribute.AUTO_DEPLOY_EXPLODED.getLocalName(), null, WriteAutoDeployExplodedAttributeHandler.INSTANCE, Storage.CONFIGURATION);
         scanners.registerReadWriteAttribute(Attribute.DEPLOYMENT_TIMEOUT.getLocalName(), null, WriteDeploymentTimeoutAttributeHandler.INSTANCE, Storage.CONFIGURATION);
+        scanners.registerReadWriteAttribute(Attribute.INCREMENTAL_SCAN.getLocalName(), null, WriteIncrementalScanAttributeHandler.INSTANCE, Storage.CONFIGURATION);
+        scanners.registerReadWriteAttribute(Attribute.PARALLEL_DEPLOYMENT.getLocalName(), null, WriteParallelDeploymentAttributeHandler.INSTANCE, Storage.CONFIGURATION);
     }
 
     /** {@inheritDoc} */
@@ -158,6 +160,16 @@ public class DeploymentScannerExtension implements Extension {
                     if (configuration.hasDefined(CommonAttributes.DEPLOYMENT_TIMEOUT)) {
                         writer.writeAttribute(Attribute.DEPLOYMENT_TIMEOUT.getLocalName(), configuration.get(CommonAttributes.DEPLOYMENT_TIMEOUT).asString());
                     }
+                    if (configuration.hasDefined(CommonAttributes.INCREMENTAL_SCAN)) {
+                        if (configuration.get(CommonAttributes.INCREMENTAL_SCAN).asBoolean()) {
+                            writer.writeAttribute(Attribute.INCREMENTAL_SCAN.getLocalName(), Boolean.TRUE.toString());
+                        }
+                    }
+                    if (configuration.hasDefined(CommonAttributes.PARALLEL_DEPLOYMENT)) {
+                        if (configuration.get(CommonAttributes.PARALLEL_DEPLOYMENT).asBoolean()) {
+                            writer.writeAttribute(Attribute.PARALLEL_DEPLOYMENT.getLocalName(), Boolean.TRUE.toString());
+                        }
+                    }
                 }
                 writer.writeEndElement();
             }
@@ -208,6 +220,8 @@ public class DeploymentScannerExtension implements Extension {
             Boolean autoDeployZipped = null;
             Boolean autoDeployExploded = null;
             Long deploymentTimeout = null;
+            Boolean incrementalScan = null;
+            Boolean parallelDeployment = null;
             final int attrCount = reader.getAttributeCount();
             for (int i = 0; i < attrCount; i++) {
                 requireNoNamespaceAttribute(reader, i);
@@ -246,6 +260,14 @@ public class DeploymentScannerExtension implements Extension {
                         deploymentTimeout = Long.parseLong(value);
                         break;
                     }
+                    case INCREMENTAL_SCAN: {
+                        incrementalScan = Boolean.parseBoolean(value);
+                        break;
+                    }
+                    case PARALLEL_DEPLOYMENT: {
+                        parallelDeployment = Boolean.parseBoolean(value);
+                        break;
+                    }
                     default:
                         throw ParseUtils.unexpectedAttribute(reader, i);
                 }
@@ -268,6 +290,8 @@ public class DeploymentScannerExtension implements Extension {
             if (enabled != null) operation.get(CommonAttributes.SCAN_ENABLED).set(enabled.booleanValue());
             if(relativeTo != null) operation.get(CommonAttributes.RELATIVE_TO).set(relativeTo);
             if(deploymentTimeout != null) operation.get(CommonAttributes.DEPLOYMENT_TIMEOUT).set(deploymentTimeout);
+            if (incrementalScan != null) operation.get(CommonAttributes.INCREMENTAL_SCAN).set(incrementalScan.booleanValue());
+            if (parallelDeployment != null) operation.get(CommonAttributes.PARALLEL_DEPLOYMENT).set(parallelDeployment.booleanValue());
             list.add(operation);
         }
 
@@ -61,6 +61,8 @@ public class DeploymentScannerService implements Service<DeploymentScanner> {
     private boolean autoDeployZipped;
     private boolean autoDeployExploded;
     private Long deploymentTimeout;
+    private boolean incrementalScan;
+    private boolean parallelDeployment;
     private final String relativeTo;
 
     /** The created scanner. */
@@ -88,11 +90,15 @@ public class DeploymentScannerService implements Service<DeploymentScanner> {
      * @param scanInterval the scan interval
      * @param scanEnabled scan enabled
      * @param deploymentTimeout the deployment timeout
+     * @param incrementalScan whether scans are incremental
+     * @param parallelDeployment whether the deployments found by a scan are executed in parallel
      * @return
      */
     public static void addService(final ServiceTarget serviceTarget, final String name, final String relativeTo, final String path,
-            final Integer scanInterval, TimeUnit unit, final Boolean autoDeployZip, final Boolean autoDeployExploded, final Boolean scanEnabled, final Long deploymentTimeout) {
-        final DeploymentScannerService service = new DeploymentScannerService(relativeTo, scanInterval, unit, autoDeployZip, autoDeployExploded, scanEnabled, deploymentTimeout);
+            final Integer scanInterval, TimeUnit unit, final Boolean autoDeployZip, final Boolean autoDeployExploded, final Boolean scanEnabled, final Long deploymentTimeout,
+            final Boolean incrementalScan, final Boolean parallelDeployment) {
+        final DeploymentScannerService service = new DeploymentScannerService(relativeTo, scanInterval, unit, autoDeployZip, autoDeployExploded, scanEnabled, deploymentTimeout,
+                incrementalScan, parallelDeployment);
         final ServiceName serviceName = getServiceName(name);
         final ServiceName pathService = serviceName.append("path");
         final ServiceName relativePathService = relativeTo != null ? RelativePathService.pathNameOf(relativeTo) : null;
@@ -103,7 +109,10 @@ public class DeploymentScannerService implements Service<DeploymentScanner> {
             AbsolutePathService.addService(pathService, path, serviceTarget);
         }
         final ThreadFactory threadFactory = new JBossThreadFactory(new ThreadGroup("DeploymentScanner-threads"), Boolean.FALSE, null, "%G - %t", null, null, AccessController.getContext());
-        final ScheduledExecutorService scheduledExecutorService = Executors.newScheduledThreadPool(2, threadFactory);
+        // One thread runs the scan; parallel deployment uses the others for the deployment operations, which mostly
+        // wait for their services to start
+        final int poolSize = Math.max(2, Runtime.getRuntime().availableProcessors() + 1);
+        final ScheduledExecutorService scheduledExecutorService = Executors.newScheduledThreadPool(poolSize, threadFactory);
 
         ServiceBuilder builder = serviceTarget.addService(serviceName, service)
             .addDependency(pathService, String.class, service.pathValue)
@@ -119,7 +128,8 @@ public class DeploymentScannerService implements Service<DeploymentScanner> {
     }
 
     DeploymentScannerService(final String relativeTo, final Integer interval, final TimeUnit unit, final Boolean autoDeployZipped,
-            final Boolean autoDeployExploded, final Boolean enabled, final Long deploymentTimeout) {
+            final Boolean autoDeployExploded, final Boolean enabled, final Long deploymentTimeout, final Boolean incrementalScan,
+            final Boolean parallelDeployment) {
         this.relativeTo = relativeTo;
         this.interval = interval == null ? DEFAULT_INTERVAL : interval.longValue();
         this.unit = unit;
@@ -127,6 +137,8 @@ public class DeploymentScannerService implements Service<DeploymentScanner> {
         this.autoDeployExploded = autoDeployExploded == null ? false : autoDeployExploded.booleanValue();
         this.enabled = enabled == null ? true : enabled.booleanValue();
         this.deploymentTimeout = deploymentTimeout;
+        this.incrementalScan = incrementalScan == null ? false : incrementalScan.booleanValue();
+        this.parallelDeployment = parallelDeployment == null ? false : parallelDeployment.booleanValue();
     }
 
 
@@ -141,6 +153,8 @@ public class DeploymentScannerService implements Service<DeploymentScanner> {
             scanner.setScanInterval(unit.toMillis(interval));
             scanner.setAutoDeployExplodedContent(autoDeployExploded);
             scanner.setAutoDeployZippedContent(autoDeployZipped);
+            scanner.setIncrementalScan(incrementalScan);
+            scanner.setParallelDeployment(parallelDeployment);
             if(deploymentTimeout != null) {
                 scanner.setDeploymentTimeout(deploymentTimeout);
             }
@@ -136,6 +136,14 @@ public class DeploymentSubsystemDescriptions {
         root.get(ATTRIBUTES, DEPLOYMENT_TIMEOUT, DESCRIPTION).set(bundle.getString("scanner.deployment.timeout"));
         root.get(ATTRIBUTES, DEPLOYMENT_TIMEOUT, REQUIRED).set(false);
         root.get(ATTRIBUTES, DEPLOYMENT_TIMEOUT, DEFAULT).set(60L);
+        root.get(ATTRIBUTES, INCREMENTAL_SCAN, TYPE).set(ModelType.BOOLEAN);
+        root.get(ATTRIBUTES, INCREMENTAL_SCAN, DESCRIPTION).set(bundle.getString("scanner.incremental.scan"));
+        root.get(ATTRIBUTES, INCREMENTAL_SCAN, REQUIRED).set(false);
+        root.get(ATTRIBUTES, INCREMENTAL_SCAN, DEFAULT).set(false);
+        root.get(ATTRIBUTES, PARALLEL_DEPLOYMENT, TYPE).set(ModelType.BOOLEAN);
+        root.get(ATTRIBUTES, PARALLEL_DEPLOYMENT, DESCRIPTION).set(bundle.getString("scanner.parallel.deployment"));
+        root.get(ATTRIBUTES, PARALLEL_DEPLOYMENT, REQUIRED).set(false);
+        root.get(ATTRIBUTES, PARALLEL_DEPLOYMENT, DEFAULT).set(false);
 
         root.get(OPERATIONS);
 
@@ -177,6 +185,14 @@ public class DeploymentSubsystemDescriptions {
         operation.get(REQUEST_PROPERTIES, DEPLOYMENT_TIMEOUT, DESCRIPTION).set(bundle.getString("scanner.deployment.timeout"));
         operation.get(REQUEST_PROPERTIES, DEPLOYMENT_TIMEOUT, REQUIRED).set(false);
         operation.get(REQUEST_PROPERTIES, DEPLOYMENT_TIMEOUT, DEFAULT).set(60L);
+        operation.get(REQUEST_PROPERTIES, INCREMENTAL_SCAN, TYPE).set(ModelType.BOOLEAN);
+        operation.get(REQUEST_PROPERTIES, INCREMENTAL_SCAN, DESCRIPTION).set(bundle.getString("scanner.incremental.scan"));
+        operation.get(REQUEST_PROPERTIES, INCREMENTAL_SCAN, REQUIRED).set(false);
+        operation.get(REQUEST_PROPERTIES, INCREMENTAL_SCAN, DEFAULT).set(false);
+        operation.get(REQUEST_PROPERTIES, PARALLEL_DEPLOYMENT, TYPE).set(ModelType.BOOLEAN);
+        operation.get(REQUEST_PROPERTIES, PARALLEL_DEPLOYMENT, DESCRIPTION).set(bundle.getString("scanner.parallel.deployment"));
+        operation.get(REQUEST_PROPERTIES, PARALLEL_DEPLOYMENT, REQUIRED).set(false);
+        operation.get(REQUEST_PROPERTIES, PARALLEL_DEPLOYMENT, DEFAULT).set(false);
 
         operation.get(REPLY_PROPERTIES).setEmptyObject();
 
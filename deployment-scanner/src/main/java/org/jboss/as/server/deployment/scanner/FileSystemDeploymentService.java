@@ -52,9 +52,12 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
@@ -69,6 +72,7 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CHI
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.COMPOSITE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CONTENT;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DEPLOYMENT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ENABLED;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILED;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
@@ -106,6 +110,12 @@ class FileSystemDeploymentService implements DeploymentScanner {
     /** Default timeout for deployments to execute in seconds*/
     static final long DEFAULT_DEPLOYMENT_TIMEOUT = 60;
 
+    /** Period at which an incremental scan walks the full content of exploded auto-deploy deployments */
+    static final long FULL_SCAN_INTERVAL = 60000;
+
+    /** Period auto-deploy content found changed by an incremental scan must stay unchanged before it is deployed */
+    static final long SETTLE_TIME = 1000;
+
     private File deploymentDir;
     private long scanInterval = 0;
     private volatile boolean scanEnabled = false;
@@ -118,6 +128,10 @@ class FileSystemDeploymentService implements DeploymentScanner {
     private final HashSet<String> noticeLogged = new HashSet<String>();
     private final HashSet<File> nonscannableLogged = new HashSet<File>();
     private final Map<File, IncompleteDeploymentStatus> incompleteDeployments = new HashMap<File, IncompleteDeploymentStatus>();
+    /** Last state of the auto-deploy content seen by incremental scans; guarded by scanLock */
+    private final Map<File, ContentState> contentStates = new HashMap<File, ContentState>();
+    /** Time of the last scan walking the full content of exploded deployments; guarded by scanLock */
+    private long lastFullScan;
 
     private final ScheduledExecutorService scheduledExecutor;
     private final ServerController serverController;
@@ -128,6 +142,8 @@ class FileSystemDeploymentService implements DeploymentScanner {
     private volatile boolean autoDeployZip;
     private volatile boolean autoDeployExploded;
     private volatile long maxNoProgress = MAX_NO_PROGRESS;
+    private volatile boolean incrementalScan;
+    private volatile boolean parallelDeployment;
 
     private volatile long deploymentTimeout = DEFAULT_DEPLOYMENT_TIMEOUT;
 
@@ -218,6 +234,26 @@ class FileSystemDeploymentService implements DeploymentScanner {
     }
 
 
+    @Override
+    public boolean isIncrementalScan() {
+        return incrementalScan;
+    }
+
+    @Override
+    public void setIncrementalScan(boolean incrementalScan) {
+        this.incrementalScan = incrementalScan;
+    }
+
+    @Override
+    public boolean isParallelDeployment() {
+        return parallelDeployment;
+    }
+
+    @Override
+    public void setParallelDeployment(boolean parallelDeployment) {
+        this.parallelDeployment = parallelDeployment;
+    }
+
     @Override
     public boolean isEnabled() {
         return scanEnabled;
@@ -303,13 +339,24 @@ class FileSystemDeploymentService implements DeploymentScanner {
         }
 
         boolean scheduleRescan = false;
+        boolean scheduleSettledRescan = false;
         try {
             if (scanEnabled) { // confirm the scan is still wanted
                 log.tracef("Scanning directory %s for deployment content changes", deploymentDir.getAbsolutePath());
 
                 ScanContext scanContext = new ScanContext();
+                final long now = System.currentTimeMillis();
+                if (!incrementalScan || now - lastFullScan >= FULL_SCAN_INTERVAL) {
+                    scanContext.fullScan = true;
+                    lastFullScan = now;
+                }
                 scanDirectory(deploymentDir, scanContext);
 
+                // Forget content no longer present, or all of it if incremental scanning was turned off
+                contentStates.keySet().retainAll(scanContext.seenContent);
+                // Check again soon for content waiting to settle, rather than at the next scan
+                scheduleSettledRescan = scanContext.unsettled && (scanInterval < 1 || scanInterval > SETTLE_TIME);
+
                 // WARN about markers with no associated content. Do this first in case any auto-deploy issue
                 // is due to a file that wasn't meant to be auto-deployed, but has a misspelled marker
                 ignoredMissingDeployments.retainAll(scanContext.ignoredMissingDeployments);
@@ -351,65 +398,66 @@ class FileSystemDeploymentService implements DeploymentScanner {
                 // Process the tasks
                 if (scannerTasks.size() > 0) {
                     List<ModelNode> updates = new ArrayList<ModelNode>(scannerTasks.size());
+                    final boolean parallel = parallelDeployment && scannerTasks.size() > 1;
 
                     for (ScannerTask task : scannerTasks) {
                         task.recordInProgress(); // puts down .isdeploying, .isundeploying
-                        final ModelNode update = task.getUpdate();
+                        final ModelNode update = parallel ? task.getIndependentUpdate() : task.getUpdate();
                         if (log.isDebugEnabled()) {
                             log.debugf("Deployment scan of [%s] found update action [%s]", deploymentDir, update);
                         }
                         updates.add(update);
                     }
 
-                    while (!updates.isEmpty()) {
-                        ModelNode composite = getCompositeUpdate(updates);
-
-                        final DeploymentTask deploymentTask = new DeploymentTask(OperationBuilder.Factory.create(composite).build());
-                        final Future<ModelNode> futureResults = scheduledExecutor.submit(deploymentTask);
-                        final ModelNode results;
-                        try {
-                            results = futureResults.get(deploymentTimeout, TimeUnit.SECONDS);
-                        } catch (TimeoutException e) {
-                            futureResults.cancel(true);
-                            final ModelNode failure = new ModelNode();
-                            failure.get(OUTCOME).set(FAILED);
-                            failure.get(FAILURE_DESCRIPTION).set("Did not receive a response to the deployment operation within " +
-                                    "the allowed timeout period [" + deploymentTimeout + " seconds]. Check the server configuration" +
-                                    "file and the server logs to find more about the status of the deployment.");
-                            for (ScannerTask task : scannerTasks) {
-                                task.handleFailureResult(failure);
-                            }
-                            break;
-                        } catch (Exception e) {
-                            log.error("File system deployment service failed", e);
-                            futureResults.cancel(true);
-                            final ModelNode failure = new ModelNode();
-                            failure.get(OUTCOME).set(FAILED);
-                            failure.get(FAILURE_DESCRIPTION).set(e.getMessage());
-                            for (ScannerTask task : scannerTasks) {
-                                task.handleFailureResult(failure);
+                    if (parallel) {
+                        executeInParallel(scannerTasks, updates);
+                    } else {
+                        while (!updates.isEmpty()) {
+                            ModelNode composite = getCompositeUpdate(updates);
+
+                            final DeploymentTask deploymentTask = new DeploymentTask(OperationBuilder.Factory.create(composite).build());
+                            final Future<ModelNode> futureResults = scheduledExecutor.submit(deploymentTask);
+                            final ModelNode results;
+                            try {
+                                results = futureResults.get(deploymentTimeout, TimeUnit.SECONDS);
+                            } catch (TimeoutException e) {
+                                futureResults.cancel(true);
+                                final ModelNode failure = createTimeoutFailure();
+                                for (ScannerTask task : scannerTasks) {
+                                    task.handleFailureResult(failure);
+                                }
+                                break;
+                            } catch (Exception e) {
+                                log.error("File system deployment service failed", e);
+                                futureResults.cancel(true);
+                                final ModelNode failure = new ModelNode();
+                                failure.get(OUTCOME).set(FAILED);
+                                failure.get(FAILURE_DESCRIPTION).set(e.getMessage());
+                                for (ScannerTask task : scannerTasks) {
+                                    task.handleFailureResult(failure);
+                                }
+                                break;
                             }
-                            break;
-                        }
 
-                        final List<Property> resultList = results.get(RESULT).asPropertyList();
-                        final List<ModelNode> toRetry = new ArrayList<ModelNode>();
-                        final List<ScannerTask> retryTasks = new ArrayList<ScannerTask>();
-                        for (int i = 0; i < resultList.size(); i++) {
-                            final ModelNode result = resultList.get(i).getValue();
-                            final ScannerTask task = scannerTasks.get(i);
-                            final ModelNode outcome = result.get(OUTCOME);
-                            if (outcome.isDefined() && SUCCESS.equals(outcome.asString())) {
-                                task.handleSuccessResult();
-                            } else if (outcome.isDefined() && CANCELLED.equals(outcome.asString())) {
-                                toRetry.add(updates.get(i));
-                                retryTasks.add(task);
-                            } else {
-                                task.handleFailureResult(result);
+                            final List<Property> resultList = results.get(RESULT).asPropertyList();
+                            final List<ModelNode> toRetry = new ArrayList<ModelNode>();
+                            final List<ScannerTask> retryTasks = new ArrayList<ScannerTask>();
+                            for (int i = 0; i < resultList.size(); i++) {
+                                final ModelNode result = resultList.get(i).getValue();
+                                final ScannerTask task = scannerTasks.get(i);
+                                final ModelNode outcome = result.get(OUTCOME);
+                                if (outcome.isDefined() && SUCCESS.equals(outcome.asString())) {
+                                    task.handleSuccessResult();
+                                } else if (outcome.isDefined() && CANCELLED.equals(outcome.asString())) {
+                                    toRetry.add(updates.get(i));
+                                    retryTasks.add(task);
+                                } else {
+                                    task.handleFailureResult(result);
+                                }
                             }
+                            updates = toRetry;
+                            scannerTasks = retryTasks;
                         }
-                        updates = toRetry;
-                        scannerTasks = retryTasks;
                     }
                 }
                 log.tracef("Scan complete");
@@ -423,10 +471,119 @@ class FileSystemDeploymentService implements DeploymentScanner {
                         rescanIncompleteTask = scheduledExecutor.schedule(scanRunnable, 200, TimeUnit.MILLISECONDS);
                     }
                 }
+            } else if (scheduleSettledRescan) {
+                synchronized (this) {
+                    if (scanEnabled) {
+                        rescanIncompleteTask = scheduledExecutor.schedule(scanRunnable, SETTLE_TIME, TimeUnit.MILLISECONDS);
+                    }
+                }
             }
         }
     }
 
+    /**
+     * Execute the updates of the tasks as separate operations running at the same time, handling the result of
+     * each one as soon as it completes. The deployment timeout of an operation starts when the operation starts
+     * running, so that operations queued behind others on the executor are not failed before they get to run. An
+     * operation still queued is only failed once it has waited long enough for every operation ahead of it to run
+     * until its timeout. Operations which time out are cancelled and their tasks are failed.
+     *
+     * @param scannerTasks the tasks
+     * @param updates the independent update of each task
+     */
+    private void executeInParallel(final List<ScannerTask> scannerTasks, final List<ModelNode> updates) {
+        final int count = scannerTasks.size();
+        final long timeout = TimeUnit.SECONDS.toMillis(deploymentTimeout);
+        final BlockingQueue<ParallelDeploymentTask> events = new LinkedBlockingQueue<ParallelDeploymentTask>();
+        final List<ParallelDeploymentTask> deploymentTasks = new ArrayList<ParallelDeploymentTask>(count);
+        final List<Future<ModelNode>> futures = new ArrayList<Future<ModelNode>>(count);
+        for (int i = 0; i < count; i++) {
+            final Operation operation = OperationBuilder.Factory.create(updates.get(i)).build();
+            final ParallelDeploymentTask deploymentTask = new ParallelDeploymentTask(operation, i, events);
+            deploymentTasks.add(deploymentTask);
+            futures.add(scheduledExecutor.submit(deploymentTask));
+        }
+        // a queued operation may have to wait for all the others to run until their timeout
+        final long queueDeadline = System.currentTimeMillis() + timeout * count;
+
+        final boolean[] handled = new boolean[count];
+        final ModelNode timeoutFailure = createTimeoutFailure();
+        ModelNode failure = null;
+        try {
+            int remaining = count;
+            while (remaining > 0) {
+                // fail the operations whose timeout has elapsed, and find the next timeout to elapse
+                final long now = System.currentTimeMillis();
+                long nextDeadline = Long.MAX_VALUE;
+                for (int i = 0; i < count; i++) {
+                    if (handled[i]) {
+                        continue;
+                    }
+                    final ParallelDeploymentTask deploymentTask = deploymentTasks.get(i);
+                    final long started = deploymentTask.startTime;
+                    final long deadline = started == 0 ? queueDeadline : started + timeout;
+                    if (deadline <= now && !deploymentTask.completed) {
+                        handled[i] = true;
+                        remaining--;
+                        futures.get(i).cancel(true);
+                        scannerTasks.get(i).handleFailureResult(timeoutFailure);
+                    } else if (deadline < nextDeadline) {
+                        nextDeadline = deadline;
+                    }
+                }
+                if (remaining == 0) {
+                    break;
+                }
+
+                final ParallelDeploymentTask event = events.poll(Math.max(nextDeadline - now, 1), TimeUnit.MILLISECONDS);
+                if (event == null || !event.completed || handled[event.index]) {
+                    // a timeout elapsed, an operation started, or an operation already failed has stopped
+                    continue;
+                }
+                final int i = event.index;
+                handled[i] = true;
+                remaining--;
+                final ScannerTask task = scannerTasks.get(i);
+                ModelNode result;
+                try {
+                    result = futures.get(i).get();
+                } catch (ExecutionException e) {
+                    log.error("File system deployment service failed", e.getCause());
+                    result = new ModelNode();
+                    result.get(OUTCOME).set(FAILED);
+                    result.get(FAILURE_DESCRIPTION).set(String.valueOf(e.getCause().getMessage()));
+                }
+                final ModelNode outcome = result.get(OUTCOME);
+                if (outcome.isDefined() && SUCCESS.equals(outcome.asString())) {
+                    task.handleSuccessResult();
+                } else {
+                    task.handleFailureResult(result);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure = new ModelNode();
+            failure.get(OUTCOME).set(FAILED);
+            failure.get(FAILURE_DESCRIPTION).set("Interrupted while waiting for the deployment operation to complete");
+        }
+
+        for (int i = 0; i < count; i++) {
+            if (!handled[i]) {
+                futures.get(i).cancel(true);
+                scannerTasks.get(i).handleFailureResult(failure);
+            }
+        }
+    }
+
+    private ModelNode createTimeoutFailure() {
+        final ModelNode failure = new ModelNode();
+        failure.get(OUTCOME).set(FAILED);
+        failure.get(FAILURE_DESCRIPTION).set("Did not receive a response to the deployment operation within " +
+                "the allowed timeout period [" + deploymentTimeout + " seconds]. Check the server configuration" +
+                "file and the server logs to find more about the status of the deployment.");
+        return failure;
+    }
+
     /**
      * Scan the given directory for content changes.
      *
@@ -484,8 +641,11 @@ class FileSystemDeploymentService implements DeploymentScanner {
                         }
 
                         DeploymentMarker marker = deployed.get(fileName);
-                        long timestamp = getDeploymentTimestamp(child);
+                        long timestamp = incrementalScan ? getTrackedDeploymentTimestamp(child, scanContext) : getDeploymentTimestamp(child);
                         if (marker == null || marker.lastModified != timestamp) {
+                            if (incrementalScan && !isSettled(child, scanContext)) {
+                                continue;
+                            }
                             try {
                                 if (isZipComplete(child)) {
                                     final String path =  relativeTo == null ? child.getAbsolutePath() : relativePath + fileName;
@@ -583,6 +743,45 @@ class FileSystemDeploymentService implements DeploymentScanner {
         }
     }
 
+    /**
+     * Get the timestamp of auto-deploy content, as {@link #getDeploymentTimestamp(File)} does, but walking the
+     * content of an exploded deployment only on a full scan, or when entries were added to or removed from its root
+     * directory. Records the state of the content for {@link #isSettled(File, ScanContext)}.
+     */
+    private long getTrackedDeploymentTimestamp(final File deploymentFile, final ScanContext scanContext) {
+        scanContext.seenContent.add(deploymentFile);
+        ContentState state = contentStates.get(deploymentFile);
+        if (deploymentFile.isDirectory()) {
+            final long directoryModified = deploymentFile.lastModified();
+            if (state == null || scanContext.fullScan || state.directoryModified != directoryModified) {
+                final long timestamp = getDeploymentTimestamp(deploymentFile);
+                if (state == null || state.timestamp != timestamp || state.directoryModified != directoryModified) {
+                    contentStates.put(deploymentFile, state = new ContentState(timestamp, -1, directoryModified));
+                }
+            }
+        } else {
+            final long timestamp = deploymentFile.lastModified();
+            final long size = deploymentFile.length();
+            if (state == null || state.timestamp != timestamp || state.size != size) {
+                contentStates.put(deploymentFile, state = new ContentState(timestamp, size, 0));
+            }
+        }
+        return state.timestamp;
+    }
+
+    /**
+     * Check whether changed auto-deploy content has been left unchanged for long enough to be deployed, so that
+     * content which is still being copied or edited is not deployed, or checked for completeness, over and over.
+     */
+    private boolean isSettled(final File deploymentFile, final ScanContext scanContext) {
+        final ContentState state = contentStates.get(deploymentFile);
+        if (System.currentTimeMillis() - state.since >= SETTLE_TIME) {
+            return true;
+        }
+        scanContext.unsettled = true;
+        return false;
+    }
+
     private boolean isEEArchive(String fileName) {
         return ARCHIVE_PATTERN.matcher(fileName).matches();
     }
@@ -837,6 +1036,17 @@ class FileSystemDeploymentService implements DeploymentScanner {
 
         protected abstract ModelNode getUpdate();
 
+        /**
+         * Gets the update to execute when the task does not share an operation with other tasks. By default the
+         * same as {@link #getUpdate()}; tasks whose update can address only their own deployment override this,
+         * so that it does not lock the whole model.
+         *
+         * @return the update
+         */
+        protected ModelNode getIndependentUpdate() {
+            return getUpdate();
+        }
+
         protected abstract void handleSuccessResult();
 
         protected abstract void handleFailureResult(final ModelNode result);
@@ -927,6 +1137,15 @@ class FileSystemDeploymentService implements DeploymentScanner {
             return getCompositeUpdate(addOp, deployOp);
         }
 
+        @Override
+        protected ModelNode getIndependentUpdate() {
+            final ModelNode address = new ModelNode().add(DEPLOYMENT, deploymentName);
+            final ModelNode addOp = Util.getEmptyOperation(DeploymentAddHandler.OPERATION_NAME, address);
+            addOp.get(CONTENT).set(createContent());
+            addOp.get(ENABLED).set(true);
+            return addOp;
+        }
+
         @Override
         protected void handleFailureResult(final ModelNode result) {
             log.error(result.get(FAILURE_DESCRIPTION).asString());
@@ -1055,6 +1274,25 @@ class FileSystemDeploymentService implements DeploymentScanner {
         private final HashSet<String> nonDeployable = new HashSet<String>();
         /** Auto-deployable files detected by the scan where ZipScanner threw a NonScannableZipException */
         private final Map<File, NonScannableZipException> nonscannable = new HashMap<File, NonScannableZipException>();
+        /** Whether exploded auto-deploy content is walked in full */
+        private boolean fullScan;
+        /** Auto-deploy content whose state is tracked by an incremental scan */
+        private final Set<File> seenContent = new HashSet<File>();
+        /** Whether an incremental scan found changed content that has not settled yet */
+        private boolean unsettled;
+    }
+
+    private static class ContentState {
+        private final long since = System.currentTimeMillis();
+        private final long timestamp;
+        private final long size;
+        private final long directoryModified;
+
+        ContentState(final long timestamp, final long size, final long directoryModified) {
+            this.timestamp = timestamp;
+            this.size = size;
+            this.directoryModified = directoryModified;
+        }
     }
 
     private class IncompleteDeploymentStatus {
@@ -1084,4 +1322,30 @@ class FileSystemDeploymentService implements DeploymentScanner {
             return serverController.execute(deploymentOp);
         }
     }
+
+    /** A deployment task which reports itself when it starts and when it has completed */
+    private class ParallelDeploymentTask extends DeploymentTask {
+        private final int index;
+        private final BlockingQueue<ParallelDeploymentTask> events;
+        private volatile long startTime;
+        private volatile boolean completed;
+
+        private ParallelDeploymentTask(final Operation deploymentOp, final int index, final BlockingQueue<ParallelDeploymentTask> events) {
+            super(deploymentOp);
+            this.index = index;
+            this.events = events;
+        }
+
+        @Override
+        public ModelNode call() {
+            startTime = System.currentTimeMillis();
+            events.add(this);
+            try {
+                return super.call();
+            } finally {
+                completed = true;
+                events.add(this);
+            }
+        }
+    }
 }
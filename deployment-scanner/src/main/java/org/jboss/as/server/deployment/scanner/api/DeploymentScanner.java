@@ -100,6 +100,38 @@ public interface DeploymentScanner {
      */
     void setAutoDeployExplodedContent(boolean autoDeployExploded) ;
 
+    /**
+     * Gets whether the scanner tracks the state of auto-deploy content between scans, walking the content of
+     * exploded deployments only periodically, and waits for changed content to settle before deploying it.
+     *
+     * @return true if incremental scanning is enabled
+     */
+    boolean isIncrementalScan();
+
+    /**
+     * Sets whether the scanner tracks the state of auto-deploy content between scans, walking the content of
+     * exploded deployments only periodically, and waits for changed content to settle before deploying it.
+     *
+     * @param incrementalScan true if incremental scanning is enabled
+     */
+    void setIncrementalScan(boolean incrementalScan);
+
+    /**
+     * Gets whether the deployments found by a scan are executed as separate operations running at the same time,
+     * so that each one's outcome is recorded as soon as it completes and does not depend on the others.
+     *
+     * @return true if parallel deployment is enabled
+     */
+    boolean isParallelDeployment();
+
+    /**
+     * Sets whether the deployments found by a scan are executed as separate operations running at the same time,
+     * so that each one's outcome is recorded as soon as it completes and does not depend on the others.
+     *
+     * @param parallelDeployment true if parallel deployment is enabled
+     */
+    void setParallelDeployment(boolean parallelDeployment);
+
     /**
      * Set the timeout used for deployments.
      *
@@ -38,8 +38,12 @@ import java.util.Random;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
@@ -50,6 +54,7 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADD
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CANCELLED;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.COMPOSITE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DEPLOY;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ENABLED;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILED;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FULL_REPLACE_DEPLOYMENT;
@@ -968,6 +973,119 @@ public class FileSystemDeploymentServiceUnitTestCase {
         assertTrue(failed.exists());
     }
 
+    /**
+     * Tests that an incremental scan only auto-deploys changed content once it has stopped changing.
+     */
+    @Test
+    public void testIncrementalScanSettles() throws Exception {
+        File war = new File(tmpDir, "foo.war");
+        File deployed = new File(tmpDir, "foo.war" + FileSystemDeploymentService.DEPLOYED);
+        File pending = new File(tmpDir, "foo.war" + FileSystemDeploymentService.PENDING);
+        testSupport.createZip(war, 0, false, false, false, false);
+        TesteeSet ts = createTestee();
+        ts.testee.setAutoDeployZippedContent(true);
+        ts.testee.setIncrementalScan(true);
+
+        ts.testee.scan();
+
+        assertFalse(deployed.exists());
+        assertFalse(pending.exists());
+
+        Thread.sleep(FileSystemDeploymentService.SETTLE_TIME);
+        ts.controller.addCompositeSuccessResponse(1);
+        ts.testee.scan();
+
+        assertTrue(deployed.exists());
+
+        // Unchanged content is not deployed again
+        ts.testee.scan();
+        assertTrue(deployed.exists());
+        assertEquals(1, ts.controller.deployed.size());
+    }
+
+    /**
+     * Tests that in parallel deployment mode each deployment gets its own outcome, and that one which fails or does
+     * not complete does not prevent the others from being deployed.
+     */
+    @Test
+    public void testParallelDeployment() throws Exception {
+        File foo = new File(tmpDir, "foo.war");
+        File bar = new File(tmpDir, "bar.war");
+        File baz = new File(tmpDir, "baz.war");
+        testSupport.createZip(foo, 0, false, false, true, true);
+        testSupport.createZip(bar, 0, false, false, true, true);
+        testSupport.createZip(baz, 0, false, false, true, true);
+        createFile("foo.war" + FileSystemDeploymentService.DO_DEPLOY);
+        createFile("bar.war" + FileSystemDeploymentService.DO_DEPLOY);
+        createFile("baz.war" + FileSystemDeploymentService.DO_DEPLOY);
+
+        MockServerController sc = new MockServerController(new MockDeploymentRepository());
+        sc.failingDeployments.add("bar.war");
+        sc.stalledDeployments.add("baz.war");
+        TesteeSet ts = createTestee(sc, new DiscardTaskExecutor() {
+            @Override
+            public <T> Future<T> submit(Callable<T> tCallable) {
+                final FutureTask<T> task = new FutureTask<T>(tCallable);
+                new Thread(task).start();
+                return task;
+            }
+        });
+        ts.testee.setParallelDeployment(true);
+        ts.testee.setDeploymentTimeout(1);
+
+        ts.testee.scan();
+
+        assertTrue(new File(tmpDir, "foo.war" + FileSystemDeploymentService.DEPLOYED).exists());
+        assertFalse(new File(tmpDir, "foo.war" + FileSystemDeploymentService.FAILED_DEPLOY).exists());
+        assertTrue(new File(tmpDir, "bar.war" + FileSystemDeploymentService.FAILED_DEPLOY).exists());
+        assertFalse(new File(tmpDir, "bar.war" + FileSystemDeploymentService.DEPLOYED).exists());
+        assertTrue(new File(tmpDir, "baz.war" + FileSystemDeploymentService.FAILED_DEPLOY).exists());
+        assertFalse(new File(tmpDir, "baz.war" + FileSystemDeploymentService.DEPLOYED).exists());
+        assertEquals(1, sc.deployed.size());
+        assertTrue(sc.deployed.containsKey("foo.war"));
+    }
+
+    /**
+     * Tests that in parallel deployment mode the timeout of a deployment starts when it starts running, so that
+     * deployments queued behind others are not failed before they run.
+     */
+    @Test
+    public void testParallelDeploymentTimeoutStartsWithDeployment() throws Exception {
+        File foo = new File(tmpDir, "foo.war");
+        File bar = new File(tmpDir, "bar.war");
+        File baz = new File(tmpDir, "baz.war");
+        testSupport.createZip(foo, 0, false, false, true, true);
+        testSupport.createZip(bar, 0, false, false, true, true);
+        testSupport.createZip(baz, 0, false, false, true, true);
+        createFile("foo.war" + FileSystemDeploymentService.DO_DEPLOY);
+        createFile("bar.war" + FileSystemDeploymentService.DO_DEPLOY);
+        createFile("baz.war" + FileSystemDeploymentService.DO_DEPLOY);
+
+        MockServerController sc = new MockServerController(new MockDeploymentRepository());
+        sc.deploymentTime = 600;
+        final ExecutorService single = Executors.newSingleThreadExecutor();
+        try {
+            TesteeSet ts = createTestee(sc, new DiscardTaskExecutor() {
+                @Override
+                public <T> Future<T> submit(Callable<T> tCallable) {
+                    return single.submit(tCallable);
+                }
+            });
+            ts.testee.setParallelDeployment(true);
+            ts.testee.setDeploymentTimeout(1);
+
+            // the deployments run one after the other, the last one ending well after a single timeout
+            ts.testee.scan();
+
+            assertTrue(new File(tmpDir, "foo.war" + FileSystemDeploymentService.DEPLOYED).exists());
+            assertTrue(new File(tmpDir, "bar.war" + FileSystemDeploymentService.DEPLOYED).exists());
+            assertTrue(new File(tmpDir, "baz.war" + FileSystemDeploymentService.DEPLOYED).exists());
+            assertEquals(3, sc.deployed.size());
+        } finally {
+            single.shutdownNow();
+        }
+    }
+
     private TesteeSet createTestee(String... existingContent) throws OperationFailedException {
         return createTestee(new MockServerController(new MockDeploymentRepository(), existingContent));
     }
@@ -1049,6 +1167,11 @@ public class FileSystemDeploymentServiceUnitTestCase {
             return bytes;
         }
 
+        @Override
+        public byte[] addContent(InputStream stream, byte[] expectedHash) throws IOException {
+            return addContent(stream);
+        }
+
         @Override
         public VirtualFile getContent(byte[] hash) {
             throw new RuntimeException("NYI: org.jboss.as.server.deployment.scanner.FileSystemDeploymentServiceUnitTestCase.MockDeploymentRepository.getContent");
@@ -1083,6 +1206,13 @@ public class FileSystemDeploymentServiceUnitTestCase {
         private final List<Response> responses = new ArrayList<Response>(1);
         private final Map<String, byte[]> added = new HashMap<String, byte[]>();
         private final Map<String, byte[]> deployed = new HashMap<String, byte[]>();
+        /** Deployments whose independent add operation fails */
+        private final Set<String> failingDeployments = new HashSet<String>();
+        /** Deployments whose independent add operation does not complete until it is interrupted */
+        private final Set<String> stalledDeployments = new HashSet<String>();
+        private final CountDownLatch stallLatch = new CountDownLatch(1);
+        /** Time in milliseconds each independent add operation takes */
+        private volatile long deploymentTime;
 
         private static class Response {
             private final boolean ok;
@@ -1165,10 +1295,50 @@ public class FileSystemDeploymentServiceUnitTestCase {
         @Override
         public ModelNode execute(Operation operation) throws CancellationException {
             ModelNode op = operation.getOperation();
+            if (ADD.equals(op.require(OP).asString())) {
+                // Independent operations may be executed concurrently
+                return processIndependentAdd(op);
+            }
             requests.add(op);
             return processOp(op);
         }
 
+        private ModelNode processIndependentAdd(ModelNode op) {
+            final String name = PathAddress.pathAddress(op.require(OP_ADDR)).getLastElement().getValue();
+            boolean fail = failingDeployments.contains(name);
+            if (deploymentTime > 0) {
+                try {
+                    Thread.sleep(deploymentTime);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    fail = true;
+                }
+            }
+            if (stalledDeployments.contains(name)) {
+                try {
+                    stallLatch.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    fail = true;
+                }
+            }
+            final ModelNode rsp = new ModelNode();
+            if (fail) {
+                rsp.get(OUTCOME).set(FAILED);
+                rsp.get(FAILURE_DESCRIPTION).set(new ModelNode().set("badness happened"));
+            } else {
+                synchronized (this) {
+                    added.put(name, randomHash());
+                    if (op.get(ENABLED).asBoolean()) {
+                        deployed.put(name, added.get(name));
+                    }
+                }
+                rsp.get(OUTCOME).set(SUCCESS);
+                rsp.get(RESULT);
+            }
+            return rsp;
+        }
+
         private ModelNode processOp(ModelNode op) {
 
             String opName = op.require(OP).asString();
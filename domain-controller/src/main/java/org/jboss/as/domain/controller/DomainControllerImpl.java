@@ -56,9 +56,18 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADD;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.COMPENSATING_OPERATION;
@@ -138,9 +147,12 @@ public class DomainControllerImpl extends AbstractModelController<Void> implemen
     private final String localHostName;
     private final DomainModel localDomainModel;
     private final ScheduledExecutorService scheduledExecutorService;
+    private final ExecutorService hostOperationExecutor;
     private final FileRepository fileRepository;
     private final ContentRepository contentRepository;
     private final MasterDomainControllerClient masterDomainControllerClient;
+    private final HostOperationStatistics hostOperationStatistics;
+    private final ConcurrentMap<DomainControllerSlaveClient, Lock> clientLocks = new ConcurrentHashMap<DomainControllerSlaveClient, Lock>();
     private final ServerOperationExecutor serverOperationExecutor = new ServerOperationExecutor() {
         @Override
         public ModelNode executeServerOperation(ServerIdentity server, Operation operation) {
@@ -148,9 +160,10 @@ public class DomainControllerImpl extends AbstractModelController<Void> implemen
         }
     };
 
-    public DomainControllerImpl(final ScheduledExecutorService scheduledExecutorService, final DomainModel domainModel, final String hostName, final FileRepository fileRepository,
-            ContentRepository contentRepository, Map<String, DomainControllerSlaveClient> hosts) {
+    public DomainControllerImpl(final ScheduledExecutorService scheduledExecutorService, final ExecutorService hostOperationExecutor, final DomainModel domainModel,
+            final String hostName, final FileRepository fileRepository, ContentRepository contentRepository, Map<String, DomainControllerSlaveClient> hosts) {
         this.scheduledExecutorService = scheduledExecutorService;
+        this.hostOperationExecutor = hostOperationExecutor;
         this.localHostName = hostName;
         this.localDomainModel = domainModel;
         this.hosts = hosts;
@@ -158,12 +171,15 @@ public class DomainControllerImpl extends AbstractModelController<Void> implemen
         this.fileRepository = fileRepository;
         this.contentRepository = contentRepository;
         this.masterDomainControllerClient = null;
+        this.hostOperationStatistics = domainModel.getHostOperationStatistics();
 
     }
 
-    public DomainControllerImpl(final ScheduledExecutorService scheduledExecutorService, final DomainModel domainModel, final String hostName, final FileRepository fileRepository,
-            final MasterDomainControllerClient masterDomainControllerClient, Map<String, DomainControllerSlaveClient> hosts) {
+    public DomainControllerImpl(final ScheduledExecutorService scheduledExecutorService, final ExecutorService hostOperationExecutor, final DomainModel domainModel,
+            final String hostName, final FileRepository fileRepository, final MasterDomainControllerClient masterDomainControllerClient,
+            Map<String, DomainControllerSlaveClient> hosts) {
         this.scheduledExecutorService = scheduledExecutorService;
+        this.hostOperationExecutor = hostOperationExecutor;
         this.masterDomainControllerClient = masterDomainControllerClient;
         this.localHostName = hostName;
         this.localDomainModel = domainModel;
@@ -171,6 +187,7 @@ public class DomainControllerImpl extends AbstractModelController<Void> implemen
         this.hosts = hosts;
         this.hosts.put(hostName, new LocalDomainModelAdapter());
         this.contentRepository = null;
+        this.hostOperationStatistics = domainModel.getHostOperationStatistics();
     }
 
     /** {@inheritDoc} */
@@ -188,7 +205,10 @@ public class DomainControllerImpl extends AbstractModelController<Void> implemen
     @Override
     public void removeClient(final String id) {
         Logger.getLogger("org.jboss.domain").info("unregister host " + id);
-        this.hosts.remove(id);
+        final DomainControllerSlaveClient client = this.hosts.remove(id);
+        if (client != null) {
+            clientLocks.remove(client);
+        }
     }
 
     @Override
@@ -538,11 +558,20 @@ public class DomainControllerImpl extends AbstractModelController<Void> implemen
         ((DomainModelImpl) localDomainModel).setInitialDomainModel(initialModel);
     }
 
+    /**
+     * Push an operation to the host controllers it targets and collect their results. The local host executes the
+     * operation first, on its own: it stores any uploaded deployment content, which the other hosts then refer to by
+     * hash, and if it fails the operation is not sent to the other hosts at all. The other hosts are then pushed the
+     * operation all at once, each on its own thread of the host operation executor, so a slow host delays the
+     * operation by no more than the host response timeout.
+     */
     private Map<String, ModelNode> pushToHosts(Operation operation, final OperationRouting routing,
             final ControllerTransaction transaction) throws Exception {
 
         final Map<String, ModelNode> hostResults = new HashMap<String, ModelNode>();
-        final Map<String, Future<ModelNode>> futures = new HashMap<String, Future<ModelNode>>();
+        final CompletionService<ModelNode> completionService = new ExecutorCompletionService<ModelNode>(hostOperationExecutor);
+        final Map<Future<ModelNode>, HostOperation> futures = new HashMap<Future<ModelNode>, HostOperation>();
+        final int timeout = localDomainModel.getHostResponseTimeout();
         ModelNode opNode = operation.getOperation();
         // Try and execute locally first; if it fails don't bother with the other hosts
         final Set<String> targets = routing.getHosts();
@@ -559,8 +588,8 @@ public class DomainControllerImpl extends AbstractModelController<Void> implemen
                 // we send to the other hosts
                 localOperation = localOperation.clone(localOperation.getOperation().clone());
             }
-            pushToHost(localOperation, transaction, localHostName, futures);
-            processHostFuture(localHostName, futures.remove(localHostName), hostResults);
+            pushToHost(localOperation, transaction, localHostName, completionService, futures);
+            processHostFutures(completionService, futures, hostResults, timeout);
             ModelNode hostResult = hostResults.get(localHostName);
             if (!transaction.isRollbackOnly()) {
                 if (hostResult.hasDefined(OUTCOME) && FAILED.equals(hostResult.get(OUTCOME).asString())) {
@@ -575,16 +604,12 @@ public class DomainControllerImpl extends AbstractModelController<Void> implemen
             operation = OperationBuilder.Factory.create(opNode).build();
 
             for (final String host : targets) {
-                pushToHost(operation, transaction, host, futures);
+                pushToHost(operation, transaction, host, completionService, futures);
             }
 
             log.debugf("Domain updates pushed to %s host controller(s)", futures.size());
 
-            for (final Map.Entry<String, Future<ModelNode>> entry : futures.entrySet()) {
-                String host = entry.getKey();
-                Future<ModelNode> future = entry.getValue();
-                processHostFuture(host, future, hostResults);
-            }
+            processHostFutures(completionService, futures, hostResults, timeout);
         }
 
         return hostResults;
@@ -617,6 +642,46 @@ public class DomainControllerImpl extends AbstractModelController<Void> implemen
         }
     }
 
+    /**
+     * Collect the results of the operations pushed to the hosts in the order the hosts respond, waiting at most
+     * {@code timeout} seconds. The operations still running after that are cancelled and reported as failed. Only
+     * the responses collected in time count towards the response times of the hosts.
+     */
+    private void processHostFutures(final CompletionService<ModelNode> completionService, final Map<Future<ModelNode>, HostOperation> futures,
+            final Map<String, ModelNode> hostResults, final int timeout) {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeout);
+        Throwable failure = null;
+        try {
+            while (!futures.isEmpty()) {
+                final Future<ModelNode> future = completionService.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (future == null) {
+                    break;
+                }
+                final HostOperation hostOperation = futures.remove(future);
+                if (hostOperation.responseTime >= 0) {
+                    hostOperationStatistics.responseReceived(hostOperation.host, hostOperation.responseTime);
+                }
+                processHostFuture(hostOperation.host, future, hostResults);
+            }
+        } catch (final InterruptedException e) {
+            log.debug("Interrupted reading host controller response");
+            Thread.currentThread().interrupt();
+            failure = e;
+        }
+        for (final Map.Entry<Future<ModelNode>, HostOperation> entry : futures.entrySet()) {
+            final String host = entry.getValue().host;
+            entry.getKey().cancel(true);
+            if (failure == null) {
+                log.warnf("Host controller %s did not respond within %d seconds", host, timeout);
+                hostOperationStatistics.responseTimedOut(host);
+                hostResults.put(host, getDomainFailureResult(new TimeoutException(String.format("Host controller %s did not respond within %d seconds", host, timeout))));
+            } else {
+                hostResults.put(host, getDomainFailureResult(failure));
+            }
+        }
+        futures.clear();
+    }
+
     private void processHostFuture(String host, Future<ModelNode> future, final Map<String, ModelNode> hostResults) {
         try {
             hostResults.put(host, future.get());
@@ -631,24 +696,10 @@ public class DomainControllerImpl extends AbstractModelController<Void> implemen
     }
 
     private void pushToHost(final Operation operation, final ControllerTransaction transaction, final String host,
-            final Map<String, Future<ModelNode>> futures) {
+            final CompletionService<ModelNode> completionService, final Map<Future<ModelNode>, HostOperation> futures) {
         if (hosts.containsKey(host)) {
-            final Callable<ModelNode> callable = new Callable<ModelNode>() {
-
-                @Override
-                public ModelNode call() throws Exception {
-                    try {
-                        //System.out.println("------ pushing to host " + host);
-                        ModelNode node = executeOnHost(host, operation, transaction);
-                        //System.out.println("---- host result " + node);
-                        return node;
-                    } finally {
-                        //System.out.println("------ pushed to host " + host);
-                    }
-                }
-            };
-
-            futures.put(host, scheduledExecutorService.submit(callable));
+            final HostOperation hostOperation = new HostOperation(host, operation, transaction);
+            futures.put(completionService.submit(hostOperation), hostOperation);
         }
     }
 
@@ -857,8 +908,11 @@ public class DomainControllerImpl extends AbstractModelController<Void> implemen
         }
         else {
             // Prevent concurrent use of the client connection until we move to remoting
-            synchronized (client) {
+            final Lock lock = lockClient(client);
+            try {
                 return tx == null ? client.execute(operation) : client.execute(operation, tx);
+            } finally {
+                lock.unlock();
             }
         }
     }
@@ -874,12 +928,52 @@ public class DomainControllerImpl extends AbstractModelController<Void> implemen
         }
         else {
             // Prevent concurrent use of the client connection until we move to remoting
-            synchronized (client) {
+            final Lock lock;
+            try {
+                lock = lockClient(client);
+            } catch (CancellationException e) {
+                handler.handleFailed(new ModelNode().set(e.getMessage()));
+                return new BasicOperationResult();
+            }
+            try {
                 return client.execute(operation, handler);
+            } finally {
+                lock.unlock();
             }
         }
     }
 
+    /**
+     * Get exclusive use of the connection to a remote host. A push which timed out may still hold the connection,
+     * blocked on socket I/O where it cannot be interrupted; a later operation waits for it no longer than the host
+     * response timeout, and a cancelled push stops waiting, so that it is never sent to the host after its
+     * transaction has completed.
+     *
+     * @param client the client of the host
+     * @return the lock to release once the operation has completed
+     * @throws CancellationException if the connection did not become available in time, or the wait was interrupted
+     */
+    private Lock lockClient(final DomainControllerSlaveClient client) throws CancellationException {
+        Lock lock = clientLocks.get(client);
+        if (lock == null) {
+            lock = new ReentrantLock();
+            final Lock existing = clientLocks.putIfAbsent(client, lock);
+            if (existing != null) {
+                lock = existing;
+            }
+        }
+        final int timeout = localDomainModel.getHostResponseTimeout();
+        try {
+            if (lock.tryLock(timeout, TimeUnit.SECONDS)) {
+                return lock;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException(String.format("Interrupted waiting for the connection to host controller %s", client.getId()));
+        }
+        throw new CancellationException(String.format("Host controller %s was still busy with an earlier operation after %d seconds", client.getId(), timeout));
+    }
+
     private class OperationRouting {
 
         private final Set<String> hosts = new HashSet<String>();
@@ -958,6 +1052,33 @@ public class DomainControllerImpl extends AbstractModelController<Void> implemen
         }
     }
 
+    /**
+     * An operation pushed to a host, which records how long the host took to respond.
+     */
+    private class HostOperation implements Callable<ModelNode> {
+        private final String host;
+        private final Operation operation;
+        private final ControllerTransaction transaction;
+        /** The response time in nanoseconds, or -1 until the host responds */
+        private volatile long responseTime = -1;
+
+        HostOperation(final String host, final Operation operation, final ControllerTransaction transaction) {
+            this.host = host;
+            this.operation = operation;
+            this.transaction = transaction;
+        }
+
+        @Override
+        public ModelNode call() throws Exception {
+            final long start = System.nanoTime();
+            final ModelNode node = executeOnHost(host, operation, transaction);
+            final long time = System.nanoTime() - start;
+            responseTime = time;
+            log.debugf("Host controller %s responded in %d ms", host, TimeUnit.NANOSECONDS.toMillis(time));
+            return node;
+        }
+    }
+
     /**
      * Adapter to allow this domain controller to talk to the DomainModel via the same
      * interface it uses for remote slave domain controllers.
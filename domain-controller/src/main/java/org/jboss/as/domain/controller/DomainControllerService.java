@@ -38,6 +38,7 @@ import org.jboss.msc.service.StartContext;
 import org.jboss.msc.service.StartException;
 import org.jboss.msc.service.StopContext;
 import org.jboss.msc.value.InjectedValue;
+import org.jboss.threads.JBossThreadFactory;
 
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
@@ -47,7 +48,10 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.security.AccessController;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -74,6 +78,8 @@ public final class DomainControllerService implements Service<DomainController>
     private final int mgmtPort;
     private final DomainModelImpl domainModel;
     private DomainController controller;
+    /** Pushes operations to the host controllers, one thread per host so all hosts are contacted at once */
+    private ExecutorService hostOperationExecutor;
 
     public DomainControllerService(final ExtensibleConfigurationPersister configurationPersister, final String localHostName, final int mgmtPort,
                                    final ContentRepository contentRepository, final FileRepository localFileRepository, final boolean backupDomainFiles,
@@ -92,7 +98,14 @@ public final class DomainControllerService implements Service<DomainController>
     @Override
     public synchronized void start(final StartContext context) throws StartException {
         MasterDomainControllerClient masterClient = masterDomainControllerClient.getOptionalValue();
-        this.controller = masterClient == null ? startMasterDomainController() : startSlaveDomainController(masterClient);
+        this.hostOperationExecutor = Executors.newCachedThreadPool(new JBossThreadFactory(new ThreadGroup("DomainController-host-operation-threads"),
+                Boolean.FALSE, null, "%G - %t", null, null, AccessController.getContext()));
+        try {
+            this.controller = masterClient == null ? startMasterDomainController() : startSlaveDomainController(masterClient);
+        } catch (StartException e) {
+            hostOperationExecutor.shutdown();
+            throw e;
+        }
         backupDomainFiles();
         hostController.getValue().startServers(controller);
         try {
@@ -111,6 +124,8 @@ public final class DomainControllerService implements Service<DomainController>
             masterClient.unregister();
         }
         this.controller = null;
+        hostOperationExecutor.shutdown();
+        hostOperationExecutor = null;
     }
 
     /** {@inheritDoc} */
@@ -146,7 +161,7 @@ public final class DomainControllerService implements Service<DomainController>
     private DomainController startMasterDomainController() throws StartException {
         log.info("Starting Domain Controller");
         loadLocalDomainModel();
-        return new DomainControllerImpl(scheduledExecutorService.getValue(), domainModel, localHostName, localFileRepository, contentRepository, hostRegistry.getValue());
+        return new DomainControllerImpl(scheduledExecutorService.getValue(), hostOperationExecutor, domainModel, localHostName, localFileRepository, contentRepository, hostRegistry.getValue());
     }
 
     private DomainController startSlaveDomainController(MasterDomainControllerClient masterClient) throws StartException {
@@ -166,7 +181,7 @@ public final class DomainControllerService implements Service<DomainController>
         // By having a remote repo as a secondary content will be synced only if needed
         FallbackRepository fileRepository = new FallbackRepository(localFileRepository, masterClient.getRemoteFileRepository());
         domainModel.initialiseAsSlaveDC(configurationPersister, contentRepository, fileRepository, hostRegistry.getValue());
-        final DomainControllerImpl controller = new DomainControllerImpl(scheduledExecutorService.getValue(), domainModel, localHostName, localFileRepository, masterClient, hostRegistry.getValue());
+        final DomainControllerImpl controller = new DomainControllerImpl(scheduledExecutorService.getValue(), hostOperationExecutor, domainModel, localHostName, localFileRepository, masterClient, hostRegistry.getValue());
         try {
             masterClient.register(hostController.getValue().getName(), mgmtInterface.getValue().getAddress(), mgmtPort, controller);
         } catch (IllegalStateException e) {
@@ -184,7 +199,7 @@ public final class DomainControllerService implements Service<DomainController>
 
     private DomainController startLocalCopySlaveDomainController(MasterDomainControllerClient masterClient) throws StartException {
         loadLocalDomainModel();
-        return new DomainControllerImpl(scheduledExecutorService.getValue(), domainModel, localHostName, localFileRepository, masterClient, hostRegistry.getValue());
+        return new DomainControllerImpl(scheduledExecutorService.getValue(), hostOperationExecutor, domainModel, localHostName, localFileRepository, masterClient, hostRegistry.getValue());
     }
 
     private void loadLocalDomainModel() throws StartException {
@@ -36,6 +36,9 @@ import org.jboss.dmr.ModelNode;
  */
 public interface DomainModel extends ModelController {
 
+    /** The time, in seconds, to wait for the host controllers to respond if the domain does not configure it */
+    int DEFAULT_HOST_RESPONSE_TIMEOUT = 300;
+
     /**
      * Execute the given operation against the local domain-wide and host-wide management
      * model, returning the result as well as information about what operations are needed
@@ -58,4 +61,19 @@ public interface DomainModel extends ModelController {
      */
     ModelNode getDomainModel();
 
+    /**
+     * Get the statistics of the operations pushed to the host controllers in the domain.
+     *
+     * @return the statistics
+     */
+    HostOperationStatistics getHostOperationStatistics();
+
+    /**
+     * Get the time to wait for the host controllers to respond to an operation pushed to them, as configured
+     * by the {@code host-response-timeout} attribute of the domain.
+     *
+     * @return the timeout, in seconds
+     */
+    int getHostResponseTimeout();
+
 }
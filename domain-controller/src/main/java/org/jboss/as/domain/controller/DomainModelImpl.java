@@ -83,6 +83,7 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DOM
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.EXTENSION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.GROUP;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HOST;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HOST_RESPONSE_TIMEOUT;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.IGNORED;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
@@ -123,6 +124,7 @@ public class DomainModelImpl extends BasicModelController implements DomainModel
     private boolean alwaysProvideRuntimeContext = true;
     // Is this DomainModel running within the HostController of the master DomainController?
     private boolean master;
+    private final HostOperationStatistics hostOperationStatistics = new HostOperationStatistics();
     // Used for request operation handling.
     private ServerOperationResolver serverOperationResolver;
     // Map of hosts.
@@ -218,7 +220,10 @@ public class DomainModelImpl extends BasicModelController implements DomainModel
         alwaysProvideRuntimeContext = false;
 
         ModelNode ourModel = super.getModel();
-        DomainModelUtil.updateCoreModel(ourModel);
+        synchronized (ourModel) {
+            DomainModelUtil.updateCoreModel(ourModel);
+            modelChanged(ourModel, PathAddress.EMPTY_ADDRESS);
+        }
         master = true;
         domainPersister.setDelegate(configurationPersister);
         ModelNodeRegistration registry = getRegistry();
@@ -298,6 +303,17 @@ public class DomainModelImpl extends BasicModelController implements DomainModel
         return model;
     }
 
+    @Override
+    public HostOperationStatistics getHostOperationStatistics() {
+        return hostOperationStatistics;
+    }
+
+    @Override
+    public int getHostResponseTimeout() {
+        final ModelNode model = getModelSnapshot().getRoot();
+        return model.hasDefined(HOST_RESPONSE_TIMEOUT) ? model.get(HOST_RESPONSE_TIMEOUT).asInt() : DEFAULT_HOST_RESPONSE_TIMEOUT;
+    }
+
     // FIXME the domainModel really should not expose hosts
     public Set<String> getHostNames() {
         return new HashSet<String>(hosts.keySet());
@@ -436,10 +452,13 @@ public class DomainModelImpl extends BasicModelController implements DomainModel
 
     void setInitialDomainModel(ModelNode domainModel) {
         ModelNode root = getModel();
-        // Preserve the "host" subtree
-        ModelNode host = root.get(HOST);
-        root.set(domainModel);
-        root.get(HOST).set(host);
+        synchronized (root) {
+            // Preserve the "host" subtree
+            ModelNode host = root.get(HOST);
+            root.set(domainModel);
+            root.get(HOST).set(host);
+            modelChanged(root, PathAddress.EMPTY_ADDRESS);
+        }
         // Now we know what extensions are needed
         initializeExtensions(domainModel, extensionContext);
     }
@@ -1105,6 +1124,7 @@ public class DomainModelImpl extends BasicModelController implements DomainModel
             final ModelNode model = modelSource.getModel();
             synchronized (model) {
                 model.set(localModel);
+                DomainModelImpl.this.modelChanged(model, PathAddress.EMPTY_ADDRESS);
                 if (modelUpdated) {
                     DomainModelImpl.this.persistConfiguration(model, injectedConfigPersisterProvider);
                 }
@@ -1149,6 +1169,7 @@ public class DomainModelImpl extends BasicModelController implements DomainModel
                     } else {
                         address.navigate(model, true).set(subModel);
                     }
+                    modelChanged(model, address);
                     persistConfiguration(model, operationControllerContext.getConfigurationPersisterProvider());
                 }
 
@@ -29,6 +29,7 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DES
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.EXTENSION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FIXED_PORT;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HOST;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HOST_RESPONSE_TIMEOUT;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INCLUDES;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INTERFACE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.JVM;
@@ -95,6 +96,7 @@ import org.jboss.as.controller.registry.ModelNodeRegistration;
 import org.jboss.as.controller.registry.OperationEntry;
 import org.jboss.as.domain.controller.descriptions.DomainDescriptionProviders;
 import org.jboss.as.domain.controller.descriptions.DomainRootDescription;
+import org.jboss.as.domain.controller.operations.HostOperationStatisticsHandler;
 import org.jboss.as.domain.controller.operations.ProcessTypeHandler;
 import org.jboss.as.domain.controller.operations.ProfileAddHandler;
 import org.jboss.as.domain.controller.operations.ProfileDescribeHandler;
@@ -150,6 +152,7 @@ class DomainModelUtil {
     static void updateCoreModel(final ModelNode rootModel) {
         rootModel.get(NAMESPACES).setEmptyList();
         rootModel.get(SCHEMA_LOCATIONS).setEmptyList();
+        rootModel.get(HOST_RESPONSE_TIMEOUT);
         rootModel.get(EXTENSION);
         rootModel.get(PATH);
         rootModel.get(SYSTEM_PROPERTY);
@@ -207,6 +210,8 @@ class DomainModelUtil {
         root.registerOperationHandler(SnapshotTakeHandler.OPERATION_NAME, snapshotTake, snapshotTake, false);
 
         root.registerReadOnlyAttribute(PROCESS_TYPE, isMaster ? ProcessTypeHandler.MASTER : ProcessTypeHandler.SLAVE, Storage.RUNTIME);
+        root.registerReadWriteAttribute(HOST_RESPONSE_TIMEOUT, null, new IntRangeValidatingHandler(1, Integer.MAX_VALUE, true, false), Storage.CONFIGURATION);
+        root.registerMetric(HostOperationStatisticsHandler.ATTRIBUTE_NAME, new HostOperationStatisticsHandler(model.getHostOperationStatistics()));
 
         // System Properties
         ModelNodeRegistration systemProperties = root.registerSubModel(PathElement.pathElement(SYSTEM_PROPERTY), DomainDescriptionProviders.SYSTEM_PROPERTY_PROVIDER);
@@ -0,0 +1,123 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.domain.controller;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Per host statistics of the operations the domain controller pushes to the host controllers: how many were
+ * executed, how long the hosts took to respond, and how many did not respond in time.
+ *
+ * @author agent
+ */
+public class HostOperationStatistics {
+
+    public static final String OPERATION_COUNT = "operation-count";
+    public static final String TIMEOUT_COUNT = "timeout-count";
+    public static final String AVERAGE_TIME = "average-time";
+    public static final String MAX_TIME = "max-time";
+    public static final String LAST_TIME = "last-time";
+
+    private final ConcurrentMap<String, HostStatistics> hosts = new ConcurrentHashMap<String, HostStatistics>();
+
+    /**
+     * Record the response of a host to an operation.
+     *
+     * @param host the name of the host
+     * @param nanos the time between sending the operation and receiving the response, in nanoseconds
+     */
+    public void responseReceived(final String host, final long nanos) {
+        getHostStatistics(host).responseReceived(nanos);
+    }
+
+    /**
+     * Record that a host did not respond to an operation in time.
+     *
+     * @param host the name of the host
+     */
+    public void responseTimedOut(final String host) {
+        getHostStatistics(host).responseTimedOut();
+    }
+
+    /**
+     * Gets the statistics as a model node with one child per host, each giving the number of operations and
+     * timeouts and the average, maximum and last response times in milliseconds.
+     *
+     * @return the statistics
+     */
+    public ModelNode toModelNode() {
+        final ModelNode result = new ModelNode();
+        result.setEmptyObject();
+        for (Map.Entry<String, HostStatistics> entry : hosts.entrySet()) {
+            result.get(entry.getKey()).set(entry.getValue().toModelNode());
+        }
+        return result;
+    }
+
+    private HostStatistics getHostStatistics(final String host) {
+        HostStatistics statistics = hosts.get(host);
+        if (statistics == null) {
+            statistics = new HostStatistics();
+            final HostStatistics existing = hosts.putIfAbsent(host, statistics);
+            if (existing != null) {
+                statistics = existing;
+            }
+        }
+        return statistics;
+    }
+
+    private static final class HostStatistics {
+        private long count;
+        private long timeouts;
+        private long totalNanos;
+        private long maxNanos;
+        private long lastNanos;
+
+        synchronized void responseReceived(final long nanos) {
+            count++;
+            totalNanos += nanos;
+            lastNanos = nanos;
+            if (nanos > maxNanos) {
+                maxNanos = nanos;
+            }
+        }
+
+        synchronized void responseTimedOut() {
+            timeouts++;
+        }
+
+        synchronized ModelNode toModelNode() {
+            final ModelNode node = new ModelNode();
+            node.get(OPERATION_COUNT).set(count);
+            node.get(TIMEOUT_COUNT).set(timeouts);
+            node.get(AVERAGE_TIME).set(count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalNanos / count));
+            node.get(MAX_TIME).set(TimeUnit.NANOSECONDS.toMillis(maxNanos));
+            node.get(LAST_TIME).set(TimeUnit.NANOSECONDS.toMillis(lastNanos));
+            return node;
+        }
+    }
+}
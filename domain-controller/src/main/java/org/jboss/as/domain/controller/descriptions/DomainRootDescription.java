@@ -23,13 +23,16 @@
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ALLOWED;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ATTRIBUTES;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CHILDREN;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DEFAULT;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DEPLOYMENT;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DESCRIPTION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.EXTENSION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HEAD_COMMENT_ALLOWED;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HOST;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HOST_RESPONSE_TIMEOUT;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INTERFACE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MAX_OCCURS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MIN;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MIN_LENGTH;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MIN_OCCURS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MODEL_DESCRIPTION;
@@ -53,6 +56,8 @@ import java.util.Locale;
 import java.util.ResourceBundle;
 
 import org.jboss.as.controller.descriptions.common.CommonDescriptions;
+import org.jboss.as.domain.controller.DomainModel;
+import org.jboss.as.domain.controller.operations.HostOperationStatisticsHandler;
 import org.jboss.as.server.deployment.DeploymentRemoveHandler;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
@@ -75,6 +80,7 @@ public class DomainRootDescription {
         root.get(TAIL_COMMENT_ALLOWED).set(true);
         root.get(ATTRIBUTES, NAMESPACES).set(CommonDescriptions.getNamespacePrefixAttribute(locale));
         root.get(ATTRIBUTES, SCHEMA_LOCATIONS).set(CommonDescriptions.getSchemaLocationAttribute(locale));
+        CommonDescriptions.addManagementLockMetrics(root, locale);
 
         root.get(ATTRIBUTES, PROCESS_TYPE, DESCRIPTION).set(bundle.getString("domain.process-type"));
         root.get(ATTRIBUTES, PROCESS_TYPE, TYPE).set(ModelType.STRING);
@@ -84,6 +90,18 @@ public class DomainRootDescription {
         root.get(ATTRIBUTES, PROCESS_TYPE, ALLOWED).add("Domain Controller");
         root.get(ATTRIBUTES, PROCESS_TYPE, ALLOWED).add("Host Controller");
 
+        root.get(ATTRIBUTES, HOST_RESPONSE_TIMEOUT, DESCRIPTION).set(bundle.getString("domain.host-response-timeout"));
+        root.get(ATTRIBUTES, HOST_RESPONSE_TIMEOUT, TYPE).set(ModelType.INT);
+        root.get(ATTRIBUTES, HOST_RESPONSE_TIMEOUT, REQUIRED).set(false);
+        root.get(ATTRIBUTES, HOST_RESPONSE_TIMEOUT, NILLABLE).set(true);
+        root.get(ATTRIBUTES, HOST_RESPONSE_TIMEOUT, MIN).set(1);
+        root.get(ATTRIBUTES, HOST_RESPONSE_TIMEOUT, DEFAULT).set(DomainModel.DEFAULT_HOST_RESPONSE_TIMEOUT);
+
+        root.get(ATTRIBUTES, HostOperationStatisticsHandler.ATTRIBUTE_NAME, DESCRIPTION).set(bundle.getString("domain.host-operation-statistics"));
+        root.get(ATTRIBUTES, HostOperationStatisticsHandler.ATTRIBUTE_NAME, TYPE).set(ModelType.OBJECT);
+        root.get(ATTRIBUTES, HostOperationStatisticsHandler.ATTRIBUTE_NAME, REQUIRED).set(false);
+        root.get(ATTRIBUTES, HostOperationStatisticsHandler.ATTRIBUTE_NAME, NILLABLE).set(false);
+
         root.get(OPERATIONS).setEmptyObject();
 
         root.get(CHILDREN, EXTENSION, DESCRIPTION).set(bundle.getString("domain.extension"));
@@ -0,0 +1,54 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.domain.controller.operations;
+
+import org.jboss.as.controller.BasicOperationResult;
+import org.jboss.as.controller.ModelQueryOperationHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationResult;
+import org.jboss.as.controller.ResultHandler;
+import org.jboss.as.domain.controller.HostOperationStatistics;
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Reports the {@link HostOperationStatistics} of the operations pushed to the host controllers.
+ *
+ * @author agent
+ */
+public class HostOperationStatisticsHandler implements ModelQueryOperationHandler {
+
+    public static final String ATTRIBUTE_NAME = "host-operation-statistics";
+
+    private final HostOperationStatistics statistics;
+
+    public HostOperationStatisticsHandler(final HostOperationStatistics statistics) {
+        this.statistics = statistics;
+    }
+
+    @Override
+    public OperationResult execute(OperationContext context, ModelNode operation, ResultHandler resultHandler) throws OperationFailedException {
+        resultHandler.handleResultFragment(ResultHandler.EMPTY_LOCATION, statistics.toModelNode());
+        resultHandler.handleResultComplete();
+        return new BasicOperationResult();
+    }
+}
@@ -19,20 +19,29 @@
 package org.jboss.as.domain.controller.operations.deployment;
 
 import org.jboss.as.controller.BasicOperationResult;
+import org.jboss.as.controller.HashUtil;
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.OperationHandler;
 import org.jboss.as.controller.OperationResult;
 import org.jboss.as.controller.ResultHandler;
+import org.jboss.as.controller.operations.validation.ModelTypeValidator;
+import org.jboss.as.controller.operations.validation.ParametersValidator;
 import org.jboss.as.server.deployment.api.ContentRepository;
 import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
 import org.jboss.logging.Logger;
 
 import java.io.IOException;
 import java.io.InputStream;
 
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HASH;
+
 /**
- * Base class for operation handlers that can handle the upload of deployment content.
+ * Base class for operation handlers that can handle the upload of deployment content. If the
+ * operation includes the hash of the content, the repository decides whether content it already
+ * has with that hash can be used, in which case the content is neither opened nor read, and the
+ * content may be omitted from the operation.
  *
  * @author Brian Stansberry (c) 2011 Red Hat Inc.
  */
@@ -43,8 +52,11 @@ public abstract class AbstractDeploymentUploadHandler implements OperationHandle
     private static final String[] EMPTY = new String[0];
     private final ContentRepository contentRepository;
 
+    private final ParametersValidator validator = new ParametersValidator();
+
     protected AbstractDeploymentUploadHandler(final ContentRepository contentRepository) {
         this.contentRepository = contentRepository;
+        this.validator.registerValidator(HASH, new ModelTypeValidator(ModelType.BYTES, true));
     }
 
     /**
@@ -54,15 +66,11 @@ public abstract class AbstractDeploymentUploadHandler implements OperationHandle
     public OperationResult execute(OperationContext context, ModelNode operation, ResultHandler resultHandler) throws OperationFailedException {
 
         if (contentRepository != null) {
+            validator.validate(operation);
             try {
-                InputStream is = getContentInputStream(context, operation);
-                try {
-                    byte[] hash = contentRepository.addContent(is);
-                    resultHandler.handleResultFragment(EMPTY, new ModelNode().set(hash));
-                }
-                finally {
-                    safeClose(is);
-                }
+                final byte[] expectedHash = operation.hasDefined(HASH) ? operation.get(HASH).asBytes() : null;
+                final byte[] hash = addContent(context, operation, expectedHash);
+                resultHandler.handleResultFragment(EMPTY, new ModelNode().set(hash));
             }
             catch (IOException e) {
                 throw new OperationFailedException(new ModelNode().set(e.toString()));
@@ -74,6 +82,36 @@ public abstract class AbstractDeploymentUploadHandler implements OperationHandle
         return new BasicOperationResult();
     }
 
+    private byte[] addContent(final OperationContext context, final ModelNode operation, final byte[] expectedHash) throws OperationFailedException, IOException {
+        if (expectedHash != null) {
+            try {
+                // Use the content the repository already has, without opening the content of the operation
+                return contentRepository.addContent(null, expectedHash);
+            }
+            catch (IllegalArgumentException e) {
+                if (!isContentIncluded(operation)) {
+                    // The repository has no valid content with the expected hash, and the operation includes no content
+                    throw new OperationFailedException(new ModelNode().set(String.format("No content with hash %s is available; the content must be included in the operation", HashUtil.bytesToHexString(expectedHash))));
+                }
+            }
+        }
+        final InputStream is = getContentInputStream(context, operation);
+        try {
+            return contentRepository.addContent(is, expectedHash);
+        }
+        finally {
+            safeClose(is);
+        }
+    }
+
+    /**
+     * Gets whether the operation includes the content, as opposed to only its hash.
+     *
+     * @param operation the operation
+     * @return {@code true} if {@link #getContentInputStream(OperationContext, ModelNode)} can provide the content
+     */
+    protected abstract boolean isContentIncluded(ModelNode operation);
+
     protected abstract InputStream getContentInputStream(OperationContext context, ModelNode operation) throws OperationFailedException;
 
     private static void safeClose(InputStream is) {
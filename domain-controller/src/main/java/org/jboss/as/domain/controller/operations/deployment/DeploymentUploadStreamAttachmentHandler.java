@@ -56,6 +56,14 @@ implements DescriptionProvider {
         return DeploymentDescription.getUploadDeploymentStreamAttachmentOperation(locale);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected boolean isContentIncluded(ModelNode operation) {
+        return operation.hasDefined(INPUT_STREAM_INDEX);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -59,6 +59,14 @@ implements DescriptionProvider {
         return DeploymentDescription.getUploadDeploymentURLOperation(locale);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected boolean isContentIncluded(ModelNode operation) {
+        return operation.hasDefined(URL);
+    }
+
     /**
      * {@inheritDoc}
      */
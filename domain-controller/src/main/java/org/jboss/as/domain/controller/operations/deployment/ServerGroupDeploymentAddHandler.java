@@ -91,7 +91,7 @@ public class ServerGroupDeploymentAddHandler implements ModelAddOperationHandler
             }
         }
 
-        final String runtimeName = operation.hasDefined(RUNTIME_NAME) ? operation.get(RUNTIME_NAME).asString() : deployment.get(RUNTIME_NAME).asString();
+        final String runtimeName = operation.hasDefined(RUNTIME_NAME) ? operation.get(RUNTIME_NAME).asString() : deployment.require(RUNTIME_NAME).asString();
 
         ModelNode subModel = context.getSubModel();
         subModel.get(NAME).set(name);
@@ -0,0 +1,407 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.controller;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DOMAIN_FAILURE_DESCRIPTION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILED;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HOST_FAILURE_DESCRIPTIONS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.PROFILE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.VALUE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.WRITE_ATTRIBUTE_OPERATION;
+import static org.jboss.as.domain.controller.HostOperationStatistics.OPERATION_COUNT;
+import static org.jboss.as.domain.controller.HostOperationStatistics.TIMEOUT_COUNT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.as.controller.ControllerResource;
+import org.jboss.as.controller.ControllerTransactionContext;
+import org.jboss.as.controller.OperationResult;
+import org.jboss.as.controller.ResultHandler;
+import org.jboss.as.controller.client.Operation;
+import org.jboss.as.controller.client.OperationBuilder;
+import org.jboss.as.server.deployment.api.ContentRepository;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.Property;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests of the push of a domain operation to the host controllers by {@link DomainControllerImpl}: the hosts
+ * execute it concurrently, and a host that does not respond in time fails the operation and does not count towards
+ * the response times of the hosts.
+ *
+ * @author agent
+ */
+public class DomainControllerImplTestCase {
+
+    private static final String LOCAL = "local";
+
+    private final ConcurrentMap<String, DomainControllerSlaveClient> hosts = new ConcurrentHashMap<String, DomainControllerSlaveClient>();
+    private ScheduledExecutorService scheduledExecutor;
+    private ExecutorService hostOperationExecutor;
+    private TestDomainModel domainModel;
+    private DomainControllerImpl controller;
+
+    @Before
+    public void setUp() {
+        scheduledExecutor = Executors.newScheduledThreadPool(1);
+        hostOperationExecutor = Executors.newCachedThreadPool();
+        domainModel = new TestDomainModel();
+        controller = new DomainControllerImpl(scheduledExecutor, hostOperationExecutor, domainModel, LOCAL, null, (ContentRepository) null, hosts);
+    }
+
+    @After
+    public void tearDown() {
+        hostOperationExecutor.shutdownNow();
+        scheduledExecutor.shutdownNow();
+    }
+
+    @Test
+    public void testOperationIsCommittedOnAllHosts() {
+        final TestHost a = addHost(new TestHost("a"));
+        final TestHost b = addHost(new TestHost("b"));
+
+        final RecordingResultHandler handler = execute();
+
+        assertNull(String.valueOf(handler.failure), handler.failure);
+        assertTrue(handler.complete);
+        assertEquals(ControllerResourceState.COMMITTED, domainModel.participant.state);
+        assertEquals(ControllerResourceState.COMMITTED, a.participant.state);
+        assertEquals(ControllerResourceState.COMMITTED, b.participant.state);
+        final ModelNode statistics = domainModel.statistics.toModelNode();
+        assertEquals(1, statistics.get(LOCAL, OPERATION_COUNT).asLong());
+        assertEquals(1, statistics.get("a", OPERATION_COUNT).asLong());
+        assertEquals(1, statistics.get("b", OPERATION_COUNT).asLong());
+    }
+
+    @Test
+    public void testRemoteHostsExecuteConcurrently() {
+        domainModel.timeout = 10;
+        final int count = 25;
+        // each host only responds once all of them are executing the operation
+        final CyclicBarrier barrier = new CyclicBarrier(count);
+        final List<TestHost> remotes = new ArrayList<TestHost>();
+        for (int i = 0; i < count; i++) {
+            remotes.add(addHost(new TestHost("host" + i, barrier, null)));
+        }
+
+        final RecordingResultHandler handler = execute();
+
+        assertNull(String.valueOf(handler.failure), handler.failure);
+        assertTrue(handler.complete);
+        for (TestHost remote : remotes) {
+            assertEquals(remote.id, ControllerResourceState.COMMITTED, remote.participant.state);
+        }
+    }
+
+    @Test
+    public void testSlowHostTimesOutAndRollsBack() throws Exception {
+        final TestHost fast = addHost(new TestHost("fast"));
+        final CountDownLatch release = new CountDownLatch(1);
+        final TestHost slow = addHost(new TestHost("slow", null, release));
+
+        final RecordingResultHandler handler;
+        try {
+            handler = execute();
+        } finally {
+            release.countDown();
+        }
+
+        assertFalse(handler.complete);
+        final Set<String> failedHosts = new HashSet<String>();
+        for (Property property : handler.failure.get(HOST_FAILURE_DESCRIPTIONS).asPropertyList()) {
+            failedHosts.add(property.getName());
+        }
+        assertEquals(Collections.singleton("slow"), failedHosts);
+        assertEquals(ControllerResourceState.ROLLED_BACK, domainModel.participant.state);
+        assertEquals(ControllerResourceState.ROLLED_BACK, fast.participant.state);
+        assertEquals(ControllerResourceState.ROLLED_BACK, slow.participant.state);
+
+        // the response of the slow host after the timeout is not a response time
+        assertTrue(slow.done.await(10, TimeUnit.SECONDS));
+        final ModelNode statistics = domainModel.statistics.toModelNode();
+        assertEquals(0, statistics.get("slow", OPERATION_COUNT).asLong());
+        assertEquals(1, statistics.get("slow", TIMEOUT_COUNT).asLong());
+        assertEquals(1, statistics.get("fast", OPERATION_COUNT).asLong());
+        assertEquals(0, statistics.get("fast", TIMEOUT_COUNT).asLong());
+    }
+
+    @Test
+    public void testPushDoesNotWaitForStuckHostBeyondTimeout() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final TestHost stuck = addHost(new TestHost("stuck", null, release));
+
+        final RecordingResultHandler first;
+        final RecordingResultHandler second;
+        try {
+            first = execute();
+            // the first push still holds the connection to the host
+            second = execute();
+        } finally {
+            release.countDown();
+        }
+
+        assertFalse(first.complete);
+        assertFalse(second.complete);
+        assertTrue(second.failure.toString(), second.failure.get(HOST_FAILURE_DESCRIPTIONS).has("stuck"));
+        // the second push gave up waiting for the connection, so it never reaches the host after its transaction
+        // has completed
+        hostOperationExecutor.shutdown();
+        assertTrue(hostOperationExecutor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(1, stuck.executions.get());
+        assertEquals(ControllerResourceState.ROLLED_BACK, stuck.participant.state);
+    }
+
+    @Test
+    public void testLocalFailureIsNotPushedToOtherHosts() {
+        final TestHost remote = addHost(new TestHost("remote"));
+        domainModel.fail = true;
+
+        final RecordingResultHandler handler = execute();
+
+        assertFalse(handler.complete);
+        assertTrue(handler.failure.toString(), handler.failure.hasDefined(DOMAIN_FAILURE_DESCRIPTION));
+        assertFalse(remote.executed);
+        assertEquals(ControllerResourceState.ROLLED_BACK, domainModel.participant.state);
+    }
+
+    private TestHost addHost(final TestHost host) {
+        hosts.put(host.id, host);
+        return host;
+    }
+
+    private RecordingResultHandler execute() {
+        final ModelNode operation = new ModelNode();
+        operation.get(OP).set(WRITE_ATTRIBUTE_OPERATION);
+        operation.get(OP_ADDR).add(PROFILE, "default");
+        operation.get(NAME).set("test");
+        operation.get(VALUE).set(true);
+        final RecordingResultHandler handler = new RecordingResultHandler();
+        controller.execute(OperationBuilder.Factory.create(operation).build(), handler, null);
+        return handler;
+    }
+
+    private static ModelNode success() {
+        final ModelNode result = new ModelNode();
+        result.get(OUTCOME).set(SUCCESS);
+        result.get(RESULT).setEmptyObject();
+        return result;
+    }
+
+    private enum ControllerResourceState {
+        NONE,
+        COMMITTED,
+        ROLLED_BACK,
+    }
+
+    /**
+     * The resource a host registers with the transaction of the operation it executes.
+     */
+    private static class Participant implements ControllerResource {
+        private volatile ControllerResourceState state = ControllerResourceState.NONE;
+
+        @Override
+        public void commit() {
+            state = ControllerResourceState.COMMITTED;
+        }
+
+        @Override
+        public void rollback() {
+            state = ControllerResourceState.ROLLED_BACK;
+        }
+    }
+
+    private static class TestHost implements DomainControllerSlaveClient {
+        private final String id;
+        private final CyclicBarrier barrier;
+        private final CountDownLatch release;
+        private final Participant participant = new Participant();
+        private final CountDownLatch done = new CountDownLatch(1);
+        private final AtomicInteger executions = new AtomicInteger();
+        private volatile boolean executed;
+
+        TestHost(final String id) {
+            this(id, null, null);
+        }
+
+        TestHost(final String id, final CyclicBarrier barrier, final CountDownLatch release) {
+            this.id = id;
+            this.barrier = barrier;
+            this.release = release;
+        }
+
+        @Override
+        public ModelNode execute(final Operation operation, final ControllerTransactionContext transaction) {
+            executed = true;
+            executions.incrementAndGet();
+            transaction.registerResource(participant);
+            try {
+                if (barrier != null) {
+                    try {
+                        barrier.await(10, TimeUnit.SECONDS);
+                    } catch (Exception e) {
+                        final ModelNode result = new ModelNode();
+                        result.get(OUTCOME).set(FAILED);
+                        result.get(FAILURE_DESCRIPTION).set("The hosts did not execute concurrently");
+                        return result;
+                    }
+                }
+                if (release != null) {
+                    // a host that does not respond, even when its operation is cancelled
+                    boolean interrupted = false;
+                    while (true) {
+                        try {
+                            release.await();
+                            break;
+                        } catch (InterruptedException e) {
+                            interrupted = true;
+                        }
+                    }
+                    if (interrupted) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return success();
+            } finally {
+                done.countDown();
+            }
+        }
+
+        @Override
+        public OperationResult execute(final Operation operation, final ResultHandler handler, final ControllerTransactionContext transaction) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public OperationResult execute(final Operation operation, final ResultHandler handler) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ModelNode execute(final Operation operation) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String getId() {
+            return id;
+        }
+
+        @Override
+        public boolean isActive() {
+            return true;
+        }
+    }
+
+    private static class TestDomainModel implements DomainModel {
+        private final HostOperationStatistics statistics = new HostOperationStatistics();
+        private final Participant participant = new Participant();
+        private volatile int timeout = 1;
+        private volatile boolean fail;
+
+        @Override
+        public ModelNode executeForDomain(final Operation operation, final ControllerTransactionContext transaction) {
+            transaction.registerResource(participant);
+            if (fail) {
+                final ModelNode result = new ModelNode();
+                result.get(OUTCOME).set(FAILED);
+                result.get(FAILURE_DESCRIPTION).set("Local failure");
+                return result;
+            }
+            return success();
+        }
+
+        @Override
+        public ModelNode getDomainModel() {
+            return new ModelNode();
+        }
+
+        @Override
+        public HostOperationStatistics getHostOperationStatistics() {
+            return statistics;
+        }
+
+        @Override
+        public int getHostResponseTimeout() {
+            return timeout;
+        }
+
+        @Override
+        public OperationResult execute(final Operation operation, final ResultHandler handler) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ModelNode execute(final Operation operation) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private static class RecordingResultHandler implements ResultHandler {
+        private ModelNode failure;
+        private boolean complete;
+
+        @Override
+        public void handleResultFragment(final String[] location, final ModelNode result) {
+        }
+
+        @Override
+        public void handleResultComplete() {
+            complete = true;
+        }
+
+        @Override
+        public void handleFailed(final ModelNode failureDescription) {
+            failure = failureDescription;
+        }
+
+        @Override
+        public void handleCancellation() {
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.controller;
+
+import static org.jboss.as.domain.controller.HostOperationStatistics.AVERAGE_TIME;
+import static org.jboss.as.domain.controller.HostOperationStatistics.LAST_TIME;
+import static org.jboss.as.domain.controller.HostOperationStatistics.MAX_TIME;
+import static org.jboss.as.domain.controller.HostOperationStatistics.OPERATION_COUNT;
+import static org.jboss.as.domain.controller.HostOperationStatistics.TIMEOUT_COUNT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link HostOperationStatistics}.
+ *
+ * @author agent
+ */
+public class HostOperationStatisticsTestCase {
+
+    @Test
+    public void testNoStatistics() {
+        final ModelNode node = new HostOperationStatistics().toModelNode();
+        assertEquals(ModelType.OBJECT, node.getType());
+        assertEquals(0, node.keys().size());
+    }
+
+    @Test
+    public void testResponseTimes() {
+        final HostOperationStatistics statistics = new HostOperationStatistics();
+        statistics.responseReceived("a", millis(10));
+        statistics.responseReceived("a", millis(30));
+        statistics.responseReceived("a", millis(20));
+
+        final ModelNode a = statistics.toModelNode().get("a");
+        assertEquals(3, a.get(OPERATION_COUNT).asLong());
+        assertEquals(0, a.get(TIMEOUT_COUNT).asLong());
+        assertEquals(20, a.get(AVERAGE_TIME).asLong());
+        assertEquals(30, a.get(MAX_TIME).asLong());
+        assertEquals(20, a.get(LAST_TIME).asLong());
+    }
+
+    @Test
+    public void testTimeoutsAreCountedApart() {
+        final HostOperationStatistics statistics = new HostOperationStatistics();
+        statistics.responseTimedOut("a");
+        statistics.responseTimedOut("a");
+        statistics.responseReceived("b", millis(5));
+
+        final ModelNode node = statistics.toModelNode();
+        final ModelNode a = node.get("a");
+        // a host that never responded in time has no response time
+        assertEquals(0, a.get(OPERATION_COUNT).asLong());
+        assertEquals(2, a.get(TIMEOUT_COUNT).asLong());
+        assertEquals(0, a.get(AVERAGE_TIME).asLong());
+        assertEquals(0, a.get(MAX_TIME).asLong());
+        final ModelNode b = node.get("b");
+        assertEquals(1, b.get(OPERATION_COUNT).asLong());
+        assertEquals(0, b.get(TIMEOUT_COUNT).asLong());
+        assertEquals(5, b.get(LAST_TIME).asLong());
+    }
+
+    @Test
+    public void testModelNodeIsACopy() {
+        final HostOperationStatistics statistics = new HostOperationStatistics();
+        final ModelNode node = statistics.toModelNode();
+        statistics.responseReceived("a", millis(5));
+        assertFalse(node.has("a"));
+        assertEquals(1, statistics.toModelNode().get("a", OPERATION_COUNT).asLong());
+    }
+
+    private static long millis(final long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2010, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.domain.controller.operations.deployment;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.BYTES;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HASH;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.jboss.as.controller.ResultHandler;
+import org.jboss.dmr.ModelNode;
+import org.junit.Test;
+
+/**
+ * Unit tests of the domain {@link DeploymentUploadBytesHandler}. The handling of the content hash is shared
+ * with the server handler and tested there; this only covers what differs on a domain controller.
+ *
+ * @author agent
+ */
+public class DeploymentUploadBytesHandlerTestCase {
+
+    @Test
+    public void testSlaveIgnoresUpload() throws Exception {
+        final ModelNode operation = new ModelNode();
+        operation.get(HASH).set(new byte[20]);
+        operation.get(BYTES).set("deployment content".getBytes());
+        final RecordingResultHandler resultHandler = new RecordingResultHandler();
+        // a slave domain controller has no content repository
+        new DeploymentUploadBytesHandler(null).execute(null, operation, resultHandler);
+        assertTrue(resultHandler.complete);
+        assertFalse(resultHandler.result);
+    }
+
+    @Test
+    public void testSlaveIgnoresUploadWithoutContent() throws Exception {
+        final ModelNode operation = new ModelNode();
+        operation.get(HASH).set(new byte[20]);
+        final RecordingResultHandler resultHandler = new RecordingResultHandler();
+        new DeploymentUploadBytesHandler(null).execute(null, operation, resultHandler);
+        assertTrue(resultHandler.complete);
+        assertFalse(resultHandler.result);
+    }
+
+    private static class RecordingResultHandler implements ResultHandler {
+        private boolean result;
+        private boolean complete;
+
+        @Override
+        public void handleResultFragment(final String[] location, final ModelNode result) {
+            this.result = true;
+        }
+
+        @Override
+        public void handleResultComplete() {
+            complete = true;
+        }
+
+        @Override
+        public void handleFailed(final ModelNode failureDescription) {
+            fail(failureDescription.toString());
+        }
+
+        @Override
+        public void handleCancellation() {
+            fail("cancelled");
+        }
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3;
+
+/**
+ * Attribute and element names of the ejb3 subsystem.
+ *
+ * @author agent
+ */
+interface CommonAttributes {
+
+    String BEAN = "bean";
+    String BEANS = "beans";
+    String CONCURRENCY = "concurrency";
+    String DEFAULT_ACCESS_TIMEOUT = "default-access-timeout";
+    String DEFAULT_SLSB_POOL = "default-slsb-pool";
+    String MAX_SIZE = "max-size";
+    String NAME = "name";
+    String PASSIVATION_DIR = "passivation-dir";
+    String POOL = "pool";
+    String POOLS = "pools";
+    String STATEFUL_CACHE = "stateful-cache";
+    String STATEFUL_CACHE_MAX_SIZE = "stateful-cache-max-size";
+    String TIMEOUT = "timeout";
+    String TIMEOUT_UNIT = "timeout-unit";
+
+    // metrics
+    String AVAILABLE_COUNT = "available-count";
+    String CONTENTION_COUNT = "contention-count";
+    String CREATE_COUNT = "create-count";
+    String CURRENT_SIZE = "current-size";
+    String REMOVE_COUNT = "remove-count";
+    String SINGLETON_LOCK_STATISTICS = "singleton-lock-statistics";
+    String TIMEOUT_COUNT = "timeout-count";
+    String WAIT_TIME = "wait-time";
+}
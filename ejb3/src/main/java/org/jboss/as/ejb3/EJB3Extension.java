@@ -28,24 +28,19 @@ import org.jboss.as.controller.ExtensionContext;
 import org.jboss.as.controller.ModelQueryOperationHandler;
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationResult;
+import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.ResultHandler;
 import org.jboss.as.controller.SubsystemRegistration;
 import org.jboss.as.controller.descriptions.DescriptionProvider;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.operations.common.Util;
 import org.jboss.as.controller.parsing.ExtensionParsingContext;
-import org.jboss.as.controller.parsing.ParseUtils;
-import org.jboss.as.controller.persistence.SubsystemMarshallingContext;
 import org.jboss.as.controller.registry.ModelNodeRegistration;
 import org.jboss.as.controller.registry.OperationEntry;
 import org.jboss.dmr.ModelNode;
-import org.jboss.staxmapper.XMLElementReader;
-import org.jboss.staxmapper.XMLElementWriter;
-import org.jboss.staxmapper.XMLExtendedStreamReader;
-import org.jboss.staxmapper.XMLExtendedStreamWriter;
+import org.jboss.dmr.Property;
 
-import javax.xml.stream.XMLStreamException;
-import java.util.List;
+import java.util.EnumSet;
 import java.util.Locale;
 
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.*;
@@ -58,7 +53,7 @@ public class EJB3Extension implements Extension {
     public static final String SUBSYSTEM_NAME = "ejb3";
     public static final String NAMESPACE = "urn:jboss:domain:ejb3:1.0";
 
-    private static final EJB3SubsystemParser parser = new EJB3SubsystemParser();
+    private static final EJB3SubsystemParser parser = EJB3SubsystemParser.getInstance();
 
     /** {@inheritDoc} */
     @Override
@@ -67,6 +62,14 @@ public class EJB3Extension implements Extension {
         final ModelNodeRegistration registration = subsystem.registerSubsystemModel(EJB3SubsystemProviders.SUBSYSTEM);
         registration.registerOperationHandler(ADD, EJB3SubsystemAdd.INSTANCE, EJB3SubsystemProviders.SUBSYSTEM_ADD, false);
         registration.registerOperationHandler(DESCRIBE, SubsystemDescribeHandler.INSTANCE, SubsystemDescribeHandler.INSTANCE, false, OperationEntry.EntryType.PRIVATE);
+        registration.registerMetric(CommonAttributes.SINGLETON_LOCK_STATISTICS, SingletonLockStatisticsHandler.INSTANCE);
+
+        final ModelNodeRegistration pools = registration.registerSubModel(PathElement.pathElement(CommonAttributes.POOL), EJB3SubsystemProviders.POOL_DESC);
+        pools.registerOperationHandler(ADD, PoolAdd.INSTANCE, EJB3SubsystemProviders.POOL_ADD, false);
+        pools.registerOperationHandler(REMOVE, PoolRemove.INSTANCE, EJB3SubsystemProviders.POOL_REMOVE, false);
+        for (PoolMetricsHandler.PoolMetric metric : EnumSet.allOf(PoolMetricsHandler.PoolMetric.class)) {
+            pools.registerMetric(metric.toString(), PoolMetricsHandler.INSTANCE);
+        }
         subsystem.registerXMLElementWriter(parser);
     }
 
@@ -76,33 +79,22 @@ public class EJB3Extension implements Extension {
         context.setSubsystemXmlMapping(NAMESPACE, parser);
     }
 
-    static class EJB3SubsystemParser implements XMLElementReader<List<ModelNode>>, XMLElementWriter<SubsystemMarshallingContext> {
-
-        /** {@inheritDoc} */
-        @Override
-        public void writeContent(final XMLExtendedStreamWriter writer, final SubsystemMarshallingContext context) throws XMLStreamException {
-            // //TODO seems to be a problem with empty elements cleaning up the queue in FormattingXMLStreamWriter.runAttrQueue
-            //context.startSubsystemElement(NewManagedBeansExtension.NAMESPACE, true);
-            context.startSubsystemElement(NAMESPACE, false);
-            writer.writeEndElement();
-        }
-
-        /** {@inheritDoc} */
-        @Override
-        public void readElement(final XMLExtendedStreamReader reader, final List<ModelNode> list) throws XMLStreamException {
-            ParseUtils.requireNoAttributes(reader);
-            ParseUtils.requireNoContent(reader);
-            final ModelNode update = new ModelNode();
-            update.get(OP).set(ADD);
-            update.get(OP_ADDR).add(SUBSYSTEM, SUBSYSTEM_NAME);
-            list.add(update);
-        }
-    }
-
-    private static ModelNode createAddSubSystemOperation() {
+    private static ModelNode createAddSubSystemOperation(final ModelNode model) {
         final ModelNode subsystem = new ModelNode();
         subsystem.get(OP).set(ADD);
         subsystem.get(OP_ADDR).add(ModelDescriptionConstants.SUBSYSTEM, SUBSYSTEM_NAME);
+        if (model.hasDefined(CommonAttributes.DEFAULT_SLSB_POOL)) {
+            subsystem.get(CommonAttributes.DEFAULT_SLSB_POOL).set(model.get(CommonAttributes.DEFAULT_SLSB_POOL));
+        }
+        if (model.hasDefined(CommonAttributes.DEFAULT_ACCESS_TIMEOUT)) {
+            subsystem.get(CommonAttributes.DEFAULT_ACCESS_TIMEOUT).set(model.get(CommonAttributes.DEFAULT_ACCESS_TIMEOUT));
+        }
+        if (model.hasDefined(CommonAttributes.STATEFUL_CACHE_MAX_SIZE)) {
+            subsystem.get(CommonAttributes.STATEFUL_CACHE_MAX_SIZE).set(model.get(CommonAttributes.STATEFUL_CACHE_MAX_SIZE));
+        }
+        if (model.hasDefined(CommonAttributes.PASSIVATION_DIR)) {
+            subsystem.get(CommonAttributes.PASSIVATION_DIR).set(model.get(CommonAttributes.PASSIVATION_DIR));
+        }
         return subsystem;
     }
 
@@ -110,8 +102,17 @@ public class EJB3Extension implements Extension {
         static final SubsystemDescribeHandler INSTANCE = new SubsystemDescribeHandler();
         @Override
         public OperationResult execute(OperationContext context, ModelNode operation, ResultHandler resultHandler) {
-            ModelNode node = new ModelNode();
-            node.add(createAddSubSystemOperation());
+            final ModelNode model = context.getSubModel();
+            final ModelNode node = new ModelNode();
+            node.add(createAddSubSystemOperation(model));
+            if (model.hasDefined(CommonAttributes.POOL)) {
+                for (Property pool : model.get(CommonAttributes.POOL).asPropertyList()) {
+                    final ModelNode address = new ModelNode();
+                    address.add(ModelDescriptionConstants.SUBSYSTEM, SUBSYSTEM_NAME);
+                    address.add(CommonAttributes.POOL, pool.getName());
+                    node.add(PoolAdd.getRecreateOperation(address, pool.getValue()));
+                }
+            }
 
             resultHandler.handleResultFragment(Util.NO_LOCATION, node);
             resultHandler.handleResultComplete();
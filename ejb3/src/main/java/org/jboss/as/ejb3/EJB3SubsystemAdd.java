@@ -32,6 +32,8 @@ import org.jboss.as.controller.RuntimeTask;
 import org.jboss.as.controller.RuntimeTaskContext;
 import org.jboss.as.controller.operations.common.Util;
 import org.jboss.as.ejb3.component.EJBUtilities;
+import org.jboss.as.ejb3.component.pool.PoolConfig;
+import org.jboss.as.ejb3.component.pool.PoolConfigRegistry;
 import org.jboss.as.ejb3.deployment.processors.AccessTimeoutAnnotationProcessor;
 import org.jboss.as.ejb3.deployment.processors.ApplicationExceptionAnnotationProcessor;
 import org.jboss.as.ejb3.deployment.processors.AsynchronousAnnotationProcessor;
@@ -48,6 +50,7 @@ import org.jboss.as.ejb3.deployment.processors.EjbRefProcessor;
 import org.jboss.as.ejb3.deployment.processors.EjbResourceInjectionAnnotationProcessor;
 import org.jboss.as.ejb3.deployment.processors.ImplicitLocalViewProcessor;
 import org.jboss.as.ejb3.deployment.processors.LockAnnotationProcessor;
+import org.jboss.as.ejb3.deployment.processors.PassivationCallbackProcessor;
 import org.jboss.as.ejb3.deployment.processors.RemoveAnnotationProcessor;
 import org.jboss.as.ejb3.deployment.processors.ResourceAdapterAnnotationProcessor;
 import org.jboss.as.ejb3.deployment.processors.SessionSynchronizationProcessor;
@@ -66,17 +69,23 @@ import org.jboss.as.ejb3.deployment.processors.dd.SessionBeanXmlDescriptorProces
 import org.jboss.as.ejb3.deployment.processors.dd.EjbConcurrencyProcessor;
 import org.jboss.as.server.BootOperationContext;
 import org.jboss.as.server.BootOperationHandler;
+import org.jboss.as.server.ServerEnvironment;
 import org.jboss.as.server.deployment.Phase;
 import org.jboss.as.txn.TxnServices;
 import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceBuilder;
 import org.jboss.msc.service.ServiceController;
 import org.jboss.msc.service.ServiceTarget;
 
 import javax.transaction.TransactionManager;
 import javax.transaction.TransactionSynchronizationRegistry;
 import javax.transaction.UserTransaction;
+import java.io.File;
+import java.util.concurrent.TimeUnit;
 
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.ejb3.CommonAttributes.DEFAULT_SLSB_POOL;
+import static org.jboss.as.ejb3.CommonAttributes.POOL;
 
 /**
  * @author Emanuel Muckenhuber
@@ -85,6 +94,9 @@ class EJB3SubsystemAdd implements ModelAddOperationHandler, BootOperationHandler
 
     static final EJB3SubsystemAdd INSTANCE = new EJB3SubsystemAdd();
 
+    /** The default access timeout, in milliseconds, of singleton and stateful session bean methods. */
+    static final long DEFAULT_ACCESS_TIMEOUT = TimeUnit.MINUTES.toMillis(5);
+
     private EJB3SubsystemAdd() {
         //
     }
@@ -96,6 +108,10 @@ class EJB3SubsystemAdd implements ModelAddOperationHandler, BootOperationHandler
     public OperationResult execute(final OperationContext context, final ModelNode operation, final ResultHandler resultHandler) {
 
         final ModelNode compensatingOperation = Util.getResourceRemoveOperation(operation.require(OP_ADDR));
+        final String defaultSlsbPool = operation.hasDefined(DEFAULT_SLSB_POOL) ? operation.get(DEFAULT_SLSB_POOL).asString() : null;
+        final Long defaultAccessTimeout = operation.hasDefined(CommonAttributes.DEFAULT_ACCESS_TIMEOUT) ? operation.get(CommonAttributes.DEFAULT_ACCESS_TIMEOUT).asLong() : null;
+        final Integer statefulCacheMaxSize = operation.hasDefined(CommonAttributes.STATEFUL_CACHE_MAX_SIZE) ? operation.get(CommonAttributes.STATEFUL_CACHE_MAX_SIZE).asInt() : null;
+        final String passivationDir = operation.hasDefined(CommonAttributes.PASSIVATION_DIR) ? operation.get(CommonAttributes.PASSIVATION_DIR).asString() : null;
 
         if (context instanceof BootOperationContext) {
             final BootOperationContext updateContext = (BootOperationContext) context;
@@ -104,13 +120,27 @@ class EJB3SubsystemAdd implements ModelAddOperationHandler, BootOperationHandler
                 @Override
                 public void execute(RuntimeTaskContext context) throws OperationFailedException {
                     final ServiceTarget serviceTarget = context.getServiceTarget();
-                    final EJBUtilities utilities = new EJBUtilities();
+                    final File passivationDirectory;
+                    if (passivationDir != null) {
+                        passivationDirectory = new File(passivationDir);
+                    } else {
+                        passivationDirectory = new File(new File(System.getProperty(ServerEnvironment.SERVER_DATA_DIR), "ejb3"), "passivation");
+                    }
+                    final EJBUtilities utilities = new EJBUtilities(defaultAccessTimeout != null ? defaultAccessTimeout : DEFAULT_ACCESS_TIMEOUT,
+                            statefulCacheMaxSize != null ? statefulCacheMaxSize : 0, passivationDirectory);
                     serviceTarget.addService(EJBUtilities.SERVICE_NAME, utilities)
                             .addDependency(TxnServices.JBOSS_TXN_TRANSACTION_MANAGER, TransactionManager.class, utilities.getTransactionManagerInjector())
                             .addDependency(TxnServices.JBOSS_TXN_SYNCHRONIZATION_REGISTRY, TransactionSynchronizationRegistry.class, utilities.getTransactionSynchronizationRegistryInjector())
                             .addDependency(TxnServices.JBOSS_TXN_USER_TRANSACTION, UserTransaction.class, utilities.getUserTransactionInjector())
                             .setInitialMode(ServiceController.Mode.ACTIVE)
                             .install();
+                    final PoolConfigRegistry poolConfigRegistry = new PoolConfigRegistry(defaultSlsbPool);
+                    final ServiceBuilder<PoolConfigRegistry> poolConfigRegistryBuilder = serviceTarget.addService(PoolConfigRegistry.SERVICE_NAME, poolConfigRegistry);
+                    if (defaultSlsbPool != null) {
+                        poolConfigRegistryBuilder.addDependency(PoolConfig.SERVICE_NAME.append(defaultSlsbPool), PoolConfig.class, poolConfigRegistry.getDefaultPoolInjector());
+                    }
+                    poolConfigRegistryBuilder.setInitialMode(ServiceController.Mode.ACTIVE)
+                            .install();
                     resultHandler.handleResultComplete(); // TODO: Listener
                 }
             });
@@ -135,6 +165,7 @@ class EJB3SubsystemAdd implements ModelAddOperationHandler, BootOperationHandler
             updateContext.addDeploymentProcessor(Phase.PARSE, Phase.PARSE_EJB_ACCESS_TIMEOUT_ANNOTATION, new AccessTimeoutAnnotationProcessor());
             updateContext.addDeploymentProcessor(Phase.PARSE, Phase.PARSE_EJB_TRANSACTION_ATTR_ANNOTATION, new TransactionAttributeAnnotationProcessor());
             updateContext.addDeploymentProcessor(Phase.PARSE, Phase.PARSE_EJB_SESSION_SYNCHRONIZATION, new SessionSynchronizationProcessor());
+            updateContext.addDeploymentProcessor(Phase.PARSE, Phase.PARSE_EJB_PASSIVATION_CALLBACK, new PassivationCallbackProcessor());
             updateContext.addDeploymentProcessor(Phase.PARSE, Phase.PARSE_EJB_RESOURCE_ADAPTER_ANNOTATION, new ResourceAdapterAnnotationProcessor());
             updateContext.addDeploymentProcessor(Phase.PARSE, Phase.PARSE_EJB_ASYNCHRONOUS_ANNOTATION, new AsynchronousAnnotationProcessor());
             updateContext.addDeploymentProcessor(Phase.PARSE, Phase.PARSE_EJB_APPLICATION_EXCEPTION_ANNOTATION, new ApplicationExceptionAnnotationProcessor());
@@ -162,7 +193,21 @@ class EJB3SubsystemAdd implements ModelAddOperationHandler, BootOperationHandler
             // updateContext.addDeploymentProcessor(processor, priority);
         }
 
-        context.getSubModel().setEmptyObject();
+        final ModelNode model = context.getSubModel();
+        model.setEmptyObject();
+        if (defaultSlsbPool != null) {
+            model.get(DEFAULT_SLSB_POOL).set(defaultSlsbPool);
+        }
+        if (defaultAccessTimeout != null) {
+            model.get(CommonAttributes.DEFAULT_ACCESS_TIMEOUT).set(defaultAccessTimeout);
+        }
+        if (statefulCacheMaxSize != null) {
+            model.get(CommonAttributes.STATEFUL_CACHE_MAX_SIZE).set(statefulCacheMaxSize);
+        }
+        if (passivationDir != null) {
+            model.get(CommonAttributes.PASSIVATION_DIR).set(passivationDir);
+        }
+        model.get(POOL).setEmptyObject();
         resultHandler.handleResultComplete();
         return new BasicOperationResult(compensatingOperation);
     }
@@ -21,29 +21,47 @@
  */
 package org.jboss.as.ejb3;
 
+import org.jboss.as.controller.parsing.ParseUtils;
 import org.jboss.as.controller.persistence.SubsystemMarshallingContext;
 import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.Property;
 import org.jboss.staxmapper.XMLElementReader;
 import org.jboss.staxmapper.XMLElementWriter;
 import org.jboss.staxmapper.XMLExtendedStreamReader;
 import org.jboss.staxmapper.XMLExtendedStreamWriter;
 
 import javax.xml.stream.XMLStreamException;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
+import static javax.xml.stream.XMLStreamConstants.END_ELEMENT;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADD;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBSYSTEM;
+import static org.jboss.as.ejb3.CommonAttributes.BEAN;
+import static org.jboss.as.ejb3.CommonAttributes.BEANS;
+import static org.jboss.as.ejb3.CommonAttributes.CONCURRENCY;
+import static org.jboss.as.ejb3.CommonAttributes.DEFAULT_ACCESS_TIMEOUT;
+import static org.jboss.as.ejb3.CommonAttributes.DEFAULT_SLSB_POOL;
+import static org.jboss.as.ejb3.CommonAttributes.MAX_SIZE;
+import static org.jboss.as.ejb3.CommonAttributes.NAME;
+import static org.jboss.as.ejb3.CommonAttributes.PASSIVATION_DIR;
+import static org.jboss.as.ejb3.CommonAttributes.POOL;
+import static org.jboss.as.ejb3.CommonAttributes.POOLS;
+import static org.jboss.as.ejb3.CommonAttributes.STATEFUL_CACHE;
+import static org.jboss.as.ejb3.CommonAttributes.STATEFUL_CACHE_MAX_SIZE;
+import static org.jboss.as.ejb3.CommonAttributes.TIMEOUT;
+import static org.jboss.as.ejb3.CommonAttributes.TIMEOUT_UNIT;
 
 /**
- * Create a subsystem add directive from the given XML input.
+ * Create a subsystem add directive, and pool add directives, from the given XML input.
  *
  * @author <a href="mailto:cdewolf@redhat.com">Carlo de Wolf</a>
  */
 class EJB3SubsystemParser implements XMLElementReader<List<ModelNode>>, XMLElementWriter<SubsystemMarshallingContext> {
-    //protected static final String NAMESPACE = Namespace.EJB3_1_0.getUriString();
-    protected static final String NAMESPACE = "urn:jboss:domain:ejb3:1.0";
 
     private static final EJB3SubsystemParser instance = new EJB3SubsystemParser();
 
@@ -54,55 +72,194 @@ class EJB3SubsystemParser implements XMLElementReader<List<ModelNode>>, XMLEleme
     @Override
     public void readElement(final XMLExtendedStreamReader reader, final List<ModelNode> list) throws XMLStreamException {
         // parse <jboss-ejb3> domain element
+        ParseUtils.requireNoAttributes(reader);
+
+        final ModelNode address = new ModelNode();
+        address.add(SUBSYSTEM, EJB3Extension.SUBSYSTEM_NAME);
 
         final ModelNode subsystem = new ModelNode();
         subsystem.get(OP).set(ADD);
-        subsystem.get(OP_ADDR).add(SUBSYSTEM, EJB3Extension.SUBSYSTEM_NAME);
+        subsystem.get(OP_ADDR).set(address);
         list.add(subsystem);
 
-        /*
+        boolean poolsSeen = false;
+        boolean concurrencySeen = false;
+        boolean statefulCacheSeen = false;
         while (reader.hasNext() && reader.nextTag() != END_ELEMENT) {
-            switch (Namespace.forUri(reader.getNamespaceURI())) {
-                case EJB3_1_0:
-                    final Element element = Element.forName(reader.getLocalName());
-                    switch (element) {
-                        case ASSEMBLY_DESCRIPTOR:
-                            subsystem.get(ASSEMBLY_DESCRIPTOR).set(parseAssemblyDescriptor(reader));
-                            break;
-                        default:
-                            throw ParseUtils.unexpectedElement(reader);
-                    }
-                    break;
-                default:
-                    throw ParseUtils.unexpectedElement(reader);
+            if (!EJB3Extension.NAMESPACE.equals(reader.getNamespaceURI())) {
+                throw ParseUtils.unexpectedElement(reader);
+            }
+            if (POOLS.equals(reader.getLocalName()) && !poolsSeen) {
+                poolsSeen = true;
+                parsePools(reader, address, subsystem, list);
+            } else if (CONCURRENCY.equals(reader.getLocalName()) && !concurrencySeen) {
+                concurrencySeen = true;
+                parseConcurrency(reader, subsystem);
+            } else if (STATEFUL_CACHE.equals(reader.getLocalName()) && !statefulCacheSeen) {
+                statefulCacheSeen = true;
+                parseStatefulCache(reader, subsystem);
+            } else {
+                throw ParseUtils.unexpectedElement(reader);
+            }
+        }
+    }
+
+    private static void parseConcurrency(final XMLExtendedStreamReader reader, final ModelNode subsystem) throws XMLStreamException {
+        final int count = reader.getAttributeCount();
+        for (int i = 0; i < count; i++) {
+            ParseUtils.requireNoNamespaceAttribute(reader, i);
+            if (DEFAULT_ACCESS_TIMEOUT.equals(reader.getAttributeLocalName(i))) {
+                try {
+                    subsystem.get(DEFAULT_ACCESS_TIMEOUT).set(Long.parseLong(reader.getAttributeValue(i)));
+                } catch (NumberFormatException e) {
+                    throw ParseUtils.invalidAttributeValue(reader, i);
+                }
+            } else {
+                throw ParseUtils.unexpectedAttribute(reader, i);
             }
         }
-        */
+        ParseUtils.requireNoContent(reader);
     }
 
-    /*
-    private static ModelNode parseAssemblyDescriptor(XMLExtendedStreamReader reader) throws XMLStreamException {
-        ModelNode assemblyDescriptor = new ModelNode();
+    private static void parseStatefulCache(final XMLExtendedStreamReader reader, final ModelNode subsystem) throws XMLStreamException {
+        final int count = reader.getAttributeCount();
+        for (int i = 0; i < count; i++) {
+            ParseUtils.requireNoNamespaceAttribute(reader, i);
+            final String attribute = reader.getAttributeLocalName(i);
+            if (MAX_SIZE.equals(attribute)) {
+                try {
+                    subsystem.get(STATEFUL_CACHE_MAX_SIZE).set(Integer.parseInt(reader.getAttributeValue(i)));
+                } catch (NumberFormatException e) {
+                    throw ParseUtils.invalidAttributeValue(reader, i);
+                }
+            } else if (PASSIVATION_DIR.equals(attribute)) {
+                subsystem.get(PASSIVATION_DIR).set(reader.getAttributeValue(i));
+            } else {
+                throw ParseUtils.unexpectedAttribute(reader, i);
+            }
+        }
+        ParseUtils.requireNoContent(reader);
+    }
+
+    private static void parsePools(final XMLExtendedStreamReader reader, final ModelNode address, final ModelNode subsystem,
+                                   final List<ModelNode> list) throws XMLStreamException {
+        final int count = reader.getAttributeCount();
+        for (int i = 0; i < count; i++) {
+            ParseUtils.requireNoNamespaceAttribute(reader, i);
+            if (DEFAULT_SLSB_POOL.equals(reader.getAttributeLocalName(i))) {
+                subsystem.get(DEFAULT_SLSB_POOL).set(reader.getAttributeValue(i));
+            } else {
+                throw ParseUtils.unexpectedAttribute(reader, i);
+            }
+        }
+
+        final Set<String> names = new HashSet<String>();
         while (reader.hasNext() && reader.nextTag() != END_ELEMENT) {
-            final String localName = reader.getLocalName();
-            final Element element = Element.forName(localName);
-            switch (element) {
-                case UNKNOWN:
-                    List<ModelNode> result = new ArrayList<ModelNode>();
-                    reader.handleAny(result);
-                    assemblyDescriptor.get(localName).set(result.get(0));
-                    break;
+            if (!POOL.equals(reader.getLocalName())) {
+                throw ParseUtils.unexpectedElement(reader);
             }
+            list.add(parsePool(reader, address, names));
+        }
+        if (subsystem.hasDefined(DEFAULT_SLSB_POOL) && !names.contains(subsystem.get(DEFAULT_SLSB_POOL).asString())) {
+            throw new XMLStreamException("No pool named " + subsystem.get(DEFAULT_SLSB_POOL).asString(), reader.getLocation());
         }
-        return assemblyDescriptor;
     }
-    */
+
+    private static ModelNode parsePool(final XMLExtendedStreamReader reader, final ModelNode address, final Set<String> names)
+            throws XMLStreamException {
+        final ModelNode pool = new ModelNode();
+        pool.get(OP).set(ADD);
+
+        String name = null;
+        final int count = reader.getAttributeCount();
+        for (int i = 0; i < count; i++) {
+            ParseUtils.requireNoNamespaceAttribute(reader, i);
+            final String attribute = reader.getAttributeLocalName(i);
+            final String value = reader.getAttributeValue(i);
+            if (NAME.equals(attribute)) {
+                name = value;
+            } else if (MAX_SIZE.equals(attribute)) {
+                pool.get(MAX_SIZE).set(ParseUtils.parseBoundedIntegerAttribute(reader, i, 1, Integer.MAX_VALUE));
+            } else if (TIMEOUT.equals(attribute)) {
+                try {
+                    pool.get(TIMEOUT).set(Long.parseLong(value));
+                } catch (NumberFormatException e) {
+                    throw ParseUtils.invalidAttributeValue(reader, i);
+                }
+            } else if (TIMEOUT_UNIT.equals(attribute)) {
+                pool.get(TIMEOUT_UNIT).set(value);
+            } else {
+                throw ParseUtils.unexpectedAttribute(reader, i);
+            }
+        }
+        if (name == null) {
+            throw ParseUtils.missingRequired(reader, Collections.singleton(NAME));
+        }
+        if (!names.add(name)) {
+            throw ParseUtils.duplicateNamedElement(reader, name);
+        }
+        final ModelNode poolAddress = address.clone();
+        poolAddress.add(POOL, name);
+        pool.get(OP_ADDR).set(poolAddress);
+
+        while (reader.hasNext() && reader.nextTag() != END_ELEMENT) {
+            if (!BEAN.equals(reader.getLocalName())) {
+                throw ParseUtils.unexpectedElement(reader);
+            }
+            pool.get(BEANS).add(ParseUtils.readStringAttributeElement(reader, NAME));
+        }
+        return pool;
+    }
 
     @Override
     public void writeContent(final XMLExtendedStreamWriter writer, final SubsystemMarshallingContext context) throws XMLStreamException {
         // //TODO seems to be a problem with empty elements cleaning up the queue in FormattingXMLStreamWriter.runAttrQueue
         //context.startSubsystemElement(NewManagedBeansExtension.NAMESPACE, true);
-        context.startSubsystemElement(NAMESPACE, false);
+        context.startSubsystemElement(EJB3Extension.NAMESPACE, false);
+        final ModelNode model = context.getModelNode();
+        if (model.hasDefined(DEFAULT_SLSB_POOL) || model.hasDefined(POOL)) {
+            writer.writeStartElement(POOLS);
+            if (model.hasDefined(DEFAULT_SLSB_POOL)) {
+                writer.writeAttribute(DEFAULT_SLSB_POOL, model.get(DEFAULT_SLSB_POOL).asString());
+            }
+            if (model.hasDefined(POOL)) {
+                for (Property property : model.get(POOL).asPropertyList()) {
+                    final ModelNode pool = property.getValue();
+                    writer.writeStartElement(POOL);
+                    writer.writeAttribute(NAME, property.getName());
+                    if (pool.hasDefined(MAX_SIZE)) {
+                        writer.writeAttribute(MAX_SIZE, pool.get(MAX_SIZE).asString());
+                    }
+                    if (pool.hasDefined(TIMEOUT)) {
+                        writer.writeAttribute(TIMEOUT, pool.get(TIMEOUT).asString());
+                    }
+                    if (pool.hasDefined(TIMEOUT_UNIT)) {
+                        writer.writeAttribute(TIMEOUT_UNIT, pool.get(TIMEOUT_UNIT).asString());
+                    }
+                    if (pool.hasDefined(BEANS)) {
+                        for (ModelNode bean : pool.get(BEANS).asList()) {
+                            writer.writeEmptyElement(BEAN);
+                            writer.writeAttribute(NAME, bean.asString());
+                        }
+                    }
+                    writer.writeEndElement();
+                }
+            }
+            writer.writeEndElement();
+        }
+        if (model.hasDefined(DEFAULT_ACCESS_TIMEOUT)) {
+            writer.writeEmptyElement(CONCURRENCY);
+            writer.writeAttribute(DEFAULT_ACCESS_TIMEOUT, model.get(DEFAULT_ACCESS_TIMEOUT).asString());
+        }
+        if (model.hasDefined(STATEFUL_CACHE_MAX_SIZE) || model.hasDefined(PASSIVATION_DIR)) {
+            writer.writeEmptyElement(STATEFUL_CACHE);
+            if (model.hasDefined(STATEFUL_CACHE_MAX_SIZE)) {
+                writer.writeAttribute(MAX_SIZE, model.get(STATEFUL_CACHE_MAX_SIZE).asString());
+            }
+            if (model.hasDefined(PASSIVATION_DIR)) {
+                writer.writeAttribute(PASSIVATION_DIR, model.get(PASSIVATION_DIR).asString());
+            }
+        }
         writer.writeEndElement();
     }
 }
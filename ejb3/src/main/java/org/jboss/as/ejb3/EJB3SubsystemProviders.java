@@ -23,17 +23,40 @@
 package org.jboss.as.ejb3;
 
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADD;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ATTRIBUTES;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CHILDREN;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DEFAULT;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DESCRIPTION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HEAD_COMMENT_ALLOWED;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MAX_OCCURS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MIN_OCCURS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MODEL_DESCRIPTION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAMESPACE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATION_NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REMOVE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REQUEST_PROPERTIES;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REQUIRED;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.TAIL_COMMENT_ALLOWED;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.TYPE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.VALUE_TYPE;
+import static org.jboss.as.ejb3.CommonAttributes.BEANS;
+import static org.jboss.as.ejb3.CommonAttributes.DEFAULT_ACCESS_TIMEOUT;
+import static org.jboss.as.ejb3.CommonAttributes.DEFAULT_SLSB_POOL;
+import static org.jboss.as.ejb3.CommonAttributes.MAX_SIZE;
+import static org.jboss.as.ejb3.CommonAttributes.PASSIVATION_DIR;
+import static org.jboss.as.ejb3.CommonAttributes.POOL;
+import static org.jboss.as.ejb3.CommonAttributes.SINGLETON_LOCK_STATISTICS;
+import static org.jboss.as.ejb3.CommonAttributes.STATEFUL_CACHE_MAX_SIZE;
+import static org.jboss.as.ejb3.CommonAttributes.TIMEOUT;
+import static org.jboss.as.ejb3.CommonAttributes.TIMEOUT_UNIT;
 
+import java.util.EnumSet;
 import java.util.Locale;
 import java.util.ResourceBundle;
 
 import org.jboss.as.controller.descriptions.DescriptionProvider;
 import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
 
 /**
  * @author Emanuel Muckenhuber
@@ -52,6 +75,28 @@ class EJB3SubsystemProviders {
             subsystem.get(TAIL_COMMENT_ALLOWED).set(true);
             subsystem.get(NAMESPACE).set(EJB3Extension.NAMESPACE);
 
+            subsystem.get(ATTRIBUTES, DEFAULT_SLSB_POOL, TYPE).set(ModelType.STRING);
+            subsystem.get(ATTRIBUTES, DEFAULT_SLSB_POOL, DESCRIPTION).set(bundle.getString("ejb3.default-slsb-pool"));
+            subsystem.get(ATTRIBUTES, DEFAULT_SLSB_POOL, REQUIRED).set(false);
+            subsystem.get(ATTRIBUTES, DEFAULT_ACCESS_TIMEOUT, TYPE).set(ModelType.LONG);
+            subsystem.get(ATTRIBUTES, DEFAULT_ACCESS_TIMEOUT, DESCRIPTION).set(bundle.getString("ejb3.default-access-timeout"));
+            subsystem.get(ATTRIBUTES, DEFAULT_ACCESS_TIMEOUT, REQUIRED).set(false);
+            subsystem.get(ATTRIBUTES, DEFAULT_ACCESS_TIMEOUT, DEFAULT).set(EJB3SubsystemAdd.DEFAULT_ACCESS_TIMEOUT);
+            subsystem.get(ATTRIBUTES, STATEFUL_CACHE_MAX_SIZE, TYPE).set(ModelType.INT);
+            subsystem.get(ATTRIBUTES, STATEFUL_CACHE_MAX_SIZE, DESCRIPTION).set(bundle.getString("ejb3.stateful-cache-max-size"));
+            subsystem.get(ATTRIBUTES, STATEFUL_CACHE_MAX_SIZE, REQUIRED).set(false);
+            subsystem.get(ATTRIBUTES, STATEFUL_CACHE_MAX_SIZE, DEFAULT).set(0);
+            subsystem.get(ATTRIBUTES, PASSIVATION_DIR, TYPE).set(ModelType.STRING);
+            subsystem.get(ATTRIBUTES, PASSIVATION_DIR, DESCRIPTION).set(bundle.getString("ejb3.passivation-dir"));
+            subsystem.get(ATTRIBUTES, PASSIVATION_DIR, REQUIRED).set(false);
+            subsystem.get(ATTRIBUTES, SINGLETON_LOCK_STATISTICS, TYPE).set(ModelType.OBJECT);
+            subsystem.get(ATTRIBUTES, SINGLETON_LOCK_STATISTICS, DESCRIPTION).set(bundle.getString("ejb3.singleton-lock-statistics"));
+
+            subsystem.get(CHILDREN, POOL, DESCRIPTION).set(bundle.getString("ejb3.pool"));
+            subsystem.get(CHILDREN, POOL, MIN_OCCURS).set(0);
+            subsystem.get(CHILDREN, POOL, MAX_OCCURS).set(Integer.MAX_VALUE);
+            subsystem.get(CHILDREN, POOL, MODEL_DESCRIPTION).setEmptyObject();
+
             return subsystem;
         }
     };
@@ -65,10 +110,96 @@ class EJB3SubsystemProviders {
             op.get(OPERATION_NAME).set(ADD);
             op.get(DESCRIPTION).set(bundle.getString("ejb3.add"));
 
+            op.get(REQUEST_PROPERTIES, DEFAULT_SLSB_POOL, TYPE).set(ModelType.STRING);
+            op.get(REQUEST_PROPERTIES, DEFAULT_SLSB_POOL, DESCRIPTION).set(bundle.getString("ejb3.default-slsb-pool"));
+            op.get(REQUEST_PROPERTIES, DEFAULT_SLSB_POOL, REQUIRED).set(false);
+            op.get(REQUEST_PROPERTIES, DEFAULT_ACCESS_TIMEOUT, TYPE).set(ModelType.LONG);
+            op.get(REQUEST_PROPERTIES, DEFAULT_ACCESS_TIMEOUT, DESCRIPTION).set(bundle.getString("ejb3.default-access-timeout"));
+            op.get(REQUEST_PROPERTIES, DEFAULT_ACCESS_TIMEOUT, REQUIRED).set(false);
+            op.get(REQUEST_PROPERTIES, DEFAULT_ACCESS_TIMEOUT, DEFAULT).set(EJB3SubsystemAdd.DEFAULT_ACCESS_TIMEOUT);
+            op.get(REQUEST_PROPERTIES, STATEFUL_CACHE_MAX_SIZE, TYPE).set(ModelType.INT);
+            op.get(REQUEST_PROPERTIES, STATEFUL_CACHE_MAX_SIZE, DESCRIPTION).set(bundle.getString("ejb3.stateful-cache-max-size"));
+            op.get(REQUEST_PROPERTIES, STATEFUL_CACHE_MAX_SIZE, REQUIRED).set(false);
+            op.get(REQUEST_PROPERTIES, STATEFUL_CACHE_MAX_SIZE, DEFAULT).set(0);
+            op.get(REQUEST_PROPERTIES, PASSIVATION_DIR, TYPE).set(ModelType.STRING);
+            op.get(REQUEST_PROPERTIES, PASSIVATION_DIR, DESCRIPTION).set(bundle.getString("ejb3.passivation-dir"));
+            op.get(REQUEST_PROPERTIES, PASSIVATION_DIR, REQUIRED).set(false);
+
+            return op;
+        }
+    };
+
+    static final DescriptionProvider POOL_DESC = new DescriptionProvider() {
+
+        public ModelNode getModelDescription(final Locale locale) {
+            final ResourceBundle bundle = getResourceBundle(locale);
+
+            final ModelNode pool = new ModelNode();
+            pool.get(DESCRIPTION).set(bundle.getString("ejb3.pool"));
+            pool.get(HEAD_COMMENT_ALLOWED).set(true);
+            pool.get(TAIL_COMMENT_ALLOWED).set(true);
+            getPoolAttributesDescription(pool.get(ATTRIBUTES), bundle);
+
+            for (PoolMetricsHandler.PoolMetric metric : EnumSet.allOf(PoolMetricsHandler.PoolMetric.class)) {
+                final String metricName = metric.toString();
+                pool.get(ATTRIBUTES, metricName, DESCRIPTION).set(bundle.getString("ejb3.pool." + metricName));
+                pool.get(ATTRIBUTES, metricName, TYPE).set(ModelType.LONG);
+            }
+
+            return pool;
+        }
+    };
+
+    static final DescriptionProvider POOL_ADD = new DescriptionProvider() {
+
+        public ModelNode getModelDescription(final Locale locale) {
+            final ResourceBundle bundle = getResourceBundle(locale);
+
+            final ModelNode op = new ModelNode();
+            op.get(OPERATION_NAME).set(ADD);
+            op.get(DESCRIPTION).set(bundle.getString("ejb3.pool.add"));
+            getPoolAttributesDescription(op.get(REQUEST_PROPERTIES), bundle);
+
             return op;
         }
     };
 
+    static final DescriptionProvider POOL_REMOVE = new DescriptionProvider() {
+
+        public ModelNode getModelDescription(final Locale locale) {
+            final ResourceBundle bundle = getResourceBundle(locale);
+
+            final ModelNode op = new ModelNode();
+            op.get(OPERATION_NAME).set(REMOVE);
+            op.get(DESCRIPTION).set(bundle.getString("ejb3.pool.remove"));
+            op.get(REQUEST_PROPERTIES).setEmptyObject();
+
+            return op;
+        }
+    };
+
+    private static void getPoolAttributesDescription(final ModelNode node, final ResourceBundle bundle) {
+        node.get(MAX_SIZE, TYPE).set(ModelType.INT);
+        node.get(MAX_SIZE, DESCRIPTION).set(bundle.getString("ejb3.pool.max-size"));
+        node.get(MAX_SIZE, REQUIRED).set(false);
+        node.get(MAX_SIZE, DEFAULT).set(PoolAdd.DEFAULT_MAX_SIZE);
+
+        node.get(TIMEOUT, TYPE).set(ModelType.LONG);
+        node.get(TIMEOUT, DESCRIPTION).set(bundle.getString("ejb3.pool.timeout"));
+        node.get(TIMEOUT, REQUIRED).set(false);
+        node.get(TIMEOUT, DEFAULT).set(PoolAdd.DEFAULT_TIMEOUT);
+
+        node.get(TIMEOUT_UNIT, TYPE).set(ModelType.STRING);
+        node.get(TIMEOUT_UNIT, DESCRIPTION).set(bundle.getString("ejb3.pool.timeout-unit"));
+        node.get(TIMEOUT_UNIT, REQUIRED).set(false);
+        node.get(TIMEOUT_UNIT, DEFAULT).set(PoolAdd.DEFAULT_TIMEOUT_UNIT.name());
+
+        node.get(BEANS, TYPE).set(ModelType.LIST);
+        node.get(BEANS, VALUE_TYPE).set(ModelType.STRING);
+        node.get(BEANS, DESCRIPTION).set(bundle.getString("ejb3.pool.beans"));
+        node.get(BEANS, REQUIRED).set(false);
+    }
+
     private static ResourceBundle getResourceBundle(Locale locale) {
         if (locale == null) {
             locale = Locale.getDefault();
@@ -0,0 +1,127 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADD;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.ejb3.CommonAttributes.BEANS;
+import static org.jboss.as.ejb3.CommonAttributes.MAX_SIZE;
+import static org.jboss.as.ejb3.CommonAttributes.TIMEOUT;
+import static org.jboss.as.ejb3.CommonAttributes.TIMEOUT_UNIT;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.BasicOperationResult;
+import org.jboss.as.controller.ModelAddOperationHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationResult;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.ResultHandler;
+import org.jboss.as.controller.RuntimeTask;
+import org.jboss.as.controller.RuntimeTaskContext;
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.as.ejb3.component.pool.PoolConfig;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.DuplicateServiceException;
+import org.jboss.msc.service.ServiceController;
+
+/**
+ * Adds a named instance pool to the ejb3 subsystem.
+ *
+ * @author agent
+ */
+class PoolAdd implements ModelAddOperationHandler {
+
+    static final String OPERATION_NAME = ADD;
+
+    static final int DEFAULT_MAX_SIZE = 20;
+    static final long DEFAULT_TIMEOUT = 5;
+    static final TimeUnit DEFAULT_TIMEOUT_UNIT = TimeUnit.MINUTES;
+
+    static ModelNode getRecreateOperation(final ModelNode address, final ModelNode pool) {
+        return Util.getOperation(OPERATION_NAME, address, pool);
+    }
+
+    static final PoolAdd INSTANCE = new PoolAdd();
+
+    /** Private to ensure a singleton. */
+    private PoolAdd() {
+    }
+
+    @Override
+    public OperationResult execute(final OperationContext context, final ModelNode operation, final ResultHandler resultHandler) throws OperationFailedException {
+        final ModelNode opAddr = operation.require(OP_ADDR);
+        final String name = PathAddress.pathAddress(opAddr).getLastElement().getValue();
+
+        final int maxSize = operation.hasDefined(MAX_SIZE) ? operation.get(MAX_SIZE).asInt() : DEFAULT_MAX_SIZE;
+        if (maxSize < 1) {
+            throw new OperationFailedException(new ModelNode().set(MAX_SIZE + " must be at least 1"));
+        }
+        final long timeout = operation.hasDefined(TIMEOUT) ? operation.get(TIMEOUT).asLong() : DEFAULT_TIMEOUT;
+        final TimeUnit timeUnit;
+        try {
+            timeUnit = operation.hasDefined(TIMEOUT_UNIT) ? TimeUnit.valueOf(operation.get(TIMEOUT_UNIT).asString()) : DEFAULT_TIMEOUT_UNIT;
+        } catch (IllegalArgumentException e) {
+            throw new OperationFailedException(new ModelNode().set("Invalid " + TIMEOUT_UNIT + " " + operation.get(TIMEOUT_UNIT).asString()));
+        }
+        final Set<String> beanNames = new HashSet<String>();
+        if (operation.hasDefined(BEANS)) {
+            for (ModelNode bean : operation.get(BEANS).asList()) {
+                beanNames.add(bean.asString());
+            }
+        }
+
+        final ModelNode model = context.getSubModel();
+        model.get(MAX_SIZE).set(maxSize);
+        model.get(TIMEOUT).set(timeout);
+        model.get(TIMEOUT_UNIT).set(timeUnit.name());
+        if (operation.hasDefined(BEANS)) {
+            model.get(BEANS).set(operation.get(BEANS));
+        }
+
+        if (context.getRuntimeContext() != null) {
+            context.getRuntimeContext().setRuntimeTask(new RuntimeTask() {
+                @Override
+                public void execute(RuntimeTaskContext context) throws OperationFailedException {
+                    final PoolConfig config = new PoolConfig(name, maxSize, timeout, timeUnit, beanNames);
+                    try {
+                        // The aliases let a bean depend on the pool naming it without searching the pools
+                        context.getServiceTarget().addService(PoolConfig.SERVICE_NAME.append(name), config)
+                                .addAliases(config.getBeanServiceNames())
+                                .setInitialMode(ServiceController.Mode.ACTIVE)
+                                .install();
+                    } catch (DuplicateServiceException e) {
+                        throw new OperationFailedException(new ModelNode().set(String.format("A bean named by pool %s is already named by another pool: %s", name, e.getMessage())));
+                    }
+                    resultHandler.handleResultComplete();
+                }
+            });
+        } else {
+            resultHandler.handleResultComplete();
+        }
+        return new BasicOperationResult(Util.getResourceRemoveOperation(opAddr));
+    }
+}
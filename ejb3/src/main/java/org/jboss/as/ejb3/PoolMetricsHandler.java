@@ -0,0 +1,133 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.jboss.as.controller.BasicOperationResult;
+import org.jboss.as.controller.ModelQueryOperationHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationResult;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.ResultHandler;
+import org.jboss.as.controller.RuntimeTask;
+import org.jboss.as.controller.RuntimeTaskContext;
+import org.jboss.as.ejb3.component.pool.PoolConfig;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+
+/**
+ * Handler for the metrics of a named instance pool, summed over the pools of all components using it.
+ *
+ * @author agent
+ */
+class PoolMetricsHandler implements ModelQueryOperationHandler {
+
+    enum PoolMetric {
+
+        AVAILABLE_COUNT(CommonAttributes.AVAILABLE_COUNT),
+        CURRENT_SIZE(CommonAttributes.CURRENT_SIZE),
+        CREATE_COUNT(CommonAttributes.CREATE_COUNT),
+        REMOVE_COUNT(CommonAttributes.REMOVE_COUNT),
+        WAIT_TIME(CommonAttributes.WAIT_TIME);
+
+        private static final Map<String, PoolMetric> MAP = new HashMap<String, PoolMetric>();
+        static {
+            for (PoolMetric metric : EnumSet.allOf(PoolMetric.class)) {
+                MAP.put(metric.toString(), metric);
+            }
+        }
+        private final String stringForm;
+        private PoolMetric(final String stringForm) {
+            this.stringForm = stringForm;
+        }
+
+        @Override
+        public final String toString() {
+            return stringForm;
+        }
+
+        static PoolMetric getMetric(final String stringForm) {
+            return MAP.get(stringForm);
+        }
+    }
+
+    static final PoolMetricsHandler INSTANCE = new PoolMetricsHandler();
+
+    private PoolMetricsHandler() {
+    }
+
+    @Override
+    public OperationResult execute(final OperationContext context, final ModelNode operation, final ResultHandler resultHandler) throws OperationFailedException {
+        final String attributeName = operation.require(NAME).asString();
+        final PoolMetric metric = PoolMetric.getMetric(attributeName);
+        if (metric == null) {
+            throw new OperationFailedException(new ModelNode().set(String.format("Unknown metric %s", attributeName)));
+        }
+
+        if (context.getRuntimeContext() != null) {
+            context.getRuntimeContext().setRuntimeTask(new RuntimeTask() {
+                @Override
+                public void execute(RuntimeTaskContext context) throws OperationFailedException {
+                    final String name = PathAddress.pathAddress(operation.require(OP_ADDR)).getLastElement().getValue();
+                    final ServiceController<?> controller = context.getServiceRegistry().getService(PoolConfig.SERVICE_NAME.append(name));
+                    final ModelNode result = new ModelNode();
+                    if (controller != null && controller.getState() == ServiceController.State.UP) {
+                        final PoolConfig pool = (PoolConfig) controller.getValue();
+                        switch (metric) {
+                            case AVAILABLE_COUNT:
+                                result.set(pool.getAvailableCount());
+                                break;
+                            case CURRENT_SIZE:
+                                result.set(pool.getCurrentSize());
+                                break;
+                            case CREATE_COUNT:
+                                result.set(pool.getCreateCount());
+                                break;
+                            case REMOVE_COUNT:
+                                result.set(pool.getRemoveCount());
+                                break;
+                            case WAIT_TIME:
+                                result.set(pool.getWaitTime());
+                                break;
+                            default:
+                                throw new IllegalStateException(String.format("Unknown metric %s", metric));
+                        }
+                    }
+                    resultHandler.handleResultFragment(ResultHandler.EMPTY_LOCATION, result);
+                    resultHandler.handleResultComplete();
+                }
+            });
+        } else {
+            resultHandler.handleResultFragment(ResultHandler.EMPTY_LOCATION, new ModelNode());
+            resultHandler.handleResultComplete();
+        }
+        return new BasicOperationResult();
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+
+import org.jboss.as.controller.BasicOperationResult;
+import org.jboss.as.controller.ModelQueryOperationHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationResult;
+import org.jboss.as.controller.ResultHandler;
+import org.jboss.as.controller.RuntimeTask;
+import org.jboss.as.controller.RuntimeTaskContext;
+import org.jboss.as.ejb3.component.EJBUtilities;
+import org.jboss.as.ejb3.component.singleton.SingletonComponent;
+import org.jboss.as.ejb3.concurrency.MethodLockStatistics;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+
+/**
+ * Handler for the lock contention metrics of the started singleton components, keyed by deployment, component and
+ * business method.
+ *
+ * @author agent
+ */
+class SingletonLockStatisticsHandler implements ModelQueryOperationHandler {
+
+    static final SingletonLockStatisticsHandler INSTANCE = new SingletonLockStatisticsHandler();
+
+    private SingletonLockStatisticsHandler() {
+    }
+
+    @Override
+    public OperationResult execute(final OperationContext context, final ModelNode operation, final ResultHandler resultHandler) throws OperationFailedException {
+        if (context.getRuntimeContext() != null) {
+            context.getRuntimeContext().setRuntimeTask(new RuntimeTask() {
+                @Override
+                public void execute(RuntimeTaskContext context) throws OperationFailedException {
+                    final ServiceController<?> controller = context.getServiceRegistry().getService(EJBUtilities.SERVICE_NAME);
+                    final ModelNode result = new ModelNode();
+                    if (controller != null && controller.getState() == ServiceController.State.UP) {
+                        final EJBUtilities utilities = (EJBUtilities) controller.getValue();
+                        for (SingletonComponent component : utilities.getSingletonComponents()) {
+                            final ModelNode methods = result.get(component.getDeploymentName(), component.getComponentName());
+                            methods.setEmptyObject();
+                            for (Map.Entry<Method, MethodLockStatistics> entry : component.getLockStatistics().entrySet()) {
+                                final MethodLockStatistics statistics = entry.getValue();
+                                final ModelNode method = methods.get(entry.getKey().toString());
+                                method.get(CommonAttributes.CONTENTION_COUNT).set(statistics.getContentionCount());
+                                method.get(CommonAttributes.TIMEOUT_COUNT).set(statistics.getTimeoutCount());
+                                method.get(CommonAttributes.WAIT_TIME).set(statistics.getWaitTime());
+                            }
+                        }
+                    }
+                    resultHandler.handleResultFragment(ResultHandler.EMPTY_LOCATION, result);
+                    resultHandler.handleResultComplete();
+                }
+            });
+        } else {
+            resultHandler.handleResultFragment(ResultHandler.EMPTY_LOCATION, new ModelNode());
+            resultHandler.handleResultComplete();
+        }
+        return new BasicOperationResult();
+    }
+}
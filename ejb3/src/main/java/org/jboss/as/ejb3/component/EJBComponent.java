@@ -23,12 +23,10 @@ package org.jboss.as.ejb3.component;
 
 import org.jboss.as.ee.component.BasicComponent;
 import org.jboss.as.naming.context.NamespaceContextSelector;
-import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.ejb3.context.CurrentInvocationContext;
 import org.jboss.ejb3.context.spi.InvocationContext;
 import org.jboss.ejb3.tx2.spi.TransactionalComponent;
 import org.jboss.logging.Logger;
-import org.jboss.msc.service.ServiceController;
 
 import javax.ejb.ApplicationException;
 import javax.ejb.EJBException;
@@ -55,7 +53,6 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.Map;
-import java.util.concurrent.ConcurrentMap;
 
 /**
  * @author <a href="mailto:cdewolf@redhat.com">Carlo de Wolf</a>
@@ -63,7 +60,8 @@ import java.util.concurrent.ConcurrentMap;
 public abstract class EJBComponent extends BasicComponent implements org.jboss.ejb3.context.spi.EJBComponent, TransactionalComponent {
     private static Logger log = Logger.getLogger(EJBComponent.class);
 
-    private final ConcurrentMap<MethodIntf, ConcurrentMap<String, ConcurrentMap<ArrayKey, TransactionAttributeType>>> txAttrs;
+    private final Map<MethodIntf, MethodMap<TransactionAttributeType>> txAttrs;
+    private final MethodMap<EJBMethodMetadata> methodMetadata;
 
     private final EJBUtilities utilities;
     private final boolean isBeanManagedTransaction;
@@ -82,15 +80,23 @@ public abstract class EJBComponent extends BasicComponent implements org.jboss.e
         this.applicationExceptions = Collections.unmodifiableMap(ejbComponentCreateService.getEjbJarConfiguration().getApplicationExceptions());
 
         // constructs
-        final DeploymentUnit deploymentUnit = ejbComponentCreateService.getDeploymentUnitInjector().getValue();
-        final ServiceController<EJBUtilities> serviceController = (ServiceController<EJBUtilities>) deploymentUnit.getServiceRegistry().getRequiredService(EJBUtilities.SERVICE_NAME);
-        this.utilities = serviceController.getValue();
+        this.utilities = ejbComponentCreateService.getEJBUtilities();
 
 
         txAttrs = ejbComponentCreateService.getTxAttrs();
+        methodMetadata = ejbComponentCreateService.buildMethodMetadata();
         isBeanManagedTransaction = TransactionManagementType.BEAN.equals(ejbComponentCreateService.getTransactionManagementType());
     }
 
+    /**
+     * Gets the EJB subsystem utilities.
+     *
+     * @return the utilities
+     */
+    protected EJBUtilities getEJBUtilities() {
+        return utilities;
+    }
+
     @Override
     public ApplicationException getApplicationException(Class<?> exceptionClass) {
         ApplicationException applicationException = this.applicationExceptions.get(exceptionClass);
@@ -196,18 +202,32 @@ public abstract class EJBComponent extends BasicComponent implements org.jboss.e
     }
 
     public TransactionAttributeType getTransactionAttributeType(MethodIntf methodIntf, Method method) {
-        ConcurrentMap<String, ConcurrentMap<ArrayKey, TransactionAttributeType>> perMethodIntf = txAttrs.get(methodIntf);
-        if (perMethodIntf == null)
-            throw new IllegalStateException("Can't find tx attrs for view type " + methodIntf + " on bean named " + this.getComponentName());
-        ConcurrentMap<ArrayKey, TransactionAttributeType> perMethod = perMethodIntf.get(method.getName());
-        if (perMethod == null)
-            throw new IllegalStateException("Can't find tx attrs for method name " + method.getName() + " on view type " + methodIntf + " on bean named " + this.getComponentName());
-        TransactionAttributeType txAttr = perMethod.get(new ArrayKey((Object[]) method.getParameterTypes()));
+        TransactionAttributeType txAttr = null;
+        if (methodIntf == MethodIntf.BEAN) {
+            final EJBMethodMetadata metadata = getMethodMetadata(method);
+            if (metadata != null)
+                txAttr = metadata.getTransactionAttribute();
+        } else {
+            final MethodMap<TransactionAttributeType> perMethodIntf = txAttrs.get(methodIntf);
+            if (perMethodIntf == null)
+                throw new IllegalStateException("Can't find tx attrs for view type " + methodIntf + " on bean named " + this.getComponentName());
+            txAttr = perMethodIntf.get(method);
+        }
         if (txAttr == null)
             throw new IllegalStateException("Can't find tx attr for method " + method + " on view type " + methodIntf + " on bean named " + this.getComponentName());
         return txAttr;
     }
 
+    /**
+     * Returns the invocation metadata of a business method, resolved when this component was created.
+     *
+     * @param method a view method or component method
+     * @return the metadata, or {@code null} if the method is no business method of this component
+     */
+    public EJBMethodMetadata getMethodMetadata(final Method method) {
+        return methodMetadata.get(method);
+    }
+
     @Override
     public TransactionManager getTransactionManager() {
         return utilities.getTransactionManager();
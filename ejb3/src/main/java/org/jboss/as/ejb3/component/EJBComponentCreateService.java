@@ -27,24 +27,31 @@ import org.jboss.as.ee.component.ComponentConfiguration;
 import org.jboss.as.ee.component.ViewConfiguration;
 import org.jboss.as.ee.component.ViewDescription;
 import org.jboss.as.ejb3.deployment.EjbJarConfiguration;
+import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.msc.service.ServiceName;
 
 import javax.ejb.TransactionAttributeType;
 import javax.ejb.TransactionManagementType;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 
 /**
  * @author Jaikiran Pai
  */
 public class EJBComponentCreateService extends BasicComponentCreateService {
 
-    private final ConcurrentMap<MethodIntf, ConcurrentMap<String, ConcurrentMap<ArrayKey, TransactionAttributeType>>> txAttrs;
+    private final Map<MethodIntf, MethodMap<TransactionAttributeType>> txAttrs;
+
+    /**
+     * The component method invoked for each business method, keyed by the view methods and by the component
+     * methods themselves.
+     */
+    private final Map<Method, Method> businessMethods;
 
     private final TransactionManagementType transactionManagementType;
 
@@ -69,13 +76,8 @@ public class EJBComponentCreateService extends BasicComponentCreateService {
         EJBComponentDescription ejbComponentDescription = (EJBComponentDescription) componentConfiguration.getComponentDescription();
         this.transactionManagementType = ejbComponentDescription.getTransactionManagementType();
 
-        // CMTTx
-        if (transactionManagementType.equals(TransactionManagementType.CONTAINER)) {
-            // slurp some memory
-            this.txAttrs = new ConcurrentHashMap<MethodIntf, ConcurrentMap<String, ConcurrentMap<ArrayKey, TransactionAttributeType>>>();
-        } else {
-            this.txAttrs = null;
-        }
+        final Map<MethodIntf, MethodMap<TransactionAttributeType>> txAttrs = new EnumMap<MethodIntf, MethodMap<TransactionAttributeType>>(MethodIntf.class);
+        final Map<Method, Method> businessMethods = new HashMap<Method, Method>();
         List<ViewConfiguration> views = componentConfiguration.getViews();
         if (views != null) {
             for (ViewConfiguration view : views) {
@@ -86,7 +88,8 @@ public class EJBComponentCreateService extends BasicComponentCreateService {
                     if (!Modifier.isPublic(method.getModifiers()))
                         continue;
                     final Method componentMethod = getComponentMethod(componentConfiguration, method.getName(), method.getParameterTypes());
-                    this.processTxAttr(ejbComponentDescription, viewType, componentMethod);
+                    this.processTxAttr(ejbComponentDescription, txAttrs, viewType, method, componentMethod);
+                    businessMethods.put(method, componentMethod);
                 }
             }
         }
@@ -96,8 +99,11 @@ public class EJBComponentCreateService extends BasicComponentCreateService {
         // AS7-899: We only want to process public methods of the proper sub-class. (getDefinedComponentMethods returns all in random order)
         // TODO: use ClassReflectionIndex (low prio, because we store the result without class name) (which is a bug: AS7-905)
         for (Method method : componentConfiguration.getComponentClass().getMethods()) {
-            this.processTxAttr(ejbComponentDescription, MethodIntf.BEAN, method);
+            this.processTxAttr(ejbComponentDescription, txAttrs, MethodIntf.BEAN, method, method);
+            businessMethods.put(method, method);
         }
+        this.txAttrs = Collections.unmodifiableMap(txAttrs);
+        this.businessMethods = businessMethods;
         final HashMap<String, ServiceName> viewServices = new HashMap<String, ServiceName>();
         for(ViewDescription view : componentConfiguration.getComponentDescription().getViews()) {
             viewServices.put(view.getViewClassName(), view.getServiceName());
@@ -117,10 +123,57 @@ public class EJBComponentCreateService extends BasicComponentCreateService {
         }
     }
 
-    ConcurrentMap<MethodIntf, ConcurrentMap<String, ConcurrentMap<ArrayKey, TransactionAttributeType>>> getTxAttrs() {
+    Map<MethodIntf, MethodMap<TransactionAttributeType>> getTxAttrs() {
         return txAttrs;
     }
 
+    /**
+     * Resolve the metadata of every business method of the component. Components call this once, when they are
+     * created.
+     *
+     * @return the metadata, keyed by the view methods, the component methods and the methods of the supertypes of the
+     *         component class they implement
+     */
+    MethodMap<EJBMethodMetadata> buildMethodMetadata() {
+        final MethodMap<TransactionAttributeType> beanTxAttrs = txAttrs.get(MethodIntf.BEAN);
+        final Map<Method, EJBMethodMetadata> byComponentMethod = new HashMap<Method, EJBMethodMetadata>();
+        final MethodMap<EJBMethodMetadata> result = new MethodMap<EJBMethodMetadata>();
+        for (Map.Entry<Method, Method> entry : businessMethods.entrySet()) {
+            final Method componentMethod = entry.getValue();
+            EJBMethodMetadata metadata = byComponentMethod.get(componentMethod);
+            if (metadata == null) {
+                metadata = createMethodMetadata(componentMethod, beanTxAttrs == null ? null : beanTxAttrs.get(componentMethod));
+                byComponentMethod.put(componentMethod, metadata);
+            }
+            result.put(entry.getKey(), metadata);
+        }
+        // such as the methods of a message listener interface which no view exposes
+        result.putSupertypeMethods(componentConfiguration.getComponentClass());
+        return result;
+    }
+
+    /**
+     * Create the metadata of a component method. Subclasses add the metadata of their component type.
+     *
+     * @param componentMethod the component method
+     * @param transactionAttribute the transaction attribute of the method, or {@code null} for a bean managed
+     *                             transaction bean
+     * @return the metadata
+     */
+    protected EJBMethodMetadata createMethodMetadata(final Method componentMethod, final TransactionAttributeType transactionAttribute) {
+        return new EJBMethodMetadata(transactionAttribute, null, null);
+    }
+
+    /**
+     * Gets the EJB subsystem utilities. Only available once the deployment unit has been injected.
+     *
+     * @return the utilities
+     */
+    protected EJBUtilities getEJBUtilities() {
+        final DeploymentUnit deploymentUnit = getDeploymentUnitInjector().getValue();
+        return (EJBUtilities) deploymentUnit.getServiceRegistry().getRequiredService(EJBUtilities.SERVICE_NAME).getValue();
+    }
+
     TransactionManagementType getTransactionManagementType() {
         return transactionManagementType;
     }
@@ -129,27 +182,24 @@ public class EJBComponentCreateService extends BasicComponentCreateService {
         return this.ejbJarConfiguration;
     }
 
-    private void processTxAttr(final EJBComponentDescription ejbComponentDescription, final MethodIntf methodIntf, final Method method) {
+    private void processTxAttr(final EJBComponentDescription ejbComponentDescription, final Map<MethodIntf, MethodMap<TransactionAttributeType>> txAttrs,
+                               final MethodIntf methodIntf, final Method method, final Method componentMethod) {
         if (this.getTransactionManagementType().equals(TransactionManagementType.BEAN)) {
             // it's a BMT bean
             return;
         }
 
-        String className = method.getDeclaringClass().getName();
-        String methodName = method.getName();
-        TransactionAttributeType txAttr = ejbComponentDescription.getTransactionAttribute(methodIntf, className, methodName, toString(method.getParameterTypes()));
+        String className = componentMethod.getDeclaringClass().getName();
+        String methodName = componentMethod.getName();
+        TransactionAttributeType txAttr = ejbComponentDescription.getTransactionAttribute(methodIntf, className, methodName, toString(componentMethod.getParameterTypes()));
 
-        ConcurrentMap<String, ConcurrentMap<ArrayKey, TransactionAttributeType>> perMethodIntf = this.txAttrs.get(methodIntf);
+        MethodMap<TransactionAttributeType> perMethodIntf = txAttrs.get(methodIntf);
         if (perMethodIntf == null) {
-            perMethodIntf = new ConcurrentHashMap<String, ConcurrentMap<ArrayKey, TransactionAttributeType>>();
-            this.txAttrs.put(methodIntf, perMethodIntf);
-        }
-        ConcurrentMap<ArrayKey, TransactionAttributeType> perMethod = perMethodIntf.get(methodName);
-        if (perMethod == null) {
-            perMethod = new ConcurrentHashMap<ArrayKey, TransactionAttributeType>();
-            perMethodIntf.put(methodName, perMethod);
+            perMethodIntf = new MethodMap<TransactionAttributeType>();
+            txAttrs.put(methodIntf, perMethodIntf);
         }
-        perMethod.put(new ArrayKey((Object[]) method.getParameterTypes()), txAttr);
+        perMethodIntf.put(method, txAttr);
+        perMethodIntf.put(componentMethod, txAttr);
     }
 
     private static String[] toString(Class<?>[] a) {
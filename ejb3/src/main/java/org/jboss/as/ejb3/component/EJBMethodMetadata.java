@@ -0,0 +1,64 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.component;
+
+import javax.ejb.AccessTimeout;
+import javax.ejb.LockType;
+import javax.ejb.TransactionAttributeType;
+
+/**
+ * The invocation metadata of one business method of a component, resolved from the deployment descriptors and
+ * annotations when the component is created so that invocations only read it.
+ *
+ * @author agent
+ */
+public final class EJBMethodMetadata {
+
+    private final TransactionAttributeType transactionAttribute;
+    private final LockType lockType;
+    private final AccessTimeout accessTimeout;
+
+    /**
+     * Create a new instance.
+     *
+     * @param transactionAttribute the transaction attribute, or {@code null} for a bean managed transaction bean
+     * @param lockType the lock type, or {@code null} if the component has no container managed concurrency
+     * @param accessTimeout the access timeout, or {@code null} if the component has no concurrent access control
+     */
+    public EJBMethodMetadata(final TransactionAttributeType transactionAttribute, final LockType lockType, final AccessTimeout accessTimeout) {
+        this.transactionAttribute = transactionAttribute;
+        this.lockType = lockType;
+        this.accessTimeout = accessTimeout;
+    }
+
+    public TransactionAttributeType getTransactionAttribute() {
+        return transactionAttribute;
+    }
+
+    public LockType getLockType() {
+        return lockType;
+    }
+
+    public AccessTimeout getAccessTimeout() {
+        return accessTimeout;
+    }
+}
@@ -21,6 +21,8 @@
  */
 package org.jboss.as.ejb3.component;
 
+import org.jboss.as.ejb3.component.singleton.SingletonComponent;
+import org.jboss.as.ejb3.concurrency.AccessTimeoutValue;
 import org.jboss.msc.inject.Injector;
 import org.jboss.msc.service.Service;
 import org.jboss.msc.service.ServiceName;
@@ -29,9 +31,15 @@ import org.jboss.msc.service.StartException;
 import org.jboss.msc.service.StopContext;
 import org.jboss.msc.value.InjectedValue;
 
+import javax.ejb.AccessTimeout;
 import javax.transaction.TransactionManager;
 import javax.transaction.TransactionSynchronizationRegistry;
 import javax.transaction.UserTransaction;
+import java.io.File;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * The gas, water & energy for the EJB subsystem.
@@ -44,6 +52,36 @@ public class EJBUtilities implements Service<EJBUtilities> {
     private final InjectedValue<TransactionManager> transactionManagerValue = new InjectedValue<TransactionManager>();
     private final InjectedValue<TransactionSynchronizationRegistry> transactionSynchronizationRegistryValue = new InjectedValue<TransactionSynchronizationRegistry>();
     private final InjectedValue<UserTransaction> userTransactionValue = new InjectedValue<UserTransaction>();
+    private final AccessTimeout defaultAccessTimeout;
+    private final int statefulCacheMaxSize;
+    private final File passivationDir;
+    private final Set<SingletonComponent> singletonComponents = Collections.newSetFromMap(new ConcurrentHashMap<SingletonComponent, Boolean>());
+
+    /**
+     * Construct a new instance.
+     *
+     * @param defaultAccessTimeout the access timeout, in milliseconds, of session bean methods without one
+     * @param statefulCacheMaxSize the number of instances of each stateful session bean held in memory, or {@code 0}
+     *                             for no limit
+     * @param passivationDir the directory passivated stateful session bean instances are written to
+     */
+    public EJBUtilities(final long defaultAccessTimeout, final int statefulCacheMaxSize, final File passivationDir) {
+        this.defaultAccessTimeout = new AccessTimeoutValue(defaultAccessTimeout, TimeUnit.MILLISECONDS);
+        this.statefulCacheMaxSize = statefulCacheMaxSize;
+        this.passivationDir = passivationDir;
+    }
+
+    public AccessTimeout getDefaultAccessTimeout() {
+        return defaultAccessTimeout;
+    }
+
+    public int getStatefulCacheMaxSize() {
+        return statefulCacheMaxSize;
+    }
+
+    public File getPassivationDir() {
+        return passivationDir;
+    }
 
     public TransactionManager getTransactionManager() {
         return transactionManagerValue.getOptionalValue();
@@ -69,6 +107,33 @@ public class EJBUtilities implements Service<EJBUtilities> {
         return userTransactionValue;
     }
 
+    /**
+     * Registers a started singleton component, so that its lock statistics are reported by the subsystem.
+     *
+     * @param component the component
+     */
+    public void registerSingletonComponent(final SingletonComponent component) {
+        singletonComponents.add(component);
+    }
+
+    /**
+     * Removes a stopped singleton component.
+     *
+     * @param component the component
+     */
+    public void unregisterSingletonComponent(final SingletonComponent component) {
+        singletonComponents.remove(component);
+    }
+
+    /**
+     * Gets the started singleton components.
+     *
+     * @return the components
+     */
+    public Set<SingletonComponent> getSingletonComponents() {
+        return Collections.unmodifiableSet(singletonComponents);
+    }
+
     @Override
     public EJBUtilities getValue() throws IllegalStateException, IllegalArgumentException {
         return this;
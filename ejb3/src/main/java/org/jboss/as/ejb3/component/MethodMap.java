@@ -0,0 +1,95 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright (c) 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.component;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Values keyed by method. A method without a value of its own gets the value of a method with the same name and
+ * parameter types, as the component would resolve it with {@link Class#getMethod(String, Class[])}.
+ * <p>
+ * Instances are filled while the component is created and only read afterwards.
+ *
+ * @author agent
+ */
+final class MethodMap<V> {
+    private final Map<Method, V> byMethod = new HashMap<Method, V>();
+    private final Map<ArrayKey, V> bySignature = new HashMap<ArrayKey, V>();
+
+    void put(final Method method, final V value) {
+        byMethod.put(method, value);
+        bySignature.put(signature(method), value);
+    }
+
+    /**
+     * Get the value of a method, or else of a method with the same name and parameter types.
+     *
+     * @param method the method
+     * @return the value, or {@code null} if there is none
+     */
+    V get(final Method method) {
+        final V value = byMethod.get(method);
+        if (value != null) {
+            return value;
+        }
+        return bySignature.get(signature(method));
+    }
+
+    /**
+     * Key the public methods of the superclasses and interfaces of a class by the values of the methods of the
+     * same signature, so that looking them up does not fall back to the signature.
+     *
+     * @param cls the class
+     */
+    void putSupertypeMethods(final Class<?> cls) {
+        final Set<Class<?>> visited = new HashSet<Class<?>>();
+        for (Class<?> c = cls; c != null; c = c.getSuperclass()) {
+            putDeclaredMethods(c, visited);
+        }
+    }
+
+    private void putDeclaredMethods(final Class<?> cls, final Set<Class<?>> visited) {
+        if (!visited.add(cls)) {
+            return;
+        }
+        for (Method method : cls.getDeclaredMethods()) {
+            if (Modifier.isPublic(method.getModifiers()) && !byMethod.containsKey(method)) {
+                final V value = bySignature.get(signature(method));
+                if (value != null) {
+                    byMethod.put(method, value);
+                }
+            }
+        }
+        for (Class<?> iface : cls.getInterfaces()) {
+            putDeclaredMethods(iface, visited);
+        }
+    }
+
+    private static ArrayKey signature(final Method method) {
+        return new ArrayKey(method.getName(), new ArrayKey((Object[]) method.getParameterTypes()));
+    }
+}
@@ -24,14 +24,14 @@ package org.jboss.as.ejb3.component.messagedriven;
 import org.jboss.as.ee.component.BasicComponentInstance;
 import org.jboss.as.ejb3.component.EJBComponent;
 import org.jboss.as.ejb3.component.EJBComponentCreateService;
+import org.jboss.as.ejb3.component.pool.InstancePool;
 import org.jboss.as.ejb3.component.pool.PooledComponent;
+import org.jboss.as.ejb3.component.pool.StripedInstancePool;
 import org.jboss.as.ejb3.inflow.JBossMessageEndpointFactory;
 import org.jboss.as.ejb3.inflow.MessageEndpointService;
 import org.jboss.as.naming.ManagedReference;
 import org.jboss.ejb3.context.spi.MessageDrivenBeanComponent;
-import org.jboss.ejb3.pool.Pool;
 import org.jboss.ejb3.pool.StatelessObjectFactory;
-import org.jboss.ejb3.pool.strictmax.StrictMaxPool;
 import org.jboss.invocation.Interceptor;
 import org.jboss.msc.service.StopContext;
 
@@ -52,7 +52,7 @@ import static org.jboss.as.ejb3.component.MethodIntf.BEAN;
  * @author <a href="mailto:cdewolf@redhat.com">Carlo de Wolf</a>
  */
 public class MessageDrivenComponent extends EJBComponent implements MessageDrivenBeanComponent, PooledComponent<MessageDrivenComponentInstance> {
-    private final Pool<MessageDrivenComponentInstance> pool;
+    private final InstancePool<MessageDrivenComponentInstance> pool;
 
     // TODO: implement creation of ActivationSpec
     private final ActivationSpec activationSpec = null;
@@ -80,7 +80,7 @@ public class MessageDrivenComponent extends EJBComponent implements MessageDrive
                 //destroyInstance(obj);
             }
         };
-        this.pool = new StrictMaxPool<MessageDrivenComponentInstance>(factory, 20, 5, TimeUnit.MINUTES);
+        this.pool = new StripedInstancePool<MessageDrivenComponentInstance>(factory, 20, 5, TimeUnit.MINUTES);
 
         this.messageListenerInterface = null; //ejbComponentCreateService.getMessageListenerInterface();
         final MessageEndpointService<?> service = new MessageEndpointService<Object>() {
@@ -144,7 +144,7 @@ public class MessageDrivenComponent extends EJBComponent implements MessageDrive
 //    }
 
     @Override
-    public Pool<MessageDrivenComponentInstance> getPool() {
+    public InstancePool<MessageDrivenComponentInstance> getPool() {
         return pool;
     }
 
@@ -168,5 +168,6 @@ public class MessageDrivenComponent extends EJBComponent implements MessageDrive
         resourceAdapter.endpointDeactivation(endpointFactory, activationSpec);
 
         super.stop(stopContext);
+        pool.stop();
     }
 }
@@ -0,0 +1,102 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.component.pool;
+
+/**
+ * A pool of component instances, which hands each instance to one invocation at a time.
+ *
+ * @author agent
+ */
+public interface InstancePool<T> {
+
+    /**
+     * Take an instance from the pool, creating one if none is free. Blocks while the maximum number of instances
+     * is in use.
+     *
+     * @return the instance
+     * @throws javax.ejb.EJBException if no instance became available within the timeout
+     */
+    T get();
+
+    /**
+     * Return an instance taken with {@link #get()} to the pool.
+     *
+     * @param obj the instance
+     */
+    void release(T obj);
+
+    /**
+     * Destroy an instance taken with {@link #get()} instead of returning it to the pool.
+     *
+     * @param obj the instance
+     */
+    void discard(T obj);
+
+    /**
+     * Gets the number of instances which could be taken from the pool without waiting.
+     *
+     * @return the available count
+     */
+    int getAvailableCount();
+
+    /**
+     * Gets the number of instances currently created by the pool, whether in use or free.
+     *
+     * @return the current size
+     */
+    int getCurrentSize();
+
+    /**
+     * Gets the maximum number of instances which can be in use at once.
+     *
+     * @return the maximum size
+     */
+    int getMaxSize();
+
+    /**
+     * Gets the number of instances the pool has created.
+     *
+     * @return the create count
+     */
+    long getCreateCount();
+
+    /**
+     * Gets the number of instances the pool has destroyed.
+     *
+     * @return the remove count
+     */
+    long getRemoveCount();
+
+    /**
+     * Gets the total time, in milliseconds, callers of {@link #get()} have spent waiting for an instance.
+     *
+     * @return the wait time
+     */
+    long getWaitTime();
+
+    void start();
+
+    /**
+     * Destroy the free instances held by the pool.
+     */
+    void stop();
+}
@@ -0,0 +1,190 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.component.pool;
+
+import org.jboss.ejb3.pool.StatelessObjectFactory;
+import org.jboss.msc.service.Service;
+import org.jboss.msc.service.ServiceName;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StartException;
+import org.jboss.msc.service.StopContext;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A named pool configuration from the ejb3 subsystem. Every component using the configuration gets its own
+ * {@link InstancePool} sized by it; the metrics of the configuration are the sums over those pools.
+ *
+ * @author agent
+ */
+public class PoolConfig implements Service<PoolConfig> {
+
+    public static final ServiceName SERVICE_NAME = ServiceName.JBOSS.append("ejb", "pool");
+
+    private static final ServiceName BEAN_SERVICE_NAME = ServiceName.JBOSS.append("ejb", "pool-for-bean");
+
+    private final String name;
+    private final int maxSize;
+    private final long timeout;
+    private final TimeUnit timeUnit;
+    private final Set<String> beanNames;
+    private final Set<InstancePool<?>> pools = new CopyOnWriteArraySet<InstancePool<?>>();
+
+    /**
+     * Create a new pool configuration.
+     *
+     * @param name the pool name
+     * @param maxSize the maximum number of instances in use at once in each pool
+     * @param timeout the time to wait for an instance when the maximum number is in use
+     * @param timeUnit the unit of {@code timeout}
+     * @param beanNames the names of the beans which use this configuration rather than the default one
+     */
+    public PoolConfig(final String name, final int maxSize, final long timeout, final TimeUnit timeUnit, final Set<String> beanNames) {
+        this.name = name;
+        this.maxSize = maxSize;
+        this.timeout = timeout;
+        this.timeUnit = timeUnit;
+        this.beanNames = Collections.unmodifiableSet(new HashSet<String>(beanNames));
+    }
+
+    /**
+     * Get the alias under which the service of the pool naming a bean is installed.
+     *
+     * @param beanName the bean name
+     * @return the service name
+     */
+    public static ServiceName serviceNameForBean(final String beanName) {
+        return BEAN_SERVICE_NAME.append(beanName);
+    }
+
+    /**
+     * Get the aliases under which the service of this pool is installed, one for each bean it names.
+     *
+     * @return the service names
+     */
+    public ServiceName[] getBeanServiceNames() {
+        final ServiceName[] names = new ServiceName[beanNames.size()];
+        int i = 0;
+        for (String beanName : beanNames) {
+            names[i++] = serviceNameForBean(beanName);
+        }
+        return names;
+    }
+
+    /**
+     * Create a pool for a component.
+     *
+     * @param factory the factory of the component instances
+     * @return the pool
+     */
+    public <T> InstancePool<T> createPool(final StatelessObjectFactory<T> factory) {
+        final InstancePool<T> pool = new StripedInstancePool<T>(factory, maxSize, timeout, timeUnit);
+        pools.add(pool);
+        return pool;
+    }
+
+    /**
+     * Stop tracking a pool created by {@link #createPool(StatelessObjectFactory)}.
+     *
+     * @param pool the pool
+     */
+    public void removePool(final InstancePool<?> pool) {
+        pools.remove(pool);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getTimeout() {
+        return timeout;
+    }
+
+    public TimeUnit getTimeUnit() {
+        return timeUnit;
+    }
+
+    public Set<String> getBeanNames() {
+        return beanNames;
+    }
+
+    public int getAvailableCount() {
+        int count = 0;
+        for (InstancePool<?> pool : pools) {
+            count += pool.getAvailableCount();
+        }
+        return count;
+    }
+
+    public int getCurrentSize() {
+        int size = 0;
+        for (InstancePool<?> pool : pools) {
+            size += pool.getCurrentSize();
+        }
+        return size;
+    }
+
+    public long getCreateCount() {
+        long count = 0;
+        for (InstancePool<?> pool : pools) {
+            count += pool.getCreateCount();
+        }
+        return count;
+    }
+
+    public long getRemoveCount() {
+        long count = 0;
+        for (InstancePool<?> pool : pools) {
+            count += pool.getRemoveCount();
+        }
+        return count;
+    }
+
+    public long getWaitTime() {
+        long time = 0;
+        for (InstancePool<?> pool : pools) {
+            time += pool.getWaitTime();
+        }
+        return time;
+    }
+
+    @Override
+    public void start(final StartContext context) throws StartException {
+    }
+
+    @Override
+    public void stop(final StopContext context) {
+    }
+
+    @Override
+    public PoolConfig getValue() throws IllegalStateException, IllegalArgumentException {
+        return this;
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.component.pool;
+
+import org.jboss.msc.service.Service;
+import org.jboss.msc.service.ServiceName;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StartException;
+import org.jboss.msc.service.StopContext;
+import org.jboss.msc.value.InjectedValue;
+
+/**
+ * Gives the {@link PoolConfig} used by pooled beans which no pool names. A pool naming a bean is found by its
+ * {@link PoolConfig#serviceNameForBean(String) alias} instead.
+ * <p>
+ * The registry depends on the default pool, if one is configured, so a bean depending on the registry never sees it
+ * before the default pool is up.
+ *
+ * @author agent
+ */
+public class PoolConfigRegistry implements Service<PoolConfigRegistry> {
+
+    public static final ServiceName SERVICE_NAME = ServiceName.JBOSS.append("ejb", "pools");
+
+    private final String defaultPoolName;
+    private final InjectedValue<PoolConfig> defaultPool = new InjectedValue<PoolConfig>();
+
+    /**
+     * Create a new registry.
+     *
+     * @param defaultPoolName the name of the pool used by beans not named by any pool, or {@code null} for none
+     */
+    public PoolConfigRegistry(final String defaultPoolName) {
+        this.defaultPoolName = defaultPoolName;
+    }
+
+    /**
+     * Get the pool configuration for beans not named by any pool.
+     *
+     * @return the configuration, or {@code null} if no default pool is configured
+     */
+    public PoolConfig getDefaultPoolConfig() {
+        return defaultPool.getOptionalValue();
+    }
+
+    public String getDefaultPoolName() {
+        return defaultPoolName;
+    }
+
+    public InjectedValue<PoolConfig> getDefaultPoolInjector() {
+        return defaultPool;
+    }
+
+    @Override
+    public void start(final StartContext context) throws StartException {
+    }
+
+    @Override
+    public void stop(final StopContext context) {
+    }
+
+    @Override
+    public PoolConfigRegistry getValue() throws IllegalStateException, IllegalArgumentException {
+        return this;
+    }
+}
@@ -23,11 +23,10 @@ package org.jboss.as.ejb3.component.pool;
 
 import org.jboss.as.ee.component.Component;
 import org.jboss.as.ee.component.ComponentInstance;
-import org.jboss.ejb3.pool.Pool;
 
 /**
  * @author <a href="mailto:cdewolf@redhat.com">Carlo de Wolf</a>
  */
 public interface PooledComponent<I extends ComponentInstance> extends Component {
-    Pool<I> getPool();
+    InstancePool<I> getPool();
 }
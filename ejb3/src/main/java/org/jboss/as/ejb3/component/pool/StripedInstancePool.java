@@ -0,0 +1,234 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.component.pool;
+
+import org.jboss.ejb3.pool.StatelessObjectFactory;
+
+import javax.ejb.EJBException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A pool with a strict maximum number of instances in use, whose fast path takes no lock. Free instances are kept
+ * in several lock-free lists; a thread returns instances to, and first looks for them in, the list picked by its
+ * id, so that threads on different cores rarely touch the same list. The number of instances in use is bounded with
+ * a compare-and-set counter, and only callers which find the pool exhausted block, until an instance is released
+ * or the timeout elapses.
+ *
+ * @author agent
+ */
+public class StripedInstancePool<T> implements InstancePool<T> {
+
+    private final StatelessObjectFactory<T> factory;
+    private final int maxSize;
+    private final long timeout;
+    private final TimeUnit timeUnit;
+    private final Queue<T>[] stripes;
+    private final int stripeMask;
+
+    private final AtomicInteger inUse = new AtomicInteger();
+    private final AtomicInteger currentSize = new AtomicInteger();
+    private final AtomicLong createCount = new AtomicLong();
+    private final AtomicLong removeCount = new AtomicLong();
+    private final AtomicLong waitNanos = new AtomicLong();
+
+    private final Object waitLock = new Object();
+    // written with waitLock held
+    private volatile int waiters;
+
+    /**
+     * Create a new pool.
+     *
+     * @param factory the factory creating and destroying the instances
+     * @param maxSize the maximum number of instances in use at once
+     * @param timeout the time to wait for an instance when the maximum number is in use
+     * @param timeUnit the unit of {@code timeout}
+     */
+    @SuppressWarnings("unchecked")
+    public StripedInstancePool(final StatelessObjectFactory<T> factory, final int maxSize, final long timeout, final TimeUnit timeUnit) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be at least 1");
+        }
+        this.factory = factory;
+        this.maxSize = maxSize;
+        this.timeout = timeout;
+        this.timeUnit = timeUnit;
+        // no point in more lists than instances
+        final int target = Math.min(Runtime.getRuntime().availableProcessors(), maxSize);
+        int count = 1;
+        while (count < target) {
+            count <<= 1;
+        }
+        stripes = new Queue[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new ConcurrentLinkedQueue<T>();
+        }
+        stripeMask = count - 1;
+    }
+
+    @Override
+    public T get() {
+        acquire();
+        final int home = stripeIndex();
+        T instance = stripes[home].poll();
+        for (int i = 1; instance == null && i < stripes.length; i++) {
+            instance = stripes[(home + i) & stripeMask].poll();
+        }
+        if (instance == null) {
+            try {
+                instance = factory.create();
+            } catch (RuntimeException e) {
+                releasePermit();
+                throw e;
+            } catch (Error e) {
+                releasePermit();
+                throw e;
+            }
+            createCount.incrementAndGet();
+            currentSize.incrementAndGet();
+        }
+        return instance;
+    }
+
+    @Override
+    public void release(final T obj) {
+        stripes[stripeIndex()].offer(obj);
+        releasePermit();
+    }
+
+    @Override
+    public void discard(final T obj) {
+        try {
+            destroy(obj);
+        } finally {
+            releasePermit();
+        }
+    }
+
+    @Override
+    public int getAvailableCount() {
+        return maxSize - inUse.get();
+    }
+
+    @Override
+    public int getCurrentSize() {
+        return currentSize.get();
+    }
+
+    @Override
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    @Override
+    public long getCreateCount() {
+        return createCount.get();
+    }
+
+    @Override
+    public long getRemoveCount() {
+        return removeCount.get();
+    }
+
+    @Override
+    public long getWaitTime() {
+        return TimeUnit.NANOSECONDS.toMillis(waitNanos.get());
+    }
+
+    @Override
+    public void start() {
+    }
+
+    @Override
+    public void stop() {
+        for (Queue<T> stripe : stripes) {
+            T instance;
+            while ((instance = stripe.poll()) != null) {
+                destroy(instance);
+            }
+        }
+    }
+
+    private void destroy(final T obj) {
+        currentSize.decrementAndGet();
+        removeCount.incrementAndGet();
+        factory.destroy(obj);
+    }
+
+    private int stripeIndex() {
+        return (int) Thread.currentThread().getId() & stripeMask;
+    }
+
+    private boolean tryAcquire() {
+        for (;;) {
+            final int current = inUse.get();
+            if (current >= maxSize) {
+                return false;
+            }
+            if (inUse.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private void acquire() {
+        if (tryAcquire()) {
+            return;
+        }
+        final long start = System.nanoTime();
+        final long timeoutNanos = timeUnit.toNanos(timeout);
+        try {
+            synchronized (waitLock) {
+                waiters++;
+                try {
+                    long remaining = timeoutNanos;
+                    while (!tryAcquire()) {
+                        if (remaining <= 0) {
+                            throw new EJBException("Failed to acquire a permit within " + timeout + " " + timeUnit);
+                        }
+                        TimeUnit.NANOSECONDS.timedWait(waitLock, remaining);
+                        remaining = timeoutNanos - (System.nanoTime() - start);
+                    }
+                } finally {
+                    waiters--;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new EJBException("Acquire semaphore was interrupted");
+        } finally {
+            waitNanos.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    private void releasePermit() {
+        inUse.decrementAndGet();
+        if (waiters > 0) {
+            synchronized (waitLock) {
+                waitLock.notify();
+            }
+        }
+    }
+}
@@ -58,6 +58,11 @@ public abstract class SessionBeanComponent extends EJBComponent implements org.j
 
     static final ServiceName ASYNC_EXECUTOR_SERVICE_NAME = ThreadsServices.EXECUTOR.append("ejb3-async");
 
+    /**
+     * The access timeout of methods without an explicit one, as configured in the subsystem.
+     */
+    protected final AccessTimeout defaultAccessTimeout;
+
     protected Map<String, AccessTimeout> beanLevelAccessTimeout;
     private final Set<Method> asynchronousMethods;
     protected Executor asyncExecutor;
@@ -73,6 +78,7 @@ public abstract class SessionBeanComponent extends EJBComponent implements org.j
         viewServices = ejbComponentCreateService.getViewServices();
 
         this.beanLevelAccessTimeout = ejbComponentCreateService.getBeanAccessTimeout();
+        this.defaultAccessTimeout = ejbComponentCreateService.getDefaultAccessTimeout();
         this.asynchronousMethods = null; //ejbComponentCreateService.getAsynchronousMethods();
 //        this.asyncExecutor = (Executor) ejbComponentCreateService.getInjection(ASYNC_EXECUTOR_SERVICE_NAME).getValue();
     }
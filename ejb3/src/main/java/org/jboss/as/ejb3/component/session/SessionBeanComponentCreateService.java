@@ -26,11 +26,14 @@ import org.jboss.as.ee.component.ComponentConfiguration;
 import org.jboss.as.ejb3.PrimitiveClassLoaderUtil;
 import org.jboss.as.ejb3.component.EJBBusinessMethod;
 import org.jboss.as.ejb3.component.EJBComponentCreateService;
+import org.jboss.as.ejb3.component.EJBMethodMetadata;
 import org.jboss.as.ejb3.deployment.EjbJarConfiguration;
 import org.jboss.invocation.proxy.MethodIdentifier;
 
 import javax.ejb.AccessTimeout;
 import javax.ejb.LockType;
+import javax.ejb.TransactionAttributeType;
+import java.lang.reflect.Method;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -104,6 +107,38 @@ public abstract class SessionBeanComponentCreateService extends EJBComponentCrea
         return this.beanLevelAccessTimeout;
     }
 
+    /**
+     * Gets the access timeout of methods without an explicit one. Only available once the deployment unit has been
+     * injected.
+     *
+     * @return the default access timeout
+     */
+    public AccessTimeout getDefaultAccessTimeout() {
+        return this.getEJBUtilities().getDefaultAccessTimeout();
+    }
+
+    @Override
+    protected EJBMethodMetadata createMethodMetadata(final Method componentMethod, final TransactionAttributeType transactionAttribute) {
+        final EJBBusinessMethod ejbMethod = new EJBBusinessMethod(componentMethod);
+        final String className = componentMethod.getDeclaringClass().getName();
+        LockType lockType = this.methodApplicableLockTypes.get(ejbMethod);
+        if (lockType == null) {
+            lockType = this.beanLevelLockType.get(className);
+        }
+        if (lockType == null) {
+            // default WRITE lock type
+            lockType = LockType.WRITE;
+        }
+        AccessTimeout accessTimeout = this.methodApplicableAccessTimeouts.get(ejbMethod);
+        if (accessTimeout == null) {
+            accessTimeout = this.beanLevelAccessTimeout.get(className);
+        }
+        if (accessTimeout == null) {
+            accessTimeout = this.getDefaultAccessTimeout();
+        }
+        return new EJBMethodMetadata(transactionAttribute, lockType, accessTimeout);
+    }
+
     private EJBBusinessMethod getEJBBusinessMethod(final MethodIdentifier method) {
         final ClassLoader classLoader = this.getComponentClass().getClassLoader();
         final String methodName = method.getName();
@@ -26,7 +26,10 @@ import org.jboss.as.ee.component.BasicComponentInstance;
 import org.jboss.as.ee.component.Component;
 import org.jboss.as.ee.component.ComponentInstance;
 import org.jboss.as.ejb3.component.EJBBusinessMethod;
+import org.jboss.as.ejb3.component.EJBMethodMetadata;
 import org.jboss.as.ejb3.component.session.SessionBeanComponent;
+import org.jboss.as.ejb3.concurrency.MethodLockStatistics;
+import org.jboss.as.ejb3.concurrency.ReaderBiasedLock;
 import org.jboss.as.naming.ManagedReference;
 import org.jboss.as.server.CurrentServiceRegistry;
 import org.jboss.ejb3.concurrency.spi.LockableComponent;
@@ -38,11 +41,12 @@ import org.jboss.msc.service.StopContext;
 
 import javax.ejb.AccessTimeout;
 import javax.ejb.LockType;
-import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
@@ -66,6 +70,12 @@ public class SingletonComponent extends SessionBeanComponent implements Lockable
 
     private final List<ServiceName> dependsOn;
 
+    private final String deploymentName;
+
+    private final ReaderBiasedLock lock = new ReaderBiasedLock();
+
+    private final ConcurrentMap<Method, MethodLockStatistics> lockStatistics = new ConcurrentHashMap<Method, MethodLockStatistics>();
+
     /**
      * Construct a new instance.
      *
@@ -76,6 +86,7 @@ public class SingletonComponent extends SessionBeanComponent implements Lockable
     public SingletonComponent(final SingletonComponentCreateService singletonComponentCreateService, final List<ServiceName> dependsOn) {
         super(singletonComponentCreateService);
         this.dependsOn = dependsOn;
+        this.deploymentName = singletonComponentCreateService.getDeploymentUnitInjector().getValue().getName();
         this.initOnStartup = singletonComponentCreateService.isInitOnStartup();
 
         this.beanLevelLockType = singletonComponentCreateService.getBeanLockType();
@@ -123,18 +134,23 @@ public class SingletonComponent extends SessionBeanComponent implements Lockable
             logger.debug(this.getComponentName() + " bean is a @Startup (a.k.a init-on-startup) bean, creating/getting the singleton instance");
             this.getComponentInstance();
         }
+        this.getEJBUtilities().registerSingletonComponent(this);
     }
 
     @Override
     public void stop(final StopContext stopContext) {
+        this.getEJBUtilities().unregisterSingletonComponent(this);
         this.destroySingletonInstance();
         super.stop(stopContext);
     }
 
     @Override
     public LockType getLockType(Method method) {
-        final EJBBusinessMethod ejbMethod = new EJBBusinessMethod(method);
-        final LockType lockType = this.methodLockTypes.get(ejbMethod);
+        final EJBMethodMetadata metadata = this.getMethodMetadata(method);
+        if (metadata != null) {
+            return metadata.getLockType();
+        }
+        final LockType lockType = this.methodLockTypes.get(new EJBBusinessMethod(method));
         if (lockType != null) {
             return lockType;
         }
@@ -149,8 +165,11 @@ public class SingletonComponent extends SessionBeanComponent implements Lockable
 
     @Override
     public AccessTimeout getAccessTimeout(Method method) {
-        final EJBBusinessMethod ejbMethod = new EJBBusinessMethod(method);
-        final AccessTimeout accessTimeout = this.methodAccessTimeouts.get(ejbMethod);
+        final EJBMethodMetadata metadata = this.getMethodMetadata(method);
+        if (metadata != null) {
+            return metadata.getAccessTimeout();
+        }
+        final AccessTimeout accessTimeout = this.methodAccessTimeouts.get(new EJBBusinessMethod(method));
         if (accessTimeout != null) {
             return accessTimeout;
         }
@@ -159,45 +178,57 @@ public class SingletonComponent extends SessionBeanComponent implements Lockable
         if (beanTimeout != null) {
             return beanTimeout;
         }
-        //TODO: this should be configurable
-        return new AccessTimeout() {
-            @Override
-            public long value() {
-                return 5;
-            }
-
-            @Override
-            public TimeUnit unit() {
-                return TimeUnit.MINUTES;
-            }
-
-            @Override
-            public Class<? extends Annotation> annotationType() {
-                return AccessTimeout.class;
-            }
-        };
+        return this.defaultAccessTimeout;
     }
 
     @Override
     public AccessTimeout getDefaultAccessTimeout() {
-        // TODO: This has to be configurable.
-        // Currently defaults to 5 minutes
-        return new AccessTimeout() {
-            @Override
-            public long value() {
-                return 5;
-            }
+        return this.defaultAccessTimeout;
+    }
 
-            @Override
-            public TimeUnit unit() {
-                return TimeUnit.MINUTES;
-            }
+    /**
+     * Gets the name of the deployment unit containing this component.
+     *
+     * @return the deployment name
+     */
+    public String getDeploymentName() {
+        return this.deploymentName;
+    }
+
+    /**
+     * Gets the lock guarding the singleton instance for container managed concurrency.
+     *
+     * @return the lock
+     */
+    public ReaderBiasedLock getLock() {
+        return this.lock;
+    }
 
-            @Override
-            public Class<? extends Annotation> annotationType() {
-                return AccessTimeout.class;
+    /**
+     * Gets the lock contention statistics of a business method, creating them on its first contended invocation.
+     *
+     * @param method the invoked method
+     * @return the statistics
+     */
+    public MethodLockStatistics getLockStatistics(Method method) {
+        MethodLockStatistics statistics = this.lockStatistics.get(method);
+        if (statistics == null) {
+            statistics = new MethodLockStatistics();
+            final MethodLockStatistics existing = this.lockStatistics.putIfAbsent(method, statistics);
+            if (existing != null) {
+                statistics = existing;
             }
-        };
+        }
+        return statistics;
+    }
+
+    /**
+     * Gets the lock contention statistics of the business methods which have waited for the lock so far.
+     *
+     * @return the statistics, keyed by invoked method
+     */
+    public Map<Method, MethodLockStatistics> getLockStatistics() {
+        return Collections.unmodifiableMap(this.lockStatistics);
     }
 
     private synchronized void destroySingletonInstance() {
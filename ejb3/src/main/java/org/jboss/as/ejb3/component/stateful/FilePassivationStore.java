@@ -0,0 +1,148 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.component.stateful;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.NotSerializableException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.OutputStream;
+import java.io.Serializable;
+
+/**
+ * Stores the state of passivated stateful session beans as serialized files in a local directory, one file per
+ * session.
+ *
+ * @author agent
+ */
+class FilePassivationStore {
+
+    private final File directory;
+
+    FilePassivationStore(final File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Write the state of a session.
+     *
+     * @param id the session id
+     * @param state the state
+     * @throws IOException if the state can not be serialized or written
+     */
+    void store(final Serializable id, final Object state) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs() && !directory.isDirectory()) {
+            throw new IOException("Could not create passivation directory " + directory);
+        }
+        final File file = fileFor(id);
+        boolean ok = false;
+        final OutputStream fileOut = new BufferedOutputStream(new FileOutputStream(file));
+        try {
+            final ObjectOutputStream out = new ObjectOutputStream(fileOut);
+            out.writeObject(state);
+            out.close();
+            ok = true;
+        } catch (NotSerializableException e) {
+            // the message of the exception is only the name of the class
+            final IOException ioe = new IOException("The state of session " + id + " references an instance of " + e.getMessage() + ", which is not serializable");
+            ioe.initCause(e);
+            throw ioe;
+        } finally {
+            if (!ok) {
+                safeClose(fileOut);
+                file.delete();
+            }
+        }
+    }
+
+    /**
+     * Read the state of a session, and remove it from the store.
+     *
+     * @param id the session id
+     * @param classLoader the class loader used to resolve the classes of the state
+     * @return the state
+     * @throws IOException if the state can not be read
+     * @throws ClassNotFoundException if a class of the state can not be found
+     */
+    Object load(final Serializable id, final ClassLoader classLoader) throws IOException, ClassNotFoundException {
+        final File file = fileFor(id);
+        final InputStream fileIn = new BufferedInputStream(new FileInputStream(file));
+        try {
+            return new ClassLoaderObjectInputStream(fileIn, classLoader).readObject();
+        } finally {
+            safeClose(fileIn);
+            file.delete();
+        }
+    }
+
+    /**
+     * Remove the state of a session.
+     *
+     * @param id the session id
+     */
+    void remove(final Serializable id) {
+        fileFor(id).delete();
+    }
+
+    private File fileFor(final Serializable id) {
+        final String name = id.toString();
+        final StringBuilder builder = new StringBuilder(name.length() + 4);
+        for (int i = 0; i < name.length(); i++) {
+            final char c = name.charAt(i);
+            builder.append(Character.isLetterOrDigit(c) || c == '-' ? c : '_');
+        }
+        return new File(directory, builder.append(".ser").toString());
+    }
+
+    private static void safeClose(final Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException ignore) {
+        }
+    }
+
+    private static final class ClassLoaderObjectInputStream extends ObjectInputStream {
+        private final ClassLoader classLoader;
+
+        ClassLoaderObjectInputStream(final InputStream in, final ClassLoader classLoader) throws IOException {
+            super(in);
+            this.classLoader = classLoader;
+        }
+
+        @Override
+        protected Class<?> resolveClass(final ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+            try {
+                return Class.forName(desc.getName(), false, classLoader);
+            } catch (ClassNotFoundException e) {
+                return super.resolveClass(desc);
+            }
+        }
+    }
+}
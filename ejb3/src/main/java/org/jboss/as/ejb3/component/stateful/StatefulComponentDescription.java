@@ -61,6 +61,8 @@ public class StatefulComponentDescription extends SessionBeanComponentDescriptio
     private MethodDescription afterBegin;
     private MethodDescription afterCompletion;
     private MethodDescription beforeCompletion;
+    private MethodDescription prePassivate;
+    private MethodDescription postActivate;
     private Set<StatefulRemoveMethod> removeMethods = new HashSet<StatefulRemoveMethod>();
     private StatefulTimeoutInfo statefulTimeout;
 
@@ -171,6 +173,14 @@ public class StatefulComponentDescription extends SessionBeanComponentDescriptio
         return beforeCompletion;
     }
 
+    public MethodDescription getPrePassivate() {
+        return prePassivate;
+    }
+
+    public MethodDescription getPostActivate() {
+        return postActivate;
+    }
+
     @Override
     public SessionBeanType getSessionBeanType() {
         return SessionBeanComponentDescription.SessionBeanType.STATEFUL;
@@ -188,6 +198,14 @@ public class StatefulComponentDescription extends SessionBeanComponentDescriptio
         this.beforeCompletion = new MethodDescription(className, methodName);
     }
 
+    public void setPrePassivate(String className, String methodName) {
+        this.prePassivate = new MethodDescription(className, methodName);
+    }
+
+    public void setPostActivate(String className, String methodName) {
+        this.postActivate = new MethodDescription(className, methodName);
+    }
+
     @Override
     protected void setupViewInterceptors(ViewDescription view) {
         // let super do its job
@@ -0,0 +1,505 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.component.stateful;
+
+import org.jboss.ejb3.cache.Cache;
+import org.jboss.ejb3.cache.Identifiable;
+import org.jboss.ejb3.cache.StatefulObjectFactory;
+import org.jboss.logging.Logger;
+
+import javax.ejb.NoSuchEJBException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cache of stateful session bean instances. The instances are spread over lock-striped segments, so that
+ * invocations on different sessions rarely contend. Idle instances are expired by tasks on a scheduler owned by the
+ * cache, which runs from {@link #start()} to {@link #stop()}, rather than by scanning the whole cache. If a maximum
+ * size is set, the instances which have been idle the longest are handed to a {@link Passivator} once the number of
+ * instances held in memory exceeds it, and are activated again when they are next looked up.
+ *
+ * @author agent
+ */
+public class StatefulSessionCache<T extends Identifiable> implements Cache<T> {
+
+    private static final Logger logger = Logger.getLogger(StatefulSessionCache.class);
+
+    private static final int SEGMENT_COUNT = 16;
+
+    /**
+     * Moves the state of idle instances out of memory, and back again.
+     */
+    public interface Passivator<T> {
+
+        /**
+         * Store the state of an idle instance and release it from memory.
+         *
+         * @param instance the instance
+         * @return {@code true} if the instance was passivated, {@code false} if it has to stay in memory
+         */
+        boolean passivate(T instance);
+
+        /**
+         * Restore the state of a passivated instance.
+         *
+         * @param instance the instance
+         * @throws javax.ejb.EJBException if the state can not be restored
+         */
+        void activate(T instance);
+
+        /**
+         * Drop the stored state of a passivated instance which will not be activated again.
+         *
+         * @param instance the instance
+         */
+        void discard(T instance);
+    }
+
+    private enum State {
+        IN_USE, INACTIVE
+    }
+
+    private final long millisecondTimeout;
+    private final String beanName;
+    private final int maxSize;
+    private final Passivator<T> passivator;
+    private final Segment<T>[] segments;
+    /** The number of instances which are not passivated */
+    private final AtomicInteger resident = new AtomicInteger();
+    private final AtomicBoolean passivationScheduled = new AtomicBoolean();
+
+    private volatile StatefulObjectFactory<T> factory;
+    private volatile boolean running;
+    /** Runs the expiration and passivation tasks while the cache is started */
+    private volatile ScheduledExecutorService scheduler;
+
+    /**
+     * Create a cache without a size limit.
+     *
+     * @param value the time after which an idle instance is removed, or a negative value if it is never removed
+     * @param timeUnit the unit of {@code value}
+     * @param beanName the name of the bean, for logging
+     */
+    public StatefulSessionCache(final long value, final TimeUnit timeUnit, final String beanName) {
+        this(value, timeUnit, beanName, 0, null);
+    }
+
+    /**
+     * Create a cache.
+     *
+     * @param value the time after which an idle instance is removed, or a negative value if it is never removed
+     * @param timeUnit the unit of {@code value}
+     * @param beanName the name of the bean, for logging
+     * @param maxSize the number of instances held in memory above which idle instances are passivated, or
+     *        {@code 0} for no limit
+     * @param passivator the passivator, which may be {@code null} if {@code maxSize} is {@code 0}
+     */
+    @SuppressWarnings("unchecked")
+    public StatefulSessionCache(final long value, final TimeUnit timeUnit, final String beanName, final int maxSize, final Passivator<T> passivator) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("maxSize is negative");
+        }
+        if (maxSize > 0 && passivator == null) {
+            throw new IllegalArgumentException("A passivator is required for a cache with a maximum size");
+        }
+        this.millisecondTimeout = value < 0 ? -1 : TimeUnit.MILLISECONDS.convert(value, timeUnit);
+        this.beanName = beanName;
+        this.maxSize = maxSize;
+        this.passivator = passivator;
+        segments = new Segment[SEGMENT_COUNT];
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = new Segment<T>();
+        }
+    }
+
+    @Override
+    public T create() {
+        final T obj = factory.createInstance();
+        final Serializable key = obj.getId();
+        final Entry<T> entry = new Entry<T>(obj);
+        final Segment<T> segment = segmentFor(key);
+        synchronized (segment) {
+            segment.entries.put(key, entry);
+            // the instance is idle until it is first invoked
+            markInactive(segment, key, entry);
+        }
+        resident.incrementAndGet();
+        checkSize();
+        return obj;
+    }
+
+    @Override
+    public void discard(final Serializable key) {
+        final Segment<T> segment = segmentFor(key);
+        final Entry<T> entry;
+        synchronized (segment) {
+            entry = segment.remove(key);
+        }
+        if (entry != null) {
+            synchronized (entry) {
+                if (entry.passivated) {
+                    passivator.discard(entry.value);
+                } else {
+                    resident.decrementAndGet();
+                }
+            }
+        }
+    }
+
+    @Override
+    public T get(final Serializable key) throws NoSuchEJBException {
+        final Segment<T> segment = segmentFor(key);
+        final Entry<T> entry;
+        synchronized (segment) {
+            entry = segment.entries.get(key);
+            if (entry == null) {
+                throw new NoSuchEJBException("Could not find EJB with id " + key);
+            }
+            entry.lastUsed = System.currentTimeMillis();
+            entry.state = State.IN_USE;
+            segment.idle.remove(key);
+        }
+        synchronized (entry) {
+            if (entry.passivated) {
+                try {
+                    passivator.activate(entry.value);
+                } catch (RuntimeException e) {
+                    synchronized (segment) {
+                        segment.remove(key);
+                    }
+                    passivator.discard(entry.value);
+                    throw e;
+                }
+                entry.passivated = false;
+                resident.incrementAndGet();
+            }
+        }
+        checkSize();
+        return entry.value;
+    }
+
+    @Override
+    public void release(final T obj) {
+        final Serializable key = obj.getId();
+        final Segment<T> segment = segmentFor(key);
+        synchronized (segment) {
+            final Entry<T> entry = segment.entries.get(key);
+            if (entry == null) {
+                logger.warn("Could not find stateful bean to release " + key);
+                return;
+            }
+            entry.lastUsed = System.currentTimeMillis();
+            markInactive(segment, key, entry);
+        }
+    }
+
+    @Override
+    public void remove(final Serializable key) {
+        final Segment<T> segment = segmentFor(key);
+        final Entry<T> entry;
+        synchronized (segment) {
+            entry = segment.remove(key);
+        }
+        // EJBTHREE-1218: throw NoSuchEJBException if the bean can not be found
+        if (entry == null) {
+            throw new NoSuchEJBException(String.valueOf(key));
+        }
+        destroy(entry);
+    }
+
+    @Override
+    public void setStatefulObjectFactory(final StatefulObjectFactory<T> tStatefulObjectFactory) {
+        this.factory = tStatefulObjectFactory;
+    }
+
+    @Override
+    public void start() {
+        scheduler = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+            @Override
+            public Thread newThread(final Runnable r) {
+                final Thread thread = new Thread(r, "EJB stateful session expiry " + beanName);
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        final ScheduledExecutorService scheduler = this.scheduler;
+        if (scheduler != null) {
+            this.scheduler = null;
+            scheduler.shutdownNow();
+        }
+        final List<Entry<T>> entries = new ArrayList<Entry<T>>();
+        for (Segment<T> segment : segments) {
+            synchronized (segment) {
+                entries.addAll(segment.entries.values());
+                segment.entries.clear();
+                segment.idle.clear();
+            }
+        }
+        // the instances are not destroyed, but any passivated state is dropped
+        for (Entry<T> entry : entries) {
+            synchronized (entry) {
+                if (entry.passivated) {
+                    passivator.discard(entry.value);
+                }
+            }
+        }
+        resident.set(0);
+    }
+
+    /**
+     * Gets the number of instances in the cache, including passivated instances.
+     *
+     * @return the number of instances
+     */
+    public int getCacheSize() {
+        int size = 0;
+        for (Segment<T> segment : segments) {
+            synchronized (segment) {
+                size += segment.entries.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Gets the number of passivated instances in the cache.
+     *
+     * @return the number of passivated instances
+     */
+    public int getPassivatedCount() {
+        return Math.max(0, getCacheSize() - resident.get());
+    }
+
+    private Segment<T> segmentFor(final Object key) {
+        int h = key.hashCode();
+        h ^= (h >>> 20) ^ (h >>> 12);
+        h ^= (h >>> 7) ^ (h >>> 4);
+        return segments[h & (SEGMENT_COUNT - 1)];
+    }
+
+    /**
+     * Must be called with the segment lock held.
+     */
+    private void markInactive(final Segment<T> segment, final Serializable key, final Entry<T> entry) {
+        entry.state = State.INACTIVE;
+        // re-inserting moves the entry to the most recently used end
+        segment.idle.remove(key);
+        segment.idle.put(key, entry);
+        if (millisecondTimeout >= 0 && !entry.expiryScheduled) {
+            entry.expiryScheduled = schedule(new ExpirationTask(segment, key), millisecondTimeout);
+        }
+    }
+
+    private void checkSize() {
+        if (maxSize > 0 && resident.get() > maxSize && passivationScheduled.compareAndSet(false, true)) {
+            if (!schedule(new PassivationTask(), 0)) {
+                passivationScheduled.set(false);
+            }
+        }
+    }
+
+    /**
+     * Schedule a task, unless the cache is stopped.
+     *
+     * @return {@code true} if the task was scheduled
+     */
+    private boolean schedule(final Runnable task, final long millisecondDelay) {
+        final ScheduledExecutorService scheduler = this.scheduler;
+        if (scheduler == null) {
+            return false;
+        }
+        try {
+            scheduler.schedule(task, millisecondDelay, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (RejectedExecutionException e) {
+            // the cache has been stopped meanwhile
+            return false;
+        }
+    }
+
+    private void destroy(final Entry<T> entry) {
+        synchronized (entry) {
+            if (entry.passivated) {
+                try {
+                    // activate the instance so that its pre-destroy callbacks see its state
+                    passivator.activate(entry.value);
+                } catch (RuntimeException e) {
+                    logger.error("Exception activating stateful bean " + entry.value.getId() + " for removal", e);
+                    passivator.discard(entry.value);
+                    return;
+                }
+                entry.passivated = false;
+            } else {
+                resident.decrementAndGet();
+            }
+        }
+        factory.destroyInstance(entry.value);
+    }
+
+    /**
+     * Removes an instance once it has been idle for the timeout. A task is only scheduled for an instance when it
+     * does not already have one; if the instance has been used since the task was scheduled, the task schedules
+     * itself again for the remainder of the timeout.
+     */
+    private final class ExpirationTask implements Runnable {
+        private final Segment<T> segment;
+        private final Serializable key;
+
+        ExpirationTask(final Segment<T> segment, final Serializable key) {
+            this.segment = segment;
+            this.key = key;
+        }
+
+        @Override
+        public void run() {
+            final Entry<T> entry;
+            synchronized (segment) {
+                entry = segment.entries.get(key);
+                if (entry == null) {
+                    return;
+                }
+                entry.expiryScheduled = false;
+                if (entry.state == State.IN_USE) {
+                    // release() schedules a new task
+                    return;
+                }
+                final long remaining = entry.lastUsed + millisecondTimeout - System.currentTimeMillis();
+                if (remaining > 0) {
+                    entry.expiryScheduled = schedule(this, remaining);
+                    return;
+                }
+                segment.remove(key);
+            }
+            try {
+                logger.debugf("Removing stateful bean %s - %s as it has been inactive for %d milliseconds", beanName, key, millisecondTimeout);
+                destroy(entry);
+            } catch (Exception e) {
+                logger.error("Exception removing stateful bean " + key, e);
+            }
+        }
+    }
+
+    /**
+     * Passivates the instances which have been idle the longest until no more than the maximum number of instances
+     * are held in memory. Each segment keeps its idle instances in least recently used order, and the segments are
+     * visited in turn.
+     */
+    private final class PassivationTask implements Runnable {
+        @Override
+        public void run() {
+            try {
+                boolean found = true;
+                while (running && found && resident.get() > maxSize) {
+                    found = false;
+                    for (Segment<T> segment : segments) {
+                        if (resident.get() <= maxSize) {
+                            break;
+                        }
+                        final Entry<T> entry;
+                        synchronized (segment) {
+                            final Iterator<Entry<T>> iterator = segment.idle.values().iterator();
+                            if (!iterator.hasNext()) {
+                                continue;
+                            }
+                            entry = iterator.next();
+                            iterator.remove();
+                        }
+                        found = true;
+                        passivate(entry);
+                    }
+                }
+            } finally {
+                passivationScheduled.set(false);
+            }
+            // instances may have been added after the last check
+            checkSize();
+        }
+
+        private void passivate(final Entry<T> entry) {
+            synchronized (entry) {
+                // the instance may have been looked up or removed since it was picked
+                if (entry.state != State.INACTIVE || entry.passivated || entry.removed) {
+                    return;
+                }
+                try {
+                    if (passivator.passivate(entry.value)) {
+                        entry.passivated = true;
+                        resident.decrementAndGet();
+                        logger.tracef("Passivated stateful bean %s - %s", beanName, entry.value.getId());
+                    }
+                } catch (Exception e) {
+                    logger.error("Exception passivating stateful bean " + entry.value.getId(), e);
+                }
+            }
+        }
+    }
+
+    private static final class Segment<T> {
+        private final Map<Serializable, Entry<T>> entries = new HashMap<Serializable, Entry<T>>();
+        /** The idle instances which are held in memory, least recently used first */
+        private final LinkedHashMap<Serializable, Entry<T>> idle = new LinkedHashMap<Serializable, Entry<T>>();
+
+        Entry<T> remove(final Serializable key) {
+            idle.remove(key);
+            final Entry<T> entry = entries.remove(key);
+            if (entry != null) {
+                entry.removed = true;
+            }
+            return entry;
+        }
+    }
+
+    private static final class Entry<T> {
+        private final T value;
+        // guarded by the segment lock
+        private long lastUsed;
+        private boolean expiryScheduled;
+        // written under the segment lock, read under the entry lock
+        private volatile State state = State.IN_USE;
+        private volatile boolean removed;
+        // guarded by the entry lock
+        private boolean passivated;
+
+        Entry(final T value) {
+            this.value = value;
+            this.lastUsed = System.currentTimeMillis();
+        }
+    }
+}
@@ -24,6 +24,7 @@ package org.jboss.as.ejb3.component.stateful;
 import org.jboss.as.ee.component.BasicComponentInstance;
 import org.jboss.as.ee.component.Component;
 import org.jboss.as.ejb3.component.EJBBusinessMethod;
+import org.jboss.as.ejb3.component.EJBMethodMetadata;
 import org.jboss.as.ejb3.component.session.SessionBeanComponent;
 import org.jboss.as.naming.ManagedReference;
 import org.jboss.ejb3.cache.Cache;
@@ -36,16 +37,19 @@ import org.jboss.msc.service.StopContext;
 import org.jboss.tm.TxUtils;
 
 import javax.ejb.AccessTimeout;
+import javax.ejb.EJBException;
 import javax.ejb.TimerService;
 import javax.transaction.RollbackException;
 import javax.transaction.Synchronization;
 import javax.transaction.SystemException;
 import javax.transaction.Transaction;
+import java.io.File;
+import java.io.IOException;
 import java.io.Serializable;
-import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 
 
@@ -65,6 +69,8 @@ public class StatefulSessionComponent extends SessionBeanComponent {
     final InterceptorFactory afterBegin;
     final InterceptorFactory afterCompletion;
     final InterceptorFactory beforeCompletion;
+    final InterceptorFactory prePassivate;
+    final InterceptorFactory postActivate;
     private Map<EJBBusinessMethod, AccessTimeout> methodAccessTimeouts;
 
     /**
@@ -78,13 +84,27 @@ public class StatefulSessionComponent extends SessionBeanComponent {
         this.afterBegin = ejbComponentCreateService.getAfterBegin();
         this.afterCompletion = ejbComponentCreateService.getAfterCompletion();
         this.beforeCompletion = ejbComponentCreateService.getBeforeCompletion();
+        this.prePassivate = ejbComponentCreateService.getPrePassivate();
+        this.postActivate = ejbComponentCreateService.getPostActivate();
         this.methodAccessTimeouts = ejbComponentCreateService.getMethodApplicableAccessTimeouts();
 
+        final String beanName = ejbComponentCreateService.getComponentClass().getName();
+        final long timeout;
+        final TimeUnit timeUnit;
         final StatefulTimeoutInfo statefulTimeout = ejbComponentCreateService.getStatefulTimeout();
         if (statefulTimeout != null) {
-            cache = new ExpiringCache<StatefulSessionComponentInstance>(statefulTimeout.getValue(), statefulTimeout.getTimeUnit(), ejbComponentCreateService.getComponentClass().getName());
+            timeout = statefulTimeout.getValue();
+            timeUnit = statefulTimeout.getTimeUnit();
         } else {
-            cache = new ExpiringCache<StatefulSessionComponentInstance>(-1, TimeUnit.MILLISECONDS, ejbComponentCreateService.getComponentClass().getName());
+            timeout = -1;
+            timeUnit = TimeUnit.MILLISECONDS;
+        }
+        final int maxSize = ejbComponentCreateService.getStatefulCacheMaxSize();
+        if (maxSize > 0) {
+            final File passivationDir = ejbComponentCreateService.getPassivationDir();
+            cache = new StatefulSessionCache<StatefulSessionComponentInstance>(timeout, timeUnit, beanName, maxSize, new FilePassivator(new FilePassivationStore(passivationDir)));
+        } else {
+            cache = new StatefulSessionCache<StatefulSessionComponentInstance>(timeout, timeUnit, beanName);
         }
         cache.setStatefulObjectFactory(new StatefulObjectFactory<StatefulSessionComponentInstance>() {
             @Override
@@ -108,8 +128,11 @@ public class StatefulSessionComponent extends SessionBeanComponent {
      * Returns the {@link AccessTimeout} applicable to given method
      */
     public AccessTimeout getAccessTimeout(Method method) {
-        final EJBBusinessMethod ejbMethod = new EJBBusinessMethod(method);
-        final AccessTimeout accessTimeout = this.methodAccessTimeouts.get(ejbMethod);
+        final EJBMethodMetadata metadata = this.getMethodMetadata(method);
+        if (metadata != null) {
+            return metadata.getAccessTimeout();
+        }
+        final AccessTimeout accessTimeout = this.methodAccessTimeouts.get(new EJBBusinessMethod(method));
         if (accessTimeout != null) {
             return accessTimeout;
         }
@@ -118,22 +141,7 @@ public class StatefulSessionComponent extends SessionBeanComponent {
         if (timeout != null) {
             return timeout;
         }
-        return new AccessTimeout() {
-            @Override
-            public long value() {
-                return 5;
-            }
-
-            @Override
-            public TimeUnit unit() {
-                return TimeUnit.MINUTES;
-            }
-
-            @Override
-            public Class<? extends Annotation> annotationType() {
-                return AccessTimeout.class;
-            }
-        };
+        return this.defaultAccessTimeout;
     }
 
     //    @Override
@@ -265,6 +273,67 @@ public class StatefulSessionComponent extends SessionBeanComponent {
         }
     }
 
+    /**
+     * Passivates the bean instances of idle sessions by serializing them to files. The interceptors of a session
+     * stay in memory, so only the bean instance itself needs to be serializable; a session whose bean instance can
+     * not be serialized is kept in memory. The {@link javax.ejb.PrePassivate} callback of the bean is invoked before
+     * its state is written, and its {@link javax.ejb.PostActivate} callback once its state has been read again, or
+     * if the state could not be written after all.
+     */
+    private final class FilePassivator implements StatefulSessionCache.Passivator<StatefulSessionComponentInstance> {
+        private final FilePassivationStore store;
+        private final AtomicBoolean failureLogged = new AtomicBoolean();
+
+        FilePassivator(final FilePassivationStore store) {
+            this.store = store;
+        }
+
+        @Override
+        public boolean passivate(final StatefulSessionComponentInstance instance) {
+            if (!instance.isPassivationCapable()) {
+                return false;
+            }
+            final Object bean = instance.getInstance();
+            if (!(bean instanceof Serializable)) {
+                return false;
+            }
+            instance.prePassivate();
+            try {
+                store.store(instance.getId(), bean);
+            } catch (IOException e) {
+                // the same field usually fails for every session of the bean, so only report it once
+                if (failureLogged.compareAndSet(false, true)) {
+                    logger.warnf(e, "Could not passivate stateful bean %s - %s, its sessions are kept in memory", getComponentName(), instance.getId());
+                } else {
+                    logger.debugf(e, "Could not passivate stateful bean %s - %s", getComponentName(), instance.getId());
+                }
+                instance.postActivate();
+                return false;
+            }
+            instance.passivated();
+            return true;
+        }
+
+        @Override
+        public void activate(final StatefulSessionComponentInstance instance) {
+            final Object bean;
+            try {
+                bean = store.load(instance.getId(), getComponentClass().getClassLoader());
+            } catch (IOException e) {
+                throw new EJBException("Could not activate stateful bean " + getComponentName() + " - " + instance.getId(), e);
+            } catch (ClassNotFoundException e) {
+                throw new EJBException("Could not activate stateful bean " + getComponentName() + " - " + instance.getId(), e);
+            }
+            instance.activated(bean);
+            instance.postActivate();
+        }
+
+        @Override
+        public void discard(final StatefulSessionComponentInstance instance) {
+            store.remove(instance.getId());
+        }
+    }
+
     @Override
     public void start() {
         super.start();
@@ -33,6 +33,7 @@ import org.jboss.invocation.ImmediateInterceptorFactory;
 import org.jboss.invocation.InterceptorFactory;
 import org.jboss.invocation.Interceptors;
 
+import java.io.File;
 import java.lang.reflect.Method;
 import java.util.Arrays;
 
@@ -43,6 +44,8 @@ public class StatefulSessionComponentCreateService extends SessionBeanComponentC
     private final InterceptorFactory afterBegin;
     private final InterceptorFactory afterCompletion;
     private final InterceptorFactory beforeCompletion;
+    private final InterceptorFactory prePassivate;
+    private final InterceptorFactory postActivate;
     private final StatefulTimeoutInfo statefulTimeout;
 
     /**
@@ -60,6 +63,8 @@ public class StatefulSessionComponentCreateService extends SessionBeanComponentC
         this.afterBegin = interceptorFactoryChain(tcclInterceptorFactory, namespaceContextInterceptorFactory, SessionInvocationContextInterceptor.FACTORY, invokeMethodOnTarget(beanClass, componentDescription.getAfterBegin()));
         this.afterCompletion = interceptorFactoryChain(tcclInterceptorFactory, namespaceContextInterceptorFactory, SessionInvocationContextInterceptor.FACTORY, invokeMethodOnTarget(beanClass, componentDescription.getAfterCompletion()));
         this.beforeCompletion = interceptorFactoryChain(tcclInterceptorFactory, namespaceContextInterceptorFactory, SessionInvocationContextInterceptor.FACTORY, invokeMethodOnTarget(beanClass, componentDescription.getBeforeCompletion()));
+        this.prePassivate = interceptorFactoryChain(tcclInterceptorFactory, namespaceContextInterceptorFactory, SessionInvocationContextInterceptor.FACTORY, invokeMethodOnTarget(beanClass, componentDescription.getPrePassivate()));
+        this.postActivate = interceptorFactoryChain(tcclInterceptorFactory, namespaceContextInterceptorFactory, SessionInvocationContextInterceptor.FACTORY, invokeMethodOnTarget(beanClass, componentDescription.getPostActivate()));
         this.statefulTimeout = componentDescription.getStatefulTimeout();
     }
 
@@ -127,7 +132,23 @@ public class StatefulSessionComponentCreateService extends SessionBeanComponentC
         return beforeCompletion;
     }
 
+    public InterceptorFactory getPrePassivate() {
+        return prePassivate;
+    }
+
+    public InterceptorFactory getPostActivate() {
+        return postActivate;
+    }
+
     public StatefulTimeoutInfo getStatefulTimeout() {
         return statefulTimeout;
     }
+
+    public int getStatefulCacheMaxSize() {
+        return this.getEJBUtilities().getStatefulCacheMaxSize();
+    }
+
+    public File getPassivationDir() {
+        return this.getEJBUtilities().getPassivationDir();
+    }
 }
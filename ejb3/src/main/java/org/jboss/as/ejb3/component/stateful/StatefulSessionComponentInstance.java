@@ -25,9 +25,11 @@ import org.jboss.as.ee.component.Component;
 import org.jboss.as.ee.component.ComponentInstance;
 import org.jboss.as.ejb3.component.session.SessionBeanComponentInstance;
 import org.jboss.as.naming.ManagedReference;
+import org.jboss.as.naming.ValueManagedReference;
 import org.jboss.ejb3.cache.Identifiable;
 import org.jboss.invocation.Interceptor;
 import org.jboss.invocation.InterceptorContext;
+import org.jboss.msc.value.ImmediateValue;
 import org.jboss.util.id.GUID;
 
 import javax.ejb.EJBException;
@@ -41,10 +43,13 @@ import java.util.concurrent.atomic.AtomicReference;
  */
 public class StatefulSessionComponentInstance extends SessionBeanComponentInstance implements Identifiable {
     private final GUID id;
+    private final AtomicReference<ManagedReference> instanceReference;
 
     private final Interceptor afterBegin;
     private final Interceptor afterCompletion;
     private final Interceptor beforeCompletion;
+    private final Interceptor prePassivate;
+    private final Interceptor postActivate;
 
     private boolean isDiscarded = false;
 
@@ -56,10 +61,13 @@ public class StatefulSessionComponentInstance extends SessionBeanComponentInstan
     protected StatefulSessionComponentInstance(final StatefulSessionComponent component, final AtomicReference<ManagedReference> instanceReference, final Interceptor preDestroyInterceptor, final Map<Method, Interceptor> methodInterceptors) {
         super(component, instanceReference, preDestroyInterceptor, methodInterceptors);
         this.id = new GUID();
+        this.instanceReference = instanceReference;
 
         this.afterBegin = component.createInterceptor(component.afterBegin);
         this.afterCompletion = component.createInterceptor(component.afterCompletion);
         this.beforeCompletion = component.createInterceptor(component.beforeCompletion);
+        this.prePassivate = component.createInterceptor(component.prePassivate);
+        this.postActivate = component.createInterceptor(component.postActivate);
     }
 
     protected void afterBegin() {
@@ -74,6 +82,14 @@ public class StatefulSessionComponentInstance extends SessionBeanComponentInstan
         execute(beforeCompletion);
     }
 
+    protected void prePassivate() {
+        execute(prePassivate);
+    }
+
+    protected void postActivate() {
+        execute(postActivate);
+    }
+
     protected void discard() {
         if (!isDiscarded) {
             isDiscarded = true;
@@ -99,6 +115,35 @@ public class StatefulSessionComponentInstance extends SessionBeanComponentInstan
         }
     }
 
+    /**
+     * Whether the bean instance can be released from memory once its state has been passivated. That is only the
+     * case if it is held by a plain {@link ValueManagedReference}, whose release does nothing: the reference created
+     * when the instance is activated again is then equivalent to the original one. An instance held by any other
+     * reference, for example one which releases resources when the instance is destroyed, stays in memory.
+     *
+     * @return {@code true} if the instance can be passivated
+     */
+    boolean isPassivationCapable() {
+        final ManagedReference reference = instanceReference.get();
+        return reference != null && reference.getClass() == ValueManagedReference.class;
+    }
+
+    /**
+     * Release the bean instance, once its state has been passivated.
+     */
+    void passivated() {
+        instanceReference.set(null);
+    }
+
+    /**
+     * Restore the bean instance of a passivated session.
+     *
+     * @param instance the bean instance read from the passivated state
+     */
+    void activated(final Object instance) {
+        instanceReference.set(new ValueManagedReference(new ImmediateValue<Object>(instance)));
+    }
+
     @Override
     public StatefulSessionComponent getComponent() {
         return (StatefulSessionComponent) super.getComponent();
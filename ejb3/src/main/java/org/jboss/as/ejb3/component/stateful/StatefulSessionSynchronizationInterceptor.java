@@ -136,7 +136,13 @@ public class StatefulSessionSynchronizationInterceptor extends AbstractEJBInterc
             // SFSB instance as "no longer in use". If it registered a tx SessionSynchronization, then releasing the lock is
             // taken care off by a tx synchronization callbacks.
             if (!wasTxSyncRegistered) {
-                releaseInstance(instance);
+                if (transactionKey != null) {
+                    // the SFSB instance is still associated with the tx of an earlier call, so it stays in use (and
+                    // thus can neither be passivated nor expire) until the tx synchronization releases it
+                    releaseLock();
+                } else {
+                    releaseInstance(instance);
+                }
             }
         }
     }
@@ -28,15 +28,15 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.jboss.as.ee.component.BasicComponentInstance;
-import org.jboss.as.ejb3.component.EJBComponentCreateService;
+import org.jboss.as.ejb3.component.pool.InstancePool;
+import org.jboss.as.ejb3.component.pool.PoolConfig;
 import org.jboss.as.ejb3.component.pool.PooledComponent;
+import org.jboss.as.ejb3.component.pool.StripedInstancePool;
 import org.jboss.as.ejb3.component.session.SessionBeanComponent;
-import org.jboss.as.ejb3.component.session.SessionBeanComponentCreateService;
 import org.jboss.as.naming.ManagedReference;
-import org.jboss.ejb3.pool.Pool;
 import org.jboss.ejb3.pool.StatelessObjectFactory;
-import org.jboss.ejb3.pool.strictmax.StrictMaxPool;
 import org.jboss.invocation.Interceptor;
+import org.jboss.msc.service.StopContext;
 
 /**
  * {@link org.jboss.as.ee.component.Component} responsible for managing EJB3 stateless session beans
@@ -46,14 +46,19 @@ import org.jboss.invocation.Interceptor;
  */
 public class StatelessSessionComponent extends SessionBeanComponent implements PooledComponent<StatelessSessionComponentInstance> {
 
-    private Pool<StatelessSessionComponentInstance> pool;
+    private static final int DEFAULT_MAX_SIZE = 20;
+    private static final long DEFAULT_TIMEOUT = 5;
+    private static final TimeUnit DEFAULT_TIMEOUT_UNIT = TimeUnit.MINUTES;
+
+    private final PoolConfig poolConfig;
+    private final InstancePool<StatelessSessionComponentInstance> pool;
 
     /**
      * Constructs a StatelessEJBComponent for a stateless session bean
      *
      * @param ejbComponentCreateService
      */
-    public StatelessSessionComponent(final SessionBeanComponentCreateService ejbComponentCreateService) {
+    public StatelessSessionComponent(final StatelessSessionComponentCreateService ejbComponentCreateService) {
         super(ejbComponentCreateService);
 
         StatelessObjectFactory<StatelessSessionComponentInstance> factory = new StatelessObjectFactory<StatelessSessionComponentInstance>() {
@@ -67,7 +72,12 @@ public class StatelessSessionComponent extends SessionBeanComponent implements P
                 obj.destroy();
             }
         };
-        this.pool = new StrictMaxPool<StatelessSessionComponentInstance>(factory, 20, 5, TimeUnit.MINUTES);
+        this.poolConfig = ejbComponentCreateService.getPoolConfig();
+        if (poolConfig != null) {
+            this.pool = poolConfig.createPool(factory);
+        } else {
+            this.pool = new StripedInstancePool<StatelessSessionComponentInstance>(factory, DEFAULT_MAX_SIZE, DEFAULT_TIMEOUT, DEFAULT_TIMEOUT_UNIT);
+        }
     }
 
 
@@ -106,7 +116,22 @@ public class StatelessSessionComponent extends SessionBeanComponent implements P
     }
 
     @Override
-    public Pool<StatelessSessionComponentInstance> getPool() {
+    public InstancePool<StatelessSessionComponentInstance> getPool() {
         return pool;
     }
+
+    @Override
+    public void start() {
+        super.start();
+        pool.start();
+    }
+
+    @Override
+    public void stop(final StopContext stopContext) {
+        super.stop(stopContext);
+        pool.stop();
+        if (poolConfig != null) {
+            poolConfig.removePool(pool);
+        }
+    }
 }
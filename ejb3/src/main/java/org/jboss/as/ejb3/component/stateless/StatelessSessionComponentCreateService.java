@@ -24,15 +24,23 @@ package org.jboss.as.ejb3.component.stateless;
 
 import org.jboss.as.ee.component.BasicComponent;
 import org.jboss.as.ee.component.ComponentConfiguration;
-import org.jboss.as.ejb3.component.EJBComponentCreateService;
+import org.jboss.as.ee.component.DependencyConfigurator;
+import org.jboss.as.ejb3.component.pool.PoolConfig;
+import org.jboss.as.ejb3.component.pool.PoolConfigRegistry;
 import org.jboss.as.ejb3.component.session.SessionBeanComponentCreateService;
 import org.jboss.as.ejb3.deployment.EjbJarConfiguration;
+import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
+import org.jboss.msc.service.ServiceBuilder;
+import org.jboss.msc.value.InjectedValue;
 
 /**
  * @author Stuart Douglas
  */
 public class StatelessSessionComponentCreateService extends SessionBeanComponentCreateService {
 
+    private final InjectedValue<PoolConfigRegistry> poolConfigRegistry = new InjectedValue<PoolConfigRegistry>();
+    private final InjectedValue<PoolConfig> beanPoolConfig = new InjectedValue<PoolConfig>();
+
     /**
      * Construct a new instance.
      *
@@ -40,6 +48,26 @@ public class StatelessSessionComponentCreateService extends SessionBeanComponent
      */
     public StatelessSessionComponentCreateService(final ComponentConfiguration componentConfiguration, final EjbJarConfiguration ejbJarConfiguration) {
         super(componentConfiguration, ejbJarConfiguration);
+
+        // The pool configuration must be up before the component is created, or it would fall back to the default sizing
+        final String componentName = componentConfiguration.getComponentName();
+        componentConfiguration.getCreateDependencies().add(new DependencyConfigurator() {
+            @Override
+            public void configureDependency(final ServiceBuilder<?> serviceBuilder) throws DeploymentUnitProcessingException {
+                serviceBuilder.addDependency(PoolConfigRegistry.SERVICE_NAME, PoolConfigRegistry.class, poolConfigRegistry);
+                serviceBuilder.addDependency(ServiceBuilder.DependencyType.OPTIONAL, PoolConfig.serviceNameForBean(componentName), PoolConfig.class, beanPoolConfig);
+            }
+        });
+    }
+
+    /**
+     * Get the configuration of the pool of the component: the pool naming the bean, else the default pool.
+     *
+     * @return the configuration, or {@code null} if neither a pool naming the bean nor the default pool is configured
+     */
+    public PoolConfig getPoolConfig() {
+        final PoolConfig config = beanPoolConfig.getOptionalValue();
+        return config != null ? config : poolConfigRegistry.getValue().getDefaultPoolConfig();
     }
 
     @Override
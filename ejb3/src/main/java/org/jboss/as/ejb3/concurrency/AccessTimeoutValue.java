@@ -0,0 +1,62 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.concurrency;
+
+import javax.ejb.AccessTimeout;
+import java.lang.annotation.Annotation;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An {@link AccessTimeout} which is not declared on a bean, such as the configured default.
+ *
+ * @author agent
+ */
+public final class AccessTimeoutValue implements AccessTimeout {
+
+    private final long value;
+    private final TimeUnit unit;
+
+    public AccessTimeoutValue(final long value, final TimeUnit unit) {
+        this.value = value;
+        this.unit = unit;
+    }
+
+    @Override
+    public long value() {
+        return value;
+    }
+
+    @Override
+    public TimeUnit unit() {
+        return unit;
+    }
+
+    @Override
+    public Class<? extends Annotation> annotationType() {
+        return AccessTimeout.class;
+    }
+
+    @Override
+    public String toString() {
+        return "@" + AccessTimeout.class.getName() + "(value=" + value + ", unit=" + unit + ")";
+    }
+}
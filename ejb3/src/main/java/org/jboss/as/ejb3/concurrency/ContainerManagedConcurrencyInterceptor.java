@@ -22,31 +22,80 @@
 
 package org.jboss.as.ejb3.concurrency;
 
-import org.jboss.ejb3.concurrency.spi.LockableComponent;
+import org.jboss.as.ejb3.component.EJBMethodMetadata;
+import org.jboss.as.ejb3.component.singleton.SingletonComponent;
 import org.jboss.invocation.Interceptor;
 import org.jboss.invocation.InterceptorContext;
 
+import javax.ejb.AccessTimeout;
+import javax.ejb.ConcurrentAccessException;
+import javax.ejb.ConcurrentAccessTimeoutException;
+import javax.ejb.EJBException;
+import javax.ejb.LockType;
+import java.lang.reflect.Method;
+
 /**
+ * Applies container managed concurrency to the invocations of a singleton, using the {@link ReaderBiasedLock} of
+ * the component and recording the contention of each method.
+ *
  * @author Jaikiran Pai
  */
-public class ContainerManagedConcurrencyInterceptor extends org.jboss.ejb3.concurrency.impl.ContainerManagedConcurrencyInterceptor implements Interceptor {
+public class ContainerManagedConcurrencyInterceptor implements Interceptor {
 
-    private LockableComponent lockableComponent;
+    private final SingletonComponent component;
 
-    public ContainerManagedConcurrencyInterceptor(LockableComponent component) {
+    public ContainerManagedConcurrencyInterceptor(SingletonComponent component) {
         if (component == null) {
-            throw new IllegalArgumentException(LockableComponent.class.getName() + " cannot be null");
+            throw new IllegalArgumentException(SingletonComponent.class.getName() + " cannot be null");
         }
-        this.lockableComponent = component;
+        this.component = component;
     }
 
     @Override
-    protected LockableComponent getLockableComponent() {
-        return this.lockableComponent;
+    public Object processInvocation(InterceptorContext interceptorContext) throws Exception {
+        final Method method = interceptorContext.getMethod();
+        final EJBMethodMetadata metadata = component.getMethodMetadata(method);
+        final LockType lockType = metadata != null ? metadata.getLockType() : component.getLockType(method);
+        final boolean read = lockType == LockType.READ;
+        final ReaderBiasedLock lock = component.getLock();
+        if (!(read ? lock.tryReadLock() : lock.tryWriteLock())) {
+            // only contended invocations pay for the statistics
+            final AccessTimeout accessTimeout = metadata != null ? metadata.getAccessTimeout() : component.getAccessTimeout(method);
+            acquire(lock, read, accessTimeout, component.getLockStatistics(method), method);
+        }
+        try {
+            return interceptorContext.proceed();
+        } finally {
+            if (read) {
+                lock.readUnlock();
+            } else {
+                lock.writeUnlock();
+            }
+        }
     }
 
-    @Override
-    public Object processInvocation(InterceptorContext interceptorContext) throws Exception {
-        return super.invoke(interceptorContext.getInvocationContext());
+    private void acquire(final ReaderBiasedLock lock, final boolean read, final AccessTimeout accessTimeout,
+                         final MethodLockStatistics statistics, final Method method) {
+        if (accessTimeout.value() == 0) {
+            // EJB 3.1 4.8.5.5.1 a timeout of 0 means concurrent access is not permitted
+            statistics.waited(0, true);
+            throw new ConcurrentAccessException("EJB 3.1 4.8.5.5.1 concurrent access timeout on " + component.getComponentName()
+                    + " method " + method + " is 0, concurrent access is not permitted");
+        }
+        final long start = System.nanoTime();
+        boolean acquired = false;
+        try {
+            acquired = read ? lock.tryReadLock(accessTimeout.value(), accessTimeout.unit()) : lock.tryWriteLock(accessTimeout.value(), accessTimeout.unit());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new EJBException("Interrupted while waiting for the " + (read ? "read" : "write") + " lock on " + component.getComponentName());
+        } finally {
+            statistics.waited(System.nanoTime() - start, !acquired);
+        }
+        if (!acquired) {
+            throw new ConcurrentAccessTimeoutException("EJB 3.1 4.8.5.5.1 concurrent access timeout on " + component.getComponentName()
+                    + " method " + method + " - could not obtain the " + (read ? "read" : "write") + " lock within "
+                    + accessTimeout.value() + " " + accessTimeout.unit());
+        }
     }
 }
@@ -24,7 +24,7 @@ package org.jboss.as.ejb3.concurrency;
 
 import org.jboss.as.ee.component.Component;
 import org.jboss.as.ee.component.ComponentInstanceInterceptorFactory;
-import org.jboss.ejb3.concurrency.spi.LockableComponent;
+import org.jboss.as.ejb3.component.singleton.SingletonComponent;
 import org.jboss.invocation.Interceptor;
 import org.jboss.invocation.InterceptorFactory;
 import org.jboss.invocation.InterceptorFactoryContext;
@@ -32,7 +32,7 @@ import org.jboss.invocation.InterceptorFactoryContext;
 /**
  * An {@link InterceptorFactory} which returns a new instance of {@link ContainerManagedConcurrencyInterceptor} on each
  * invocation to {@link #create(org.jboss.invocation.InterceptorFactoryContext)}. This {@link InterceptorFactory} can be used
- * for handling container managed concurrency invocations on a {@link LockableComponent}
+ * for handling container managed concurrency invocations on a {@link SingletonComponent}
  * <p/>
  * User: Jaikiran Pai
  */
@@ -46,6 +46,6 @@ public class ContainerManagedConcurrencyInterceptorFactory extends ComponentInst
 
     @Override
     protected Interceptor create(final Component component, final InterceptorFactoryContext context) {
-        return new ContainerManagedConcurrencyInterceptor((LockableComponent) component);
+        return new ContainerManagedConcurrencyInterceptor((SingletonComponent) component);
     }
 }
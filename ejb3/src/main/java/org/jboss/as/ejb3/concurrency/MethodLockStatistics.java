@@ -0,0 +1,78 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.concurrency;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The lock contention of one method of a bean with container managed concurrency.
+ *
+ * @author agent
+ */
+public final class MethodLockStatistics {
+
+    private final AtomicLong contentions = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong waitNanos = new AtomicLong();
+
+    void waited(final long nanos, final boolean timedOut) {
+        contentions.incrementAndGet();
+        waitNanos.addAndGet(nanos);
+        if (timedOut) {
+            timeouts.incrementAndGet();
+        }
+    }
+
+    /**
+     * Gets the number of invocations which found the lock held and had to wait for it.
+     *
+     * @return the contention count
+     */
+    public long getContentionCount() {
+        return contentions.get();
+    }
+
+    /**
+     * Gets the number of invocations which failed because the access timeout elapsed.
+     *
+     * @return the timeout count
+     */
+    public long getTimeoutCount() {
+        return timeouts.get();
+    }
+
+    /**
+     * Gets the total time, in milliseconds, invocations have waited for the lock.
+     *
+     * @return the wait time
+     */
+    public long getWaitTime() {
+        return TimeUnit.NANOSECONDS.toMillis(waitNanos.get());
+    }
+
+    @Override
+    public String toString() {
+        return "contentions=" + getContentionCount() + ", timeouts="
+                + getTimeoutCount() + ", wait-time=" + getWaitTime() + "ms";
+    }
+}
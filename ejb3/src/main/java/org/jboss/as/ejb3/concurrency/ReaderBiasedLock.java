@@ -0,0 +1,350 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.concurrency;
+
+import javax.ejb.IllegalLoopbackException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A reentrant read/write lock biased towards readers, for container managed concurrency. A reader only increments a
+ * counter picked by its thread id, so readers on different cores neither share a cache line nor take a lock; a
+ * writer announces itself, which turns new readers away, and then waits for the counters to drain. Readers only
+ * block while a writer holds, or waits for, the lock.
+ * <p/>
+ * Following the EJB 3.1 rules for singletons a thread holding the write lock may take the read lock, but a thread
+ * holding only the read lock may not take the write lock. A read lock still held when the write lock is released is
+ * counted as an ordinary reader from then on, so the next writer waits for it.
+ *
+ * @author agent
+ */
+public final class ReaderBiasedLock {
+
+    // counters are spread 64 bytes apart so that they do not share a cache line
+    private static final int PADDING = 16;
+    private static final int SPINS = 64;
+
+    private final AtomicIntegerArray readers;
+    private final int stripeMask;
+    // serializes the writers
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile boolean writerActive;
+
+    private final Object monitor = new Object();
+    // written with monitor held
+    private volatile int waitingReaders;
+
+    private final ThreadLocal<Holds> holds = new ThreadLocal<Holds>() {
+        @Override
+        protected Holds initialValue() {
+            return new Holds();
+        }
+    };
+
+    public ReaderBiasedLock() {
+        final int target = Runtime.getRuntime().availableProcessors();
+        int count = 1;
+        while (count < target) {
+            count <<= 1;
+        }
+        readers = new AtomicIntegerArray(count * PADDING);
+        stripeMask = count - 1;
+    }
+
+    /**
+     * Take the read lock if it is available without waiting.
+     *
+     * @return {@code true} if the lock was taken
+     */
+    public boolean tryReadLock() {
+        final Holds holds = this.holds.get();
+        if (holds.reentrantRead()) {
+            return true;
+        }
+        final int slot = slot();
+        if (!fastRead(slot)) {
+            return false;
+        }
+        holds.firstRead();
+        return true;
+    }
+
+    /**
+     * Take the read lock, waiting for a writer to release it.
+     *
+     * @param timeout the maximum time to wait, or a negative value to wait indefinitely
+     * @param unit the unit of {@code timeout}
+     * @return {@code true} if the lock was taken, {@code false} if the timeout elapsed
+     * @throws InterruptedException if the thread was interrupted while waiting
+     */
+    public boolean tryReadLock(final long timeout, final TimeUnit unit) throws InterruptedException {
+        final Holds holds = this.holds.get();
+        if (holds.reentrantRead()) {
+            return true;
+        }
+        final int slot = slot();
+        if (!fastRead(slot) && !slowRead(slot, timeout, unit)) {
+            return false;
+        }
+        holds.firstRead();
+        return true;
+    }
+
+    /**
+     * Release the read lock.
+     */
+    public void readUnlock() {
+        final Holds holds = this.holds.get();
+        if (holds.reads == 0) {
+            throw new IllegalMonitorStateException("Read lock not held");
+        }
+        if (--holds.reads == 0 && holds.countedRead) {
+            holds.countedRead = false;
+            readers.decrementAndGet(slot());
+            if (writerActive) {
+                // the writer may be waiting for this reader
+                synchronized (monitor) {
+                    monitor.notifyAll();
+                }
+            }
+        }
+    }
+
+    /**
+     * Take the write lock if it is available without waiting.
+     *
+     * @return {@code true} if the lock was taken
+     * @throws IllegalLoopbackException if the thread holds the read lock
+     */
+    public boolean tryWriteLock() {
+        final Holds holds = this.holds.get();
+        if (holds.reentrantWrite()) {
+            return true;
+        }
+        if (!writeLock.tryLock()) {
+            return false;
+        }
+        writerActive = true;
+        if (readerCount() != 0) {
+            abortWrite();
+            return false;
+        }
+        holds.writes = 1;
+        return true;
+    }
+
+    /**
+     * Take the write lock, waiting for the other writers and the readers to release it.
+     *
+     * @param timeout the maximum time to wait, or a negative value to wait indefinitely
+     * @param unit the unit of {@code timeout}
+     * @return {@code true} if the lock was taken, {@code false} if the timeout elapsed
+     * @throws InterruptedException if the thread was interrupted while waiting
+     * @throws IllegalLoopbackException if the thread holds the read lock
+     */
+    public boolean tryWriteLock(final long timeout, final TimeUnit unit) throws InterruptedException {
+        final Holds holds = this.holds.get();
+        if (holds.reentrantWrite()) {
+            return true;
+        }
+        final long start = System.nanoTime();
+        final long timeoutNanos = unit.toNanos(timeout);
+        if (timeout < 0) {
+            writeLock.lockInterruptibly();
+        } else if (!writeLock.tryLock(timeoutNanos, TimeUnit.NANOSECONDS)) {
+            return false;
+        }
+        writerActive = true;
+        boolean drained = false;
+        try {
+            drained = awaitReaders(start, timeout < 0 ? -1 : timeoutNanos);
+        } finally {
+            if (!drained) {
+                abortWrite();
+            }
+        }
+        if (drained) {
+            holds.writes = 1;
+        }
+        return drained;
+    }
+
+    /**
+     * Release the write lock.
+     */
+    public void writeUnlock() {
+        final Holds holds = this.holds.get();
+        if (holds.writes == 0) {
+            throw new IllegalMonitorStateException("Write lock not held");
+        }
+        if (--holds.writes == 0) {
+            if (holds.reads > 0 && !holds.countedRead) {
+                // downgrade: count the read lock taken under the write lock before letting other writers in
+                readers.incrementAndGet(slot());
+                holds.countedRead = true;
+            }
+            abortWrite();
+        }
+    }
+
+    /**
+     * Gets the number of threads currently holding the read lock.
+     *
+     * @return the reader count
+     */
+    public int getReaderCount() {
+        return readerCount();
+    }
+
+    /**
+     * Gets whether a writer holds, or is waiting for, the lock.
+     *
+     * @return {@code true} if a writer is active
+     */
+    public boolean isWriterActive() {
+        return writerActive;
+    }
+
+    private int slot() {
+        return ((int) Thread.currentThread().getId() & stripeMask) * PADDING;
+    }
+
+    private int readerCount() {
+        int count = 0;
+        for (int i = 0; i <= stripeMask; i++) {
+            count += readers.get(i * PADDING);
+        }
+        return count;
+    }
+
+    private boolean fastRead(final int slot) {
+        readers.incrementAndGet(slot);
+        if (!writerActive) {
+            return true;
+        }
+        // back off in favour of the writer
+        readers.decrementAndGet(slot);
+        synchronized (monitor) {
+            monitor.notifyAll();
+        }
+        return false;
+    }
+
+    private boolean slowRead(final int slot, final long timeout, final TimeUnit unit) throws InterruptedException {
+        final long start = System.nanoTime();
+        final long timeoutNanos = unit.toNanos(timeout);
+        synchronized (monitor) {
+            waitingReaders++;
+            try {
+                for (;;) {
+                    if (!writerActive) {
+                        readers.incrementAndGet(slot);
+                        if (!writerActive) {
+                            return true;
+                        }
+                        readers.decrementAndGet(slot);
+                        monitor.notifyAll();
+                    }
+                    if (timeout < 0) {
+                        monitor.wait();
+                    } else {
+                        final long remaining = timeoutNanos - (System.nanoTime() - start);
+                        if (remaining <= 0) {
+                            return false;
+                        }
+                        TimeUnit.NANOSECONDS.timedWait(monitor, remaining);
+                    }
+                }
+            } finally {
+                waitingReaders--;
+            }
+        }
+    }
+
+    private boolean awaitReaders(final long start, final long timeoutNanos) throws InterruptedException {
+        // readers are expected to be short, so spin briefly before blocking
+        for (int i = 0; i < SPINS; i++) {
+            if (readerCount() == 0) {
+                return true;
+            }
+            Thread.yield();
+        }
+        synchronized (monitor) {
+            while (readerCount() != 0) {
+                if (timeoutNanos < 0) {
+                    monitor.wait();
+                } else {
+                    final long remaining = timeoutNanos - (System.nanoTime() - start);
+                    if (remaining <= 0) {
+                        return false;
+                    }
+                    TimeUnit.NANOSECONDS.timedWait(monitor, remaining);
+                }
+            }
+        }
+        return true;
+    }
+
+    private void abortWrite() {
+        writerActive = false;
+        writeLock.unlock();
+        if (waitingReaders > 0) {
+            synchronized (monitor) {
+                monitor.notifyAll();
+            }
+        }
+    }
+
+    private static final class Holds {
+        int reads;
+        int writes;
+        // whether the outermost read lock incremented a reader counter, rather than being taken under the write lock
+        boolean countedRead;
+
+        boolean reentrantRead() {
+            if (reads > 0 || writes > 0) {
+                if (reads++ == 0) {
+                    countedRead = false;
+                }
+                return true;
+            }
+            return false;
+        }
+
+        void firstRead() {
+            reads = 1;
+            countedRead = true;
+        }
+
+        boolean reentrantWrite() {
+            if (writes > 0) {
+                writes++;
+                return true;
+            }
+            if (reads > 0) {
+                throw new IllegalLoopbackException("A thread holding a read lock can not take the write lock");
+            }
+            return false;
+        }
+    }
+}
@@ -30,10 +30,12 @@ import org.jboss.as.ee.component.EEModuleDescription;
 
 import org.jboss.as.ejb3.deployment.EjbDeploymentMarker;
 import org.jboss.as.server.deployment.Attachments;
+import org.jboss.as.server.deployment.AttachmentKey;
+import org.jboss.as.server.deployment.ConcurrentDeploymentUnitProcessor;
+import org.jboss.as.server.deployment.DeploymentMetadataCache;
 import org.jboss.as.server.deployment.DeploymentPhaseContext;
 import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
-import org.jboss.as.server.deployment.DeploymentUnitProcessor;
 import org.jboss.logging.Logger;
 import org.jboss.metadata.ejb.parser.spec.EjbJarMetaDataParser;
 import org.jboss.metadata.ejb.spec.EjbJar31MetaData;
@@ -47,6 +49,10 @@ import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * Processes a {@link DeploymentUnit} containing a ejb-jar.xml and creates {@link EjbJarMetaData}
@@ -60,7 +66,10 @@ import java.io.InputStream;
  * <p/>
  * Author: Jaikiran Pai
  */
-public class EjbJarParsingDeploymentUnitProcessor implements DeploymentUnitProcessor {
+public class EjbJarParsingDeploymentUnitProcessor implements ConcurrentDeploymentUnitProcessor {
+
+    private static final List<AttachmentKey<?>> READ_ATTACHMENTS = Collections.<AttachmentKey<?>>singletonList(Attachments.DEPLOYMENT_ROOT);
+    private static final List<AttachmentKey<?>> WRITTEN_ATTACHMENTS = Collections.unmodifiableList(Arrays.<AttachmentKey<?>>asList(EjbDeploymentMarker.ATTACHMENT_KEY, EjbDeploymentAttachmentKeys.EJB_JAR_DESCRIPTION, EjbDeploymentAttachmentKeys.EJB_JAR_METADATA, org.jboss.as.ee.component.Attachments.EE_MODULE_DESCRIPTION));
 
     /**
      * Logger
@@ -132,6 +141,12 @@ public class EjbJarParsingDeploymentUnitProcessor implements DeploymentUnitProce
             deploymentUnit.putAttachment(EjbDeploymentAttachmentKeys.EJB_JAR_DESCRIPTION, ejbModuleDescription);
         }
 
+        final EjbJarMetaData cached = DeploymentMetadataCache.getMetadata(deploymentUnit, ejbJarXml, EjbJarMetaData.class);
+        if (cached != null) {
+            processMetaData(deploymentUnit, eeModuleDescription, cached);
+            return;
+        }
+
         // get the XMLStreamReader and parse the ejb-jar.xml
         MetaDataElementParser.DTDInfo dtdInfo = new MetaDataElementParser.DTDInfo();
         InputStream stream = null;
@@ -141,15 +156,8 @@ public class EjbJarParsingDeploymentUnitProcessor implements DeploymentUnitProce
             XMLStreamReader reader = this.getXMLStreamReader(stream, ejbJarXml, dtdInfo);
 
             EjbJarMetaData ejbJarMetaData = EjbJarMetaDataParser.parse(reader, dtdInfo);
-            // attach the EjbJarMetaData to the deployment unit
-            deploymentUnit.putAttachment(EjbDeploymentAttachmentKeys.EJB_JAR_METADATA, ejbJarMetaData);
-
-            if(ejbJarMetaData instanceof EjbJar31MetaData) {
-                EjbJar31MetaData ejbJar31MetaData = (EjbJar31MetaData)ejbJarMetaData;
-                if(ejbJar31MetaData.getModuleName() != null) {
-                    eeModuleDescription.setModuleName(ejbJar31MetaData.getModuleName());
-                }
-            }
+            processMetaData(deploymentUnit, eeModuleDescription, ejbJarMetaData);
+            DeploymentMetadataCache.putMetadata(deploymentUnit, ejbJarXml, EjbJarMetaData.class, ejbJarMetaData);
 
         } catch (XMLStreamException xmlse) {
             throw new DeploymentUnitProcessingException("Exception while parsing ejb-jar.xml: " + ejbJarXml.getPathName(), xmlse);
@@ -167,6 +175,28 @@ public class EjbJarParsingDeploymentUnitProcessor implements DeploymentUnitProce
 
     }
 
+    private static void processMetaData(final DeploymentUnit deploymentUnit, final EEModuleDescription eeModuleDescription, final EjbJarMetaData ejbJarMetaData) {
+        // attach the EjbJarMetaData to the deployment unit
+        deploymentUnit.putAttachment(EjbDeploymentAttachmentKeys.EJB_JAR_METADATA, ejbJarMetaData);
+
+        if(ejbJarMetaData instanceof EjbJar31MetaData) {
+            EjbJar31MetaData ejbJar31MetaData = (EjbJar31MetaData)ejbJarMetaData;
+            if(ejbJar31MetaData.getModuleName() != null) {
+                eeModuleDescription.setModuleName(ejbJar31MetaData.getModuleName());
+            }
+        }
+    }
+
+    @Override
+    public Collection<AttachmentKey<?>> getReadAttachments() {
+        return READ_ATTACHMENTS;
+    }
+
+    @Override
+    public Collection<AttachmentKey<?>> getWrittenAttachments() {
+        return WRITTEN_ATTACHMENTS;
+    }
+
     /**
      * @param unit
      */
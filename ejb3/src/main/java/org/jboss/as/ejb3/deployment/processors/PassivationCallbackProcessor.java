@@ -0,0 +1,84 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright (c) 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.deployment.processors;
+
+import org.jboss.as.ejb3.component.stateful.StatefulComponentDescription;
+import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
+import org.jboss.as.server.deployment.annotation.CompositeIndex;
+import org.jboss.jandex.AnnotationInstance;
+import org.jboss.jandex.ClassInfo;
+import org.jboss.jandex.DotName;
+import org.jboss.jandex.MethodInfo;
+
+import javax.ejb.PostActivate;
+import javax.ejb.PrePassivate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Processes the {@link PrePassivate} and {@link PostActivate} callbacks of a stateful session bean class.
+ *
+ * @author agent
+ */
+public class PassivationCallbackProcessor extends AbstractAnnotationEJBProcessor<StatefulComponentDescription> {
+    private static final DotName PRE_PASSIVATE = DotName.createSimple(PrePassivate.class.getName());
+    private static final DotName POST_ACTIVATE = DotName.createSimple(PostActivate.class.getName());
+
+    @Override
+    protected Class<StatefulComponentDescription> getComponentDescriptionType() {
+        return StatefulComponentDescription.class;
+    }
+
+    @Override
+    protected void processAnnotations(final ClassInfo beanClass, final CompositeIndex index, final StatefulComponentDescription componentDescription) throws DeploymentUnitProcessingException {
+        // a callback of a sub class takes precedence over one of its super class
+        final DotName superName = beanClass.superName();
+        if (superName != null) {
+            ClassInfo superClass = index.getClassByName(superName);
+            if (superClass != null)
+                processAnnotations(superClass, index, componentDescription);
+        }
+
+        final Map<DotName, List<AnnotationInstance>> classAnnotations = beanClass.annotations();
+        if (classAnnotations == null)
+            return;
+
+        final MethodInfo prePassivate = callbackMethod(classAnnotations, PRE_PASSIVATE);
+        if (prePassivate != null)
+            componentDescription.setPrePassivate(prePassivate.declaringClass().toString(), prePassivate.name().toString());
+        final MethodInfo postActivate = callbackMethod(classAnnotations, POST_ACTIVATE);
+        if (postActivate != null)
+            componentDescription.setPostActivate(postActivate.declaringClass().toString(), postActivate.name().toString());
+    }
+
+    private static MethodInfo callbackMethod(final Map<DotName, List<AnnotationInstance>> classAnnotations, final DotName annotationName) throws DeploymentUnitProcessingException {
+        final List<AnnotationInstance> annotations = classAnnotations.get(annotationName);
+        if (annotations == null || annotations.size() == 0)
+            return null;
+
+        if (annotations.size() > 1)
+            throw new DeploymentUnitProcessingException("EJB 3.1 FR 4.6.3: at most one " + annotationName + " method is allowed per class");
+
+        // lifecycle callback annotations can only be encountered on a method, so this cast is safe.
+        return (MethodInfo) annotations.get(0).target();
+    }
+}
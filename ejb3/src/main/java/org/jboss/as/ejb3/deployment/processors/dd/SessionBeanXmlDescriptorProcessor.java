@@ -141,6 +141,8 @@ public class SessionBeanXmlDescriptorProcessor extends AbstractEjbXmlDescriptorP
 
         // interceptors
         this.processInterceptors(sessionBean, sessionBeanDescription);
+        // pre-passivate and post-activate callbacks
+        processPassivationCallbacks(sessionBean, sessionBeanDescription);
 
         // process EJB3.1 specific session bean description
         if (sessionBean instanceof SessionBean31MetaData) {
@@ -161,6 +163,23 @@ public class SessionBeanXmlDescriptorProcessor extends AbstractEjbXmlDescriptorP
             description.setBeforeCompletion(null, metaData.getBeforeCompletionMethod().getMethodName());
     }
 
+    private static void processPassivationCallbacks(final SessionBeanMetaData metaData, final SessionBeanComponentDescription sessionBeanComponentDescription) {
+        if (!(sessionBeanComponentDescription instanceof StatefulComponentDescription))
+            return;
+        final StatefulComponentDescription description = (StatefulComponentDescription) sessionBeanComponentDescription;
+
+        if (metaData.getPrePassivates() != null) {
+            for (LifecycleCallbackMetaData callback : metaData.getPrePassivates()) {
+                description.setPrePassivate(callback.getClassName(), callback.getMethodName());
+            }
+        }
+        if (metaData.getPostActivates() != null) {
+            for (LifecycleCallbackMetaData callback : metaData.getPostActivates()) {
+                description.setPostActivate(callback.getClassName(), callback.getMethodName());
+            }
+        }
+    }
+
     protected void processInterceptors(SessionBeanMetaData enterpriseBean, EJBComponentDescription ejbComponentDescription) {
 
         //for interceptor methods that specify a null class we cannot deal with them here
@@ -0,0 +1,114 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright (c) 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.component;
+
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * @author agent
+ */
+public class MethodMapTestCase {
+
+    public interface View {
+        void business(String s);
+    }
+
+    public interface OtherView {
+        void business(String s);
+    }
+
+    public interface MessageListener {
+        void onMessage(Object message);
+    }
+
+    public static class BaseBean {
+        public void inherited() {
+        }
+    }
+
+    public static class Bean extends BaseBean implements View, MessageListener {
+        @Override
+        public void business(final String s) {
+        }
+
+        @Override
+        public void onMessage(final Object message) {
+        }
+
+        @Override
+        public void inherited() {
+        }
+    }
+
+    /**
+     * A method with the same name and parameter types as a view method gets its value, like the name and parameter
+     * type keyed lookup the tx attributes of the views had before.
+     */
+    @Test
+    public void testSameSignatureMatches() throws Exception {
+        final MethodMap<String> map = new MethodMap<String>();
+        map.put(View.class.getMethod("business", String.class), "Required");
+
+        assertEquals("Required", map.get(View.class.getMethod("business", String.class)));
+        assertEquals("Required", map.get(OtherView.class.getMethod("business", String.class)));
+        assertEquals("Required", map.get(Bean.class.getMethod("business", String.class)));
+    }
+
+    @Test
+    public void testOwnValueWins() throws Exception {
+        final Method view = View.class.getMethod("business", String.class);
+        final Method other = OtherView.class.getMethod("business", String.class);
+        final MethodMap<String> map = new MethodMap<String>();
+        map.put(view, "Required");
+        map.put(other, "Never");
+
+        assertEquals("Required", map.get(view));
+        assertEquals("Never", map.get(other));
+    }
+
+    @Test
+    public void testOtherSignatureDoesNotMatch() throws Exception {
+        final MethodMap<String> map = new MethodMap<String>();
+        map.put(View.class.getMethod("business", String.class), "Required");
+
+        assertNull(map.get(MessageListener.class.getMethod("onMessage", Object.class)));
+        assertNull(map.get(Object.class.getMethod("equals", Object.class)));
+    }
+
+    @Test
+    public void testSupertypeMethods() throws Exception {
+        final MethodMap<String> map = new MethodMap<String>();
+        for (Method method : Bean.class.getMethods()) {
+            map.put(method, method.getName());
+        }
+        map.putSupertypeMethods(Bean.class);
+
+        assertEquals("onMessage", map.get(MessageListener.class.getMethod("onMessage", Object.class)));
+        assertEquals("inherited", map.get(BaseBean.class.getMethod("inherited")));
+        assertEquals("business", map.get(View.class.getMethod("business", String.class)));
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright (c) 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.component.pool;
+
+import org.jboss.ejb3.pool.StatelessObjectFactory;
+import org.junit.Test;
+
+import javax.ejb.EJBException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author agent
+ */
+public class StripedInstancePoolTestCase {
+
+    private final AtomicInteger created = new AtomicInteger();
+    private final AtomicInteger destroyed = new AtomicInteger();
+
+    private final StatelessObjectFactory<Object> factory = new StatelessObjectFactory<Object>() {
+        @Override
+        public Object create() {
+            created.incrementAndGet();
+            return new Object();
+        }
+
+        @Override
+        public void destroy(final Object obj) {
+            destroyed.incrementAndGet();
+        }
+    };
+
+    @Test
+    public void testReuseAndMetrics() {
+        final InstancePool<Object> pool = new StripedInstancePool<Object>(factory, 2, 1, TimeUnit.SECONDS);
+        final Object first = pool.get();
+        assertEquals(1, pool.getAvailableCount());
+        pool.release(first);
+        assertSame(first, pool.get());
+        final Object second = pool.get();
+        assertEquals(0, pool.getAvailableCount());
+        assertEquals(2, pool.getCreateCount());
+        assertEquals(2, pool.getCurrentSize());
+
+        pool.discard(second);
+        assertEquals(1, pool.getRemoveCount());
+        assertEquals(1, pool.getCurrentSize());
+        assertEquals(1, pool.getAvailableCount());
+
+        pool.release(first);
+        pool.stop();
+        assertEquals(2, destroyed.get());
+        assertEquals(0, pool.getCurrentSize());
+    }
+
+    @Test
+    public void testTimeout() {
+        final InstancePool<Object> pool = new StripedInstancePool<Object>(factory, 1, 50, TimeUnit.MILLISECONDS);
+        pool.get();
+        try {
+            pool.get();
+            fail("Instance acquired beyond the maximum size");
+        } catch (EJBException expected) {
+        }
+        assertTrue(pool.getWaitTime() >= 50);
+        assertEquals(1, created.get());
+    }
+
+    @Test
+    public void testWaiterWokenOnRelease() throws Exception {
+        final InstancePool<Object> pool = new StripedInstancePool<Object>(factory, 1, 10, TimeUnit.SECONDS);
+        final Object instance = pool.get();
+        final CountDownLatch waiting = new CountDownLatch(1);
+        final AtomicReference<Object> acquired = new AtomicReference<Object>();
+        final Thread waiter = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                waiting.countDown();
+                acquired.set(pool.get());
+            }
+        });
+        waiter.start();
+        waiting.await();
+        Thread.sleep(50);
+        pool.release(instance);
+        waiter.join(5000);
+        assertSame(instance, acquired.get());
+        assertEquals(1, created.get());
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.component.stateful;
+
+import org.jboss.ejb3.cache.Identifiable;
+import org.jboss.ejb3.cache.StatefulObjectFactory;
+import org.junit.Test;
+
+import javax.ejb.NoSuchEJBException;
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author agent
+ */
+public class StatefulSessionCacheTestCase {
+
+    private final ConcurrentMap<Serializable, CountDownLatch> destroyed = new ConcurrentHashMap<Serializable, CountDownLatch>();
+
+    @Test
+    public void testIdleInstanceExpires() throws Exception {
+        final StatefulSessionCache<Bean> cache = new StatefulSessionCache<Bean>(100, TimeUnit.MILLISECONDS, "test");
+        cache.setStatefulObjectFactory(new BeanFactory());
+        cache.start();
+
+        final Bean idle = cache.create();
+        final Bean busy = cache.create();
+        cache.get(busy.getId());
+
+        awaitDestroyed(idle.getId());
+        assertFalse(isDestroyed(busy.getId()));
+        assertEquals(1, cache.getCacheSize());
+        try {
+            cache.get(idle.getId());
+            fail("Expired bean found");
+        } catch (NoSuchEJBException expected) {
+        }
+        cache.release(busy);
+        awaitDestroyed(busy.getId());
+        cache.stop();
+    }
+
+    @Test
+    public void testPassivationAndActivation() throws Exception {
+        final MapPassivator passivator = new MapPassivator();
+        final StatefulSessionCache<Bean> cache = new StatefulSessionCache<Bean>(-1, TimeUnit.MILLISECONDS, "test", 1, passivator);
+        cache.setStatefulObjectFactory(new BeanFactory());
+        cache.start();
+
+        final Bean busy = cache.create();
+        cache.get(busy.getId());
+        // exceeds the maximum size, so the idle instance is passivated
+        final Bean idle = cache.create();
+
+        assertTrue("Idle bean was not passivated", passivator.passivated.await(10, TimeUnit.SECONDS));
+        assertEquals(2, cache.getCacheSize());
+        assertTrue(passivator.stored.containsKey(idle.getId()));
+        assertNull(idle.state);
+        assertEquals("bean" + busy.getId(), busy.state);
+
+        final Bean activated = cache.get(idle.getId());
+        assertEquals("bean" + idle.getId(), activated.state);
+        assertEquals(0, cache.getPassivatedCount());
+        assertFalse(passivator.stored.containsKey(idle.getId()));
+
+        cache.remove(idle.getId());
+        assertTrue(isDestroyed(idle.getId()));
+        cache.stop();
+    }
+
+    @Test
+    public void testStopShutsDownScheduler() throws Exception {
+        final StatefulSessionCache<Bean> cache = new StatefulSessionCache<Bean>(100, TimeUnit.MILLISECONDS, "stopped");
+        cache.setStatefulObjectFactory(new BeanFactory());
+        cache.start();
+
+        // the expiration task starts the scheduler thread
+        final Bean bean = cache.create();
+        awaitDestroyed(bean.getId());
+        final Thread thread = schedulerThread("stopped");
+        assertNotNull("No scheduler thread", thread);
+
+        cache.stop();
+        thread.join(TimeUnit.SECONDS.toMillis(10));
+        assertFalse("Scheduler thread still running", thread.isAlive());
+    }
+
+    private static Thread schedulerThread(final String beanName) {
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().equals("EJB stateful session expiry " + beanName)) {
+                return thread;
+            }
+        }
+        return null;
+    }
+
+    private CountDownLatch destroyedLatch(final Serializable id) {
+        CountDownLatch latch = destroyed.get(id);
+        if (latch == null) {
+            latch = new CountDownLatch(1);
+            final CountDownLatch existing = destroyed.putIfAbsent(id, latch);
+            if (existing != null) {
+                latch = existing;
+            }
+        }
+        return latch;
+    }
+
+    private boolean isDestroyed(final Serializable id) {
+        return destroyedLatch(id).getCount() == 0;
+    }
+
+    private void awaitDestroyed(final Serializable id) throws InterruptedException {
+        if (!destroyedLatch(id).await(10, TimeUnit.SECONDS)) {
+            fail("Bean " + id + " was not destroyed");
+        }
+    }
+
+    private static final class Bean implements Identifiable {
+        private static final AtomicInteger ids = new AtomicInteger();
+        private final Integer id = ids.incrementAndGet();
+        private volatile String state = "bean" + id;
+
+        @Override
+        public Serializable getId() {
+            return id;
+        }
+    }
+
+    private final class BeanFactory implements StatefulObjectFactory<Bean> {
+        @Override
+        public Bean createInstance() {
+            return new Bean();
+        }
+
+        @Override
+        public void destroyInstance(final Bean instance) {
+            destroyedLatch(instance.getId()).countDown();
+        }
+    }
+
+    private static final class MapPassivator implements StatefulSessionCache.Passivator<Bean> {
+        private final Map<Serializable, String> stored = Collections.synchronizedMap(new HashMap<Serializable, String>());
+        private final CountDownLatch passivated = new CountDownLatch(1);
+
+        @Override
+        public boolean passivate(final Bean instance) {
+            stored.put(instance.getId(), instance.state);
+            instance.state = null;
+            passivated.countDown();
+            return true;
+        }
+
+        @Override
+        public void activate(final Bean instance) {
+            instance.state = stored.remove(instance.getId());
+        }
+
+        @Override
+        public void discard(final Bean instance) {
+            stored.remove(instance.getId());
+        }
+    }
+}
@@ -46,6 +46,9 @@ import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -167,4 +170,48 @@ public class StatefulSessionSynchronizationInterceptorTestCase {
 
         interceptor.processInvocation(context);
     }
+
+    /**
+     * An instance invoked again within the tx it is associated with stays in use until the tx completes, so that it
+     * can not be passivated or expire meanwhile.
+     */
+    @Test
+    public void testInstanceInUseUntilTxCompletes() throws Exception {
+        final Interceptor interceptor = new StatefulSessionSynchronizationInterceptor();
+        final InterceptorContext context = new InterceptorContext();
+        context.setInterceptors(Arrays.asList(noop()));
+        final StatefulSessionComponent component = mock(StatefulSessionComponent.class);
+        context.putPrivateData(Component.class, component);
+        when(component.getAccessTimeout(null)).thenReturn(defaultAccessTimeout());
+        Cache<StatefulSessionComponentInstance> cache = mock(Cache.class);
+        when(component.getCache()).thenReturn(cache);
+        final TransactionSynchronizationRegistry transactionSynchronizationRegistry = mock(TransactionSynchronizationRegistry.class);
+        when(component.getTransactionSynchronizationRegistry()).thenReturn(transactionSynchronizationRegistry);
+        when(transactionSynchronizationRegistry.getTransactionKey()).thenReturn("TX1");
+        final List<Synchronization> synchronizations = new LinkedList<Synchronization>();
+        doAnswer(new Answer() {
+            @Override
+            public Object answer(InvocationOnMock invocation) throws Throwable {
+                Synchronization synchronization = (Synchronization) invocation.getArguments()[0];
+                synchronizations.add(synchronization);
+                return null;
+            }
+        }).when(transactionSynchronizationRegistry).registerInterposedSynchronization((Synchronization) any());
+        final StatefulSessionComponentInstance instance = mock(StatefulSessionComponentInstance.class);
+        when(instance.getComponent()).thenReturn(component);
+        context.putPrivateData(ComponentInstance.class, instance);
+
+        interceptor.processInvocation(context);
+        interceptor.processInvocation(context);
+        verify(cache, never()).release(instance);
+
+        // commit
+        for (Synchronization synchronization : synchronizations) {
+            synchronization.beforeCompletion();
+        }
+        for (Synchronization synchronization : synchronizations) {
+            synchronization.afterCompletion(Status.STATUS_COMMITTED);
+        }
+        verify(cache, times(1)).release(instance);
+    }
 }
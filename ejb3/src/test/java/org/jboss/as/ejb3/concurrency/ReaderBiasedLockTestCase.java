@@ -0,0 +1,189 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.concurrency;
+
+import org.junit.Test;
+
+import javax.ejb.IllegalLoopbackException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author agent
+ */
+public class ReaderBiasedLockTestCase {
+
+    private final ReaderBiasedLock lock = new ReaderBiasedLock();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @Test
+    public void testReadersShareTheLock() throws Exception {
+        assertTrue(lock.tryReadLock());
+        assertTrue(executor.submit(tryReadLock(0)).get());
+        assertEquals(1, lock.getReaderCount());
+        assertFalse(executor.submit(tryWriteLock(10)).get());
+        assertFalse(lock.isWriterActive());
+        lock.readUnlock();
+        executor.shutdown();
+    }
+
+    @Test
+    public void testWriterWaitsForReaders() throws Exception {
+        final CountDownLatch readLocked = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final Future<?> reader = executor.submit(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                assertTrue(lock.tryReadLock());
+                readLocked.countDown();
+                release.await();
+                lock.readUnlock();
+                return null;
+            }
+        });
+        readLocked.await();
+        final CountDownLatch writerStarted = new CountDownLatch(1);
+        final CountDownLatch writeLocked = new CountDownLatch(1);
+        final Future<?> writer = executor.submit(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                writerStarted.countDown();
+                assertTrue(lock.tryWriteLock(-1, TimeUnit.MILLISECONDS));
+                writeLocked.countDown();
+                lock.writeUnlock();
+                return null;
+            }
+        });
+        writerStarted.await();
+        // the writer can not get in while the reader holds the lock
+        assertEquals(1, writeLocked.getCount());
+        release.countDown();
+        reader.get(10, TimeUnit.SECONDS);
+        assertTrue(writeLocked.await(10, TimeUnit.SECONDS));
+        writer.get(10, TimeUnit.SECONDS);
+        assertFalse(lock.isWriterActive());
+        assertEquals(0, lock.getReaderCount());
+        executor.shutdown();
+    }
+
+    @Test
+    public void testReaderWaitsForWriter() throws Exception {
+        final CountDownLatch locked = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final Future<?> writer = executor.submit(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                assertTrue(lock.tryWriteLock());
+                locked.countDown();
+                release.await();
+                lock.writeUnlock();
+                return null;
+            }
+        });
+        locked.await();
+        assertFalse(lock.tryReadLock());
+        final Future<Boolean> reader = executor.submit(tryReadLock(-1));
+        release.countDown();
+        writer.get(10, TimeUnit.SECONDS);
+        assertTrue(reader.get(10, TimeUnit.SECONDS));
+        executor.shutdown();
+    }
+
+    @Test
+    public void testReentrance() throws Exception {
+        assertTrue(lock.tryWriteLock());
+        assertTrue(lock.tryWriteLock());
+        // a writer may read
+        assertTrue(lock.tryReadLock());
+        assertEquals(0, lock.getReaderCount());
+        lock.readUnlock();
+        lock.writeUnlock();
+        lock.writeUnlock();
+        assertFalse(lock.isWriterActive());
+
+        assertTrue(lock.tryReadLock());
+        assertTrue(lock.tryReadLock(0, TimeUnit.MILLISECONDS));
+        assertEquals(1, lock.getReaderCount());
+        try {
+            lock.tryWriteLock();
+            fail("A reader took the write lock");
+        } catch (IllegalLoopbackException expected) {
+        }
+        lock.readUnlock();
+        lock.readUnlock();
+        assertEquals(0, lock.getReaderCount());
+        assertTrue(lock.tryWriteLock());
+        lock.writeUnlock();
+        executor.shutdown();
+    }
+
+    @Test
+    public void testReadLockOutlivesWriteLock() throws Exception {
+        assertTrue(lock.tryWriteLock());
+        assertTrue(lock.tryReadLock());
+        lock.writeUnlock();
+        // the read lock is now held as an ordinary reader
+        assertFalse(lock.isWriterActive());
+        assertEquals(1, lock.getReaderCount());
+        assertTrue(executor.submit(tryReadLock(0)).get());
+        assertFalse(executor.submit(tryWriteLock(10)).get());
+        lock.readUnlock();
+        assertEquals(0, lock.getReaderCount());
+        assertTrue(executor.submit(tryWriteLock(10)).get());
+        executor.shutdown();
+    }
+
+    private Callable<Boolean> tryReadLock(final long timeout) {
+        return new Callable<Boolean>() {
+            @Override
+            public Boolean call() throws Exception {
+                final boolean locked = timeout == 0 ? lock.tryReadLock() : lock.tryReadLock(timeout, TimeUnit.MILLISECONDS);
+                if (locked) {
+                    lock.readUnlock();
+                }
+                return locked;
+            }
+        };
+    }
+
+    private Callable<Boolean> tryWriteLock(final long timeout) {
+        return new Callable<Boolean>() {
+            @Override
+            public Boolean call() throws Exception {
+                final boolean locked = lock.tryWriteLock(timeout, TimeUnit.MILLISECONDS);
+                if (locked) {
+                    lock.writeUnlock();
+                }
+                return locked;
+            }
+        };
+    }
+}
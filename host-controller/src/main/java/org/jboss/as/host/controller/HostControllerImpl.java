@@ -35,6 +35,7 @@ import org.jboss.as.controller.persistence.ExtensibleConfigurationPersister;
 import org.jboss.as.controller.registry.ModelNodeRegistration;
 import org.jboss.as.controller.remote.RemoteProxyController;
 import org.jboss.as.domain.controller.DomainController;
+import org.jboss.as.host.controller.operations.BufferPoolMetricHandler;
 import org.jboss.as.host.controller.operations.ServerRestartHandler;
 import org.jboss.as.host.controller.operations.ServerStartHandler;
 import org.jboss.as.host.controller.operations.ServerStatusHandler;
@@ -220,6 +221,9 @@ public class HostControllerImpl implements HostController {
         servers.registerOperationHandler(ServerStartHandler.OPERATION_NAME, startHandler, startHandler, false);
         servers.registerOperationHandler(ServerRestartHandler.OPERATION_NAME, restartHandler, restartHandler, false);
         servers.registerOperationHandler(ServerStopHandler.OPERATION_NAME, stopHandler, stopHandler, false);
-
+        // Register the management protocol buffer pool metrics
+        registry.registerMetric(BufferPoolMetricHandler.HIT_COUNT, BufferPoolMetricHandler.INSTANCE);
+        registry.registerMetric(BufferPoolMetricHandler.MISS_COUNT, BufferPoolMetricHandler.INSTANCE);
+        registry.registerMetric(BufferPoolMetricHandler.POOLED_BYTES, BufferPoolMetricHandler.INSTANCE);
     }
 }
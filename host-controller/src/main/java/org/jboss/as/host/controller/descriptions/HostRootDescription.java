@@ -62,6 +62,7 @@ import java.util.ResourceBundle;
 
 import org.jboss.as.controller.descriptions.common.CommonDescriptions;
 import org.jboss.as.controller.descriptions.common.ManagementDescription;
+import org.jboss.as.host.controller.operations.BufferPoolMetricHandler;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
 
@@ -110,6 +111,10 @@ public class HostRootDescription {
         root.get(ATTRIBUTES, MASTER, DESCRIPTION).set(bundle.getString("host.master"));
         root.get(ATTRIBUTES, MASTER, TYPE).set(ModelType.BOOLEAN);
 
+        addLongMetric(root, BufferPoolMetricHandler.HIT_COUNT, bundle.getString("host.management-buffer-pool-hit-count"));
+        addLongMetric(root, BufferPoolMetricHandler.MISS_COUNT, bundle.getString("host.management-buffer-pool-miss-count"));
+        addLongMetric(root, BufferPoolMetricHandler.POOLED_BYTES, bundle.getString("host.management-buffer-pool-pooled-bytes"));
+
         root.get(OPERATIONS).setEmptyObject();
 
         root.get(CHILDREN, EXTENSION, DESCRIPTION).set(bundle.getString("host.extension"));
@@ -205,6 +210,13 @@ public class HostRootDescription {
         return CommonDescriptions.getSystemPropertyDescription(locale, bundle.getString("host.system-property"), true);
     }
 
+    private static void addLongMetric(final ModelNode root, final String name, final String description) {
+        root.get(ATTRIBUTES, name, DESCRIPTION).set(description);
+        root.get(ATTRIBUTES, name, TYPE).set(ModelType.LONG);
+        root.get(ATTRIBUTES, name, REQUIRED).set(false);
+        root.get(ATTRIBUTES, name, NILLABLE).set(false);
+    }
+
     private static ResourceBundle getResourceBundle(Locale locale) {
         if (locale == null) {
             locale = Locale.getDefault();
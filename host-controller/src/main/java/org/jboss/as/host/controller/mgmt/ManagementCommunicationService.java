@@ -26,6 +26,7 @@ import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ThreadFactory;
 
@@ -59,13 +60,31 @@ public class ManagementCommunicationService implements Service<ManagementCommuni
 
     public static final ServiceName SERVICE_NAME = ServiceName.JBOSS.append("host", "controller", "management", "communication");
 
+    /** The number of threads serving all management connections with non-blocking I/O, unless configured otherwise */
+    public static final int DEFAULT_IO_THREADS = 2;
+
     private final InjectedValue<NetworkInterfaceBinding> interfaceBindingValue = new InjectedValue<NetworkInterfaceBinding>();
     private final InjectedValue<Integer> portValue = new InjectedValue<Integer>();
     private final InjectedValue<ExecutorService> executorServiceValue = new InjectedValue<ExecutorService>();
     private final InjectedValue<ThreadFactory> threadFactoryValue = new InjectedValue<ThreadFactory>();
     private final ConcurrentMap<Byte, ManagementOperationHandler> handlers = new ConcurrentHashMap<Byte, ManagementOperationHandler>();
+    private final int ioThreads;
     private ProtocolServer server;
 
+    public ManagementCommunicationService() {
+        this(DEFAULT_IO_THREADS);
+    }
+
+    /**
+     * Construct a new instance.
+     *
+     * @param ioThreads the number of threads serving all connections with non-blocking I/O, or {@code 0} to read
+     *                  each connection with its own thread
+     */
+    public ManagementCommunicationService(final int ioThreads) {
+        this.ioThreads = ioThreads;
+    }
+
     /**
      * Starts the service.  Will start a socket listener to listen for management operation requests.
      *
@@ -84,7 +103,11 @@ public class ManagementCommunicationService implements Service<ManagementCommuni
             config.setBindAddress(new InetSocketAddress(interfaceBinding.getAddress(), port));
             config.setThreadFactory(threadFactory);
             config.setReadExecutor(executorService);
-            config.setSocketFactory(ServerSocketFactory.getDefault());
+            if (ioThreads > 0) {
+                config.setIoThreads(ioThreads);
+            } else {
+                config.setSocketFactory(ServerSocketFactory.getDefault());
+            }
             config.setBacklog(50);
             config.setConnectionHandler(this);
 
@@ -171,5 +194,10 @@ public class ManagementCommunicationService implements Service<ManagementCommuni
             protected MessageHandler getHandlerForId(byte handlerId) {
                 return handlers.get(handlerId);
             }
+
+            @Override
+            protected Executor getMultiplexExecutor() {
+                return executorServiceValue.getValue();
+            }
         };
 }
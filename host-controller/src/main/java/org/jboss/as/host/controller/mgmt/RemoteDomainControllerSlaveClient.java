@@ -29,7 +29,9 @@ import org.jboss.as.controller.client.Operation;
 import org.jboss.as.controller.remote.ModelControllerClientToModelControllerAdapter;
 import org.jboss.as.controller.remote.TransactionalModelControllerOperationHandler;
 import org.jboss.as.domain.controller.DomainControllerSlaveClient;
+import org.jboss.as.protocol.Connection;
 import org.jboss.as.protocol.StreamUtils;
+import org.jboss.as.protocol.mgmt.ManagementChannelMultiplexer;
 import org.jboss.as.protocol.mgmt.ManagementRequest;
 import org.jboss.as.protocol.mgmt.ManagementRequestConnectionStrategy;
 import org.jboss.dmr.ModelNode;
@@ -50,6 +52,10 @@ class RemoteDomainControllerSlaveClient implements DomainControllerSlaveClient {
 //    private final ManagementRequestConnectionStrategy connectionStrategy;
     private final ThreadFactory threadFactory = new JBossThreadFactory(new ThreadGroup("RemoteDomainConnection-threads"), Boolean.FALSE, null, "%G - %t", null, null, AccessController.getContext());
     private final ExecutorService executorService = Executors.newCachedThreadPool(threadFactory);
+    // @GuardedBy(this)
+    private ManagementChannelMultiplexer multiplexer;
+    // @GuardedBy(this)
+    private boolean multiplexingSupported = true;
 
     public RemoteDomainControllerSlaveClient(String hostId, InetAddress slaveAddress, int slavePort) {
         this.hostId = hostId;
@@ -166,7 +172,33 @@ class RemoteDomainControllerSlaveClient implements DomainControllerSlaveClient {
         return node;
     }
 
-    private ManagementRequestConnectionStrategy getConnectionStrategy() {
+    /**
+     * Requests share one connection to the slave, multiplexed so responses can arrive in any order. If the
+     * slave does not accept multiplexed requests each request gets its own connection, as before.
+     */
+    private synchronized ManagementRequestConnectionStrategy getConnectionStrategy() {
+        if (multiplexingSupported) {
+            Connection connection = null;
+            try {
+                if (multiplexer == null || multiplexer.isClosed()) {
+                    multiplexer = null;
+                    connection = new ManagementRequestConnectionStrategy.EstablishConnectingStrategy(slaveAddress, slavePort,
+                            CONNECTION_TIMEOUT, executorService, threadFactory).getConnection();
+                    multiplexer = ManagementChannelMultiplexer.connect(connection, executorService, CONNECTION_TIMEOUT);
+                    if (multiplexer == null) {
+                        log.debugf("Host %s does not accept multiplexed requests", hostId);
+                        multiplexingSupported = false;
+                        StreamUtils.safeClose(connection);
+                    }
+                }
+                if (multiplexer != null) {
+                    return new ManagementRequestConnectionStrategy.MultiplexedConnectionStrategy(multiplexer);
+                }
+            } catch (IOException e) {
+                log.debugf(e, "Failed to establish multiplexed connection to host %s", hostId);
+                StreamUtils.safeClose(connection);
+            }
+        }
         return new ManagementRequestConnectionStrategy.EstablishConnectingStrategy(slaveAddress, slavePort,
                 CONNECTION_TIMEOUT, executorService, threadFactory);
     }
@@ -327,11 +359,23 @@ class RemoteDomainControllerSlaveClient implements DomainControllerSlaveClient {
 
         private final Operation operation;
         private final ModelNode transactionId;
+        private final ControllerResourceProxy resource;
 
         TransactionalRequest(final Operation operation, final ControllerTransactionContext transaction) {
             this.operation = operation;
             this.transactionId = transaction.getTransactionId();
-            transaction.registerResource(new ControllerResourceProxy(transactionId));
+            this.resource = new ControllerResourceProxy(transactionId);
+            // Fails if the transaction has already completed, so the operation is not sent at all
+            transaction.registerResource(resource);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected void sendRequest(int protocolVersion, Connection connection) throws IOException {
+            if (!resource.beginSend()) {
+                throw new IOException(String.format("Management transaction %s completed before the operation was sent to host %s", transactionId, hostId));
+            }
+            super.sendRequest(protocolVersion, connection);
         }
 
         /** {@inheritDoc} */
@@ -423,16 +467,46 @@ class RemoteDomainControllerSlaveClient implements DomainControllerSlaveClient {
         }
     }
 
+    /**
+     * Completes the transaction on the host. If the transaction completes before the operation has been sent, the
+     * operation is never sent and there is nothing to complete on the host.
+     */
     private class ControllerResourceProxy implements ControllerResource {
 
         private final ModelNode transactionId;
+        // @GuardedBy(this)
+        private boolean sent;
+        // @GuardedBy(this)
+        private boolean completed;
 
         ControllerResourceProxy(final ModelNode transactionId) {
             this.transactionId = transactionId;
         }
 
+        /**
+         * Record that the operation is being sent to the host.
+         *
+         * @return {@code false} if the transaction has already completed, in which case the operation must not be sent
+         */
+        synchronized boolean beginSend() {
+            if (completed) {
+                return false;
+            }
+            sent = true;
+            return true;
+        }
+
+        private synchronized boolean complete() {
+            completed = true;
+            return sent;
+        }
+
         @Override
         public void commit() {
+            if (!complete()) {
+                log.debugf("Management transaction %s completed before the operation was sent to host %s", transactionId, hostId);
+                return;
+            }
             try {
                 new CommitTransactionRequest(transactionId).executeForResult(getConnectionStrategy());
             } catch (Exception e) {
@@ -443,6 +517,10 @@ class RemoteDomainControllerSlaveClient implements DomainControllerSlaveClient {
 
         @Override
         public void rollback() {
+            if (!complete()) {
+                log.debugf("Management transaction %s completed before the operation was sent to host %s", transactionId, hostId);
+                return;
+            }
             try {
                 new RollbackTransactionRequest(transactionId).executeForResult(getConnectionStrategy());
             } catch (Exception e) {
@@ -0,0 +1,69 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.host.controller.operations;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+
+import org.jboss.as.controller.BasicOperationResult;
+import org.jboss.as.controller.ModelQueryOperationHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationResult;
+import org.jboss.as.controller.ResultHandler;
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.as.protocol.BufferPool;
+import org.jboss.dmr.ModelNode;
+
+/**
+ * {@code OperationHandler} reporting the statistics of the {@link BufferPool#getDefault() default buffer pool}
+ * shared by the management protocol connections.
+ *
+ * @author agent
+ */
+public class BufferPoolMetricHandler implements ModelQueryOperationHandler {
+
+    public static final String HIT_COUNT = "management-buffer-pool-hit-count";
+    public static final String MISS_COUNT = "management-buffer-pool-miss-count";
+    public static final String POOLED_BYTES = "management-buffer-pool-pooled-bytes";
+
+    public static final BufferPoolMetricHandler INSTANCE = new BufferPoolMetricHandler();
+
+    private BufferPoolMetricHandler() {
+    }
+
+    @Override
+    public OperationResult execute(final OperationContext context, final ModelNode operation, final ResultHandler resultHandler) {
+        final String attributeName = operation.require(NAME).asString();
+        final BufferPool pool = BufferPool.getDefault();
+        final ModelNode result = new ModelNode();
+        if (HIT_COUNT.equals(attributeName)) {
+            result.set(pool.getHitCount());
+        } else if (MISS_COUNT.equals(attributeName)) {
+            result.set(pool.getMissCount());
+        } else if (POOLED_BYTES.equals(attributeName)) {
+            result.set(pool.getPooledBytes());
+        }
+        resultHandler.handleResultFragment(Util.NO_LOCATION, result);
+        resultHandler.handleResultComplete();
+        return new BasicOperationResult();
+    }
+}
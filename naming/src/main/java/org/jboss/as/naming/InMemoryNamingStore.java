@@ -41,6 +41,8 @@ import java.util.Collections;
 import java.util.Hashtable;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import static org.jboss.as.naming.util.NamingUtils.cannotProceedException;
 import static org.jboss.as.naming.util.NamingUtils.emptyNameException;
@@ -56,6 +58,10 @@ import static org.jboss.as.naming.util.NamingUtils.notAContextException;
  * In-memory implementation of the NamingStore.  The backing for the entries is a basic tree structure with either context
  * nodes or binding nodes.  The context nodes are allowed to have children and can be represented by a NamingContext.  A
  * binding node is only allowed to have a normal object binding.
+ * <p/>
+ * The children of a context node are held in an immutable map which is replaced on each change, so lookups never
+ * take a lock.  The nodes found by lookups, and the names {@link NamingContext} parses from strings, are cached; the
+ * caches are discarded by every change to the tree.
  *
  * @author John E. Bailey
  */
@@ -69,6 +75,21 @@ public class InMemoryNamingStore implements NamingStore {
 
     private final ReentrantLock writeLock = new ReentrantLock();
 
+    /* The maximum number of names kept in the lookup cache */
+    private static final int MAX_CACHED_LOOKUPS = 4096;
+
+    /*
+     * The nodes found by lookups, keyed by name.  Replaced rather than cleared on changes, so a lookup racing with a
+     * change can only populate a cache which has already been discarded.
+     */
+    private volatile ConcurrentMap<Name, TreeNode> lookupCache = new ConcurrentHashMap<Name, TreeNode>();
+
+    /*
+     * The absolute names NamingContext parsed from string names, keyed by string.  Discarded with the lookup cache,
+     * so the names of unbound entries are not kept.  The cached names are shared, so must never be modified.
+     */
+    private volatile ConcurrentMap<String, Name> nameCache = new ConcurrentHashMap<String, Name>();
+
     /**
      * Construct instance with no event support.
      */
@@ -101,6 +122,7 @@ public class InMemoryNamingStore implements NamingStore {
         try {
             root.accept(new BindVisitor(true, name, object, bindType.getName()));
         } finally {
+            invalidateLookupCache();
             writeLock.unlock();
         }
     }
@@ -121,6 +143,7 @@ public class InMemoryNamingStore implements NamingStore {
         try {
             root.accept(new RebindVisitor(name, object, bindType.getName()));
         } finally {
+            invalidateLookupCache();
             writeLock.unlock();
         }
     }
@@ -141,6 +164,7 @@ public class InMemoryNamingStore implements NamingStore {
         try {
             root.accept(new UnbindVisitor(name));
         } finally {
+            invalidateLookupCache();
             writeLock.unlock();
         }
     }
@@ -159,7 +183,24 @@ public class InMemoryNamingStore implements NamingStore {
             return new NamingContext(emptyName, this, new Hashtable<String, Object>());
         }
         checkPermissions(name, JndiPermission.Action.LOOKUP);
-        return root.accept(new LookupVisitor(name));
+        final ConcurrentMap<Name, TreeNode> cache = lookupCache;
+        TreeNode node = cache.get(name);
+        if (node == null) {
+            node = root.accept(new LookupVisitor(name));
+            if (cache.size() < MAX_CACHED_LOOKUPS) {
+                cache.put((Name) name.clone(), node);
+            }
+        }
+        if (node instanceof BindingNode && node.fullName.size() < name.size()) {
+            final Name remainingName = name.getSuffix(node.fullName.size());
+            if (!isEmpty(remainingName)) {
+                // a reference on the way to the name, the rest of the name is resolved by the referenced context
+                final Object boundObject = node.binding.getObject();
+                checkReferenceForContinuation(remainingName, boundObject);
+                return new ResolveResult(boundObject, remainingName);
+            }
+        }
+        return node.binding.getObject();
     }
 
     /**
@@ -198,6 +239,7 @@ public class InMemoryNamingStore implements NamingStore {
         try {
             root.clear();
         } finally {
+            invalidateLookupCache();
             writeLock.unlock();
         }
     }
@@ -228,6 +270,34 @@ public class InMemoryNamingStore implements NamingStore {
         }
     }
 
+    /**
+     * Get the absolute name cached for a string name by {@link #cacheName(String, Name)}.
+     *
+     * @param name the string name
+     * @return the absolute name, or {@code null} if not cached
+     */
+    Name getCachedName(final String name) {
+        return nameCache.get(name);
+    }
+
+    /**
+     * Cache the absolute name a string name was parsed to, until the next change to the tree.
+     *
+     * @param name the string name
+     * @param absoluteName the absolute name, which must not be modified afterwards
+     */
+    void cacheName(final String name, final Name absoluteName) {
+        final ConcurrentMap<String, Name> cache = nameCache;
+        if (cache.size() < MAX_CACHED_LOOKUPS) {
+            cache.putIfAbsent(name, absoluteName);
+        }
+    }
+
+    private void invalidateLookupCache() {
+        lookupCache = new ConcurrentHashMap<Name, TreeNode>();
+        nameCache = new ConcurrentHashMap<String, Name>();
+    }
+
     private void fireEvent(final ContextNode contextNode, final Name name, final Binding existingBinding, final Binding newBinding, final int type, final String changeInfo) {
         final NamingEventCoordinator coordinator = eventCoordinator;
         if (eventCoordinator != null) {
@@ -458,24 +528,21 @@ public class InMemoryNamingStore implements NamingStore {
         }
     }
 
-    private final class LookupVisitor extends NodeTraversingVisitor<Object> {
+    private final class LookupVisitor extends NodeTraversingVisitor<TreeNode> {
         private LookupVisitor(final Name targetName) {
             super(targetName);
         }
 
-        protected Object found(final ContextNode contextNode) throws NamingException {
-            return contextNode.binding.getObject();
+        protected TreeNode found(final ContextNode contextNode) throws NamingException {
+            return contextNode;
         }
 
-        protected Object found(final BindingNode bindingNode) throws NamingException {
-            return bindingNode.binding.getObject();
+        protected TreeNode found(final BindingNode bindingNode) throws NamingException {
+            return bindingNode;
         }
 
-        protected Object foundReferenceInsteadOfContext(final BindingNode bindingNode) throws NamingException {
-            final Name remainingName = targetName.getSuffix(bindingNode.fullName.size());
-            final Object boundObject = bindingNode.binding.getObject();
-            checkReferenceForContinuation(remainingName, boundObject);
-            return new ResolveResult(boundObject, remainingName);
+        protected TreeNode foundReferenceInsteadOfContext(final BindingNode bindingNode) throws NamingException {
+            return bindingNode;
         }
     }
 
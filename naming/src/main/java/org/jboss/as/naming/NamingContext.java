@@ -166,8 +166,28 @@ public class NamingContext implements EventContext {
         if (isEmpty(name)) {
             return new NamingContext(prefix, namingStore, environment);
         }
+        return lookupAbsolute(getAbsoluteName(name));
+    }
+
+    /** {@inheritDoc} */
+    public Object lookup(final String name) throws NamingException {
+        // names which do not depend on the context prefix, such as java:comp/env/..., are parsed once per store
+        final InMemoryNamingStore cachingStore = namingStore instanceof InMemoryNamingStore ? (InMemoryNamingStore) namingStore : null;
+        Name absoluteName = cachingStore != null ? cachingStore.getCachedName(name) : null;
+        if (absoluteName == null) {
+            final Name parsedName = parseName(name);
+            if (isEmpty(parsedName)) {
+                return new NamingContext(prefix, namingStore, environment);
+            }
+            absoluteName = getAbsoluteName(parsedName);
+            if (cachingStore != null && isPrefixIndependent(parsedName)) {
+                cachingStore.cacheName(name, (Name) absoluteName.clone());
+            }
+        }
+        return lookupAbsolute(absoluteName);
+    }
 
-        final Name absoluteName = getAbsoluteName(name);
+    private Object lookupAbsolute(final Name absoluteName) throws NamingException {
         Object result;
         try {
             result = namingStore.lookup(absoluteName);
@@ -184,7 +204,7 @@ public class NamingContext implements EventContext {
             if (resolvedObject instanceof LinkRef) {
                 context = resolveLink(resolvedObject);
             } else {
-                context = getObjectInstance(resolvedObject, absoluteName, environment);
+                context = getObjectInstance(resolvedObject, (Name) absoluteName.clone(), environment);
             }
             if (!(context instanceof Context)) {
                 throw notAContextException(absoluteName.getPrefix(absoluteName.size() - resolveResult.getRemainingName().size()));
@@ -194,7 +214,7 @@ public class NamingContext implements EventContext {
         } else if (result instanceof LinkRef) {
             result = resolveLink(result);
         } else if (result instanceof Reference) {
-            result = getObjectInstance(result, absoluteName, environment);
+            result = getObjectInstance(result, (Name) absoluteName.clone(), environment);
             if (result instanceof LinkRef) {
                 result = resolveLink(result);
             }
@@ -202,11 +222,6 @@ public class NamingContext implements EventContext {
         return result;
     }
 
-    /** {@inheritDoc} */
-    public Object lookup(final String name) throws NamingException {
-        return lookup(parseName(name));
-    }
-
     /** {@inheritDoc} */
     public void bind(final Name name, Object object) throws NamingException {
         throw new UnsupportedOperationException("Naming context is read-only");
@@ -393,6 +408,11 @@ public class NamingContext implements EventContext {
         return getNameParser(name).parse(name);
     }
 
+    private static boolean isPrefixIndependent(final Name name) {
+        final String firstComponent = name.get(0);
+        return firstComponent.startsWith("java:") || firstComponent.isEmpty();
+    }
+
     private Name getAbsoluteName(final Name name) throws NamingException {
         if(name.isEmpty()) {
             return composeName(name, prefix);
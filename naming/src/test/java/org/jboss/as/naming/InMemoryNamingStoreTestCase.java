@@ -265,4 +265,25 @@ public class InMemoryNamingStoreTestCase {
             fail("Should have throw name not found exception");
         } catch (NameNotFoundException expected){}
     }
+
+    @Test
+    public void testCachedLookupAfterRebind() throws Exception {
+        final Name name = new CompositeName("test/item");
+        nameStore.bind(name, "first");
+        assertEquals("first", nameStore.lookup(name));
+        assertEquals("first", nameStore.lookup(new CompositeName("test/item")));
+
+        nameStore.rebind(name, "second");
+        assertEquals("second", nameStore.lookup(new CompositeName("test/item")));
+    }
+
+    @Test
+    public void testCachedLookupResolveResult() throws Exception {
+        nameStore.bind(new CompositeName("test"), new Reference(Context.class.getName()), Context.class);
+        for (String remaining : Arrays.asList("one", "two", "one")) {
+            final Object result = nameStore.lookup(new CompositeName("test/" + remaining));
+            assertTrue(result instanceof ResolveResult);
+            assertEquals(new CompositeName(remaining), ((ResolveResult) result).getRemainingName());
+        }
+    }
 }
@@ -44,6 +44,7 @@ import java.util.Hashtable;
 import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -321,6 +322,23 @@ public class NamingContextTestCase {
         assertTrue("Not all expected results were returned", expected.isEmpty());
     }
 
+    @Test
+    public void testLookupByStringAfterUnbind() throws Exception {
+        final InMemoryNamingStore store = (InMemoryNamingStore) namingStore;
+        namingStore.bind(new CompositeName("comp/env/test"), "test");
+        assertEquals("test", namingContext.lookup("java:comp/env/test"));
+        assertEquals(new CompositeName("comp/env/test"), store.getCachedName("java:comp/env/test"));
+        assertEquals("test", namingContext.lookup("java:comp/env/test"));
+
+        namingStore.unbind(new CompositeName("comp/env/test"));
+        assertNull(store.getCachedName("java:comp/env/test"));
+        try {
+            namingContext.lookup("java:comp/env/test");
+            fail("Should have thrown name not found");
+        } catch (NameNotFoundException expected) {
+        }
+    }
+
     @Test
     public void testListBindingsWithContinuation() throws Exception {
         final Name name = new CompositeName("test/test");
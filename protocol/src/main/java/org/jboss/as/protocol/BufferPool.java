@@ -0,0 +1,218 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.protocol;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A pool of the buffers used to send and receive protocol messages. Buffers come in a few size classes; a
+ * request for a buffer is served from the smallest class which is large enough. Byte arrays back the
+ * stream based message handling, and direct buffers are used for the channel I/O of the non-blocking
+ * connections. Requests larger than the largest class are allocated without pooling.
+ *
+ * @author agent
+ */
+public final class BufferPool {
+
+    private static final BufferPool DEFAULT = new BufferPool(new int[] { 256, 8192, 65536 }, new int[] { 1024, 256, 32 });
+
+    private final SizeClass[] sizeClasses;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Create a new pool.
+     *
+     * @param sizes the buffer sizes of the size classes, in ascending order
+     * @param maxPooled the maximum number of free buffers of each kind kept for each size class
+     */
+    public BufferPool(final int[] sizes, final int[] maxPooled) {
+        if (sizes.length == 0 || sizes.length != maxPooled.length) {
+            throw new IllegalArgumentException("A maximum pool size is required for each buffer size");
+        }
+        sizeClasses = new SizeClass[sizes.length];
+        for (int i = 0; i < sizes.length; i++) {
+            if (i > 0 && sizes[i] <= sizes[i - 1]) {
+                throw new IllegalArgumentException("Buffer sizes must be ascending");
+            }
+            sizeClasses[i] = new SizeClass(sizes[i], maxPooled[i]);
+        }
+    }
+
+    /**
+     * Gets the pool shared by the protocol layer.
+     *
+     * @return the pool
+     */
+    public static BufferPool getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Take a byte array of at least the given size from the pool.
+     *
+     * @param minSize the minimum size
+     * @return the array, whose content is undefined
+     */
+    public byte[] takeArray(final int minSize) {
+        final SizeClass sizeClass = sizeClassFor(minSize);
+        if (sizeClass == null) {
+            misses.incrementAndGet();
+            return new byte[minSize];
+        }
+        final byte[] array = sizeClass.arrays.poll();
+        if (array == null) {
+            misses.incrementAndGet();
+            return new byte[sizeClass.size];
+        }
+        sizeClass.pooledArrays.decrementAndGet();
+        hits.incrementAndGet();
+        return array;
+    }
+
+    /**
+     * Return an array taken with {@link #takeArray(int)}. The array must not be used after it has been returned.
+     *
+     * @param array the array
+     */
+    public void returnArray(final byte[] array) {
+        final SizeClass sizeClass = sizeClassOf(array.length);
+        if (sizeClass != null && sizeClass.pooledArrays.incrementAndGet() <= sizeClass.maxPooled) {
+            sizeClass.arrays.add(array);
+        } else if (sizeClass != null) {
+            sizeClass.pooledArrays.decrementAndGet();
+        }
+    }
+
+    /**
+     * Take a cleared direct buffer with a capacity of at least the given size from the pool.
+     *
+     * @param minSize the minimum capacity
+     * @return the buffer
+     */
+    public ByteBuffer takeDirectBuffer(final int minSize) {
+        final SizeClass sizeClass = sizeClassFor(minSize);
+        if (sizeClass == null) {
+            misses.incrementAndGet();
+            return ByteBuffer.allocateDirect(minSize);
+        }
+        final ByteBuffer buffer = sizeClass.directBuffers.poll();
+        if (buffer == null) {
+            misses.incrementAndGet();
+            return ByteBuffer.allocateDirect(sizeClass.size);
+        }
+        sizeClass.pooledDirectBuffers.decrementAndGet();
+        hits.incrementAndGet();
+        buffer.clear();
+        return buffer;
+    }
+
+    /**
+     * Return a buffer taken with {@link #takeDirectBuffer(int)}. The buffer must not be used after it has been returned.
+     *
+     * @param buffer the buffer
+     */
+    public void returnDirectBuffer(final ByteBuffer buffer) {
+        if (! buffer.isDirect()) {
+            return;
+        }
+        final SizeClass sizeClass = sizeClassOf(buffer.capacity());
+        if (sizeClass != null && sizeClass.pooledDirectBuffers.incrementAndGet() <= sizeClass.maxPooled) {
+            sizeClass.directBuffers.add(buffer);
+        } else if (sizeClass != null) {
+            sizeClass.pooledDirectBuffers.decrementAndGet();
+        }
+    }
+
+    /**
+     * Gets the number of requests for a buffer which were served from the pool.
+     *
+     * @return the hit count
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * Gets the number of requests for a buffer which needed a new buffer to be allocated.
+     *
+     * @return the miss count
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Gets the number of bytes held by the free buffers in the pool.
+     *
+     * @return the pooled bytes
+     */
+    public long getPooledBytes() {
+        long bytes = 0;
+        for (SizeClass sizeClass : sizeClasses) {
+            bytes += (long) sizeClass.size * (sizeClass.arrays.size() + sizeClass.directBuffers.size());
+        }
+        return bytes;
+    }
+
+    @Override
+    public String toString() {
+        return "BufferPool[hits=" + getHitCount() + ", misses=" + getMissCount() + ", pooledBytes=" + getPooledBytes() + "]";
+    }
+
+    private SizeClass sizeClassFor(final int minSize) {
+        for (SizeClass sizeClass : sizeClasses) {
+            if (sizeClass.size >= minSize) {
+                return sizeClass;
+            }
+        }
+        return null;
+    }
+
+    private SizeClass sizeClassOf(final int size) {
+        for (SizeClass sizeClass : sizeClasses) {
+            if (sizeClass.size == size) {
+                return sizeClass;
+            }
+        }
+        return null;
+    }
+
+    private static final class SizeClass {
+        private final int size;
+        private final int maxPooled;
+        private final Queue<byte[]> arrays = new ConcurrentLinkedQueue<byte[]>();
+        private final AtomicInteger pooledArrays = new AtomicInteger();
+        private final Queue<ByteBuffer> directBuffers = new ConcurrentLinkedQueue<ByteBuffer>();
+        private final AtomicInteger pooledDirectBuffers = new AtomicInteger();
+
+        SizeClass(final int size, final int maxPooled) {
+            this.size = size;
+            this.maxPooled = maxPooled;
+        }
+    }
+}
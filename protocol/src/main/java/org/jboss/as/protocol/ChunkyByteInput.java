@@ -39,6 +39,7 @@ import org.jboss.marshalling.Marshalling;
 public class ChunkyByteInput extends InputStream implements ByteInput {
     public static final int CHUNK_START = 0x98;
     public static final int END = 0x99;
+    private static final int DISCARD_SIZE = 8192;
     private ByteInput input;
     private int remaining = 0;
     private boolean finished;
@@ -123,16 +124,18 @@ public class ChunkyByteInput extends InputStream implements ByteInput {
     }
 
     public void close() throws IOException {
-        // Don't close the underlying input
-        while (!finished) {
-            final int current = input.read();
-            switch (current) {
-                case -1:
-                    return;
-                case END:
-                    finished = true;
-                    break;
+        // Don't close the underlying input, but skip the rest of its chunks. Scanning the raw
+        // bytes for END would stop early at a data byte of the same value.
+        if (finished) {
+            return;
+        }
+        final byte[] discard = BufferPool.getDefault().takeArray(DISCARD_SIZE);
+        try {
+            while (read(discard, 0, discard.length) > 0) {
+                // discard
             }
+        } finally {
+            BufferPool.getDefault().returnArray(discard);
         }
     }
 
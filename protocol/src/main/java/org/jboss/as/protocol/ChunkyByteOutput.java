@@ -38,21 +38,28 @@ public class ChunkyByteOutput extends OutputStream implements ByteOutput {
     public static final int CHUNK_START = 0x98;
     public static final int END = 0x99;
     private final ByteOutput output;
-    private final byte[] buffer;
+    private byte[] buffer;
     private int position;
 
     public ChunkyByteOutput(final ByteOutput output) {
         this(output, 8192);
     }
 
+    /**
+     * Create a new instance. The buffer is taken from the {@link BufferPool#getDefault() shared pool} and
+     * returned to it when this output is closed.
+     *
+     * @param output the underlying output
+     * @param bufferSize the minimum size of the chunks written, other than the last
+     */
     public ChunkyByteOutput(final ByteOutput output, final int bufferSize) {
         this.output = output;
-        buffer = new byte[bufferSize];
+        buffer = BufferPool.getDefault().takeArray(bufferSize);
     }
 
     /** {@inheritDoc} */
     public void write(int v) throws IOException {
-        final byte[] buffer = this.buffer;
+        final byte[] buffer = getBuffer();
         final int position = this.position;
         if (position == buffer.length) {
             flush();
@@ -71,22 +78,21 @@ public class ChunkyByteOutput extends OutputStream implements ByteOutput {
 
     /** {@inheritDoc} */
     public void write(final byte[] bytes, final int off, int len) throws IOException {
-        byte[] buffer = this.buffer;
-        final int position = this.position;
+        final byte[] buffer = getBuffer();
         int offSet = off;
-        while (offSet < len) {
-            int remaining = buffer.length - position;
-            int toRead = len - offSet;
-            if (toRead < remaining) {
-                System.arraycopy(bytes, offSet, buffer, position, toRead);
-                this.position = position + toRead;
-                offSet = offSet + len;
-            } else {
-                System.arraycopy(bytes, offSet, buffer, position, remaining);
-                this.position += remaining;
-                flush();
-                offSet = offSet + remaining;
+        while (len > 0) {
+            final int position = this.position;
+            final int remaining = buffer.length - position;
+            if (len < remaining) {
+                System.arraycopy(bytes, offSet, buffer, position, len);
+                this.position = position + len;
+                return;
             }
+            System.arraycopy(bytes, offSet, buffer, position, remaining);
+            this.position = position + remaining;
+            flush();
+            offSet += remaining;
+            len -= remaining;
         }
     }
 
@@ -96,8 +102,17 @@ public class ChunkyByteOutput extends OutputStream implements ByteOutput {
      * @throws IOException
      */
     public void close() throws IOException {
-        flush();
-        output.write(END); // Don't close the underlying output
+        final byte[] buffer = this.buffer;
+        if (buffer == null) {
+            return;
+        }
+        try {
+            flush();
+            output.write(END); // Don't close the underlying output
+        } finally {
+            this.buffer = null;
+            BufferPool.getDefault().returnArray(buffer);
+        }
     }
 
     /**
@@ -112,12 +127,19 @@ public class ChunkyByteOutput extends OutputStream implements ByteOutput {
         if (pos > 0) {
             output.write(CHUNK_START);
             writeInt(pos);
-            final byte[] buffer = this.buffer;
-            output.write(buffer, 0, pos);
+            output.write(getBuffer(), 0, pos);
         }
         this.position = 0;
     }
 
+    private byte[] getBuffer() throws IOException {
+        final byte[] buffer = this.buffer;
+        if (buffer == null) {
+            throw new IOException("Stream closed");
+        }
+        return buffer;
+    }
+
     public void writeInt(final int i) throws IOException {
         final ByteOutput output = this.output;
         byte[] bytes = new byte[4];
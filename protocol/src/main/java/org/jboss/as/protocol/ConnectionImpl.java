@@ -25,7 +25,6 @@ package org.jboss.as.protocol;
 import static org.jboss.as.protocol.ProtocolConstants.CHUNK_END;
 import static org.jboss.as.protocol.ProtocolConstants.CHUNK_START;
 
-import java.io.BufferedOutputStream;
 import java.io.EOFException;
 import java.io.FilterInputStream;
 import java.io.FilterOutputStream;
@@ -46,6 +45,8 @@ final class ConnectionImpl implements Connection {
 
     private static final Logger log = Logger.getLogger("org.jboss.as.protocol.connection");
 
+    private static final int BUFFER_SIZE = 8192;
+
     private final Socket socket;
 
     private final Object lock = new Object();
@@ -67,6 +68,8 @@ final class ConnectionImpl implements Connection {
 
     private final ClosedCallback callback;
 
+    private final BufferPool bufferPool = BufferPool.getDefault();
+
     ConnectionImpl(final Socket socket, final MessageHandler handler, final Executor readExecutor, final ClosedCallback callback) {
         this.socket = socket;
         messageHandler = handler;
@@ -92,7 +95,7 @@ final class ConnectionImpl implements Connection {
             boolean ok = false;
             try {
                 sender = new MessageOutputStream();
-                os = new BufferedOutputStream(sender);
+                os = sender;
                 ok = true;
             } finally {
                 if (! ok) {
@@ -185,11 +188,11 @@ final class ConnectionImpl implements Connection {
             public void run() {
                 boolean closed = false;
                 OutputStream mos = null;
+                final byte[] buffer = bufferPool.takeArray(BUFFER_SIZE);
                 try {
                     Pipe pipe = null;
                     final InputStream is = socket.getInputStream();
-                    final int bufferSize = 8192;
-                    final byte[] buffer = new byte[bufferSize];
+                    final int bufferSize = buffer.length;
                     for (;;) {
 
                         int cmd = is.read();
@@ -217,7 +220,7 @@ final class ConnectionImpl implements Connection {
                             }
                             case CHUNK_START: {
                                 if (mos == null) {
-                                    pipe = new Pipe(8192);
+                                    pipe = new Pipe(bufferPool, BUFFER_SIZE);
                                     // new message!
                                     final InputStream pis = pipe.getIn();
                                     mos = pipe.getOut();
@@ -261,6 +264,7 @@ final class ConnectionImpl implements Connection {
                     safeHandlerFailure(e);
                 } finally {
                     StreamUtils.safeClose(mos);
+                    bufferPool.returnArray(buffer);
                     if (!closed) {
                         closed();
                     }
@@ -326,21 +330,68 @@ final class ConnectionImpl implements Connection {
         }
     }
 
+    /**
+     * The stream of a message being sent. Writes are collected in a pooled buffer, which is sent as
+     * a chunk when it fills up or the stream is flushed.
+     */
     final class MessageOutputStream extends FilterOutputStream {
 
         private final byte[] hdr = new byte[5];
+        private byte[] buffer;
+        private int count;
 
         MessageOutputStream() throws IOException {
             super(socket.getOutputStream());
+            buffer = bufferPool.takeArray(BUFFER_SIZE);
         }
 
         @Override
         public void write(final int b) throws IOException {
-            throw new IllegalStateException();
+            final byte[] buffer = getBuffer();
+            if (count == buffer.length) {
+                flushBuffer();
+            }
+            buffer[count++] = (byte) b;
         }
 
         @Override
         public void write(final byte[] b, final int off, final int len) throws IOException {
+            final byte[] buffer = getBuffer();
+            if (len >= buffer.length) {
+                // Send large writes directly rather than copying them
+                flushBuffer();
+                writeChunk(b, off, len);
+            } else {
+                if (len > buffer.length - count) {
+                    flushBuffer();
+                }
+                System.arraycopy(b, off, buffer, count, len);
+                count += len;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            flushBuffer();
+        }
+
+        private byte[] getBuffer() throws IOException {
+            final byte[] buffer = this.buffer;
+            if (buffer == null) {
+                throw new IOException("Stream closed");
+            }
+            return buffer;
+        }
+
+        private void flushBuffer() throws IOException {
+            if (count > 0) {
+                final int count = this.count;
+                this.count = 0;
+                writeChunk(getBuffer(), 0, count);
+            }
+        }
+
+        private void writeChunk(final byte[] b, final int off, final int len) throws IOException {
             if (len == 0) {
                 return;
             }
@@ -364,6 +415,20 @@ final class ConnectionImpl implements Connection {
 
         @Override
         public void close() throws IOException {
+            final byte[] buffer = this.buffer;
+            if (buffer == null) {
+                return;
+            }
+            try {
+                flushBuffer();
+            } finally {
+                this.buffer = null;
+                bufferPool.returnArray(buffer);
+                endMessage();
+            }
+        }
+
+        private void endMessage() throws IOException {
             synchronized (lock) {
                 if (sender != this) {
                     return;
@@ -391,7 +456,7 @@ final class ConnectionImpl implements Connection {
             synchronized (lock) {
                 if (sender == this) {
                     log.warnf("Leaked a message output stream; cleaning");
-                    close();
+                    endMessage();
                 }
             }
         }
@@ -0,0 +1,899 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.protocol;
+
+import static org.jboss.as.protocol.ProtocolConstants.CHUNK_END;
+import static org.jboss.as.protocol.ProtocolConstants.CHUNK_START;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.jboss.logging.Logger;
+
+/**
+ * A {@link Connection} over a non-blocking socket channel whose I/O is performed by a {@link NioIoThread}.
+ * <p>
+ * Incoming chunks are read into the I/O thread's buffer and queued on the stream of the message they
+ * belong to. Messages are passed to the {@link MessageHandler} one at a time on the read executor, in the
+ * order they arrive; a message is only handed over once the stream of the previous one has been closed.
+ * Reading from the channel is suspended while too much received data is waiting to be consumed.
+ * Outgoing chunks are copied into pooled buffers and written by the I/O thread; writers block while too
+ * much data is waiting to be sent.
+ * </p>
+ *
+ * @author agent
+ */
+final class NioConnectionImpl implements Connection, NioIoThread.Handler {
+
+    private static final Logger log = Logger.getLogger("org.jboss.as.protocol.connection");
+
+    /** The number of buffered bytes above which reads are suspended or writers block */
+    private static final int HIGH_WATER = 256 * 1024;
+    /** The number of buffered bytes below which suspended reads resume */
+    private static final int LOW_WATER = 64 * 1024;
+
+    private static final int STATE_COMMAND = 0;
+    private static final int STATE_LENGTH = 1;
+    private static final int STATE_DATA = 2;
+
+    private final SocketChannel channel;
+    private final NioIoThread ioThread;
+    private final BufferPool bufferPool;
+    private final int bufferSize;
+    private final Executor readExecutor;
+    private final ClosedCallback callback;
+
+    private volatile MessageHandler messageHandler;
+    private volatile MessageHandler backupHandler;
+    private volatile Object attachment;
+    private volatile SelectionKey key;
+
+    private final Object lock = new Object();
+
+    // protected by {@link #lock}
+    private MessageOutputStream sender;
+    // protected by {@link #lock}
+    private final Deque<ByteBuffer> writeQueue = new ArrayDeque<ByteBuffer>();
+    // protected by {@link #lock}
+    private int queuedWriteBytes;
+    // protected by {@link #lock}
+    private boolean writeDone;
+    // protected by {@link #lock}
+    private boolean outputShutdown;
+    // protected by {@link #lock}
+    private boolean closePending;
+    // protected by {@link #lock}
+    private boolean readDone;
+    // protected by {@link #lock}
+    private boolean readsSuspended;
+    // protected by {@link #lock}
+    private int bufferedReadBytes;
+    // protected by {@link #lock}
+    private final Deque<MessageInputStream> pendingMessages = new ArrayDeque<MessageInputStream>();
+    // protected by {@link #lock}
+    private boolean dispatching;
+    // protected by {@link #lock}
+    private boolean shutdownDispatched;
+    // protected by {@link #lock}
+    private boolean closed;
+
+    // only used on the I/O thread
+    private int readState = STATE_COMMAND;
+    private int lengthBytes;
+    private int chunkRemaining;
+    /** The message currently being received; written on the I/O thread only */
+    private volatile MessageInputStream currentMessage;
+
+    private final AtomicBoolean interestUpdatePending = new AtomicBoolean();
+    private final AtomicBoolean closedNotified = new AtomicBoolean();
+    private final Runnable interestUpdateTask = new Runnable() {
+        @Override
+        public void run() {
+            interestUpdatePending.set(false);
+            updateInterest();
+        }
+    };
+
+    NioConnectionImpl(final SocketChannel channel, final NioIoThread ioThread, final MessageHandler handler, final Executor readExecutor, final ClosedCallback callback) {
+        this.channel = channel;
+        this.ioThread = ioThread;
+        this.bufferPool = ioThread.getBufferPool();
+        this.bufferSize = ioThread.getBufferSize();
+        this.messageHandler = handler;
+        this.readExecutor = readExecutor;
+        this.callback = callback;
+    }
+
+    /**
+     * Register the channel with the I/O thread, which starts reading from it.
+     */
+    void register() {
+        ioThread.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    key = channel.register(ioThread.getSelector(), SelectionKey.OP_READ, NioConnectionImpl.this);
+                    updateInterest();
+                } catch (ClosedChannelException e) {
+                    closed();
+                }
+            }
+        });
+    }
+
+    @Override
+    public OutputStream writeMessage() throws IOException {
+        final OutputStream os;
+        synchronized (lock) {
+            if (writeDone) {
+                throw new IOException("Writes are already shut down");
+            }
+            while (sender != null) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException();
+                }
+                if (writeDone) {
+                    throw new IOException("Writes are already shut down");
+                }
+            }
+            sender = new MessageOutputStream();
+            os = sender;
+        }
+        return os;
+    }
+
+    @Override
+    public void shutdownWrites() throws IOException {
+        synchronized (lock) {
+            if (writeDone) return;
+            while (sender != null) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException();
+                }
+            }
+            writeDone = true;
+            if (readDone) {
+                closePending = true;
+            }
+            lock.notifyAll();
+        }
+        // The I/O thread shuts down the output once the queued data is written
+        requestInterestUpdate();
+    }
+
+    @Override
+    public void close() throws IOException {
+        final MessageInputStream[] messages;
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            sender = null;
+            readDone = true;
+            writeDone = true;
+            releaseWriteQueue();
+            messages = pendingMessages.toArray(new MessageInputStream[pendingMessages.size()]);
+            pendingMessages.clear();
+            lock.notifyAll();
+        }
+        try {
+            channel.close();
+        } finally {
+            final IOException e = new IOException("Connection closed");
+            final MessageInputStream current = currentMessage;
+            if (current != null) {
+                current.fail(e);
+            }
+            for (MessageInputStream message : messages) {
+                message.fail(e);
+            }
+            ioThread.getSelector().wakeup();
+            closed();
+        }
+    }
+
+    @Override
+    public void setMessageHandler(final MessageHandler messageHandler) {
+        if (messageHandler == null) {
+            throw new IllegalArgumentException("messageHandler is null");
+        }
+        this.messageHandler = messageHandler;
+    }
+
+    @Override
+    public InetAddress getPeerAddress() {
+        return channel.socket().getInetAddress();
+    }
+
+    @Override
+    public void attach(final Object attachment) {
+        this.attachment = attachment;
+    }
+
+    @Override
+    public Object getAttachment() {
+        return attachment;
+    }
+
+    @Override
+    public void backupMessageHandler() {
+        backupHandler = messageHandler;
+    }
+
+    @Override
+    public void restoreMessageHandler() {
+        MessageHandler handler = backupHandler;
+        setMessageHandler(handler == null ? MessageHandler.NULL : handler);
+    }
+
+    @Override
+    public void handleReady(final SelectionKey key) {
+        if (key.isReadable()) {
+            doRead();
+        }
+        if (key.isValid() && key.isWritable()) {
+            doWrite();
+        }
+    }
+
+    @Override
+    public void handleStopped(final SelectionKey key) {
+        StreamUtils.safeClose(this);
+    }
+
+    private void doRead() {
+        final ByteBuffer buffer = ioThread.getReadBuffer();
+        buffer.clear();
+        try {
+            final int read = channel.read(buffer);
+            if (read == -1) {
+                handleEndOfStream();
+                return;
+            }
+            buffer.flip();
+            processInput(buffer);
+        } catch (IOException e) {
+            handleReadFailure(e);
+            return;
+        }
+        synchronized (lock) {
+            if (bufferedReadBytes >= HIGH_WATER) {
+                readsSuspended = true;
+            }
+        }
+        updateInterest();
+    }
+
+    private void processInput(final ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            switch (readState) {
+                case STATE_COMMAND: {
+                    final int cmd = buffer.get() & 0xff;
+                    if (cmd == CHUNK_START) {
+                        readState = STATE_LENGTH;
+                        lengthBytes = 0;
+                        chunkRemaining = 0;
+                    } else if (cmd == CHUNK_END) {
+                        log.trace("Received end data marker");
+                        final MessageInputStream message = currentMessage;
+                        if (message != null) {
+                            currentMessage = null;
+                            message.finish();
+                        }
+                    } else {
+                        throw new IOException("Invalid command byte read: " + cmd);
+                    }
+                    break;
+                }
+                case STATE_LENGTH: {
+                    chunkRemaining = (chunkRemaining << 8) | (buffer.get() & 0xff);
+                    if (++lengthBytes == 4) {
+                        if (chunkRemaining < 0) {
+                            throw new IOException("Invalid chunk size: " + chunkRemaining);
+                        }
+                        log.tracef("Received data chunk of size %d", Integer.valueOf(chunkRemaining));
+                        if (currentMessage == null) {
+                            startMessage();
+                        }
+                        readState = chunkRemaining > 0 ? STATE_DATA : STATE_COMMAND;
+                    }
+                    break;
+                }
+                case STATE_DATA: {
+                    final int cnt = Math.min(chunkRemaining, buffer.remaining());
+                    final byte[] data = bufferPool.takeArray(cnt);
+                    buffer.get(data, 0, cnt);
+                    currentMessage.offer(ByteBuffer.wrap(data, 0, cnt));
+                    chunkRemaining -= cnt;
+                    if (chunkRemaining == 0) {
+                        readState = STATE_COMMAND;
+                    }
+                    break;
+                }
+                default: {
+                    throw new IllegalStateException();
+                }
+            }
+        }
+    }
+
+    private void startMessage() {
+        final MessageInputStream message = new MessageInputStream();
+        currentMessage = message;
+        synchronized (lock) {
+            pendingMessages.add(message);
+        }
+        dispatchNext();
+    }
+
+    private void handleEndOfStream() {
+        log.trace("Received end of stream");
+        final MessageInputStream message = currentMessage;
+        if (message != null) {
+            currentMessage = null;
+            message.finish();
+        }
+        synchronized (lock) {
+            readDone = true;
+        }
+        updateInterest();
+        dispatchNext();
+    }
+
+    private void handleReadFailure(final IOException e) {
+        final MessageInputStream message = currentMessage;
+        if (message != null) {
+            currentMessage = null;
+            message.fail(e);
+        }
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            readDone = true;
+            // no further messages will be handled
+            shutdownDispatched = true;
+        }
+        updateInterest();
+        execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    safeHandlerFailure(e);
+                } finally {
+                    closed();
+                }
+            }
+        });
+    }
+
+    private void doWrite() {
+        boolean connectionClosed = false;
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            try {
+                if (! writeQueue.isEmpty()) {
+                    channel.write(writeQueue.toArray(new ByteBuffer[writeQueue.size()]));
+                    ByteBuffer buffer;
+                    while ((buffer = writeQueue.peek()) != null && ! buffer.hasRemaining()) {
+                        writeQueue.poll();
+                        queuedWriteBytes -= buffer.limit();
+                        bufferPool.returnDirectBuffer(buffer);
+                    }
+                    lock.notifyAll();
+                }
+                if (writeQueue.isEmpty()) {
+                    if (closePending) {
+                        closed = true;
+                        connectionClosed = true;
+                        lock.notifyAll();
+                        channel.close();
+                    } else if (writeDone && ! outputShutdown) {
+                        outputShutdown = true;
+                        channel.socket().shutdownOutput();
+                    }
+                }
+            } catch (IOException e) {
+                log.errorf(e, "Failed to write to %s", channel);
+                closed = true;
+                connectionClosed = true;
+                writeDone = true;
+                releaseWriteQueue();
+                lock.notifyAll();
+                StreamUtils.safeClose(channel);
+            }
+        }
+        if (connectionClosed) {
+            closed();
+        } else {
+            updateInterest();
+        }
+    }
+
+    /**
+     * Set the interest set of the key from the current state. Must be called on the I/O thread.
+     */
+    private void updateInterest() {
+        final SelectionKey key = this.key;
+        if (key == null || ! key.isValid()) {
+            return;
+        }
+        int ops = 0;
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            if (! readDone && ! readsSuspended) {
+                ops |= SelectionKey.OP_READ;
+            }
+            if (! writeQueue.isEmpty() || (writeDone && ! outputShutdown) || closePending) {
+                ops |= SelectionKey.OP_WRITE;
+            }
+        }
+        key.interestOps(ops);
+    }
+
+    private void requestInterestUpdate() {
+        if (ioThread.isCurrentThread()) {
+            updateInterest();
+        } else if (interestUpdatePending.compareAndSet(false, true)) {
+            ioThread.execute(interestUpdateTask);
+        }
+    }
+
+    /**
+     * Hand the next received message, or the end of input, to the message handler unless
+     * the handler is still busy with the previous message.
+     */
+    private void dispatchNext() {
+        final MessageInputStream next;
+        synchronized (lock) {
+            if (dispatching || closed) {
+                return;
+            }
+            next = pendingMessages.poll();
+            if (next == null) {
+                if (! readDone || shutdownDispatched) {
+                    return;
+                }
+                shutdownDispatched = true;
+            }
+            dispatching = true;
+        }
+        if (next != null) {
+            execute(new Runnable() {
+                @Override
+                public void run() {
+                    safeHandleMessage(next);
+                }
+            });
+        } else {
+            execute(new Runnable() {
+                @Override
+                public void run() {
+                    safeHandleShutdown();
+                    final boolean done;
+                    synchronized (lock) {
+                        done = writeDone;
+                        if (done) {
+                            closePending = true;
+                        }
+                    }
+                    if (done) {
+                        requestInterestUpdate();
+                        safeHandleFinished();
+                    }
+                    closed();
+                }
+            });
+        }
+    }
+
+    private void messageComplete() {
+        synchronized (lock) {
+            dispatching = false;
+        }
+        dispatchNext();
+    }
+
+    private void bytesConsumed(final int count) {
+        final boolean resume;
+        synchronized (lock) {
+            bufferedReadBytes -= count;
+            resume = readsSuspended && bufferedReadBytes <= LOW_WATER;
+            if (resume) {
+                readsSuspended = false;
+            }
+        }
+        if (resume) {
+            requestInterestUpdate();
+        }
+    }
+
+    private void execute(final Runnable task) {
+        try {
+            readExecutor.execute(task);
+        } catch (RejectedExecutionException e) {
+            log.errorf(e, "Failed to handle input from %s", channel);
+            StreamUtils.safeClose(this);
+        }
+    }
+
+    // protected by {@link #lock}
+    private void releaseWriteQueue() {
+        ByteBuffer buffer;
+        while ((buffer = writeQueue.poll()) != null) {
+            bufferPool.returnDirectBuffer(buffer);
+        }
+        queuedWriteBytes = 0;
+    }
+
+    void safeHandleMessage(final InputStream pis) {
+        try {
+            messageHandler.handleMessage(this, pis);
+        } catch (RuntimeException e) {
+            log.errorf(e, "Failed to read a message");
+        } catch (IOException e) {
+            log.errorf(e, "Failed to read a message");
+        } catch (NoClassDefFoundError e) {
+            log.errorf(e, "Failed to read a message");
+        } catch (Error e) {
+            log.errorf(e, "Failed to read a message");
+            throw e;
+        } finally {
+            StreamUtils.safeClose(pis);
+        }
+    }
+
+    void safeHandleShutdown() {
+        try {
+            messageHandler.handleShutdown(this);
+        } catch (IOException e) {
+            log.errorf(e, "Failed to handle socket shut down condition");
+        }
+    }
+
+    void safeHandleFinished() {
+        try {
+            messageHandler.handleFinished(this);
+        } catch (IOException e) {
+            log.errorf(e, "Failed to handle socket finished condition");
+        }
+    }
+
+    void safeHandlerFailure(IOException e) {
+        try {
+            messageHandler.handleFailure(this, e);
+        } catch (IOException e1) {
+            log.errorf(e1, "Failed to handle socket failure condition");
+        }
+    }
+
+    private void closed() {
+        ClosedCallback callback = this.callback;
+        if (callback != null && closedNotified.compareAndSet(false, true)) {
+            callback.connectionClosed();
+        }
+    }
+
+    /**
+     * The stream of a received message, fed with chunks by the I/O thread.
+     */
+    final class MessageInputStream extends InputStream {
+
+        // protected by this
+        private final Deque<ByteBuffer> chunks = new ArrayDeque<ByteBuffer>();
+        private ByteBuffer current;
+        private boolean finished;
+        private boolean closed;
+        private IOException failure;
+
+        void offer(final ByteBuffer data) {
+            synchronized (this) {
+                if (closed) {
+                    bufferPool.returnArray(data.array());
+                    return;
+                }
+                chunks.add(data);
+                notifyAll();
+            }
+            synchronized (lock) {
+                bufferedReadBytes += data.remaining();
+            }
+        }
+
+        void finish() {
+            final boolean complete;
+            synchronized (this) {
+                if (finished) {
+                    return;
+                }
+                finished = true;
+                complete = closed;
+                notifyAll();
+            }
+            if (complete) {
+                messageComplete();
+            }
+        }
+
+        void fail(final IOException e) {
+            synchronized (this) {
+                if (failure == null && ! finished) {
+                    failure = e;
+                }
+            }
+            finish();
+        }
+
+        @Override
+        public int read() throws IOException {
+            final byte[] b = new byte[1];
+            return read(b, 0, 1) == -1 ? -1 : b[0] & 0xff;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            final int cnt;
+            synchronized (this) {
+                while (current == null) {
+                    if (closed) {
+                        throw new IOException("Stream closed");
+                    }
+                    current = chunks.poll();
+                    if (current == null) {
+                        if (failure != null) {
+                            throw failure;
+                        }
+                        if (finished) {
+                            return -1;
+                        }
+                        try {
+                            wait();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            throw new InterruptedIOException();
+                        }
+                    }
+                }
+                cnt = Math.min(len, current.remaining());
+                current.get(b, off, cnt);
+                if (! current.hasRemaining()) {
+                    bufferPool.returnArray(current.array());
+                    current = null;
+                }
+            }
+            bytesConsumed(cnt);
+            return cnt;
+        }
+
+        @Override
+        public synchronized int available() {
+            return current == null ? 0 : current.remaining();
+        }
+
+        @Override
+        public void close() {
+            final boolean complete;
+            int dropped = 0;
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                if (current != null) {
+                    dropped += current.remaining();
+                    bufferPool.returnArray(current.array());
+                    current = null;
+                }
+                ByteBuffer chunk;
+                while ((chunk = chunks.poll()) != null) {
+                    dropped += chunk.remaining();
+                    bufferPool.returnArray(chunk.array());
+                }
+                complete = finished;
+                notifyAll();
+            }
+            if (dropped > 0) {
+                bytesConsumed(dropped);
+            }
+            if (complete) {
+                messageComplete();
+            }
+        }
+    }
+
+    final class MessageOutputStream extends OutputStream {
+
+        private final byte[] hdr = new byte[5];
+        private byte[] buffer = bufferPool.takeArray(bufferSize);
+        private int count;
+
+        @Override
+        public void write(final int b) throws IOException {
+            final byte[] buffer = getBuffer();
+            if (count == buffer.length) {
+                flushBuffer();
+            }
+            buffer[count++] = (byte) b;
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            final byte[] buffer = getBuffer();
+            if (len >= buffer.length) {
+                // Queue large writes directly rather than copying them twice
+                flushBuffer();
+                writeChunk(b, off, len);
+            } else {
+                if (len > buffer.length - count) {
+                    flushBuffer();
+                }
+                System.arraycopy(b, off, buffer, count, len);
+                count += len;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            flushBuffer();
+        }
+
+        private byte[] getBuffer() throws IOException {
+            final byte[] buffer = this.buffer;
+            if (buffer == null) {
+                throw new IOException("Stream closed");
+            }
+            return buffer;
+        }
+
+        private void flushBuffer() throws IOException {
+            if (count > 0) {
+                final int count = this.count;
+                this.count = 0;
+                writeChunk(getBuffer(), 0, count);
+            }
+        }
+
+        private void writeChunk(final byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return;
+            }
+            final byte[] hdr = this.hdr;
+            hdr[0] = (byte) CHUNK_START;
+            hdr[1] = (byte) (len >> 24);
+            hdr[2] = (byte) (len >> 16);
+            hdr[3] = (byte) (len >> 8);
+            hdr[4] = (byte) (len >> 0);
+            synchronized (lock) {
+                while (queuedWriteBytes >= HIGH_WATER && sender == this && ! writeDone) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new InterruptedIOException();
+                    }
+                }
+                if (sender != this || writeDone) {
+                    if (sender == this) sender = null;
+                    lock.notifyAll();
+                    throw new IOException("Write channel closed");
+                }
+                log.tracef("Sending data chunk of size %d", Integer.valueOf(len));
+                ByteBuffer buffer = bufferPool.takeDirectBuffer(Math.min(hdr.length + len, bufferSize));
+                buffer.put(hdr);
+                queuedWriteBytes += hdr.length + len;
+                for (;;) {
+                    final int cnt = Math.min(len, buffer.remaining());
+                    buffer.put(b, off, cnt);
+                    off += cnt;
+                    len -= cnt;
+                    buffer.flip();
+                    writeQueue.add(buffer);
+                    if (len == 0) {
+                        break;
+                    }
+                    buffer = bufferPool.takeDirectBuffer(Math.min(len, bufferSize));
+                }
+            }
+            requestInterestUpdate();
+        }
+
+        @Override
+        public void close() throws IOException {
+            final byte[] buffer = this.buffer;
+            if (buffer == null) {
+                return;
+            }
+            try {
+                flushBuffer();
+            } finally {
+                this.buffer = null;
+                bufferPool.returnArray(buffer);
+                endMessage();
+            }
+        }
+
+        private void endMessage() throws IOException {
+            synchronized (lock) {
+                if (sender != this) {
+                    return;
+                }
+                sender = null;
+                // wake up waiters
+                lock.notifyAll();
+                if (writeDone) throw new IOException("Write channel closed");
+                if (readDone) {
+                    execute(new Runnable() {
+                        @Override
+                        public void run() {
+                            safeHandleFinished();
+                        }
+                    });
+                }
+                log.tracef("Sending end of message");
+                final ByteBuffer buffer = bufferPool.takeDirectBuffer(1);
+                buffer.put((byte) CHUNK_END);
+                buffer.flip();
+                writeQueue.add(buffer);
+                queuedWriteBytes++;
+            }
+            requestInterestUpdate();
+        }
+
+        @Override
+        protected void finalize() throws Throwable {
+            super.finalize();
+            synchronized (lock) {
+                if (sender == this) {
+                    log.warnf("Leaked a message output stream; cleaning");
+                    endMessage();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.protocol;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadFactory;
+
+import org.jboss.logging.Logger;
+
+/**
+ * A thread which performs the non-blocking I/O for the channels registered with its selector.
+ * Work that has to be done on the thread, such as registering a channel or changing its interest
+ * set, is submitted with {@link #execute(Runnable)}.
+ *
+ * @author agent
+ */
+final class NioIoThread implements Runnable {
+
+    private static final Logger log = Logger.getLogger("org.jboss.as.protocol.server");
+
+    private final Selector selector;
+    private final BufferPool bufferPool;
+    private final int bufferSize;
+    private final ByteBuffer readBuffer;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<Runnable>();
+    private volatile boolean stop;
+    private volatile Thread thread;
+
+    NioIoThread(final BufferPool bufferPool, final int bufferSize) throws IOException {
+        this.selector = Selector.open();
+        this.bufferPool = bufferPool;
+        this.bufferSize = bufferSize;
+        this.readBuffer = bufferPool.takeDirectBuffer(bufferSize);
+    }
+
+    void start(final ThreadFactory threadFactory, final String name) throws IOException {
+        final Thread thread = threadFactory.newThread(this);
+        if (thread == null) {
+            throw new IOException("Failed to create I/O thread");
+        }
+        thread.setName(name);
+        this.thread = thread;
+        thread.start();
+    }
+
+    void stop() {
+        stop = true;
+        selector.wakeup();
+    }
+
+    /**
+     * Run a task on this thread.
+     *
+     * @param task the task
+     */
+    void execute(final Runnable task) {
+        tasks.add(task);
+        selector.wakeup();
+    }
+
+    boolean isCurrentThread() {
+        return Thread.currentThread() == thread;
+    }
+
+    Selector getSelector() {
+        return selector;
+    }
+
+    BufferPool getBufferPool() {
+        return bufferPool;
+    }
+
+    /**
+     * Gets the size of the largest direct buffers channels registered with this thread should read into or write from.
+     *
+     * @return the buffer size
+     */
+    int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * Gets the buffer channels registered with this thread read into. It may only be used
+     * on this thread, and its content does not survive from one ready event to the next.
+     *
+     * @return the buffer
+     */
+    ByteBuffer getReadBuffer() {
+        return readBuffer;
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (! stop) {
+                try {
+                    selector.select();
+                } catch (IOException e) {
+                    log.errorf(e, "Failed to select ready channels");
+                }
+                Runnable task;
+                while ((task = tasks.poll()) != null) {
+                    try {
+                        task.run();
+                    } catch (Throwable t) {
+                        log.errorf(t, "Failed to execute I/O task");
+                    }
+                }
+                final Iterator<SelectionKey> iterator = selector.selectedKeys().iterator();
+                while (iterator.hasNext()) {
+                    final SelectionKey key = iterator.next();
+                    iterator.remove();
+                    if (key.isValid()) {
+                        try {
+                            ((Handler) key.attachment()).handleReady(key);
+                        } catch (Throwable t) {
+                            log.errorf(t, "Failed to handle ready channel %s", key.channel());
+                        }
+                    }
+                }
+            }
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                ((Handler) key.attachment()).handleStopped(key);
+            }
+            try {
+                selector.close();
+            } catch (IOException e) {
+                log.errorf(e, "Failed to close selector");
+            }
+            bufferPool.returnDirectBuffer(readBuffer);
+        }
+    }
+
+    /**
+     * The attachment of the keys of channels registered with an I/O thread.
+     */
+    interface Handler {
+
+        /**
+         * Handle the channel being ready for the operations in the key's ready set.
+         *
+         * @param key the key
+         */
+        void handleReady(SelectionKey key);
+
+        /**
+         * Handle the I/O thread stopping. The channel should be closed.
+         *
+         * @param key the key
+         */
+        void handleStopped(SelectionKey key);
+    }
+}
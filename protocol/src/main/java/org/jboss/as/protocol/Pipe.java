@@ -28,20 +28,30 @@ import java.io.InterruptedIOException;
 import java.io.OutputStream;
 
 /**
+ * A bounded buffer connecting a stream written by one thread to a stream read by another.
+ *
  * @author <a href="mailto:david.lloyd@redhat.com">David M. Lloyd</a>
  */
-final class Pipe {
+public final class Pipe {
     private final Object lock = new Object();
     /** the point at which a read shall occur **/
     private int tail;
     /** the size of the buffer content **/
     private int size;
     private final byte[] buffer;
+    /** the pool the buffer is returned to once the read side is closed, if any **/
+    private final BufferPool bufferPool;
     private boolean writeClosed;
     private boolean readClosed;
 
-    Pipe(int bufferSize) {
+    public Pipe(int bufferSize) {
         buffer = new byte[bufferSize];
+        bufferPool = null;
+    }
+
+    Pipe(BufferPool bufferPool, int bufferSize) {
+        buffer = bufferPool.takeArray(bufferSize);
+        this.bufferPool = bufferPool;
     }
 
     public void await() {
@@ -147,6 +157,10 @@ final class Pipe {
         public void close() throws IOException {
             final Object lock = Pipe.this.lock;
             synchronized (lock) {
+                if (! readClosed && bufferPool != null) {
+                    // Neither side touches the buffer once both are closed
+                    bufferPool.returnArray(buffer);
+                }
                 writeClosed = true;
                 readClosed = true;
                 // closing the read side drops the remaining bytes
@@ -27,7 +27,11 @@ import java.net.InetSocketAddress;
 import java.net.ServerSocket;
 import java.net.Socket;
 import java.net.SocketException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
 import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.ThreadFactory;
 
 import javax.net.ServerSocketFactory;
@@ -36,6 +40,10 @@ import org.jboss.as.protocol.Connection.ClosedCallback;
 import org.jboss.logging.Logger;
 
 /**
+ * A server for the management protocol. By default each accepted connection is read by its own
+ * thread; if the configuration specifies a number of {@link Configuration#setIoThreads(int) I/O threads},
+ * connections are instead served by that many selector threads using non-blocking channels.
+ *
  * @author <a href="mailto:david.lloyd@redhat.com">David M. Lloyd</a>
  */
 public final class ProtocolServer {
@@ -54,6 +62,12 @@ public final class ProtocolServer {
     private volatile ServerSocket serverSocket;
     private volatile InetSocketAddress boundAddress;
     private final ClosedCallback callback;
+    private final int ioThreadCount;
+    private volatile ServerSocketChannel serverChannel;
+    private volatile NioIoThread[] ioThreads;
+
+    /** The size of the largest buffers used by the I/O threads */
+    private static final int IO_BUFFER_SIZE = 8192;
 
     public ProtocolServer(final Configuration configuration) throws IOException {
         threadFactory = configuration.getThreadFactory();
@@ -64,16 +78,33 @@ public final class ProtocolServer {
         readTimeout = configuration.getReadTimeout();
         readExecutor = configuration.getReadExecutor();
         callback = configuration.getClosedCallback();
+        ioThreadCount = configuration.getIoThreads();
         if (bindAddress == null) {
             throw new IllegalArgumentException("bindAddress is null");
         }
         if (connectionHandler == null) {
             throw new IllegalArgumentException("connectionHandler is null");
         }
+        if (ioThreadCount < 0) {
+            throw new IllegalArgumentException("ioThreads is negative");
+        }
+        if (ioThreadCount > 0) {
+            // the channels are opened directly and never block on a read, so these can not be honoured
+            if (socketFactory != null) {
+                throw new IllegalArgumentException("A socket factory can not be used with non-blocking I/O");
+            }
+            if (readTimeout != 0) {
+                throw new IllegalArgumentException("A read timeout can not be used with non-blocking I/O");
+            }
+        }
     }
 
     public void start() throws IOException {
         stop = false;
+        if (ioThreadCount > 0) {
+            startNio();
+            return;
+        }
 
         final ServerSocket serverSocket = socketFactory.createServerSocket();
         this.serverSocket = serverSocket;
@@ -123,6 +154,48 @@ public final class ProtocolServer {
         thread.start();
     }
 
+    private void startNio() throws IOException {
+        final BufferPool bufferPool = BufferPool.getDefault();
+        final NioIoThread[] ioThreads = new NioIoThread[ioThreadCount];
+        final ServerSocketChannel serverChannel = ServerSocketChannel.open();
+        boolean ok = false;
+        try {
+            for (int i = 0; i < ioThreads.length; i++) {
+                ioThreads[i] = new NioIoThread(bufferPool, IO_BUFFER_SIZE);
+            }
+            serverChannel.configureBlocking(false);
+            serverChannel.socket().setReuseAddress(true);
+            serverChannel.socket().bind(bindAddress, backlog);
+            boundAddress = (InetSocketAddress) serverChannel.socket().getLocalSocketAddress();
+            for (int i = 0; i < ioThreads.length; i++) {
+                ioThreads[i].start(threadFactory, "Management I/O thread " + (i + 1));
+            }
+            this.ioThreads = ioThreads;
+            this.serverChannel = serverChannel;
+            final Acceptor acceptor = new Acceptor(serverChannel, ioThreads);
+            ioThreads[0].execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        serverChannel.register(ioThreads[0].getSelector(), SelectionKey.OP_ACCEPT, acceptor);
+                    } catch (IOException e) {
+                        log.errorf(e, "Failed to register the server channel");
+                    }
+                }
+            });
+            ok = true;
+        } finally {
+            if (! ok) {
+                StreamUtils.safeClose(serverChannel);
+                for (NioIoThread ioThread : ioThreads) {
+                    if (ioThread != null) {
+                        ioThread.stop();
+                    }
+                }
+            }
+        }
+    }
+
     public void stop() {
         stop = true;
         final Thread thread = this.thread;
@@ -132,6 +205,15 @@ public final class ProtocolServer {
             thread.interrupt();
         }
         StreamUtils.safeClose(serverSocket);
+        StreamUtils.safeClose(serverChannel);
+        final NioIoThread[] ioThreads = this.ioThreads;
+        if (ioThreads != null) {
+            for (NioIoThread ioThread : ioThreads) {
+                ioThread.stop();
+            }
+            this.ioThreads = null;
+        }
+        log.debugf("Stopped protocol server, %s", BufferPool.getDefault());
     }
 
     private void safeHandleConnection(final Socket socket) {
@@ -163,6 +245,58 @@ public final class ProtocolServer {
         return boundAddress;
     }
 
+    /**
+     * Accepts connections on the server channel and assigns them to the I/O threads in turn.
+     */
+    private final class Acceptor implements NioIoThread.Handler {
+        private final ServerSocketChannel serverChannel;
+        private final NioIoThread[] ioThreads;
+        private final AtomicInteger next = new AtomicInteger();
+
+        Acceptor(final ServerSocketChannel serverChannel, final NioIoThread[] ioThreads) {
+            this.serverChannel = serverChannel;
+            this.ioThreads = ioThreads;
+        }
+
+        @Override
+        public void handleReady(final SelectionKey key) {
+            SocketChannel channel;
+            try {
+                while ((channel = serverChannel.accept()) != null) {
+                    safeHandleConnection(channel);
+                }
+            } catch (IOException e) {
+                if (! stop) {
+                    log.errorf(e, "Failed to accept a connection");
+                }
+            }
+        }
+
+        @Override
+        public void handleStopped(final SelectionKey key) {
+            StreamUtils.safeClose(serverChannel);
+        }
+
+        private void safeHandleConnection(final SocketChannel channel) {
+            boolean ok = false;
+            try {
+                channel.configureBlocking(false);
+                channel.socket().setTcpNoDelay(true);
+                final NioIoThread ioThread = ioThreads[(next.getAndIncrement() & Integer.MAX_VALUE) % ioThreads.length];
+                final NioConnectionImpl connection = new NioConnectionImpl(channel, ioThread, MessageHandler.NULL, readExecutor, callback);
+                connection.setMessageHandler(connectionHandler.handleConnected(connection));
+                connection.register();
+                ok = true;
+            } catch (IOException e) {
+                log.errorf(e, "Failed to handle incoming connection");
+            } finally {
+                if (! ok) {
+                    StreamUtils.safeClose(channel);
+                }
+            }
+        }
+    }
+
     public static final class Configuration {
         private ThreadFactory threadFactory;
         private ServerSocketFactory socketFactory;
@@ -173,6 +307,7 @@ public final class ProtocolServer {
         private int readTimeout;
         private Executor readExecutor;
         private ClosedCallback closedCallback;
+        private int ioThreads;
 
         public ThreadFactory getThreadFactory() {
             return threadFactory;
@@ -246,5 +381,21 @@ public final class ProtocolServer {
         public void setCallback(ClosedCallback closedCallback) {
             this.closedCallback = closedCallback;
         }
+
+        public int getIoThreads() {
+            return ioThreads;
+        }
+
+        /**
+         * Set the number of threads performing non-blocking I/O for all connections. If {@code 0},
+         * the default, each connection is read by its own thread. A {@link #setSocketFactory(ServerSocketFactory) socket factory}
+         * or {@link #setReadTimeout(int) read timeout} can not be used with non-blocking I/O; the server refuses to be created
+         * if either is set.
+         *
+         * @param ioThreads the number of I/O threads
+         */
+        public void setIoThreads(final int ioThreads) {
+            this.ioThreads = ioThreads;
+        }
     }
 }
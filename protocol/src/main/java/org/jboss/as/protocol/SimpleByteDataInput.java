@@ -34,10 +34,16 @@ import org.jboss.marshalling.SimpleDataInput;
  * @author John Bailey
  */
 public class SimpleByteDataInput extends InputStream implements ByteDataInput {
+    /**
+     * The size of the buffer of the wrapped stream. It is kept small since the messages of a connection
+     * are already buffered with pooled buffers and this class is mostly used for short headers.
+     */
+    private static final int BUFFER_SIZE = 256;
+
     private final SimpleDataInput input;
 
     public SimpleByteDataInput(final InputStream inputStream) {
-        this.input = new SimpleDataInput(Marshalling.createByteInput(inputStream));
+        this.input = new SimpleDataInput(BUFFER_SIZE, Marshalling.createByteInput(inputStream));
     }
 
     public int read() throws IOException {
@@ -34,10 +34,16 @@ import org.jboss.marshalling.SimpleDataOutput;
  * @author John Bailey
  */
 public class SimpleByteDataOutput extends OutputStream implements ByteDataOutput {
+    /**
+     * The size of the buffer of the wrapped stream. It is kept small since the messages of a connection
+     * are already buffered with pooled buffers and this class is mostly used for short headers.
+     */
+    private static final int BUFFER_SIZE = 256;
+
     private final SimpleDataOutput output;
 
     public SimpleByteDataOutput(final OutputStream outputStream) {
-        this.output = new SimpleDataOutput(Marshalling.createByteOutput(outputStream));
+        this.output = new SimpleDataOutput(BUFFER_SIZE, Marshalling.createByteOutput(outputStream));
     }
 
     public void write(int b) throws IOException {
@@ -0,0 +1,678 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.protocol.mgmt;
+
+import static org.jboss.as.protocol.StreamUtils.safeClose;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.as.protocol.ByteDataInput;
+import org.jboss.as.protocol.ByteDataOutput;
+import org.jboss.as.protocol.Connection;
+import org.jboss.as.protocol.MessageHandler;
+import org.jboss.as.protocol.Pipe;
+import org.jboss.as.protocol.SimpleByteDataInput;
+import org.jboss.as.protocol.SimpleByteDataOutput;
+import org.jboss.as.protocol.StreamUtils;
+import org.jboss.logging.Logger;
+
+/**
+ * Carries any number of concurrent management requests over a single {@link Connection}.
+ * <p>
+ * Each request is given its own virtual channel, which is itself a {@link Connection}, so the existing
+ * {@link ManagementRequest} and {@link ManagementResponse} handlers run over it unchanged. Every message
+ * on the underlying connection is prefixed with the id of the channel it belongs to and the messages of
+ * one channel are handled in order, but the channels are handled independently of each other, so a
+ * slow request does not hold up the responses to the requests sent after it.
+ * <p>
+ * Messages are not buffered whole. A message written to a channel is sent in frames of at most {@link #BUFFER_SIZE}
+ * bytes, interleaved with the frames of the other channels, and a received message is handed to the channel's
+ * handler through a pipe of the same size as soon as its first frame arrives. A handler which does not read its
+ * message holds up the frames of the other channels until its pipe has room again, so the executor must run the
+ * channels' handlers without queueing them behind each other.
+ * <p>
+ * A client switches a connection to multiplexed mode with {@link #connect(Connection, Executor, long)},
+ * which sends a management request header for the {@link ManagementProtocol#MULTIPLEX_HANDLER_ID}
+ * handler. A {@link ManagementHeaderMessageHandler} with a {@link ManagementHeaderMessageHandler#getMultiplexExecutor()
+ * multiplex executor} accepts it; a peer which does not know the handler answers with
+ * {@link ManagementProtocol#REMOTE_EXCEPTION} and the client carries on with a connection per request.
+ *
+ * @author agent
+ */
+public final class ManagementChannelMultiplexer implements MessageHandler {
+
+    private static final Logger log = Logger.getLogger("org.jboss.as.management");
+
+    /** The maximum size of the data of a frame, and the size of the pipe a received message is read through */
+    static final int BUFFER_SIZE = 8192;
+
+    /** The last (or only) frame of a message */
+    private static final byte FRAME_DATA = 0x00;
+    private static final byte FRAME_CLOSE = 0x01;
+    /** A frame of a message which has more frames to follow */
+    private static final byte FRAME_PARTIAL = 0x02;
+
+    private final Connection connection;
+    private final Executor executor;
+    private final MessageHandler channelHandler;
+    private final ConcurrentMap<Integer, Channel> channels = new ConcurrentHashMap<Integer, Channel>();
+    private final AtomicInteger nextChannelId = new AtomicInteger();
+    private volatile boolean closed;
+
+    /**
+     * Create a multiplexer for the accepting side of a connection.
+     *
+     * @param connection the underlying connection
+     * @param executor the executor used to handle the messages of the channels
+     * @param channelHandler the initial message handler of channels opened by the peer, or {@code null} if the
+     *                       peer may not open channels
+     */
+    ManagementChannelMultiplexer(final Connection connection, final Executor executor, final MessageHandler channelHandler) {
+        if (connection == null) {
+            throw new IllegalArgumentException("connection is null");
+        }
+        if (executor == null) {
+            throw new IllegalArgumentException("executor is null");
+        }
+        this.connection = connection;
+        this.executor = executor;
+        this.channelHandler = channelHandler;
+    }
+
+    /**
+     * Switch a newly established connection to multiplexed mode.
+     *
+     * @param connection the connection. Its message handler is replaced
+     * @param executor the executor used to handle the messages of the channels
+     * @param timeout the time in milliseconds to wait for the peer to accept
+     * @return the multiplexer, or {@code null} if the peer does not support multiplexing
+     * @throws IOException if the peer could not be reached
+     */
+    public static ManagementChannelMultiplexer connect(final Connection connection, final Executor executor, final long timeout) throws IOException {
+        final ManagementChannelMultiplexer multiplexer = new ManagementChannelMultiplexer(connection, executor, null);
+        final Handshake handshake = multiplexer.new Handshake();
+        connection.setMessageHandler(handshake);
+
+        OutputStream dataOutput = null;
+        ByteDataOutput output = null;
+        try {
+            dataOutput = connection.writeMessage();
+            output = new SimpleByteDataOutput(dataOutput);
+            final ManagementRequestHeader header = new ManagementRequestHeader(ManagementProtocol.VERSION, 0, ManagementProtocol.MULTIPLEX_HANDLER_ID);
+            header.write(output);
+            output.close();
+            dataOutput.close();
+        } finally {
+            safeClose(output);
+            safeClose(dataOutput);
+        }
+        return handshake.await(timeout) ? multiplexer : null;
+    }
+
+    /**
+     * Open a new channel to the peer.
+     *
+     * @return the channel
+     * @throws IOException if the underlying connection is closed
+     */
+    public Connection openChannel() throws IOException {
+        if (closed) {
+            throw new IOException("Connection to " + connection.getPeerAddress() + " is closed");
+        }
+        final int id = nextChannelId.incrementAndGet();
+        final Channel channel = new Channel(id, MessageHandler.NULL, false);
+        channels.put(Integer.valueOf(id), channel);
+        return channel;
+    }
+
+    /**
+     * Gets whether the underlying connection has finished, in which case no more channels can be opened.
+     *
+     * @return {@code true} if the connection is closed
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Close the underlying connection and with it all channels.
+     */
+    public void close() {
+        closed = true;
+        safeClose(connection);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void handleMessage(final Connection connection, final InputStream dataStream) throws IOException {
+        try {
+            final int channelId = StreamUtils.readInt(dataStream);
+            final byte frame = StreamUtils.readByte(dataStream);
+            final Integer key = Integer.valueOf(channelId);
+            Channel channel = channels.get(key);
+            if (channel == null) {
+                if (frame == FRAME_CLOSE || channelHandler == null) {
+                    log.tracef("Discarding message for unknown channel %d", channelId);
+                    return;
+                }
+                // Channels opened by the peer stay registered until the peer has closed them as well, so an
+                // unknown id is always a new channel, whatever order the peer's first messages arrive in
+                channel = new Channel(channelId, channelHandler, true);
+                channels.put(key, channel);
+            }
+            if (frame == FRAME_DATA || frame == FRAME_PARTIAL) {
+                channel.received(dataStream, frame == FRAME_DATA);
+            } else if (frame == FRAME_CLOSE) {
+                channel.endIncoming();
+                channel.closeReceived();
+                channel.remoteClosed();
+            } else {
+                throw new IOException("Invalid frame type " + frame + " for channel " + channelId);
+            }
+        } finally {
+            safeClose(dataStream);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void handleShutdown(final Connection connection) throws IOException {
+        for (Channel channel : new ArrayList<Channel>(channels.values())) {
+            channel.endIncoming();
+            channel.remoteClosed();
+        }
+        connection.shutdownWrites();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void handleFailure(final Connection connection, final IOException e) throws IOException {
+        closed = true;
+        for (Channel channel : new ArrayList<Channel>(channels.values())) {
+            channel.endIncoming();
+            channel.failed(e);
+        }
+        connection.close();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void handleFinished(final Connection connection) throws IOException {
+        closed = true;
+        for (Channel channel : new ArrayList<Channel>(channels.values())) {
+            channel.endIncoming();
+            channel.remoteClosed();
+        }
+    }
+
+    static boolean isChannel(final Connection connection) {
+        return connection instanceof Channel;
+    }
+
+    private void writeFrame(final int channelId, final byte frame, final byte[] data, final int length) throws IOException {
+        OutputStream output = null;
+        try {
+            output = connection.writeMessage();
+            StreamUtils.writeInt(output, channelId);
+            output.write(frame);
+            if (length > 0) {
+                output.write(data, 0, length);
+            }
+            output.close();
+        } finally {
+            safeClose(output);
+        }
+    }
+
+    /**
+     * Sends a message of a channel in frames of at most {@link #BUFFER_SIZE} bytes, so other channels can send
+     * their frames in between.
+     */
+    private final class FrameOutputStream extends OutputStream {
+        private final int channelId;
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+        private int count;
+        private boolean closed;
+
+        FrameOutputStream(final int channelId) {
+            this.channelId = channelId;
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            if (closed) {
+                throw new IOException("Stream closed");
+            }
+            if (count == buffer.length) {
+                writePartial();
+            }
+            buffer[count++] = (byte) b;
+        }
+
+        @Override
+        public void write(final byte[] b, int off, int len) throws IOException {
+            if (closed) {
+                throw new IOException("Stream closed");
+            }
+            while (len > 0) {
+                if (count == buffer.length) {
+                    writePartial();
+                }
+                final int cnt = Math.min(len, buffer.length - count);
+                System.arraycopy(b, off, buffer, count, cnt);
+                count += cnt;
+                off += cnt;
+                len -= cnt;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (! closed) {
+                closed = true;
+                writeFrame(channelId, FRAME_DATA, buffer, count);
+            }
+        }
+
+        private void writePartial() throws IOException {
+            writeFrame(channelId, FRAME_PARTIAL, buffer, count);
+            count = 0;
+        }
+    }
+
+    /**
+     * Waits for the peer to accept the switch to multiplexed mode.
+     */
+    private final class Handshake implements MessageHandler {
+        private final CountDownLatch latch = new CountDownLatch(1);
+        private volatile boolean accepted;
+        private volatile IOException failure;
+
+        @Override
+        public void handleMessage(final Connection connection, final InputStream dataStream) throws IOException {
+            ByteDataInput input = null;
+            try {
+                input = new SimpleByteDataInput(dataStream);
+                final ManagementResponseHeader header = new ManagementResponseHeader(input);
+                if (header.getResponseId() != ManagementProtocol.REMOTE_EXCEPTION) {
+                    connection.setMessageHandler(ManagementChannelMultiplexer.this);
+                    accepted = true;
+                }
+            } catch (IOException e) {
+                failure = e;
+            } finally {
+                safeClose(input);
+                safeClose(dataStream);
+                latch.countDown();
+            }
+        }
+
+        @Override
+        public void handleShutdown(final Connection connection) throws IOException {
+            failure = new IOException("Connection to " + connection.getPeerAddress() + " was shut down");
+            latch.countDown();
+            connection.shutdownWrites();
+        }
+
+        @Override
+        public void handleFailure(final Connection connection, final IOException e) throws IOException {
+            failure = e;
+            latch.countDown();
+            connection.close();
+        }
+
+        @Override
+        public void handleFinished(final Connection connection) throws IOException {
+            closed = true;
+            latch.countDown();
+        }
+
+        boolean await(final long timeout) throws IOException {
+            try {
+                if (! latch.await(timeout, TimeUnit.MILLISECONDS)) {
+                    throw new IOException("Timed out waiting for " + connection.getPeerAddress() + " to accept multiplexed requests");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted waiting for " + connection.getPeerAddress() + " to accept multiplexed requests");
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            return accepted;
+        }
+    }
+
+    /**
+     * A virtual connection carrying the messages of one request.
+     */
+    private final class Channel implements Connection, Runnable {
+        private final int id;
+        private final boolean accepted;
+        private final Object lock = new Object();
+        // @GuardedBy(lock)
+        private final Queue<Runnable> tasks = new LinkedList<Runnable>();
+        // @GuardedBy(lock)
+        private boolean running;
+        // @GuardedBy(lock)
+        private boolean writesShutdown;
+        // @GuardedBy(lock)
+        private boolean readsShutdown;
+        // @GuardedBy(lock)
+        private boolean finished;
+        // @GuardedBy(lock)
+        private boolean closeReceived;
+        private volatile MessageHandler messageHandler;
+        private volatile MessageHandler backupHandler;
+        private volatile Object attachment;
+        /** The pipe the message being received is written to, {@code null} between messages */
+        private volatile Pipe incoming;
+
+        Channel(final int id, final MessageHandler messageHandler, final boolean accepted) {
+            this.id = id;
+            this.accepted = accepted;
+            this.messageHandler = messageHandler;
+        }
+
+        @Override
+        public OutputStream writeMessage() throws IOException {
+            synchronized (lock) {
+                if (writesShutdown) {
+                    throw new IOException("Writes are already shut down");
+                }
+            }
+            return new FrameOutputStream(id);
+        }
+
+        @Override
+        public void shutdownWrites() throws IOException {
+            final boolean finish;
+            synchronized (lock) {
+                if (writesShutdown) {
+                    return;
+                }
+                writesShutdown = true;
+                finish = readsShutdown;
+            }
+            try {
+                writeFrame(id, FRAME_CLOSE, null, 0);
+            } finally {
+                if (finish) {
+                    finish(true);
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            final boolean sendClose;
+            synchronized (lock) {
+                readsShutdown = true;
+                tasks.clear();
+                sendClose = ! writesShutdown;
+                writesShutdown = true;
+            }
+            // The handler of the message being received may never run, so let its frames be discarded
+            final Pipe pipe = incoming;
+            if (pipe != null) {
+                safeClose(pipe.getIn());
+            }
+            finish(false);
+            if (sendClose) {
+                writeFrame(id, FRAME_CLOSE, null, 0);
+            }
+        }
+
+        @Override
+        public void setMessageHandler(final MessageHandler messageHandler) {
+            if (messageHandler == null) {
+                throw new IllegalArgumentException("messageHandler is null");
+            }
+            this.messageHandler = messageHandler;
+        }
+
+        @Override
+        public InetAddress getPeerAddress() {
+            return connection.getPeerAddress();
+        }
+
+        @Override
+        public void attach(final Object attachment) {
+            this.attachment = attachment;
+        }
+
+        @Override
+        public Object getAttachment() {
+            return attachment;
+        }
+
+        @Override
+        public void backupMessageHandler() {
+            backupHandler = messageHandler;
+        }
+
+        @Override
+        public void restoreMessageHandler() {
+            final MessageHandler backup = backupHandler;
+            setMessageHandler(backup == null ? MessageHandler.NULL : backup);
+        }
+
+        /**
+         * Pass on a frame of a message. The handler of a message is started by its first frame and reads the
+         * following frames as they arrive. Called by the thread handling messages from the underlying connection.
+         */
+        void received(final InputStream frame, final boolean last) throws IOException {
+            Pipe pipe = incoming;
+            if (pipe == null) {
+                pipe = new Pipe(BUFFER_SIZE);
+                incoming = pipe;
+                final InputStream input = pipe.getIn();
+                final boolean executed = execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            messageHandler.handleMessage(Channel.this, input);
+                        } catch (IOException e) {
+                            log.errorf(e, "Failed to read a message");
+                        } catch (RuntimeException e) {
+                            log.errorf(e, "Failed to read a message");
+                        } finally {
+                            safeClose(input);
+                        }
+                    }
+                });
+                if (! executed) {
+                    safeClose(input);
+                }
+            }
+            try {
+                final OutputStream output = pipe.getOut();
+                final byte[] buffer = new byte[Math.min(BUFFER_SIZE, Math.max(frame.available(), 512))];
+                int cnt;
+                while ((cnt = frame.read(buffer)) != -1) {
+                    try {
+                        output.write(buffer, 0, cnt);
+                    } catch (IOException e) {
+                        // The handler has closed the message without reading all of it; drop the rest
+                        log.tracef("Discarding the rest of a message for channel %d", id);
+                        break;
+                    }
+                }
+            } finally {
+                if (last) {
+                    incoming = null;
+                    safeClose(pipe.getOut());
+                }
+            }
+        }
+
+        /**
+         * End the message being received, if any, as the underlying connection will deliver no more of it.
+         */
+        void endIncoming() {
+            final Pipe pipe = incoming;
+            if (pipe != null) {
+                incoming = null;
+                safeClose(pipe.getOut());
+            }
+        }
+
+        void remoteClosed() {
+            execute(new Runnable() {
+                @Override
+                public void run() {
+                    final boolean finish;
+                    synchronized (lock) {
+                        if (readsShutdown) {
+                            return;
+                        }
+                        readsShutdown = true;
+                        finish = writesShutdown;
+                    }
+                    // Nothing more can arrive, but the channel stays writable until its handler shuts it down
+                    try {
+                        messageHandler.handleShutdown(Channel.this);
+                    } catch (IOException e) {
+                        log.errorf(e, "Failed to handle channel shut down condition");
+                    }
+                    if (finish) {
+                        finish(true);
+                    }
+                }
+            });
+        }
+
+        void failed(final IOException failure) {
+            execute(new Runnable() {
+                @Override
+                public void run() {
+                    synchronized (lock) {
+                        if (readsShutdown) {
+                            return;
+                        }
+                        readsShutdown = true;
+                        writesShutdown = true;
+                    }
+                    try {
+                        messageHandler.handleFailure(Channel.this, failure);
+                    } catch (IOException e) {
+                        log.errorf(e, "Failed to handle channel failure");
+                    }
+                    finish(true);
+                }
+            });
+        }
+
+        /**
+         * Record that the peer has closed the channel, so no more messages for its id can arrive. Called by the
+         * thread handling messages from the underlying connection.
+         */
+        void closeReceived() {
+            final boolean remove;
+            synchronized (lock) {
+                closeReceived = true;
+                remove = finished;
+            }
+            if (remove) {
+                channels.remove(Integer.valueOf(id), this);
+            }
+        }
+
+        private void finish(final boolean notify) {
+            final boolean remove;
+            synchronized (lock) {
+                if (finished) {
+                    return;
+                }
+                finished = true;
+                // Until the peer closes a channel it opened, late messages for it must find it and be discarded
+                remove = ! accepted || closeReceived;
+            }
+            if (remove) {
+                channels.remove(Integer.valueOf(id), this);
+            }
+            if (notify) {
+                try {
+                    messageHandler.handleFinished(this);
+                } catch (IOException e) {
+                    log.errorf(e, "Failed to handle channel finished condition");
+                }
+            }
+        }
+
+        /**
+         * Handle the channel's events one at a time, in the order they arrived.
+         */
+        private boolean execute(final Runnable task) {
+            synchronized (lock) {
+                if (finished) {
+                    return false;
+                }
+                tasks.add(task);
+                if (running) {
+                    return true;
+                }
+                running = true;
+            }
+            try {
+                executor.execute(this);
+                return true;
+            } catch (RejectedExecutionException e) {
+                synchronized (lock) {
+                    tasks.remove(task);
+                    running = false;
+                }
+                log.errorf(e, "Failed to handle message for channel %d", id);
+                return false;
+            }
+        }
+
+        @Override
+        public void run() {
+            for (;;) {
+                final Runnable task;
+                synchronized (lock) {
+                    task = tasks.poll();
+                    if (task == null) {
+                        running = false;
+                        return;
+                    }
+                }
+                task.run();
+            }
+        }
+    }
+}
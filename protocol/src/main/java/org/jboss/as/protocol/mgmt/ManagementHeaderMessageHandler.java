@@ -26,6 +26,7 @@ import static org.jboss.as.protocol.StreamUtils.safeClose;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.concurrent.Executor;
 
 import org.jboss.as.protocol.ByteDataInput;
 import org.jboss.as.protocol.ByteDataOutput;
@@ -61,7 +62,11 @@ public abstract class ManagementHeaderMessageHandler extends AbstractMessageHand
             if (handlerId == -1) {
                 throw new IOException("Management request failed.  Invalid handler id");
             }
-            handler = getHandlerForId(handlerId);
+            if (handlerId == ManagementProtocol.MULTIPLEX_HANDLER_ID) {
+                handler = getMultiplexer(connection);
+            } else {
+                handler = getHandlerForId(handlerId);
+            }
             if (handler == null) {
                 String msg = "Management request failed.  No handler found for id " + handlerId;
                 throw new IOException(msg);
@@ -102,6 +107,25 @@ public abstract class ManagementHeaderMessageHandler extends AbstractMessageHand
         }
     }
 
+    private MessageHandler getMultiplexer(final Connection connection) {
+        final Executor executor = getMultiplexExecutor();
+        if (executor == null || ManagementChannelMultiplexer.isChannel(connection)) {
+            return null;
+        }
+        return new ManagementChannelMultiplexer(connection, executor, this);
+    }
+
     protected abstract MessageHandler getHandlerForId(byte handlerId);
 
+    /**
+     * Get the executor used to handle requests multiplexed over a single connection. Each
+     * request is handled by a task run by this executor, so it should not limit the number
+     * of concurrent tasks.
+     *
+     * @return the executor, or {@code null} if requests may not be multiplexed
+     */
+    protected Executor getMultiplexExecutor() {
+        return null;
+    }
+
 }
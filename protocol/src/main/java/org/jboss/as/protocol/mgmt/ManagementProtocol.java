@@ -38,6 +38,8 @@ public interface ManagementProtocol {
     int RESPONSE_START = 0x05;
     int RESPONSE_BODY = 0x06;
     int RESPONSE_END = 0x07;
+    // The handler id used to switch a connection to multiplexed requests
+    byte MULTIPLEX_HANDLER_ID = 0x7F;
 
 
 }
@@ -34,6 +34,7 @@ import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.jboss.as.protocol.ByteDataInput;
 import org.jboss.as.protocol.ByteDataOutput;
@@ -50,7 +51,9 @@ import org.jboss.as.protocol.StreamUtils;
  * @author John Bailey
  */
 public abstract class ManagementRequest<T> extends AbstractMessageHandler {
-    private int requestId = 0;
+    private static final AtomicInteger requestIds = new AtomicInteger();
+
+    private final int requestId = requestIds.incrementAndGet() & Integer.MAX_VALUE;
     private final ResponseFuture<T> future = new ResponseFuture<T>();
     private ManagementRequestConnectionStrategy connectionStrategy;
     // @GuardedBy(resultLock)
@@ -338,13 +341,26 @@ public abstract class ManagementRequest<T> extends AbstractMessageHandler {
         }
 
         @Override
-        public synchronized boolean isDone() {
-            return result != null || exception != null;
+        public boolean isDone() {
+            return valueSet.get();
         }
 
         @Override
         public R get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
-            return null;
+            final long deadline = System.nanoTime() + unit.toNanos(timeout);
+            synchronized (this) {
+                while (!valueSet.get()) {
+                    final long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        throw new TimeoutException();
+                    }
+                    TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                }
+            }
+            if (exception != null) {
+                throw new ExecutionException(exception);
+            }
+            return result;
         }
     }
 }
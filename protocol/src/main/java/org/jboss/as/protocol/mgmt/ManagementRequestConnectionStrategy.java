@@ -74,6 +74,31 @@ public interface ManagementRequestConnectionStrategy {
         }
     }
 
+    /**
+     * Strategy that opens a channel of a connection shared by concurrent requests.
+     */
+    static class MultiplexedConnectionStrategy implements ManagementRequestConnectionStrategy {
+        private final ManagementChannelMultiplexer multiplexer;
+        private Connection channel;
+
+        public MultiplexedConnectionStrategy(final ManagementChannelMultiplexer multiplexer) {
+            this.multiplexer = multiplexer;
+        }
+
+        /** {@inheritDoc} */
+        public synchronized Connection getConnection() throws IOException {
+            if (channel == null) {
+                channel = multiplexer.openChannel();
+            }
+            return channel;
+        }
+
+        /** {@inheritDoc} */
+        public synchronized void complete() {
+            safeClose(channel);
+        }
+    }
+
     /**
      * Strategy that establishes a new connection.
      */
@@ -0,0 +1,82 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.protocol;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+
+/**
+ * Tests of {@link BufferPool}.
+ *
+ * @author agent
+ */
+public class BufferPoolTest {
+
+    @Test
+    public void testArraysComeFromSmallestSizeClass() {
+        final BufferPool pool = new BufferPool(new int[] { 16, 64 }, new int[] { 2, 2 });
+        assertEquals(16, pool.takeArray(1).length);
+        assertEquals(16, pool.takeArray(16).length);
+        assertEquals(64, pool.takeArray(17).length);
+        // Larger than the largest class
+        assertEquals(100, pool.takeArray(100).length);
+        assertEquals(0, pool.getHitCount());
+        assertEquals(4, pool.getMissCount());
+    }
+
+    @Test
+    public void testReturnedArraysAreReused() {
+        final BufferPool pool = new BufferPool(new int[] { 16, 64 }, new int[] { 1, 1 });
+        final byte[] first = pool.takeArray(10);
+        final byte[] second = pool.takeArray(10);
+        pool.returnArray(first);
+        // Over the maximum pooled for the class, so dropped
+        pool.returnArray(second);
+        // Not from the pool, so ignored
+        pool.returnArray(new byte[20]);
+        assertEquals(16, pool.getPooledBytes());
+        assertSame(first, pool.takeArray(5));
+        assertEquals(1, pool.getHitCount());
+        assertEquals(2, pool.getMissCount());
+    }
+
+    @Test
+    public void testDirectBuffers() {
+        final BufferPool pool = new BufferPool(new int[] { 16, 64 }, new int[] { 1, 1 });
+        final ByteBuffer buffer = pool.takeDirectBuffer(20);
+        assertTrue(buffer.isDirect());
+        assertEquals(64, buffer.capacity());
+        buffer.put((byte) 1);
+        pool.returnDirectBuffer(buffer);
+        final ByteBuffer reused = pool.takeDirectBuffer(64);
+        assertSame(buffer, reused);
+        assertEquals(0, reused.position());
+        assertEquals(64, reused.limit());
+        assertEquals(1, pool.getHitCount());
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.protocol;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.Random;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import javax.net.ServerSocketFactory;
+import javax.net.SocketFactory;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of a {@link ProtocolServer} using non-blocking I/O threads.
+ *
+ * @author agent
+ */
+public final class NioProtocolServerTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final BlockingQueue<byte[]> replies = new LinkedBlockingQueue<byte[]>();
+    private ProtocolServer server;
+    private Connection connection;
+
+    @Before
+    public void setUp() throws Exception {
+        final ProtocolServer.Configuration config = new ProtocolServer.Configuration();
+        config.setBindAddress(new InetSocketAddress(InetAddress.getByName("localhost"), 0));
+        config.setThreadFactory(Executors.defaultThreadFactory());
+        config.setReadExecutor(executor);
+        config.setBacklog(5);
+        config.setIoThreads(1);
+        config.setConnectionHandler(new ConnectionHandler() {
+            @Override
+            public MessageHandler handleConnected(final Connection connection) throws IOException {
+                return new EchoHandler();
+            }
+        });
+        server = new ProtocolServer(config);
+        server.start();
+
+        final ProtocolClient.Configuration clientConfig = new ProtocolClient.Configuration();
+        clientConfig.setServerAddress(server.getBoundAddress());
+        clientConfig.setThreadFactory(Executors.defaultThreadFactory());
+        clientConfig.setReadExecutor(executor);
+        clientConfig.setSocketFactory(SocketFactory.getDefault());
+        clientConfig.setMessageHandler(new MessageHandler() {
+            @Override
+            public void handleMessage(final Connection connection, final InputStream dataStream) throws IOException {
+                replies.add(readFully(dataStream));
+            }
+
+            @Override
+            public void handleShutdown(final Connection connection) throws IOException {
+            }
+
+            @Override
+            public void handleFailure(final Connection connection, final IOException e) throws IOException {
+            }
+
+            @Override
+            public void handleFinished(final Connection connection) throws IOException {
+            }
+        });
+        connection = new ProtocolClient(clientConfig).connect();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        StreamUtils.safeClose(connection);
+        if (server != null) {
+            server.stop();
+        }
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testMessagesEchoedInOrder() throws Exception {
+        final Random random = new Random(123L);
+        final byte[][] messages = new byte[20][];
+        for (int i = 0; i < messages.length; i++) {
+            // Include messages larger than the read buffer and the write high water mark
+            messages[i] = new byte[i % 2 == 0 ? random.nextInt(100) + 1 : random.nextInt(600 * 1024) + 1];
+            random.nextBytes(messages[i]);
+            final OutputStream out = connection.writeMessage();
+            out.write(messages[i]);
+            out.close();
+        }
+        for (byte[] message : messages) {
+            final byte[] reply = replies.poll(30, TimeUnit.SECONDS);
+            assertTrue("Reply received", reply != null);
+            assertArrayEquals(message, reply);
+        }
+    }
+
+    @Test
+    public void testBlockingOptionsRejected() throws Exception {
+        final ProtocolServer.Configuration config = new ProtocolServer.Configuration();
+        config.setBindAddress(new InetSocketAddress(InetAddress.getByName("localhost"), 0));
+        config.setThreadFactory(Executors.defaultThreadFactory());
+        config.setReadExecutor(executor);
+        config.setIoThreads(1);
+        config.setConnectionHandler(new ConnectionHandler() {
+            @Override
+            public MessageHandler handleConnected(final Connection connection) throws IOException {
+                return new EchoHandler();
+            }
+        });
+        config.setSocketFactory(ServerSocketFactory.getDefault());
+        try {
+            new ProtocolServer(config);
+            fail("A socket factory was accepted with non-blocking I/O");
+        } catch (IllegalArgumentException expected) {
+        }
+        config.setSocketFactory(null);
+        config.setReadTimeout(1000);
+        try {
+            new ProtocolServer(config);
+            fail("A read timeout was accepted with non-blocking I/O");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    private static byte[] readFully(final InputStream in) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[4096];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    private static final class EchoHandler implements MessageHandler {
+        @Override
+        public void handleMessage(final Connection connection, final InputStream dataStream) throws IOException {
+            final byte[] message = readFully(dataStream);
+            final OutputStream out = connection.writeMessage();
+            try {
+                out.write(message);
+            } finally {
+                out.close();
+            }
+        }
+
+        @Override
+        public void handleShutdown(final Connection connection) throws IOException {
+            connection.shutdownWrites();
+        }
+
+        @Override
+        public void handleFailure(final Connection connection, final IOException e) throws IOException {
+            connection.close();
+        }
+
+        @Override
+        public void handleFinished(final Connection connection) throws IOException {
+        }
+    }
+}
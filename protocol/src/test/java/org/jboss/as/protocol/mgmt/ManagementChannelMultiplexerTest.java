@@ -0,0 +1,287 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.protocol.mgmt;
+
+import static org.jboss.as.protocol.ProtocolUtils.expectHeader;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.net.ServerSocketFactory;
+import javax.net.SocketFactory;
+
+import org.jboss.as.protocol.Connection;
+import org.jboss.as.protocol.ConnectionHandler;
+import org.jboss.as.protocol.MessageHandler;
+import org.jboss.as.protocol.ProtocolClient;
+import org.jboss.as.protocol.ProtocolServer;
+import org.jboss.as.protocol.StreamUtils;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests of management requests multiplexed over a single connection.
+ *
+ * @author agent
+ */
+public final class ManagementChannelMultiplexerTest {
+
+    private static final byte HANDLER_ID = 0x05;
+    private static final byte ECHO_REQUEST = 0x10;
+    private static final byte ECHO_RESPONSE = 0x11;
+    private static final int SLOW = -1;
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final CountDownLatch releaseSlow = new CountDownLatch(1);
+    private ProtocolServer server;
+    private Connection connection;
+
+    @After
+    public void tearDown() throws Exception {
+        releaseSlow.countDown();
+        StreamUtils.safeClose(connection);
+        if (server != null) {
+            server.stop();
+        }
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testResponsesCompleteOutOfOrder() throws Exception {
+        startServer(true);
+        final ManagementChannelMultiplexer multiplexer = ManagementChannelMultiplexer.connect(connection, executor, 10000);
+        assertNotNull(multiplexer);
+
+        final Future<Integer> slow = new EchoRequest(SLOW).execute(new ManagementRequestConnectionStrategy.MultiplexedConnectionStrategy(multiplexer));
+        for (int i = 0; i < 10; i++) {
+            final Future<Integer> fast = new EchoRequest(i).execute(new ManagementRequestConnectionStrategy.MultiplexedConnectionStrategy(multiplexer));
+            assertEquals(Integer.valueOf(i), fast.get(10, TimeUnit.SECONDS));
+        }
+        assertFalse(slow.isDone());
+
+        releaseSlow.countDown();
+        assertEquals(Integer.valueOf(SLOW), slow.get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testFirstMessagesOutOfChannelOrder() throws Exception {
+        startServer(true);
+        final ManagementChannelMultiplexer multiplexer = ManagementChannelMultiplexer.connect(connection, executor, 10000);
+        assertNotNull(multiplexer);
+
+        // Open the channels from concurrent threads, recording them in the order their ids were handed out
+        final int count = 10;
+        final List<Connection> channels = new ArrayList<Connection>();
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Future<?>> opened = new ArrayList<Future<?>>();
+        for (int i = 0; i < count; i++) {
+            opened.add(executor.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    start.await();
+                    synchronized (channels) {
+                        channels.add(multiplexer.openChannel());
+                    }
+                    return null;
+                }
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : opened) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+
+        // Send the first message of the newest channel first, so every other channel starts below the highest id seen
+        final List<Future<Integer>> responses = new ArrayList<Future<Integer>>();
+        for (int i = count - 1; i >= 0; i--) {
+            responses.add(new EchoRequest(i).execute(new ManagementRequestConnectionStrategy.ExistingConnectionStrategy(channels.get(i))));
+        }
+        for (int i = 0; i < count; i++) {
+            assertEquals(Integer.valueOf(count - 1 - i), responses.get(i).get(10, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void testMessagesLargerThanAFrame() throws Exception {
+        startServer(true);
+        final ManagementChannelMultiplexer multiplexer = ManagementChannelMultiplexer.connect(connection, executor, 10000);
+        assertNotNull(multiplexer);
+
+        // Large and small messages of concurrent requests are sent in interleaved frames
+        final List<Future<Integer>> responses = new ArrayList<Future<Integer>>();
+        for (int i = 0; i < 10; i++) {
+            final int padding = i % 2 == 0 ? 5 * ManagementChannelMultiplexer.BUFFER_SIZE + i : i;
+            responses.add(new EchoRequest(i, padding).execute(new ManagementRequestConnectionStrategy.MultiplexedConnectionStrategy(multiplexer)));
+        }
+        for (int i = 0; i < 10; i++) {
+            assertEquals(Integer.valueOf(i), responses.get(i).get(10, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void testMultiplexingRefused() throws Exception {
+        startServer(false);
+        assertNull(ManagementChannelMultiplexer.connect(connection, executor, 10000));
+    }
+
+    private void startServer(final boolean multiplex) throws Exception {
+        final ProtocolServer.Configuration config = new ProtocolServer.Configuration();
+        config.setBindAddress(new InetSocketAddress(InetAddress.getByName("localhost"), 0));
+        config.setThreadFactory(Executors.defaultThreadFactory());
+        config.setReadExecutor(executor);
+        config.setSocketFactory(ServerSocketFactory.getDefault());
+        config.setBacklog(5);
+        config.setConnectionHandler(new ConnectionHandler() {
+            @Override
+            public MessageHandler handleConnected(final Connection connection) throws IOException {
+                return new ManagementHeaderMessageHandler() {
+                    @Override
+                    protected MessageHandler getHandlerForId(final byte handlerId) {
+                        return handlerId == HANDLER_ID ? new EchoOperationHandler() : null;
+                    }
+
+                    @Override
+                    protected ExecutorService getMultiplexExecutor() {
+                        return multiplex ? executor : null;
+                    }
+                };
+            }
+        });
+        server = new ProtocolServer(config);
+        server.start();
+
+        final ProtocolClient.Configuration clientConfig = new ProtocolClient.Configuration();
+        clientConfig.setServerAddress(server.getBoundAddress());
+        clientConfig.setThreadFactory(Executors.defaultThreadFactory());
+        clientConfig.setReadExecutor(executor);
+        clientConfig.setSocketFactory(SocketFactory.getDefault());
+        clientConfig.setMessageHandler(MessageHandler.NULL);
+        connection = new ProtocolClient(clientConfig).connect();
+    }
+
+    private final class EchoOperationHandler extends AbstractMessageHandler {
+        @Override
+        public void handle(final Connection connection, final InputStream input) throws IOException {
+            expectHeader(input, ManagementProtocol.REQUEST_OPERATION);
+            expectHeader(input, ECHO_REQUEST);
+            new EchoResponse().handle(connection, input);
+        }
+    }
+
+    private final class EchoResponse extends ManagementResponse {
+        private int value;
+        private byte[] padding;
+
+        @Override
+        protected byte getResponseCode() {
+            return ECHO_RESPONSE;
+        }
+
+        @Override
+        protected void readRequest(final InputStream input) throws IOException {
+            value = StreamUtils.readInt(input);
+            padding = new byte[StreamUtils.readInt(input)];
+            StreamUtils.readFully(input, padding);
+        }
+
+        @Override
+        protected void sendResponse(final OutputStream output) throws IOException {
+            if (value == SLOW) {
+                try {
+                    releaseSlow.await(30, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            StreamUtils.writeInt(output, value);
+            StreamUtils.writeInt(output, padding.length);
+            output.write(padding);
+        }
+    }
+
+    private static final class EchoRequest extends ManagementRequest<Integer> {
+        private final int value;
+        private final int padding;
+
+        EchoRequest(final int value) {
+            this(value, 0);
+        }
+
+        EchoRequest(final int value, final int padding) {
+            this.value = value;
+            this.padding = padding;
+        }
+
+        @Override
+        protected byte getHandlerId() {
+            return HANDLER_ID;
+        }
+
+        @Override
+        protected byte getRequestCode() {
+            return ECHO_REQUEST;
+        }
+
+        @Override
+        protected byte getResponseCode() {
+            return ECHO_RESPONSE;
+        }
+
+        @Override
+        protected void sendRequest(final int protocolVersion, final OutputStream output) throws IOException {
+            StreamUtils.writeInt(output, value);
+            StreamUtils.writeInt(output, padding);
+            for (int i = 0; i < padding; i++) {
+                output.write(i);
+            }
+        }
+
+        @Override
+        protected Integer receiveResponse(final InputStream input) throws IOException {
+            final int value = StreamUtils.readInt(input);
+            final byte[] padding = new byte[StreamUtils.readInt(input)];
+            StreamUtils.readFully(input, padding);
+            for (int i = 0; i < padding.length; i++) {
+                if (padding[i] != (byte) i) {
+                    throw new IOException("Corrupt padding at " + i);
+                }
+            }
+            return Integer.valueOf(value);
+        }
+    }
+}
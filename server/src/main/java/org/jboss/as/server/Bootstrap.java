@@ -31,6 +31,8 @@ import org.jboss.as.controller.parsing.Namespace;
 import org.jboss.as.controller.parsing.StandaloneXml;
 import org.jboss.as.controller.persistence.BackupXmlConfigurationPersister;
 import org.jboss.as.controller.persistence.ExtensibleConfigurationPersister;
+import org.jboss.as.controller.persistence.GroupCommitConfigurationPersister;
+import org.jboss.as.controller.persistence.JournalingXmlConfigurationPersister;
 import org.jboss.as.controller.persistence.NullConfigurationPersister;
 import org.jboss.modules.Module;
 import org.jboss.modules.ModuleLoader;
@@ -138,7 +140,14 @@ public interface Bootstrap {
                 else {
                     QName rootElement = new QName(Namespace.CURRENT.getUriString(), "server");
                     StandaloneXml parser = new StandaloneXml(Module.getBootModuleLoader());
-                    configurationPersister = new BackupXmlConfigurationPersister(serverEnvironment.getServerConfigurationFile(), rootElement, parser, parser);
+                    if (serverEnvironment.isConfigurationJournalEnabled()) {
+                        configurationPersister = new JournalingXmlConfigurationPersister(serverEnvironment.getServerConfigurationFile(), rootElement, parser, parser);
+                    } else {
+                        configurationPersister = new BackupXmlConfigurationPersister(serverEnvironment.getServerConfigurationFile(), rootElement, parser, parser);
+                        if (serverEnvironment.getConfigurationGroupCommitWindow() > 0) {
+                            configurationPersister = new GroupCommitConfigurationPersister(configurationPersister, serverEnvironment.getConfigurationGroupCommitWindow());
+                        }
+                    }
                 }
             }
             return configurationPersister;
@@ -61,6 +61,7 @@ import org.jboss.msc.service.ServiceTarget;
 import org.jboss.msc.service.StartException;
 
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.EnumMap;
 import java.util.HashSet;
@@ -97,6 +98,8 @@ class ServerControllerImpl extends BasicModelController implements ServerControl
     private final ContentRepository contentRepository;
     private final EnumMap<Phase, SortedSet<RegisteredProcessor>> deployers = new EnumMap<Phase, SortedSet<RegisteredProcessor>>(Phase.class);
     private final ServerStateMonitorListener serverStateMonitorListener;
+    /** Listeners of the operations whose runtime task is executing or settling */
+    private final Set<OperationServiceListener> runtimeOperations = new HashSet<OperationServiceListener>();
 
     ServerControllerImpl(final ServiceContainer container, final ServiceTarget serviceTarget, final ServerEnvironment serverEnvironment,
             final ExtensibleConfigurationPersister configurationPersister, final ContentRepository contentRepository,
@@ -134,6 +137,16 @@ class ServerControllerImpl extends BasicModelController implements ServerControl
         return copy;
     }
 
+    /**
+     * Gets whether the configuration enables the cache of metadata parsed from deployment descriptors.
+     *
+     * @return {@code true} if the deployment metadata cache is enabled
+     */
+    boolean isDeploymentMetadataCacheEnabled() {
+        final ModelNode model = getModelSnapshot().getRoot();
+        return model.hasDefined(DEPLOYMENT_METADATA_CACHE) && model.get(DEPLOYMENT_METADATA_CACHE).asBoolean();
+    }
+
     /** {@inheritDoc} */
     @Override
     public ServerEnvironment getServerEnvironment() {
@@ -201,27 +214,43 @@ class ServerControllerImpl extends BasicModelController implements ServerControl
                     serverStateMonitorListener.awaitUninterruptibly();
                 }
 
+                final boolean booting = state.getReference() == State.STARTING;
+                // Track the services this operation installs, so its outcome can be told apart from that of
+                // operations on other parts of the model running at the same time
+                final OperationServiceListener operationListener = new OperationServiceListener(serviceRegistry);
+                final ServiceTarget operationTarget;
+                if (booting) {
+                    operationTarget = serviceTarget;
+                } else {
+                    operationTarget = serviceTarget.subTarget();
+                    operationTarget.addListener(operationListener);
+                }
+                ModelNode serverStateChangeReport = null;
+                registerRuntimeOperation(operationListener);
                 try {
-                    serverOperationContext.getRuntimeTask().execute(new RuntimeTaskContext() {
-                        @Override
-                        public ServiceTarget getServiceTarget() {
-                            return serviceTarget;
-                        }
+                    try {
+                        serverOperationContext.getRuntimeTask().execute(new RuntimeTaskContext() {
+                            @Override
+                            public ServiceTarget getServiceTarget() {
+                                return operationTarget;
+                            }
 
-                        @Override
-                        public ServiceRegistry getServiceRegistry() {
-                            return serviceRegistry;
-                        }
-                    });
-                } catch (OperationFailedException e) {
-                    rollbackAwareHandler.handleFailed(e.getFailureDescription());
-                } catch (Exception e) {
-                    rollbackAwareHandler.handleFailed(new ModelNode().set(e.toString()));
-                }
+                            @Override
+                            public ServiceRegistry getServiceRegistry() {
+                                return serviceRegistry;
+                            }
+                        });
+                    } catch (OperationFailedException e) {
+                        rollbackAwareHandler.handleFailed(e.getFailureDescription());
+                    } catch (Exception e) {
+                        rollbackAwareHandler.handleFailed(new ModelNode().set(e.toString()));
+                    }
 
-                ModelNode serverStateChangeReport = null;
-                if (state.getReference() != State.STARTING) {
-                    serverStateChangeReport = serverStateMonitorListener.awaitUninterruptibly();
+                    if (!booting) {
+                        serverStateChangeReport = awaitServiceStability(operationListener);
+                    }
+                } finally {
+                    unregisterRuntimeOperation(operationListener);
                 }
                 if (serverStateChangeReport != null && !rollbackAwareHandler.isTerminalState()) {
                     rollbackAwareHandler.handleFailed(serverStateChangeReport);
@@ -246,6 +275,15 @@ class ServerControllerImpl extends BasicModelController implements ServerControl
         }
     }
 
+    /** {@inheritDoc} */
+    @Override
+    protected void persistConfiguration(final ModelNode model, final ConfigurationPersisterProvider configurationPersisterFactory, final ModelNode operation) {
+        // do not persist during startup
+        if (getState() != State.STARTING) {
+            super.persistConfiguration(model, configurationPersisterFactory, operation);
+        }
+    }
+
     @Override
     protected boolean isReadOnly(OperationHandler operationHandler) {
         // Minor optimization: Assume nothing is RO during boot
@@ -267,45 +305,71 @@ class ServerControllerImpl extends BasicModelController implements ServerControl
                     || operation.get(OPERATION_HEADERS, ROLLBACK_ON_RUNTIME_FAILURE).asBoolean());
     }
 
+    private void registerRuntimeOperation(final OperationServiceListener operationListener) {
+        synchronized (runtimeOperations) {
+            if (!runtimeOperations.isEmpty()) {
+                operationListener.concurrent = true;
+                for (OperationServiceListener other : runtimeOperations) {
+                    other.concurrent = true;
+                }
+            }
+            runtimeOperations.add(operationListener);
+        }
+    }
+
+    private void unregisterRuntimeOperation(final OperationServiceListener operationListener) {
+        synchronized (runtimeOperations) {
+            runtimeOperations.remove(operationListener);
+        }
+    }
+
+    /**
+     * Wait for the services affected by an operation to settle and get the report of the problems it caused.
+     * An operation that ran alone waits for the whole container and gets the server wide report, as before.
+     * One that overlapped with other operations (on other top-level resources) only waits for the services
+     * it installed, and their child services, and only reports their problems, so it neither waits for nor fails
+     * because of the others.
+     *
+     * @param operationListener the listener tracking the services installed by the operation
+     * @return the report, or {@code null} if there were no problems
+     */
+    private ModelNode awaitServiceStability(final OperationServiceListener operationListener) {
+        final ModelNode operationReport = operationListener.awaitUninterruptibly();
+        if (!operationListener.concurrent) {
+            final ModelNode report = serverStateMonitorListener.awaitUninterruptibly();
+            if (!operationListener.concurrent) {
+                return report;
+            }
+        }
+        serverStateMonitorListener.reported(operationListener);
+        return operationReport;
+    }
+
     private static <T> Set<T> identitySet() {
         return Collections.newSetFromMap(new IdentityHashMap<T, Boolean>());
     }
 
     /**
-     * A service listener to track container status.  Must be present when the service is created, or results will
-     * be unpredictable.
+     * Base of the service listeners which count the services that are still changing state, so that one can wait
+     * for them to settle, and record which of them failed to start or are missing dependencies.
      */
-    private class ServerStateMonitorListener extends AbstractServiceListener<Object> {
-        private final ServiceRegistry serviceRegistry;
+    private abstract static class SettlingServiceListener extends AbstractServiceListener<Object> {
+        final ServiceRegistry serviceRegistry;
         private final AtomicInteger busyServiceCount = new AtomicInteger();
 
         // protected by "this"
         /** Failed controllers pending tick reaching zero */
-        private final Map<ServiceController<?>, String> failedControllers = new IdentityHashMap<ServiceController<?>, String>();
-        /** Failed controllers as of the last time tick reached zero */
-        private final Map<ServiceController<?>, String> latestSettledFailedControllers = new IdentityHashMap<ServiceController<?>, String>();
-        /** Failed controllers as of the last time getServerStateChangeReport() was called */
-        private final Map<ServiceController<?>, String> lastReportFailedControllers = new IdentityHashMap<ServiceController<?>, String>();
+        final Map<ServiceController<?>, String> failedControllers = new IdentityHashMap<ServiceController<?>, String>();
         /** Services with missing deps */
-        private final Set<ServiceController<?>> servicesWithMissingDeps = identitySet();
-        /** Map of Services with missing deps as of the last time tick reached zero */
-        private Map<ServiceName, Set<ServiceName>> previousMissingDeps = new HashMap<ServiceName, Set<ServiceName>>();
-        /** Services with missing deps as of the last time getServerStateChangeReport() was called */
-        private final Set<ServiceName> lastReportMissingDepSet = new TreeSet<ServiceName>();
-        /** Flag indicating we've created our first post-boot report */
-        private volatile boolean firstReportDone;
+        final Set<ServiceController<?>> servicesWithMissingDeps = identitySet();
 
-        ServerStateMonitorListener(final ServiceRegistry registry) {
-            serviceRegistry = registry;
+        SettlingServiceListener(final ServiceRegistry serviceRegistry) {
+            this.serviceRegistry = serviceRegistry;
         }
 
         @Override
         public void listenerAdded(final ServiceController<?> controller) {
-            if (controller.getName().equals(Services.JBOSS_SERVER_CONTROLLER)) {
-                controller.removeListener(this);
-            } else {
-                untick();
-            }
+            untick();
         }
 
         @Override
@@ -410,9 +474,13 @@ class ServerControllerImpl extends BasicModelController implements ServerControl
             }
         }
 
+        /**
+         * Wait for the services to settle.
+         *
+         * @return the report of the problems of the services, or {@code null} if there were none
+         */
         ModelNode awaitUninterruptibly() {
             boolean intr = false;
-            // todo - atomically return the last status summary, or something
             try {
                 synchronized (this) {
                     while (busyServiceCount.get() > 0) {
@@ -422,8 +490,7 @@ class ServerControllerImpl extends BasicModelController implements ServerControl
                             intr = true;
                         }
                     }
-
-                    return getServerStateChangeReport();
+                    return getReport();
                 }
             } finally {
                 if (intr) {
@@ -433,106 +500,173 @@ class ServerControllerImpl extends BasicModelController implements ServerControl
         }
 
         /**
-         * Tick down the count, triggering a deployment status report when the count is zero.
+         * Get the report returned by {@link #awaitUninterruptibly()}. Called holding the lock of this listener.
+         *
+         * @return the report, or {@code null} if there were no problems
+         */
+        abstract ModelNode getReport();
+
+        /**
+         * Called holding the lock of this listener each time the services have settled.
+         */
+        void settled() {
+        }
+
+        synchronized Map<ServiceName, Set<ServiceName>> getMissingDependencies() {
+            final Map<ServiceName, Set<ServiceName>> missingDeps = new TreeMap<ServiceName, Set<ServiceName>>();
+            for (ServiceController<?> controller : servicesWithMissingDeps) {
+                for (ServiceName missing : controller.getImmediateUnavailableDependencies()) {
+                    if (!missingDeps.containsKey(missing)) {
+                        missingDeps.put(missing, new HashSet<ServiceName>());
+                    }
+                    missingDeps.get(missing).add(controller.getName());
+                }
+            }
+            return missingDeps;
+        }
+
+        /**
+         * Tick down the count, notifying the waiting threads when the count is zero.
          */
         private void tick() {
-            int tick = busyServiceCount.decrementAndGet();
-//            System.out.println("TICK -> " + tick + " (" + Thread.currentThread().getStackTrace()[2].getMethodName() + ") -> " + tickController);
-            if (tick == 0) {
+            if (busyServiceCount.decrementAndGet() == 0) {
                 synchronized (this) {
                     notifyAll();
-                    final Map<ServiceName, Set<ServiceName>> missingDeps = new HashMap<ServiceName, Set<ServiceName>>();
-                    for (ServiceController<?> controller : servicesWithMissingDeps) {
-                        for(ServiceName missing : controller.getImmediateUnavailableDependencies()) {
-                            if(!missingDeps.containsKey(missing)) {
-                                missingDeps.put(missing, new HashSet<ServiceName>());
-                            }
-                            missingDeps.get(missing).add(controller.getName());
-                        }
-                    }
+                    settled();
+                }
+            }
+        }
 
-                    final Set<ServiceName> previousMissing = previousMissingDeps.keySet();
+        private void untick() {
+            busyServiceCount.incrementAndGet();
+        }
+    }
 
-                    // no longer missing deps...
-                    final Set<ServiceName> noLongerMissing = new TreeSet<ServiceName>();
-                    for (ServiceName name : previousMissing) {
-                        if (! missingDeps.containsKey(name)) {
-                            noLongerMissing.add(name);
-                        }
-                    }
+    /**
+     * A service listener to track container status.  Must be present when the service is created, or results will
+     * be unpredictable.
+     */
+    private class ServerStateMonitorListener extends SettlingServiceListener {
 
-                    // newly missing deps
-                    final Map<ServiceName, Set<ServiceName>> newlyMissing = new TreeMap<ServiceName, Set<ServiceName>>();
-                    newlyMissing.clear();
-                    for (Map.Entry<ServiceName, Set<ServiceName>> entry : missingDeps.entrySet()) {
-                        if (! previousMissing.contains(entry.getKey())) {
-                            newlyMissing.put(entry.getKey(), entry.getValue());
-                        }
-                    }
+        // protected by "this"
+        /** Failed controllers as of the last time tick reached zero */
+        private final Map<ServiceController<?>, String> latestSettledFailedControllers = new IdentityHashMap<ServiceController<?>, String>();
+        /** Failed controllers as of the last time getServerStateChangeReport() was called */
+        private final Map<ServiceController<?>, String> lastReportFailedControllers = new IdentityHashMap<ServiceController<?>, String>();
+        /** Map of Services with missing deps as of the last time tick reached zero */
+        private Map<ServiceName, Set<ServiceName>> previousMissingDeps = new HashMap<ServiceName, Set<ServiceName>>();
+        /** Services with missing deps as of the last time getServerStateChangeReport() was called */
+        private final Set<ServiceName> lastReportMissingDepSet = new TreeSet<ServiceName>();
+        /** Flag indicating we've created our first post-boot report */
+        private volatile boolean firstReportDone;
 
-                    previousMissingDeps = missingDeps;
-
-                    // track failed services for the change report
-                    latestSettledFailedControllers.clear();
-                    latestSettledFailedControllers.putAll(failedControllers);
-
-                    final StringBuilder msg = new StringBuilder();
-                    msg.append("Service status report\n");
-                    boolean print = false;
-                    if (! newlyMissing.isEmpty()) {
-                        print = true;
-                        msg.append("   New missing/unsatisfied dependencies:\n");
-                        for (Map.Entry<ServiceName, Set<ServiceName>> entry : newlyMissing.entrySet()) {
-                            final ServiceName name = entry.getKey();
-                            ServiceController<?> controller = serviceRegistry.getService(name);
-                            if (controller == null) {
-                                msg.append("      ").append(name).append(" (missing)");
-                            } else {
-                                msg.append("      ").append(name).append(" (unavailable)");
-                            }
-                            msg.append(" required by [");
-                            Iterator<ServiceName> it = entry.getValue().iterator();
-                            while(it.hasNext()) {
-                                ServiceName requiring = it.next();
-                                msg.append(requiring);
-                                if(it.hasNext()) {
-                                    msg.append(", ");
-                                }
-                            }
-                            msg.append("]");
-                            msg.append('\n');
-                        }
-                    }
-                    if (! noLongerMissing.isEmpty()) {
-                        print = true;
-                        msg.append("   Newly corrected services:\n");
-                        for (ServiceName name : noLongerMissing) {
-                            ServiceController<?> controller = serviceRegistry.getService(name);
-                            if (controller == null) {
-                                msg.append("      ").append(name).append(" (no longer required)\n");
-                            } else {
-                                msg.append("      ").append(name).append(" (now available)\n");
-                            }
-                        }
+        ServerStateMonitorListener(final ServiceRegistry registry) {
+            super(registry);
+        }
+
+        @Override
+        public void listenerAdded(final ServiceController<?> controller) {
+            if (controller.getName().equals(Services.JBOSS_SERVER_CONTROLLER)) {
+                controller.removeListener(this);
+                return;
+            }
+            super.listenerAdded(controller);
+            // Listeners of a target are not added to the child services of the services installed through it, so
+            // give the child services of the services of an operation to the listener of that operation here
+            final ServiceController<?> parent = controller.getParent();
+            if (parent != null) {
+                for (OperationServiceListener operationListener : getOperationsTracking(parent)) {
+                    controller.addListener(operationListener);
+                }
+            }
+        }
+
+        /**
+         * Trigger a deployment status report.
+         */
+        @Override
+        void settled() {
+            final Map<ServiceName, Set<ServiceName>> missingDeps = getMissingDependencies();
+
+            final Set<ServiceName> previousMissing = previousMissingDeps.keySet();
+
+            // no longer missing deps...
+            final Set<ServiceName> noLongerMissing = new TreeSet<ServiceName>();
+            for (ServiceName name : previousMissing) {
+                if (! missingDeps.containsKey(name)) {
+                    noLongerMissing.add(name);
+                }
+            }
+
+            // newly missing deps
+            final Map<ServiceName, Set<ServiceName>> newlyMissing = new TreeMap<ServiceName, Set<ServiceName>>();
+            for (Map.Entry<ServiceName, Set<ServiceName>> entry : missingDeps.entrySet()) {
+                if (! previousMissing.contains(entry.getKey())) {
+                    newlyMissing.put(entry.getKey(), entry.getValue());
+                }
+            }
+
+            previousMissingDeps = missingDeps;
+
+            // track failed services for the change report
+            latestSettledFailedControllers.clear();
+            latestSettledFailedControllers.putAll(failedControllers);
+
+            final StringBuilder msg = new StringBuilder();
+            msg.append("Service status report\n");
+            boolean print = false;
+            if (! newlyMissing.isEmpty()) {
+                print = true;
+                msg.append("   New missing/unsatisfied dependencies:\n");
+                for (Map.Entry<ServiceName, Set<ServiceName>> entry : newlyMissing.entrySet()) {
+                    final ServiceName name = entry.getKey();
+                    ServiceController<?> controller = serviceRegistry.getService(name);
+                    if (controller == null) {
+                        msg.append("      ").append(name).append(" (missing)");
+                    } else {
+                        msg.append("      ").append(name).append(" (unavailable)");
                     }
-                    if (! failedControllers.isEmpty()) {
-                        print = true;
-                        msg.append("  Services which failed to start:\n");
-                        for (Map.Entry<ServiceController<?>, String> entry : failedControllers.entrySet()) {
-                            msg.append("      ").append(entry.getKey().getName()).append(": ").append(entry.getValue()).append('\n');
+                    msg.append(" required by [");
+                    Iterator<ServiceName> it = entry.getValue().iterator();
+                    while(it.hasNext()) {
+                        ServiceName requiring = it.next();
+                        msg.append(requiring);
+                        if(it.hasNext()) {
+                            msg.append(", ");
                         }
-                        failedControllers.clear();
                     }
-                    if (print) {
-                        log.info(msg);
+                    msg.append("]");
+                    msg.append('\n');
+                }
+            }
+            if (! noLongerMissing.isEmpty()) {
+                print = true;
+                msg.append("   Newly corrected services:\n");
+                for (ServiceName name : noLongerMissing) {
+                    ServiceController<?> controller = serviceRegistry.getService(name);
+                    if (controller == null) {
+                        msg.append("      ").append(name).append(" (no longer required)\n");
+                    } else {
+                        msg.append("      ").append(name).append(" (now available)\n");
                     }
                 }
             }
+            if (! failedControllers.isEmpty()) {
+                print = true;
+                msg.append("  Services which failed to start:\n");
+                for (Map.Entry<ServiceController<?>, String> entry : failedControllers.entrySet()) {
+                    msg.append("      ").append(entry.getKey().getName()).append(": ").append(entry.getValue()).append('\n');
+                }
+                failedControllers.clear();
+            }
+            if (print) {
+                log.info(msg);
+            }
         }
 
-        private void untick() {
-            busyServiceCount.incrementAndGet();
-//            System.out.println("UNTICK -> " + tick + " (" + Thread.currentThread().getStackTrace()[2].getMethodName() + ") -> ");
+        @Override
+        ModelNode getReport() {
+            return getServerStateChangeReport();
         }
 
         private synchronized ModelNode getServerStateChangeReport() {
@@ -552,46 +686,124 @@ class ServerControllerImpl extends BasicModelController implements ServerControl
             lastReportMissingDepSet.clear();
             lastReportMissingDepSet.addAll(previousMissingDeps.keySet());
 
-            ModelNode report = null;
-            if (!newFailedControllers.isEmpty() || !newReportMissingDeps.isEmpty()) {
-                report = new ModelNode();
-                if (! newReportMissingDeps.isEmpty()) {
-                    ModelNode missing = report.get("New missing/unsatisfied dependencies");
-                    for (Map.Entry<ServiceName, Set<ServiceName>> entry : newReportMissingDeps.entrySet()) {
-                        final ServiceName name = entry.getKey();
-                        ServiceController<?> controller = serviceRegistry.getService(name);
-                        StringBuilder missingText = new StringBuilder(name.toString());
-                        if (controller == null) {
-                            missingText.append(" (missing)");
-                        } else {
-                            missingText.append(" (unavailable)\n");
-                        }
-                        missingText.append(" required by [");
-                        Iterator<ServiceName> it = entry.getValue().iterator();
-                        while(it.hasNext()) {
-                            ServiceName requiring = it.next();
-                            missingText.append(requiring);
-                            if(it.hasNext()) {
-                                missingText.append(", ");
-                            }
-                        }
-                        missingText.append("]");
-                        missing.add(missingText.toString());
+            firstReportDone = true;
+            return createReport(serviceRegistry, newReportMissingDeps, newFailedControllers.keySet());
+        }
+
+        /**
+         * Record the problems already reported to an operation that overlapped with others, so that they are not
+         * reported again to the next operation.
+         *
+         * @param operationListener the listener of the operation
+         */
+        private synchronized void reported(final OperationServiceListener operationListener) {
+            synchronized (operationListener) {
+                for (ServiceController<?> controller : operationListener.failedControllers.keySet()) {
+                    lastReportFailedControllers.put(controller, "");
+                }
+                lastReportMissingDepSet.addAll(operationListener.getMissingDependencies().keySet());
+            }
+        }
+
+        private boolean isFirstReportComplete() {
+            return firstReportDone;
+        }
+    }
+
+    /**
+     * Get the listeners of the running operations which track a service.
+     *
+     * @param controller the service
+     * @return the listeners
+     */
+    private List<OperationServiceListener> getOperationsTracking(final ServiceController<?> controller) {
+        List<OperationServiceListener> operationListeners = Collections.emptyList();
+        synchronized (runtimeOperations) {
+            for (OperationServiceListener operationListener : runtimeOperations) {
+                if (operationListener.isTracking(controller)) {
+                    if (operationListeners.isEmpty()) {
+                        operationListeners = new ArrayList<OperationServiceListener>();
                     }
+                    operationListeners.add(operationListener);
                 }
-                if (! newFailedControllers.isEmpty()) {
-                    ModelNode failed = report.get("Services which failed to start:");
-                    for (Map.Entry<ServiceController<?>, String> entry : newFailedControllers.entrySet()) {
-                        failed.add(entry.getKey().getName().toString());
+            }
+        }
+        return operationListeners;
+    }
+
+    private static ModelNode createReport(final ServiceRegistry serviceRegistry, final Map<ServiceName, Set<ServiceName>> missingDeps,
+            final Set<ServiceController<?>> failedControllers) {
+        ModelNode report = null;
+        if (!failedControllers.isEmpty() || !missingDeps.isEmpty()) {
+            report = new ModelNode();
+            if (! missingDeps.isEmpty()) {
+                ModelNode missing = report.get("New missing/unsatisfied dependencies");
+                for (Map.Entry<ServiceName, Set<ServiceName>> entry : missingDeps.entrySet()) {
+                    final ServiceName name = entry.getKey();
+                    ServiceController<?> controller = serviceRegistry.getService(name);
+                    StringBuilder missingText = new StringBuilder(name.toString());
+                    if (controller == null) {
+                        missingText.append(" (missing)");
+                    } else {
+                        missingText.append(" (unavailable)\n");
                     }
+                    missingText.append(" required by [");
+                    Iterator<ServiceName> it = entry.getValue().iterator();
+                    while(it.hasNext()) {
+                        ServiceName requiring = it.next();
+                        missingText.append(requiring);
+                        if(it.hasNext()) {
+                            missingText.append(", ");
+                        }
+                    }
+                    missingText.append("]");
+                    missing.add(missingText.toString());
+                }
+            }
+            if (! failedControllers.isEmpty()) {
+                ModelNode failed = report.get("Services which failed to start:");
+                for (ServiceController<?> controller : failedControllers) {
+                    failed.add(controller.getName().toString());
                 }
             }
-            firstReportDone = true;
-            return report;
         }
+        return report;
+    }
 
-        private boolean isFirstReportComplete() {
-            return firstReportDone;
+    /**
+     * A service listener added to the services installed by a single operation and, by the
+     * {@link ServerStateMonitorListener}, to their child services, which tracks whether they have settled and which
+     * of them failed or are missing dependencies.
+     */
+    private static class OperationServiceListener extends SettlingServiceListener {
+        // protected by "this"
+        private final Set<ServiceController<?>> trackedControllers = identitySet();
+        /** Whether another operation executed its runtime task while this one was running; written holding runtimeOperations */
+        private volatile boolean concurrent;
+
+        OperationServiceListener(final ServiceRegistry serviceRegistry) {
+            super(serviceRegistry);
+        }
+
+        @Override
+        public void listenerAdded(final ServiceController<?> controller) {
+            final boolean added;
+            synchronized (this) {
+                added = trackedControllers.add(controller);
+            }
+            // only count a service once should it get this listener both from its target and from its parent
+            if (added) {
+                super.listenerAdded(controller);
+            }
+        }
+
+        synchronized boolean isTracking(final ServiceController<?> controller) {
+            return trackedControllers.contains(controller);
+        }
+
+        @Override
+        ModelNode getReport() {
+            return createReport(serviceRegistry, getMissingDependencies(), failedControllers.keySet());
         }
     }
 
@@ -24,10 +24,14 @@ package org.jboss.as.server;
 
 import org.jboss.as.controller.ResultHandler;
 import org.jboss.as.controller.client.OperationBuilder;
+import org.jboss.as.controller.persistence.ConfigurationPersistenceException;
 import org.jboss.as.controller.persistence.ExtensibleConfigurationPersister;
+import org.jboss.as.controller.persistence.GroupCommitConfigurationPersister;
+import org.jboss.as.controller.persistence.JournalingConfigurationPersister;
 import org.jboss.as.server.ServerControllerImpl.RegisteredProcessor;
 import org.jboss.as.server.deployment.Attachments;
 import org.jboss.as.server.deployment.DeployerChainsService;
+import org.jboss.as.server.deployment.DeploymentMetadataCache;
 import org.jboss.as.server.deployment.DeploymentPhaseContext;
 import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
@@ -35,6 +39,7 @@ import org.jboss.as.server.deployment.DeploymentUnitProcessor;
 import org.jboss.as.server.deployment.Phase;
 import org.jboss.as.server.deployment.ServiceLoaderProcessor;
 import org.jboss.as.server.deployment.SubDeploymentProcessor;
+import org.jboss.as.server.deployment.annotation.AnnotationIndexCache;
 import org.jboss.as.server.deployment.annotation.AnnotationIndexProcessor;
 import org.jboss.as.server.deployment.annotation.CompositeIndexProcessor;
 import org.jboss.as.server.deployment.api.ContentRepository;
@@ -63,6 +68,7 @@ import org.jboss.as.server.deployment.service.ServiceActivatorProcessor;
 import org.jboss.as.server.moduleservice.ExtensionIndexService;
 import org.jboss.as.server.moduleservice.ExternalModuleService;
 import org.jboss.as.server.moduleservice.ServiceModuleLoader;
+import org.jboss.as.version.Version;
 import org.jboss.dmr.ModelNode;
 import org.jboss.logging.Logger;
 import org.jboss.msc.service.Service;
@@ -202,27 +208,54 @@ final class ServerControllerService implements Service<ServerController> {
         serviceTarget.addService(org.jboss.as.server.deployment.Services.JBOSS_DEPLOYMENT_EXTENSION_INDEX,
                 new ExtensionIndexService(newExtDirs)).setInitialMode(ServiceController.Mode.ON_DEMAND).install();
 
+        // Metadata parsed from the descriptors of repository content is kept across restarts if configured; that of
+        // removed content is dropped in the background
+        final DeploymentMetadataCache deploymentMetadataCache;
+        if (serverController.isDeploymentMetadataCacheEnabled()) {
+            deploymentMetadataCache = new DeploymentMetadataCache(new File(serverEnvironment.getServerDataDir(), "deployment-metadata"),
+                    serverEnvironment.getServerDeployDir(), Version.AS_VERSION);
+            executorService.execute(new Runnable() {
+                public void run() {
+                    deploymentMetadataCache.purge();
+                }
+            });
+        } else {
+            deploymentMetadataCache = null;
+        }
+
         // Activate  module loader
         deployers.get(Phase.STRUCTURE).add(new RegisteredProcessor(Phase.STRUCTURE_SERVICE_MODULE_LOADER, new DeploymentUnitProcessor() {
             @Override
             public void deploy(DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
                 phaseContext.getDeploymentUnit().putAttachment(Attachments.SERVICE_MODULE_LOADER, injectedModuleLoader.getValue());
                 phaseContext.getDeploymentUnit().putAttachment(Attachments.EXTERNAL_MODULE_SERVICE, injectedExternalModuleService.getValue());
+                if (deploymentMetadataCache != null) {
+                    phaseContext.getDeploymentUnit().putAttachment(Attachments.DEPLOYMENT_METADATA_CACHE, deploymentMetadataCache);
+                }
             }
 
             @Override
             public void undeploy(DeploymentUnit context) {
                 context.removeAttachment(Attachments.SERVICE_MODULE_LOADER);
+                context.removeAttachment(Attachments.DEPLOYMENT_METADATA_CACHE);
             }
         }));
 
+        // Annotation indexes of repository content are kept across restarts; those of removed content are dropped in the background
+        final AnnotationIndexCache annotationIndexCache = new AnnotationIndexCache(new File(serverEnvironment.getServerDataDir(), "annotation-index"), injectedContentRepository.getValue());
+        executorService.execute(new Runnable() {
+            public void run() {
+                annotationIndexCache.purge();
+            }
+        });
+
         // Activate core processors for jar deployment
         deployers.get(Phase.STRUCTURE).add(new RegisteredProcessor(Phase.STRUCTURE_MOUNT, new DeploymentRootMountProcessor()));
         deployers.get(Phase.STRUCTURE).add(new RegisteredProcessor(Phase.STRUCTURE_MANIFEST, new ManifestAttachmentProcessor()));
         deployers.get(Phase.STRUCTURE).add(new RegisteredProcessor(Phase.STRUCTURE_ADDITIONAL_MANIFEST, new ManifestAttachmentProcessor()));
         deployers.get(Phase.STRUCTURE).add(new RegisteredProcessor(Phase.STRUCTURE_SUB_DEPLOYMENT, new SubDeploymentProcessor()));
         deployers.get(Phase.STRUCTURE).add(new RegisteredProcessor(Phase.STRUCTURE_MODULE_IDENTIFIERS, new ModuleIdentifierProcessor()));
-        deployers.get(Phase.STRUCTURE).add(new RegisteredProcessor(Phase.STRUCTURE_ANNOTATION_INDEX, new AnnotationIndexProcessor()));
+        deployers.get(Phase.STRUCTURE).add(new RegisteredProcessor(Phase.STRUCTURE_ANNOTATION_INDEX, new AnnotationIndexProcessor(executorService, annotationIndexCache)));
         deployers.get(Phase.PARSE).add(new RegisteredProcessor(Phase.PARSE_STRUCTURE_DESCRIPTOR, new DeploymentStructureDescriptorParser()));
         deployers.get(Phase.PARSE).add(new RegisteredProcessor(Phase.PARSE_DEPENDENCIES_MANIFEST, new ManifestDependencyProcessor()));
         deployers.get(Phase.PARSE).add(new RegisteredProcessor(Phase.PARSE_COMPOSITE_ANNOTATION_INDEX, new CompositeIndexProcessor()));
@@ -259,7 +292,7 @@ final class ServerControllerService implements Service<ServerController> {
             finalDeployers.put(entry.getKey(), list);
         }
 
-        DeployerChainsService.addService(serviceTarget, finalDeployers);
+        DeployerChainsService.addService(serviceTarget, finalDeployers, executorService);
 
         this.serverController = serverController;
     }
@@ -268,6 +301,20 @@ final class ServerControllerService implements Service<ServerController> {
     @Override
     public synchronized void stop(final StopContext context) {
         serverController = null;
+        final ExtensibleConfigurationPersister persister = configuration.getConfigurationPersister();
+        if (persister instanceof JournalingConfigurationPersister) {
+            try {
+                ((JournalingConfigurationPersister) persister).close();
+            } catch (ConfigurationPersistenceException e) {
+                log.errorf(e, "Failed to write the configuration journal to the configuration file");
+            }
+        } else if (persister instanceof GroupCommitConfigurationPersister) {
+            try {
+                ((GroupCommitConfigurationPersister) persister).close();
+            } catch (ConfigurationPersistenceException e) {
+                log.errorf(e, "Failed to write pending changes to the configuration file");
+            }
+        }
     }
 
     /** {@inheritDoc} */
@@ -162,6 +162,25 @@ public class ServerEnvironment implements Serializable {
      */
     public static final String QUALIFIED_HOST_NAME = "jboss.qualified.host.name";
 
+    /**
+     * Constant that holds the name of the system property for enabling the journal of configuration changes, which
+     * records each change instead of rewriting the whole configuration file.
+     */
+    public static final String SERVER_CONFIG_JOURNAL = "jboss.server.config.journal";
+
+    /**
+     * Constant that holds the name of the system property for specifying the window in ms within which
+     * configuration changes are written to the configuration file together. Not used if the configuration
+     * journal is enabled.
+     */
+    public static final String SERVER_CONFIG_GROUP_COMMIT_WINDOW = "jboss.server.config.group.commit.window";
+
+    /**
+     * Constant that holds the name of the system property for enabling the verification of deployment content
+     * already in the repository, which re-hashes the stored content whenever the same content is uploaded again.
+     */
+    public static final String SERVER_DEPLOY_VERIFY_CONTENT = "jboss.server.deploy.verify.content";
+
     private final LaunchType launchType;
     private final String qualifiedHostName;
     private final String hostName;
@@ -180,6 +199,9 @@ public class ServerEnvironment implements Serializable {
     private final File serverLogDir;
     private final File serverTempDir;
     private final boolean standalone;
+    private final boolean configurationJournal;
+    private final long configurationGroupCommitWindow;
+    private final boolean deploymentContentVerification;
 
     public ServerEnvironment(Properties props, Map<String, String> env, String serverConfig, LaunchType launchType) {
         if (props == null) {
@@ -293,6 +315,10 @@ public class ServerEnvironment implements Serializable {
             tmp = new File(serverBaseDir, "tmp");
         }
         serverTempDir = tmp;
+
+        configurationJournal = Boolean.parseBoolean(props.getProperty(SERVER_CONFIG_JOURNAL));
+        configurationGroupCommitWindow = Long.parseLong(props.getProperty(SERVER_CONFIG_GROUP_COMMIT_WINDOW, "0"));
+        deploymentContentVerification = Boolean.parseBoolean(props.getProperty(SERVER_DEPLOY_VERIFY_CONTENT));
     }
 
     void install() {
@@ -405,6 +431,36 @@ public class ServerEnvironment implements Serializable {
         return standalone;
     }
 
+    /**
+     * Gets whether changes to the server configuration should be journaled rather than
+     * rewriting the configuration file after each change.
+     *
+     * @return {@code true} if the configuration journal is enabled
+     */
+    public boolean isConfigurationJournalEnabled() {
+        return configurationJournal;
+    }
+
+    /**
+     * Gets the window in ms within which changes to the server configuration are written to the
+     * configuration file together.
+     *
+     * @return the window, or {@code 0} if each change is written on its own
+     */
+    public long getConfigurationGroupCommitWindow() {
+        return configurationGroupCommitWindow;
+    }
+
+    /**
+     * Gets whether deployment content already in the repository should be re-hashed when the
+     * same content is uploaded again.
+     *
+     * @return {@code true} if deployment content verification is enabled
+     */
+    public boolean isDeploymentContentVerificationEnabled() {
+        return deploymentContentVerification;
+    }
+
     /**
      * Get a File from configuration.
      *
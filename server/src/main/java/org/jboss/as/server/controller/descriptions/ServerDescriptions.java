@@ -18,16 +18,24 @@
  */
 package org.jboss.as.server.controller.descriptions;
 
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ATTRIBUTES;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DESCRIPTION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NILLABLE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATION_NAME;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REPLY_PROPERTIES;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REQUIRED;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.TYPE;
 import java.util.Locale;
 import java.util.ResourceBundle;
 
 import org.jboss.as.controller.descriptions.common.CommonDescriptions;
+import org.jboss.as.controller.descriptions.common.DeploymentDescription;
+import org.jboss.as.server.deployment.DeploymentReflectionIndexHandler;
 import org.jboss.as.server.deployment.DeploymentRemoveHandler;
+import org.jboss.as.server.deployment.DeploymentTimingHandler;
 import org.jboss.as.server.operations.ServerReloadHandler;
 import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
 
 /**
  * Model descriptions for deployment resources.
@@ -41,6 +49,20 @@ public class ServerDescriptions {
     private ServerDescriptions() {
     }
 
+    public static final ModelNode getDeploymentDescription(Locale locale) {
+        final ResourceBundle bundle = getResourceBundle(locale);
+        final ModelNode root = DeploymentDescription.getDeploymentDescription(locale, true, true);
+        root.get(ATTRIBUTES, DeploymentTimingHandler.ATTRIBUTE_NAME, DESCRIPTION).set(bundle.getString("deployment.timing"));
+        root.get(ATTRIBUTES, DeploymentTimingHandler.ATTRIBUTE_NAME, TYPE).set(ModelType.OBJECT);
+        root.get(ATTRIBUTES, DeploymentTimingHandler.ATTRIBUTE_NAME, REQUIRED).set(false);
+        root.get(ATTRIBUTES, DeploymentTimingHandler.ATTRIBUTE_NAME, NILLABLE).set(true);
+        root.get(ATTRIBUTES, DeploymentReflectionIndexHandler.ATTRIBUTE_NAME, DESCRIPTION).set(bundle.getString("deployment.reflection-index"));
+        root.get(ATTRIBUTES, DeploymentReflectionIndexHandler.ATTRIBUTE_NAME, TYPE).set(ModelType.OBJECT);
+        root.get(ATTRIBUTES, DeploymentReflectionIndexHandler.ATTRIBUTE_NAME, REQUIRED).set(false);
+        root.get(ATTRIBUTES, DeploymentReflectionIndexHandler.ATTRIBUTE_NAME, NILLABLE).set(true);
+        return root;
+    }
+
     public static final ModelNode getRemoveDeploymentOperation(Locale locale) {
         final ResourceBundle bundle = getResourceBundle(locale);
         final ModelNode root = new ModelNode();
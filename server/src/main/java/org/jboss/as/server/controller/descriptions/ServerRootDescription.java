@@ -53,6 +53,7 @@ public class ServerRootDescription {
 
         root.get(ATTRIBUTES, NAMESPACES).set(CommonDescriptions.getNamespacePrefixAttribute(locale));
         root.get(ATTRIBUTES, SCHEMA_LOCATIONS).set(CommonDescriptions.getSchemaLocationAttribute(locale));
+        CommonDescriptions.addManagementLockMetrics(root, locale);
 
         root.get(ATTRIBUTES, NAME, DESCRIPTION).set(bundle.getString("server.name"));
         root.get(ATTRIBUTES, NAME, TYPE).set(ModelType.STRING);
@@ -60,6 +61,12 @@ public class ServerRootDescription {
         root.get(ATTRIBUTES, NAME, NILLABLE).set(true);
         root.get(ATTRIBUTES, NAME, MIN_LENGTH).set(1);
 
+        root.get(ATTRIBUTES, DEPLOYMENT_METADATA_CACHE, DESCRIPTION).set(bundle.getString("server.deployment-metadata-cache"));
+        root.get(ATTRIBUTES, DEPLOYMENT_METADATA_CACHE, TYPE).set(ModelType.BOOLEAN);
+        root.get(ATTRIBUTES, DEPLOYMENT_METADATA_CACHE, REQUIRED).set(false);
+        root.get(ATTRIBUTES, DEPLOYMENT_METADATA_CACHE, NILLABLE).set(true);
+        root.get(ATTRIBUTES, DEPLOYMENT_METADATA_CACHE, DEFAULT).set(false);
+
         root.get(ATTRIBUTES, PROFILE_NAME, DESCRIPTION).set(bundle.getString("server.profile"));
         root.get(ATTRIBUTES, PROFILE_NAME, TYPE).set(ModelType.STRING);
         root.get(ATTRIBUTES, PROFILE_NAME, REQUIRED).set(true);
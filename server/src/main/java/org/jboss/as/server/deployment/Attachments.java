@@ -78,15 +78,25 @@ public final class Attachments {
     public static final AttachmentKey<VirtualFile> DEPLOYMENT_CONTENTS = AttachmentKey.create(VirtualFile.class);
 
     /**
-     * The deployment hash
+     * The hash of the deployment contents, if they are held by the content repository
      */
-    //public static final AttachmentKey<byte[]> DEPLOYMENT_HASH = AttachmentKey.create(byte[].class);
+    public static final AttachmentKey<byte[]> DEPLOYMENT_HASH = AttachmentKey.create(byte[].class);
 
     /**
      * The special status listener attachment.
      */
     public static final AttachmentKey<AbstractDeploymentUnitService.DeploymentServiceListener> STATUS_LISTENER = AttachmentKey.create(AbstractDeploymentUnitService.DeploymentServiceListener.class);
 
+    /**
+     * The time spent in each phase and deployment unit processor.
+     */
+    public static final AttachmentKey<DeploymentProfile> DEPLOYMENT_PROFILE = AttachmentKey.create(DeploymentProfile.class);
+
+    /**
+     * The cache of parsed descriptor metadata, if enabled.
+     */
+    public static final AttachmentKey<DeploymentMetadataCache> DEPLOYMENT_METADATA_CACHE = AttachmentKey.create(DeploymentMetadataCache.class);
+
     //
     // STRUCTURE
     //
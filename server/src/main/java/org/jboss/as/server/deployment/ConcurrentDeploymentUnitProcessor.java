@@ -0,0 +1,52 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.server.deployment;
+
+import java.util.Collection;
+
+/**
+ * A deployment processor which declares the attachments it reads and writes, so that it may run concurrently with
+ * other such processors of the same phase which do not touch the same attachments.  A processor which does not
+ * implement this interface is run on its own, after every processor registered before it has completed.
+ * <p>
+ * The declared keys cover the attachments of both the deployment unit and the phase context.  Changing the state of
+ * an attached object, or adding to an attachment list, counts as a write.  Services installed through the phase
+ * context and dependencies added to the next phase need not be declared.
+ *
+ * @author agent
+ */
+public interface ConcurrentDeploymentUnitProcessor extends DeploymentUnitProcessor {
+
+    /**
+     * Get the keys of the attachments this processor reads but does not change.
+     *
+     * @return the read attachment keys
+     */
+    Collection<AttachmentKey<?>> getReadAttachments();
+
+    /**
+     * Get the keys of the attachments this processor adds, removes or changes.
+     *
+     * @return the written attachment keys
+     */
+    Collection<AttachmentKey<?>> getWrittenAttachments();
+}
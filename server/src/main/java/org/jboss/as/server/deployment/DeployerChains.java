@@ -22,8 +22,15 @@
 
 package org.jboss.as.server.deployment;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.EnumMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
 
 /**
  * The deployer chains service value object.
@@ -32,12 +39,140 @@ import java.util.List;
  */
 final class DeployerChains {
     private final EnumMap<Phase, List<DeploymentUnitProcessor>> phases;
+    private final EnumMap<Phase, List<Segment>> segments;
+    private final ExecutorService executor;
 
     DeployerChains(final EnumMap<Phase, List<DeploymentUnitProcessor>> phases) {
+        this(phases, null);
+    }
+
+    DeployerChains(final EnumMap<Phase, List<DeploymentUnitProcessor>> phases, final ExecutorService executor) {
         this.phases = phases;
+        this.executor = executor;
+        segments = new EnumMap<Phase, List<Segment>>(Phase.class);
+        for (Map.Entry<Phase, List<DeploymentUnitProcessor>> entry : phases.entrySet()) {
+            segments.put(entry.getKey(), createSegments(entry.getValue()));
+        }
     }
 
     List<DeploymentUnitProcessor> getChain(Phase phase) {
         return phases.get(phase);
     }
+
+    /**
+     * Get the chain of a phase split into segments which must run one after the other.
+     *
+     * @param phase the phase
+     * @return the segments
+     */
+    List<Segment> getSegments(Phase phase) {
+        return segments.get(phase);
+    }
+
+    /**
+     * Get the executor which runs the processors of a segment concurrently.
+     *
+     * @return the executor, or {@code null} if every processor runs on the phase service thread
+     */
+    ExecutorService getExecutor() {
+        return executor;
+    }
+
+    private static List<Segment> createSegments(final List<DeploymentUnitProcessor> chain) {
+        final List<Segment> result = new ArrayList<Segment>();
+        final List<DeploymentUnitProcessor> run = new ArrayList<DeploymentUnitProcessor>();
+        for (DeploymentUnitProcessor processor : chain) {
+            if (processor instanceof ConcurrentDeploymentUnitProcessor) {
+                run.add(processor);
+            } else {
+                if (!run.isEmpty()) {
+                    result.add(new Segment(run));
+                    run.clear();
+                }
+                result.add(new Segment(Collections.singletonList(processor)));
+            }
+        }
+        if (!run.isEmpty()) {
+            result.add(new Segment(run));
+        }
+        return result;
+    }
+
+    /**
+     * Consecutive processors of a chain, with the order they must keep among themselves.  A processor must wait for
+     * an earlier one of the segment if either writes an attachment the other reads or writes; otherwise the two may
+     * run concurrently.
+     */
+    static final class Segment {
+        private final DeploymentUnitProcessor[] processors;
+        private final int[] predecessorCounts;
+        private final int[][] successors;
+
+        Segment(final List<DeploymentUnitProcessor> processors) {
+            final int size = processors.size();
+            this.processors = processors.toArray(new DeploymentUnitProcessor[size]);
+            predecessorCounts = new int[size];
+            successors = new int[size][];
+            final List<Set<AttachmentKey<?>>> reads = new ArrayList<Set<AttachmentKey<?>>>(size);
+            final List<Set<AttachmentKey<?>>> writes = new ArrayList<Set<AttachmentKey<?>>>(size);
+            for (DeploymentUnitProcessor processor : this.processors) {
+                if (processor instanceof ConcurrentDeploymentUnitProcessor) {
+                    final ConcurrentDeploymentUnitProcessor concurrent = (ConcurrentDeploymentUnitProcessor) processor;
+                    reads.add(keys(concurrent.getReadAttachments()));
+                    writes.add(keys(concurrent.getWrittenAttachments()));
+                } else {
+                    reads.add(Collections.<AttachmentKey<?>>emptySet());
+                    writes.add(Collections.<AttachmentKey<?>>emptySet());
+                }
+            }
+            for (int i = 0; i < size; i++) {
+                final List<Integer> later = new ArrayList<Integer>();
+                for (int j = i + 1; j < size; j++) {
+                    if (intersects(writes.get(i), reads.get(j)) || intersects(writes.get(i), writes.get(j)) || intersects(reads.get(i), writes.get(j))) {
+                        later.add(Integer.valueOf(j));
+                        predecessorCounts[j]++;
+                    }
+                }
+                successors[i] = new int[later.size()];
+                for (int k = 0; k < successors[i].length; k++) {
+                    successors[i][k] = later.get(k).intValue();
+                }
+            }
+        }
+
+        int size() {
+            return processors.length;
+        }
+
+        DeploymentUnitProcessor getProcessor(final int index) {
+            return processors[index];
+        }
+
+        /**
+         * Get the number of processors of this segment which must complete before a processor may start.
+         */
+        int getPredecessorCount(final int index) {
+            return predecessorCounts[index];
+        }
+
+        /**
+         * Get the processors of this segment which must wait for a processor to complete.
+         */
+        int[] getSuccessors(final int index) {
+            return successors[index];
+        }
+
+        private static Set<AttachmentKey<?>> keys(final Collection<AttachmentKey<?>> keys) {
+            return keys == null ? Collections.<AttachmentKey<?>>emptySet() : new HashSet<AttachmentKey<?>>(keys);
+        }
+
+        private static boolean intersects(final Set<AttachmentKey<?>> a, final Set<AttachmentKey<?>> b) {
+            for (AttachmentKey<?> key : a) {
+                if (b.contains(key)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
 }
@@ -24,6 +24,8 @@ package org.jboss.as.server.deployment;
 
 import java.util.EnumMap;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+
 import org.jboss.msc.service.Service;
 import org.jboss.msc.service.ServiceTarget;
 import org.jboss.msc.service.StartContext;
@@ -39,7 +41,19 @@ public class DeployerChainsService implements Service<DeployerChains> {
     private final DeployerChains deployerChains;
 
     public static void addService(final ServiceTarget serviceTarget, final EnumMap<Phase, List<DeploymentUnitProcessor>> phases) {
-        final DeployerChains deployerChains = new DeployerChains(phases);
+        addService(serviceTarget, phases, null);
+    }
+
+    /**
+     * Install the deployer chains, running independent {@link ConcurrentDeploymentUnitProcessor}s of a phase on the
+     * given executor.
+     *
+     * @param serviceTarget the service target
+     * @param phases the processors of each phase, in order
+     * @param executor the executor, or {@code null} to run every processor on the phase service thread
+     */
+    public static void addService(final ServiceTarget serviceTarget, final EnumMap<Phase, List<DeploymentUnitProcessor>> phases, final ExecutorService executor) {
+        final DeployerChains deployerChains = new DeployerChains(phases, executor);
         serviceTarget.addService(Services.JBOSS_DEPLOYMENT_CHAINS, new DeployerChainsService(deployerChains))
             .install();
     }
@@ -104,7 +104,7 @@ public class DeploymentHandlerUtil {
                 final ServiceName relativeToPathServiceName = relativeTo != null ? RelativePathService.pathNameOf(relativeTo) : null;
                 contentService = PathContentServitor.addService(serviceTarget, contentsServiceName, path, relativeToPathServiceName);
             }
-            final RootDeploymentUnitService service = new RootDeploymentUnitService(deploymentUnitName, managementName, null);
+            final RootDeploymentUnitService service = new RootDeploymentUnitService(deploymentUnitName, managementName, null, contents[0].hash);
             final ServiceController<DeploymentUnit> deploymentUnitController = serviceTarget.addService(deploymentUnitServiceName, service)
                     .addDependency(Services.JBOSS_DEPLOYMENT_CHAINS, DeployerChains.class, service.getDeployerChainsInjector())
                     .addDependency(ServerDeploymentRepository.SERVICE_NAME, ServerDeploymentRepository.class, service.getServerDeploymentRepositoryInjector())
@@ -0,0 +1,255 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.server.deployment;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+
+import org.jboss.as.controller.HashUtil;
+import org.jboss.as.server.deployment.impl.ContentRepositoryImpl;
+import org.jboss.as.server.deployment.module.ResourceRoot;
+import org.jboss.logging.Logger;
+import org.jboss.vfs.VFSUtils;
+import org.jboss.vfs.VirtualFile;
+
+/**
+ * Keeps the metadata parsed from the descriptors of deployments from the content repository on disk, so that the
+ * parsing processors of unchanged deployments can skip parsing on the next boot or redeploy.  Metadata is stored
+ * with Java serialization, per deployment content hash, path of the descriptor within the deployment and metadata
+ * type, and is tagged with the server version; metadata written by another version, or which no longer
+ * deserializes, is dropped and parsed again.  Deployments not from the content repository are always parsed.
+ * <p/>
+ * Processors use the cache through {@link #getMetadata(DeploymentUnit, VirtualFile, Class)} and
+ * {@link #putMetadata(DeploymentUnit, VirtualFile, Class, Object)}, which do nothing unless the cache is enabled
+ * through the {@code deployment-metadata-cache} attribute of the server.
+ *
+ * @author agent
+ */
+public class DeploymentMetadataCache {
+
+    private static final Logger log = Logger.getLogger("org.jboss.as.server.deployment");
+
+    private final File directory;
+    private final File contentRepositoryRoot;
+    private final String version;
+
+    /**
+     * Create a new cache.
+     *
+     * @param directory the directory holding the cached metadata
+     * @param contentRepositoryRoot the root directory of the repository holding the deployment content
+     * @param version the version of the server, which the cached metadata must have been written by
+     */
+    public DeploymentMetadataCache(final File directory, final File contentRepositoryRoot, final String version) {
+        this.directory = directory;
+        this.contentRepositoryRoot = contentRepositoryRoot;
+        this.version = version;
+    }
+
+    /**
+     * Get the cached metadata parsed from a descriptor of a deployment.
+     *
+     * @param deploymentUnit the deployment unit
+     * @param descriptor the descriptor
+     * @param type the metadata type
+     * @param <T> the metadata type
+     * @return the metadata, or {@code null} if the cache is not enabled or holds no metadata for the descriptor
+     */
+    public static <T> T getMetadata(final DeploymentUnit deploymentUnit, final VirtualFile descriptor, final Class<T> type) {
+        final DeploymentMetadataCache cache = deploymentUnit.getAttachment(Attachments.DEPLOYMENT_METADATA_CACHE);
+        if (cache == null) {
+            return null;
+        }
+        final File file = cache.fileFor(deploymentUnit, descriptor, type);
+        return file == null ? null : cache.read(file, type);
+    }
+
+    /**
+     * Store the metadata parsed from a descriptor of a deployment.  Failures are logged, not thrown, as the cache is
+     * only an optimization.
+     *
+     * @param deploymentUnit the deployment unit
+     * @param descriptor the descriptor
+     * @param type the metadata type, under which the metadata is looked up
+     * @param metadata the metadata, which must be serializable to be cached
+     * @param <T> the metadata type
+     */
+    public static <T> void putMetadata(final DeploymentUnit deploymentUnit, final VirtualFile descriptor, final Class<T> type, final T metadata) {
+        final DeploymentMetadataCache cache = deploymentUnit.getAttachment(Attachments.DEPLOYMENT_METADATA_CACHE);
+        if (cache == null || metadata == null) {
+            return;
+        }
+        final File file = cache.fileFor(deploymentUnit, descriptor, type);
+        if (file != null && !file.isFile()) {
+            cache.write(file, metadata);
+        }
+    }
+
+    /**
+     * Delete the cached metadata of content no longer in the content repository.  Whether content is still there is
+     * told by the presence of its file alone, so purging runs alongside deployments without going through the
+     * repository.
+     */
+    public void purge() {
+        final File[] hashDirs = directory.listFiles();
+        if (hashDirs == null) {
+            return;
+        }
+        for (File hashDir : hashDirs) {
+            if (!hashDir.isDirectory() || !hashDir.getName().matches("([0-9a-f]{2})+")) {
+                continue;
+            }
+            if (!ContentRepositoryImpl.getContentFile(contentRepositoryRoot, HashUtil.hexStringToByteArray(hashDir.getName())).exists()) {
+                final File[] files = hashDir.listFiles();
+                if (files != null) {
+                    for (File file : files) {
+                        file.delete();
+                    }
+                }
+                hashDir.delete();
+            }
+        }
+    }
+
+    private <T> T read(final File file, final Class<T> type) {
+        if (!file.isFile()) {
+            return null;
+        }
+        try {
+            final InputStream in = new BufferedInputStream(new FileInputStream(file));
+            try {
+                final ObjectInputStream objectIn = new MetadataInputStream(in, type.getClassLoader());
+                if (!version.equals(objectIn.readUTF())) {
+                    log.debugf("Ignoring cached deployment metadata %s of another server version", file);
+                    file.delete();
+                    return null;
+                }
+                return type.cast(objectIn.readObject());
+            } finally {
+                VFSUtils.safeClose(in);
+            }
+        } catch (Exception e) {
+            // a partial write, or classes changed since it was written; the descriptor is parsed again
+            log.debugf(e, "Ignoring unreadable cached deployment metadata %s", file);
+            file.delete();
+            return null;
+        }
+    }
+
+    private void write(final File file, final Object metadata) {
+        final File dir = file.getParentFile();
+        if (!dir.isDirectory() && !dir.mkdirs() && !dir.isDirectory()) {
+            log.warnf("Could not create deployment metadata cache directory %s", dir);
+            return;
+        }
+        File tmp = null;
+        try {
+            // write to a temporary file first, so a concurrent reader or a crash never leaves partial metadata behind
+            tmp = File.createTempFile("metadata", ".tmp", dir);
+            final OutputStream out = new BufferedOutputStream(new FileOutputStream(tmp));
+            try {
+                final ObjectOutputStream objectOut = new ObjectOutputStream(out);
+                objectOut.writeUTF(version);
+                objectOut.writeObject(metadata);
+                objectOut.flush();
+            } finally {
+                VFSUtils.safeClose(out);
+            }
+            if (!tmp.renameTo(file) && !file.isFile()) {
+                log.warnf("Could not store deployment metadata %s", file);
+            }
+        } catch (IOException e) {
+            // typically metadata which is not serializable; it is parsed on every deploy
+            log.debugf(e, "Could not store deployment metadata %s", file);
+        } finally {
+            if (tmp != null) {
+                tmp.delete();
+            }
+        }
+    }
+
+    /**
+     * Gets the cache file of a descriptor, or {@code null} if the descriptor is not part of content from the
+     * repository.
+     */
+    File fileFor(final DeploymentUnit deploymentUnit, final VirtualFile descriptor, final Class<?> type) {
+        DeploymentUnit topLevel = deploymentUnit;
+        while (topLevel.getParent() != null) {
+            topLevel = topLevel.getParent();
+        }
+        final byte[] hash = topLevel.getAttachment(Attachments.DEPLOYMENT_HASH);
+        final ResourceRoot deploymentRoot = topLevel.getAttachment(Attachments.DEPLOYMENT_ROOT);
+        if (hash == null || deploymentRoot == null) {
+            return null;
+        }
+        final VirtualFile root = deploymentRoot.getRoot();
+        String path = null;
+        for (VirtualFile parent = descriptor.getParent(); parent != null; parent = parent.getParent()) {
+            if (parent.equals(root)) {
+                path = descriptor.getPathNameRelativeTo(root);
+                break;
+            }
+        }
+        if (path == null) {
+            return null;
+        }
+        final String name;
+        try {
+            name = URLEncoder.encode(path + "#" + type.getName(), "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+        return new File(new File(directory, HashUtil.bytesToHexString(hash)), name + ".ser");
+    }
+
+    private static final class MetadataInputStream extends ObjectInputStream {
+        private final ClassLoader classLoader;
+
+        MetadataInputStream(final InputStream in, final ClassLoader classLoader) throws IOException {
+            super(in);
+            this.classLoader = classLoader;
+        }
+
+        @Override
+        protected Class<?> resolveClass(final ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+            if (classLoader != null) {
+                try {
+                    return Class.forName(desc.getName(), false, classLoader);
+                } catch (ClassNotFoundException e) {
+                    // fall through
+                }
+            }
+            return super.resolveClass(desc);
+        }
+    }
+}
@@ -73,7 +73,10 @@ final class DeploymentPhaseContextImpl extends SimpleAttachable implements Deplo
 
     @Override
     public <T> void addDependency(final ServiceName serviceName, final Class<T> type, final Injector<T> injector) {
-        nextPhaseBuilder.addDependency(serviceName, type, injector);
+        // processors of a phase may run concurrently, and the builder is not thread safe
+        synchronized (nextPhaseBuilder) {
+            nextPhaseBuilder.addDependency(serviceName, type, injector);
+        }
     }
 
     @Override
@@ -0,0 +1,319 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.server.deployment;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The time spent processing a deployment unit, per phase and per deployment unit processor, and the time spent
+ * mounting and indexing its contents.  Every time is recorded both as elapsed wall clock time and as CPU time of the
+ * threads doing the work.  Processors of a phase may run concurrently, so the processor wall times of a phase may add
+ * up to more than the phase wall time, and the CPU time of a phase may exceed its wall time.  The CPU time of a
+ * processor is that of the deploying thread only; the CPU time of a phase also includes the helper threads which
+ * indexed resource roots for its processors, which is also reported as part of the indexing CPU time.
+ * <p/>
+ * Every time is recorded against the phase it was spent in.  When a phase is started again, for instance after one
+ * of its dependencies restarted, the times recorded for it by its previous run are discarded, so the profile always
+ * describes the latest run of each phase.
+ *
+ * @author agent
+ */
+public final class DeploymentProfile {
+
+    private static final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+    private static final boolean cpuTimeSupported = isCpuTimeEnabled();
+
+    private final Map<Phase, Timing> phaseTimes = new EnumMap<Phase, Timing>(Phase.class);
+    private final Map<Phase, Map<String, Timing>> processorTimes = new EnumMap<Phase, Map<String, Timing>>(Phase.class);
+    private final Map<Phase, Timing> mountTimes = new EnumMap<Phase, Timing>(Phase.class);
+    private final Map<Phase, Timing> indexTimes = new EnumMap<Phase, Timing>(Phase.class);
+    private final Map<Phase, Long> helperCpuTimes = new EnumMap<Phase, Long>(Phase.class);
+
+    public DeploymentProfile() {
+    }
+
+    private DeploymentProfile(final DeploymentProfile source) {
+        copy(source.phaseTimes, phaseTimes);
+        for (Map.Entry<Phase, Map<String, Timing>> entry : source.processorTimes.entrySet()) {
+            final Map<String, Timing> times = new LinkedHashMap<String, Timing>();
+            copy(entry.getValue(), times);
+            processorTimes.put(entry.getKey(), times);
+        }
+        copy(source.mountTimes, mountTimes);
+        copy(source.indexTimes, indexTimes);
+        helperCpuTimes.putAll(source.helperCpuTimes);
+    }
+
+    private static boolean isCpuTimeEnabled() {
+        try {
+            return threadBean.isCurrentThreadCpuTimeSupported() && threadBean.isThreadCpuTimeEnabled();
+        } catch (UnsupportedOperationException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Determine whether CPU times are measured.  If not, every CPU time is reported as zero.
+     *
+     * @return {@code true} if the JVM measures the CPU time of threads
+     */
+    public static boolean isCpuTimeSupported() {
+        return cpuTimeSupported;
+    }
+
+    /**
+     * Get the CPU time used so far by the calling thread, to be subtracted from a later reading.
+     *
+     * @return the CPU time in nanoseconds, or {@code 0} if CPU times are not measured
+     */
+    public static long currentThreadCpuTime() {
+        return cpuTimeSupported ? threadBean.getCurrentThreadCpuTime() : 0L;
+    }
+
+    /**
+     * Take a copy of the times recorded so far, which is not affected by phases completing or starting again.  The
+     * times of a profile being recorded should be read from a snapshot, so that they describe the same run of each
+     * phase.
+     *
+     * @return the copy
+     */
+    public synchronized DeploymentProfile snapshot() {
+        return new DeploymentProfile(this);
+    }
+
+    /**
+     * Discard the times recorded by the previous run of a phase, as it is about to run again.
+     *
+     * @param phase the phase
+     */
+    public synchronized void phaseStarted(final Phase phase) {
+        phaseTimes.remove(phase);
+        processorTimes.remove(phase);
+        mountTimes.remove(phase);
+        indexTimes.remove(phase);
+        helperCpuTimes.remove(phase);
+    }
+
+    /**
+     * Record the time a processor took to deploy.  Times of processors of the same class are added up.
+     *
+     * @param phase the phase
+     * @param processor the processor
+     * @param nanos the elapsed time, in nanoseconds
+     * @param cpuNanos the CPU time, in nanoseconds
+     */
+    public synchronized void processorCompleted(final Phase phase, final DeploymentUnitProcessor processor, final long nanos, final long cpuNanos) {
+        Map<String, Timing> times = processorTimes.get(phase);
+        if (times == null) {
+            times = new LinkedHashMap<String, Timing>();
+            processorTimes.put(phase, times);
+        }
+        final String name = processor.getClass().getName();
+        Timing timing = times.get(name);
+        if (timing == null) {
+            timing = new Timing();
+            times.put(name, timing);
+        }
+        timing.add(nanos, cpuNanos);
+    }
+
+    /**
+     * Record the time a phase took, from its first processor starting to its last one completing.  The CPU time of
+     * the phase is that of its processors and of the helper threads indexing for them.
+     *
+     * @param phase the phase
+     * @param nanos the elapsed time, in nanoseconds
+     */
+    public synchronized void phaseCompleted(final Phase phase, final long nanos) {
+        final Long helperCpuNanos = helperCpuTimes.get(phase);
+        long cpuNanos = helperCpuNanos == null ? 0 : helperCpuNanos.longValue();
+        final Map<String, Timing> times = processorTimes.get(phase);
+        if (times != null) {
+            for (Timing timing : times.values()) {
+                cpuNanos += timing.cpuNanos;
+            }
+        }
+        final Timing timing = new Timing();
+        timing.add(nanos, cpuNanos);
+        phaseTimes.put(phase, timing);
+    }
+
+    /**
+     * Record the time spent mounting the deployment contents.
+     *
+     * @param phase the phase mounting the contents
+     * @param nanos the elapsed time, in nanoseconds
+     * @param cpuNanos the CPU time, in nanoseconds
+     */
+    public synchronized void mountCompleted(final Phase phase, final long nanos, final long cpuNanos) {
+        add(mountTimes, phase, nanos, cpuNanos);
+    }
+
+    /**
+     * Record the time spent building the annotation indexes of the deployment resource roots.
+     *
+     * @param phase the phase building the indexes
+     * @param nanos the elapsed time, in nanoseconds
+     * @param cpuNanos the CPU time of all the indexing threads, in nanoseconds
+     * @param helperCpuNanos the part of {@code cpuNanos} used by threads other than the deploying thread, which is not
+     *                       included in the processor's own CPU time
+     */
+    public synchronized void indexingCompleted(final Phase phase, final long nanos, final long cpuNanos, final long helperCpuNanos) {
+        add(indexTimes, phase, nanos, cpuNanos);
+        final Long previous = helperCpuTimes.get(phase);
+        helperCpuTimes.put(phase, Long.valueOf(previous == null ? helperCpuNanos : previous.longValue() + helperCpuNanos));
+    }
+
+    /**
+     * Get the time a phase took.
+     *
+     * @param phase the phase
+     * @return the time in milliseconds, or {@code -1} if the phase has not completed
+     */
+    public synchronized long getPhaseTime(final Phase phase) {
+        final Timing timing = phaseTimes.get(phase);
+        return timing == null ? -1 : toMillis(timing.nanos);
+    }
+
+    /**
+     * Get the CPU time of the processors of a phase.
+     *
+     * @param phase the phase
+     * @return the time in milliseconds, or {@code -1} if the phase has not completed
+     */
+    public synchronized long getPhaseCpuTime(final Phase phase) {
+        final Timing timing = phaseTimes.get(phase);
+        return timing == null ? -1 : toMillis(timing.cpuNanos);
+    }
+
+    /**
+     * Get the time each processor of a phase took, in the order the processors completed.
+     *
+     * @param phase the phase
+     * @return the times in milliseconds, keyed by processor class name
+     */
+    public synchronized Map<String, Long> getProcessorTimes(final Phase phase) {
+        return getProcessorTimes(phase, false);
+    }
+
+    /**
+     * Get the CPU time of each processor of a phase, in the order the processors completed.
+     *
+     * @param phase the phase
+     * @return the times in milliseconds, keyed by processor class name
+     */
+    public synchronized Map<String, Long> getProcessorCpuTimes(final Phase phase) {
+        return getProcessorTimes(phase, true);
+    }
+
+    /**
+     * Get the time spent mounting the deployment contents.
+     *
+     * @return the time in milliseconds
+     */
+    public synchronized long getMountTime() {
+        return toMillis(total(mountTimes, false));
+    }
+
+    /**
+     * Get the CPU time spent mounting the deployment contents.
+     *
+     * @return the time in milliseconds
+     */
+    public synchronized long getMountCpuTime() {
+        return toMillis(total(mountTimes, true));
+    }
+
+    /**
+     * Get the time spent indexing the deployment resource roots.
+     *
+     * @return the time in milliseconds
+     */
+    public synchronized long getIndexTime() {
+        return toMillis(total(indexTimes, false));
+    }
+
+    /**
+     * Get the CPU time spent indexing the deployment resource roots.
+     *
+     * @return the time in milliseconds
+     */
+    public synchronized long getIndexCpuTime() {
+        return toMillis(total(indexTimes, true));
+    }
+
+    private Map<String, Long> getProcessorTimes(final Phase phase, final boolean cpu) {
+        final Map<String, Long> result = new LinkedHashMap<String, Long>();
+        final Map<String, Timing> times = processorTimes.get(phase);
+        if (times != null) {
+            for (Map.Entry<String, Timing> entry : times.entrySet()) {
+                final Timing timing = entry.getValue();
+                result.put(entry.getKey(), Long.valueOf(toMillis(cpu ? timing.cpuNanos : timing.nanos)));
+            }
+        }
+        return result;
+    }
+
+    private static <K> void copy(final Map<K, Timing> source, final Map<K, Timing> target) {
+        for (Map.Entry<K, Timing> entry : source.entrySet()) {
+            final Timing timing = new Timing();
+            timing.add(entry.getValue().nanos, entry.getValue().cpuNanos);
+            target.put(entry.getKey(), timing);
+        }
+    }
+
+    private static void add(final Map<Phase, Timing> times, final Phase phase, final long nanos, final long cpuNanos) {
+        Timing timing = times.get(phase);
+        if (timing == null) {
+            timing = new Timing();
+            times.put(phase, timing);
+        }
+        timing.add(nanos, cpuNanos);
+    }
+
+    private static long total(final Map<Phase, Timing> times, final boolean cpu) {
+        long total = 0;
+        for (Timing timing : times.values()) {
+            total += cpu ? timing.cpuNanos : timing.nanos;
+        }
+        return total;
+    }
+
+    private static long toMillis(final long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    private static final class Timing {
+        private long nanos;
+        private long cpuNanos;
+
+        void add(final long nanos, final long cpuNanos) {
+            this.nanos += nanos;
+            this.cpuNanos += cpuNanos;
+        }
+    }
+}
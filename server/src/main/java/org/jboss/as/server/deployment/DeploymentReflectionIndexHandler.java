@@ -0,0 +1,92 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.server.deployment;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RUNTIME_NAME;
+
+import org.jboss.as.controller.BasicOperationResult;
+import org.jboss.as.controller.ModelQueryOperationHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationResult;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.ResultHandler;
+import org.jboss.as.controller.RuntimeTask;
+import org.jboss.as.controller.RuntimeTaskContext;
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.as.server.deployment.reflect.DeploymentReflectionIndex;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+
+/**
+ * Reads the size of the {@link DeploymentReflectionIndex} of a deployment, and of the index shared by all the
+ * deployments.  The deployment's own counts are undefined if the deployment is not deployed.
+ *
+ * @author agent
+ */
+public class DeploymentReflectionIndexHandler implements ModelQueryOperationHandler {
+
+    public static final String ATTRIBUTE_NAME = "reflection-index";
+
+    public static final String INDEXED_CLASSES = "indexed-classes";
+    public static final String RESOLVED_MEMBERS = "resolved-members";
+    public static final String SHARED_INDEXED_CLASSES = "shared-indexed-classes";
+    public static final String SHARED_RESOLVED_MEMBERS = "shared-resolved-members";
+
+    public static final DeploymentReflectionIndexHandler INSTANCE = new DeploymentReflectionIndexHandler();
+
+    private DeploymentReflectionIndexHandler() {
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public OperationResult execute(final OperationContext context, final ModelNode operation, final ResultHandler resultHandler) throws OperationFailedException {
+        final ModelNode runtimeName = context.getSubModel().get(RUNTIME_NAME);
+        final String deploymentUnitName = runtimeName.isDefined() ? runtimeName.asString() : PathAddress.pathAddress(operation.get(OP_ADDR)).getLastElement().getValue();
+        if (context.getRuntimeContext() != null) {
+            context.getRuntimeContext().setRuntimeTask(new RuntimeTask() {
+                @Override
+                public void execute(final RuntimeTaskContext context) throws OperationFailedException {
+                    final ModelNode result = new ModelNode();
+                    final ServiceController<?> controller = context.getServiceRegistry().getService(Services.deploymentUnitName(deploymentUnitName));
+                    if (controller != null && controller.getState() == ServiceController.State.UP) {
+                        final DeploymentUnit deploymentUnit = (DeploymentUnit) controller.getValue();
+                        final DeploymentReflectionIndex index = deploymentUnit == null ? null : deploymentUnit.getAttachment(Attachments.REFLECTION_INDEX);
+                        if (index != null) {
+                            result.get(INDEXED_CLASSES).set(index.getIndexedClassCount());
+                            result.get(RESOLVED_MEMBERS).set(index.getResolvedMemberCount());
+                        }
+                    }
+                    result.get(SHARED_INDEXED_CLASSES).set(DeploymentReflectionIndex.getSharedIndexedClassCount());
+                    result.get(SHARED_RESOLVED_MEMBERS).set(DeploymentReflectionIndex.getSharedResolvedMemberCount());
+                    resultHandler.handleResultFragment(Util.NO_LOCATION, result);
+                    resultHandler.handleResultComplete();
+                }
+            });
+        } else {
+            resultHandler.handleResultFragment(Util.NO_LOCATION, new ModelNode());
+            resultHandler.handleResultComplete();
+        }
+        return new BasicOperationResult();
+    }
+}
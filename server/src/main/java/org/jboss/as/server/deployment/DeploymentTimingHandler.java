@@ -0,0 +1,136 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.server.deployment;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RUNTIME_NAME;
+
+import java.util.List;
+import java.util.Map;
+
+import org.jboss.as.controller.BasicOperationResult;
+import org.jboss.as.controller.ModelQueryOperationHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationResult;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.ResultHandler;
+import org.jboss.as.controller.RuntimeTask;
+import org.jboss.as.controller.RuntimeTaskContext;
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+
+/**
+ * Reads the {@link DeploymentProfile} of a deployment and of its sub-deployments: the wall clock and CPU time of
+ * every phase and deployment unit processor, and of mounting and indexing the deployment contents.  The CPU time of a
+ * phase includes the helper threads indexing the deployment, which the CPU times of its processors do not.  The
+ * result is undefined if the deployment is not deployed.
+ *
+ * @author agent
+ */
+public class DeploymentTimingHandler implements ModelQueryOperationHandler {
+
+    public static final String ATTRIBUTE_NAME = "timing";
+
+    public static final String TIME = "time";
+    public static final String CPU_TIME = "cpu-time";
+    public static final String MOUNT = "mount";
+    public static final String INDEX = "index";
+    public static final String PHASE = "phase";
+    public static final String PROCESSOR = "processor";
+    public static final String SUBDEPLOYMENT = "subdeployment";
+
+    public static final DeploymentTimingHandler INSTANCE = new DeploymentTimingHandler();
+
+    private DeploymentTimingHandler() {
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public OperationResult execute(final OperationContext context, final ModelNode operation, final ResultHandler resultHandler) throws OperationFailedException {
+        final ModelNode runtimeName = context.getSubModel().get(RUNTIME_NAME);
+        final String deploymentUnitName = runtimeName.isDefined() ? runtimeName.asString() : PathAddress.pathAddress(operation.get(OP_ADDR)).getLastElement().getValue();
+        if (context.getRuntimeContext() != null) {
+            context.getRuntimeContext().setRuntimeTask(new RuntimeTask() {
+                @Override
+                public void execute(final RuntimeTaskContext context) throws OperationFailedException {
+                    final ModelNode result = new ModelNode();
+                    final ServiceController<?> controller = context.getServiceRegistry().getService(Services.deploymentUnitName(deploymentUnitName));
+                    if (controller != null && controller.getState() == ServiceController.State.UP) {
+                        final DeploymentUnit deploymentUnit = (DeploymentUnit) controller.getValue();
+                        if (deploymentUnit != null) {
+                            describe(deploymentUnit, result);
+                        }
+                    }
+                    resultHandler.handleResultFragment(Util.NO_LOCATION, result);
+                    resultHandler.handleResultComplete();
+                }
+            });
+        } else {
+            resultHandler.handleResultFragment(Util.NO_LOCATION, new ModelNode());
+            resultHandler.handleResultComplete();
+        }
+        return new BasicOperationResult();
+    }
+
+    private static void describe(final DeploymentUnit deploymentUnit, final ModelNode result) {
+        final DeploymentProfile attached = deploymentUnit.getAttachment(Attachments.DEPLOYMENT_PROFILE);
+        if (attached == null) {
+            return;
+        }
+        // a phase may start again while the times are read, so read them all from one snapshot
+        final DeploymentProfile profile = attached.snapshot();
+        final boolean cpu = DeploymentProfile.isCpuTimeSupported();
+        long total = 0;
+        long totalCpu = 0;
+        for (Phase phase : Phase.values()) {
+            final long time = profile.getPhaseTime(phase);
+            if (time < 0) {
+                continue;
+            }
+            final long cpuTime = profile.getPhaseCpuTime(phase);
+            total += time;
+            totalCpu += cpuTime;
+            final ModelNode phaseNode = result.get(PHASE, phase.name());
+            setTime(phaseNode, time, cpuTime, cpu);
+            final Map<String, Long> cpuTimes = profile.getProcessorCpuTimes(phase);
+            for (Map.Entry<String, Long> entry : profile.getProcessorTimes(phase).entrySet()) {
+                setTime(phaseNode.get(PROCESSOR, entry.getKey()), entry.getValue().longValue(), cpuTimes.get(entry.getKey()).longValue(), cpu);
+            }
+        }
+        setTime(result, total, totalCpu, cpu);
+        setTime(result.get(MOUNT), profile.getMountTime(), profile.getMountCpuTime(), cpu);
+        setTime(result.get(INDEX), profile.getIndexTime(), profile.getIndexCpuTime(), cpu);
+        final List<DeploymentUnit> subDeployments = deploymentUnit.getAttachmentList(Attachments.SUB_DEPLOYMENTS);
+        for (DeploymentUnit subDeployment : subDeployments) {
+            describe(subDeployment, result.get(SUBDEPLOYMENT, subDeployment.getName()));
+        }
+    }
+
+    private static void setTime(final ModelNode node, final long time, final long cpuTime, final boolean cpu) {
+        node.get(TIME).set(time);
+        if (cpu) {
+            node.get(CPU_TIME).set(cpuTime);
+        }
+    }
+}
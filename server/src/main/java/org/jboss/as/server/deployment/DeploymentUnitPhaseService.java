@@ -34,9 +34,14 @@ import org.jboss.msc.service.StartException;
 import org.jboss.msc.service.StopContext;
 import org.jboss.msc.value.InjectedValue;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * A service which executes a particular phase of deployment.
@@ -73,8 +78,6 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
     public synchronized void start(final StartContext context) throws StartException {
         final DeployerChains chains = deployerChainsInjector.getValue();
         final DeploymentUnit deploymentUnit = this.deploymentUnit;
-        final List<DeploymentUnitProcessor> list = chains.getChain(phase);
-        final ListIterator<DeploymentUnitProcessor> iterator = list.listIterator();
         final ServiceContainer container = context.getController().getServiceContainer();
         final ServiceTarget serviceTarget = context.getChildTarget().subTarget();
         final Phase nextPhase = phase.next();
@@ -109,11 +112,23 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
             }
         }
 
-        while (iterator.hasNext()) {
-            final DeploymentUnitProcessor processor = iterator.next();
+        final DeploymentProfile profile = deploymentUnit.getAttachment(Attachments.DEPLOYMENT_PROFILE);
+        if (profile != null) {
+            profile.phaseStarted(phase);
+        }
+        final long phaseStart = System.nanoTime();
+        final List<DeploymentUnitProcessor> started = new ArrayList<DeploymentUnitProcessor>(chains.getChain(phase).size());
+        for (DeployerChains.Segment segment : chains.getSegments(phase)) {
             try {
-                processor.deploy(processorContext);
+                if (segment.size() == 1) {
+                    final DeploymentUnitProcessor processor = segment.getProcessor(0);
+                    started.add(processor);
+                    deploy(processor, processorContext, profile);
+                } else {
+                    deployConcurrently(segment, processorContext, profile, chains.getExecutor(), started);
+                }
             } catch (Throwable e) {
+                final ListIterator<DeploymentUnitProcessor> iterator = started.listIterator(started.size());
                 while (iterator.hasPrevious()) {
                     final DeploymentUnitProcessor prev = iterator.previous();
                     safeUndeploy(deploymentUnit, phase, prev);
@@ -121,6 +136,13 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
                 throw new StartException(String.format("Failed to process phase %s of %s", phase, deploymentUnit), e);
             }
         }
+        if (profile != null) {
+            profile.phaseCompleted(phase, System.nanoTime() - phaseStart);
+            if (log.isDebugEnabled()) {
+                log.debugf("Phase %s of %s took %d ms (%d ms CPU), processors (ms): %s", phase, deploymentUnit, Long.valueOf(profile.getPhaseTime(phase)),
+                        Long.valueOf(profile.getPhaseCpuTime(phase)), profile.getProcessorTimes(phase));
+            }
+        }
         if (nextPhase != null) {
             phaseServiceBuilder.addDependency(Services.JBOSS_DEPLOYMENT_CHAINS, DeployerChains.class, phaseService.getDeployerChainsInjector());
             phaseServiceBuilder.addDependency(context.getController().getName());
@@ -164,6 +186,95 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
         }
     }
 
+    private void deploy(final DeploymentUnitProcessor processor, final DeploymentPhaseContext processorContext, final DeploymentProfile profile) throws DeploymentUnitProcessingException {
+        final long start = System.nanoTime();
+        final long cpuStart = DeploymentProfile.currentThreadCpuTime();
+        processor.deploy(processorContext);
+        if (profile != null) {
+            profile.processorCompleted(phase, processor, System.nanoTime() - start, DeploymentProfile.currentThreadCpuTime() - cpuStart);
+        }
+    }
+
+    /**
+     * Run the processors of a segment, starting each one as soon as the processors it must wait for have completed.
+     * The calling thread works through the segment itself, helped by threads of the executor if there is one.  Once
+     * a processor fails no other is started, and the failure is thrown after the running ones have completed.
+     *
+     * @param started the list to which the started processors are added, in chain order
+     */
+    private void deployConcurrently(final DeployerChains.Segment segment, final DeploymentPhaseContext processorContext, final DeploymentProfile profile,
+                                    final ExecutorService executor, final List<DeploymentUnitProcessor> started) throws Exception {
+        final SegmentRun run = new SegmentRun(segment);
+        final ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        final Runnable worker = new Runnable() {
+            public void run() {
+                int index;
+                while ((index = run.next()) >= 0) {
+                    Throwable failure = null;
+                    try {
+                        deploy(segment.getProcessor(index), processorContext, profile);
+                    } catch (Throwable t) {
+                        failure = t;
+                    }
+                    run.completed(index, failure);
+                }
+            }
+        };
+        final List<Future<?>> helpers = new ArrayList<Future<?>>();
+        if (executor != null) {
+            final int helperCount = Math.min(segment.size(), Runtime.getRuntime().availableProcessors()) - 1;
+            final Runnable helper = new Runnable() {
+                public void run() {
+                    final Thread thread = Thread.currentThread();
+                    final ClassLoader old = thread.getContextClassLoader();
+                    thread.setContextClassLoader(classLoader);
+                    try {
+                        worker.run();
+                    } finally {
+                        thread.setContextClassLoader(old);
+                    }
+                }
+            };
+            try {
+                for (int i = 0; i < helperCount; i++) {
+                    helpers.add(executor.submit(helper));
+                }
+            } catch (RejectedExecutionException e) {
+                // fewer helpers, or none; the calling thread still gets through the segment
+            }
+        }
+        worker.run();
+        for (Future<?> helper : helpers) {
+            // a helper which has not started yet has nothing left to do
+            if (!helper.cancel(false)) {
+                boolean interrupted = false;
+                try {
+                    while (true) {
+                        try {
+                            helper.get();
+                            break;
+                        } catch (InterruptedException e) {
+                            interrupted = true;
+                        }
+                    }
+                } finally {
+                    if (interrupted) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+        }
+        run.addStarted(started);
+        final Throwable failure = run.getFailure();
+        if (failure instanceof Exception) {
+            throw (Exception) failure;
+        } else if (failure instanceof Error) {
+            throw (Error) failure;
+        } else if (failure != null) {
+            throw new DeploymentUnitProcessingException(failure);
+        }
+    }
+
     private static void safeUndeploy(final DeploymentUnit deploymentUnit, final Phase phase, final DeploymentUnitProcessor prev) {
         try {
             prev.undeploy(deploymentUnit);
@@ -179,4 +290,93 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
     InjectedValue<DeployerChains> getDeployerChainsInjector() {
         return deployerChainsInjector;
     }
+
+    /**
+     * The progress of the processors of a segment through one phase of one deployment unit.
+     */
+    private static final class SegmentRun {
+        private final DeployerChains.Segment segment;
+        private final int[] waitingFor;
+        private final boolean[] started;
+        private final Deque<Integer> ready = new ArrayDeque<Integer>();
+        private int startedCount;
+        private int running;
+        private Throwable failure;
+
+        SegmentRun(final DeployerChains.Segment segment) {
+            this.segment = segment;
+            final int size = segment.size();
+            waitingFor = new int[size];
+            started = new boolean[size];
+            for (int i = 0; i < size; i++) {
+                waitingFor[i] = segment.getPredecessorCount(i);
+                if (waitingFor[i] == 0) {
+                    ready.add(Integer.valueOf(i));
+                }
+            }
+        }
+
+        /**
+         * Take the next processor to run, waiting while the remaining ones depend on running processors.
+         *
+         * @return the index of the processor, or {@code -1} if there is nothing left for the caller to run
+         */
+        synchronized int next() {
+            boolean interrupted = false;
+            try {
+                while (failure == null && startedCount < started.length) {
+                    final Integer index = ready.poll();
+                    if (index != null) {
+                        started[index.intValue()] = true;
+                        startedCount++;
+                        running++;
+                        return index.intValue();
+                    }
+                    if (running == 0) {
+                        // can only happen with a bad segment, but do not wait forever
+                        failure = new IllegalStateException("No deployment unit processor of the segment can run");
+                        break;
+                    }
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+                return -1;
+            } finally {
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        synchronized void completed(final int index, final Throwable failure) {
+            running--;
+            if (failure != null) {
+                if (this.failure == null) {
+                    this.failure = failure;
+                }
+            } else {
+                for (int successor : segment.getSuccessors(index)) {
+                    if (--waitingFor[successor] == 0) {
+                        ready.add(Integer.valueOf(successor));
+                    }
+                }
+            }
+            notifyAll();
+        }
+
+        synchronized void addStarted(final List<DeploymentUnitProcessor> list) {
+            for (int i = 0; i < started.length; i++) {
+                if (started[i]) {
+                    list.add(segment.getProcessor(i));
+                }
+            }
+        }
+
+        synchronized Throwable getFailure() {
+            return failure;
+        }
+    }
 }
@@ -58,6 +58,14 @@ public class DeploymentUploadBytesHandler
         return DeploymentDescription.getUploadDeploymentBytesOperation(locale);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected boolean isContentIncluded(ModelNode operation) {
+        return operation.hasDefined(BYTES);
+    }
+
     /**
      * {@inheritDoc}
      */
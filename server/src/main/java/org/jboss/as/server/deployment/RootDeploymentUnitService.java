@@ -37,6 +37,7 @@ final class RootDeploymentUnitService extends AbstractDeploymentUnitService {
     private final InjectedValue<ServerDeploymentRepository> serverDeploymentRepositoryInjector = new InjectedValue<ServerDeploymentRepository>();
     private final String name;
     private final String managementName;
+    private final byte[] hash;
     final InjectedValue<VirtualFile> contentsInjector = new InjectedValue<VirtualFile>();
     private final DeploymentUnit parent;
 
@@ -46,12 +47,15 @@ final class RootDeploymentUnitService extends AbstractDeploymentUnitService {
      * @param name the deployment unit simple name
      * @param managementName the deployment's domain-wide unique name
      * @param parent the parent deployment unit
+     * @param hash the hash of the deployment contents in the content repository, or {@code null} if they are not
+     *             held by the repository
      */
-    public RootDeploymentUnitService(final String name, final String managementName, final DeploymentUnit parent) {
+    public RootDeploymentUnitService(final String name, final String managementName, final DeploymentUnit parent, final byte[] hash) {
         assert name != null : "name is null";
         this.name = name;
         this.managementName = managementName;
         this.parent = parent;
+        this.hash = hash;
     }
 
     protected DeploymentUnit createAndInitializeDeploymentUnit(final ServiceRegistry registry) {
@@ -59,6 +63,9 @@ final class RootDeploymentUnitService extends AbstractDeploymentUnitService {
         deploymentUnit.putAttachment(Attachments.RUNTIME_NAME, name);
         deploymentUnit.putAttachment(Attachments.MANAGEMENT_NAME, managementName);
         deploymentUnit.putAttachment(Attachments.DEPLOYMENT_CONTENTS, contentsInjector.getValue());
+        if (hash != null) {
+            deploymentUnit.putAttachment(Attachments.DEPLOYMENT_HASH, hash);
+        }
 
         // Attach the deployment repo
         deploymentUnit.putAttachment(Attachments.SERVER_DEPLOYMENT_REPOSITORY, serverDeploymentRepositoryInjector.getValue());
@@ -0,0 +1,166 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2010, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.server.deployment.annotation;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+
+import org.jboss.as.controller.HashUtil;
+import org.jboss.as.server.deployment.api.ContentRepository;
+import org.jboss.jandex.Index;
+import org.jboss.jandex.IndexReader;
+import org.jboss.jandex.IndexWriter;
+import org.jboss.logging.Logger;
+import org.jboss.vfs.VFSUtils;
+
+/**
+ * Keeps the annotation indexes of deployments from the content repository on disk, so that unchanged content is
+ * not scanned again on the next boot or redeploy. An index is stored per deployment content hash and path of the
+ * resource root within the deployment; as the content of a hash never changes, an index once written is never
+ * updated.
+ *
+ * @author agent
+ */
+public class AnnotationIndexCache {
+
+    private static final Logger log = Logger.getLogger("org.jboss.as.server.deployment.annotation");
+
+    private final File directory;
+    private final ContentRepository contentRepository;
+
+    /**
+     * Create a new cache.
+     *
+     * @param directory the directory holding the cached indexes
+     * @param contentRepository the repository holding the indexed content
+     */
+    public AnnotationIndexCache(final File directory, final ContentRepository contentRepository) {
+        this.directory = directory;
+        this.contentRepository = contentRepository;
+    }
+
+    /**
+     * Read the cached index of a resource root.
+     *
+     * @param hash the hash of the deployment content
+     * @param path the path of the resource root within the deployment, empty for the deployment root
+     * @return the index, or {@code null} if none is cached or it can not be read
+     */
+    Index get(final byte[] hash, final String path) {
+        final File file = fileFor(hash, path);
+        if (!file.isFile()) {
+            return null;
+        }
+        try {
+            final InputStream in = new BufferedInputStream(new FileInputStream(file));
+            try {
+                return new IndexReader(in).read();
+            } finally {
+                VFSUtils.safeClose(in);
+            }
+        } catch (Exception e) {
+            // a partial write, or the format of another version of the indexer; the root is scanned again
+            log.debugf(e, "Ignoring unreadable cached annotation index %s", file);
+            file.delete();
+            return null;
+        }
+    }
+
+    /**
+     * Store the index of a resource root. Failures are logged, not thrown, as the cache is only an optimization.
+     *
+     * @param hash the hash of the deployment content
+     * @param path the path of the resource root within the deployment, empty for the deployment root
+     * @param index the index
+     */
+    void put(final byte[] hash, final String path, final Index index) {
+        final File file = fileFor(hash, path);
+        final File dir = file.getParentFile();
+        if (!dir.isDirectory() && !dir.mkdirs() && !dir.isDirectory()) {
+            log.warnf("Could not create annotation index cache directory %s", dir);
+            return;
+        }
+        File tmp = null;
+        try {
+            // write to a temporary file first, so a concurrent reader or a crash never leaves a partial index behind
+            tmp = File.createTempFile("index", ".tmp", dir);
+            final OutputStream out = new BufferedOutputStream(new FileOutputStream(tmp));
+            try {
+                new IndexWriter(out).write(index);
+            } finally {
+                VFSUtils.safeClose(out);
+            }
+            if (!tmp.renameTo(file) && !file.isFile()) {
+                log.warnf("Could not store annotation index %s", file);
+            }
+        } catch (IOException e) {
+            log.warnf(e, "Could not store annotation index %s", file);
+        } finally {
+            if (tmp != null) {
+                tmp.delete();
+            }
+        }
+    }
+
+    /**
+     * Delete the cached indexes of content no longer in the content repository.
+     */
+    public void purge() {
+        final File[] hashDirs = directory.listFiles();
+        if (hashDirs == null) {
+            return;
+        }
+        for (File hashDir : hashDirs) {
+            if (!hashDir.isDirectory() || !hashDir.getName().matches("([0-9a-f]{2})+")) {
+                continue;
+            }
+            if (!contentRepository.hasContent(HashUtil.hexStringToByteArray(hashDir.getName()))) {
+                final File[] files = hashDir.listFiles();
+                if (files != null) {
+                    for (File file : files) {
+                        file.delete();
+                    }
+                }
+                hashDir.delete();
+            }
+        }
+    }
+
+    private File fileFor(final byte[] hash, final String path) {
+        final String name;
+        try {
+            // the leading separator keeps the name of the deployment root distinct from those of nested roots
+            name = URLEncoder.encode("/" + path, "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+        return new File(new File(directory, HashUtil.bytesToHexString(hash)), name + ".idx");
+    }
+}
@@ -22,21 +22,33 @@
 
 package org.jboss.as.server.deployment.annotation;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
-
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
 import org.jboss.as.server.deployment.Attachments;
 import org.jboss.as.server.deployment.DeploymentPhaseContext;
+import org.jboss.as.server.deployment.DeploymentProfile;
 import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
 import org.jboss.as.server.deployment.DeploymentUnitProcessor;
 import org.jboss.as.server.deployment.module.ResourceRoot;
 import org.jboss.jandex.Index;
+import org.jboss.jandex.IndexReader;
 import org.jboss.jandex.Indexer;
+import org.jboss.logging.Logger;
 import org.jboss.vfs.VFSUtils;
 import org.jboss.vfs.VirtualFile;
 import org.jboss.vfs.VirtualFileFilter;
@@ -44,13 +56,44 @@ import org.jboss.vfs.VisitorAttributes;
 import org.jboss.vfs.util.SuffixMatchFilter;
 
 /**
- * Deployment unit processor responsible for creating and attaching an annotation index for a resource root
+ * Deployment unit processor responsible for creating and attaching an annotation index for a resource root.
+ * <p/>
+ * The resource roots of a deployment are indexed concurrently, each with its own {@link Indexer}, by the deploying
+ * thread and by tasks submitted to the executor given at construction. A root holding a pre-built index in
+ * {@code META-INF/jandex.idx} is not scanned, and the indexes of deployments from the content repository are kept
+ * in an {@link AnnotationIndexCache}, so that only content not indexed before is scanned on boot or redeploy.
  *
  * @author John E. Bailey
  * @author Stuart Douglas
  */
 public class AnnotationIndexProcessor implements DeploymentUnitProcessor {
 
+    private static final Logger log = Logger.getLogger("org.jboss.as.server.deployment.annotation");
+
+    private static final String PREBUILT_INDEX = "META-INF/jandex.idx";
+
+    private final ExecutorService executor;
+    private final AnnotationIndexCache cache;
+
+    /**
+     * Create a processor indexing the resource roots one after another on the deploying thread.
+     */
+    public AnnotationIndexProcessor() {
+        this(null, null);
+    }
+
+    /**
+     * Create a processor indexing the resource roots in parallel.
+     *
+     * @param executor the executor running the indexing tasks, or {@code null} to index on the deploying thread only
+     * @param cache the cache of the indexes of deployments from the content repository, or {@code null} to always
+     *              scan the deployments
+     */
+    public AnnotationIndexProcessor(final ExecutorService executor, final AnnotationIndexCache cache) {
+        this.executor = executor;
+        this.cache = cache;
+    }
+
     /**
      * Process this deployment for annotations.  This will use an annotation indexer to create an index of all annotations
      * found in this deployment and attach it to the deployment unit context.
@@ -66,6 +109,7 @@ public class AnnotationIndexProcessor implements DeploymentUnitProcessor {
             allResourceRoots.addAll(resourceRoots);
         }
         allResourceRoots.add(phaseContext.getDeploymentUnit().getAttachment(Attachments.DEPLOYMENT_ROOT));
+        final List<ResourceRoot> pending = new ArrayList<ResourceRoot>();
         for (ResourceRoot resourceRoot : allResourceRoots) {
             if (resourceRoot.getAttachment(Attachments.ANNOTATION_INDEX) != null) {
                 continue;
@@ -75,46 +119,202 @@ public class AnnotationIndexProcessor implements DeploymentUnitProcessor {
             if (shouldIndexResource != null && !shouldIndexResource) {
                 continue;
             }
+            pending.add(resourceRoot);
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
 
-            final List<String> indexIgnorePathList = resourceRoot.getAttachment(Attachments.INDEX_IGNORE_PATHS);
-            final Set<String> indexIgnorePaths;
-            if (indexIgnorePathList != null && !indexIgnorePathList.isEmpty()) {
-                indexIgnorePaths = new HashSet<String>(indexIgnorePathList);
-            } else {
-                indexIgnorePaths = null;
+        // the indexes are cached by the hash of the top level deployment and the path of the root within it
+        DeploymentUnit topLevel = phaseContext.getDeploymentUnit();
+        while (topLevel.getParent() != null) {
+            topLevel = topLevel.getParent();
+        }
+        final byte[] hash = cache == null ? null : topLevel.getAttachment(Attachments.DEPLOYMENT_HASH);
+        final String[] paths = new String[pending.size()];
+        if (hash != null) {
+            final VirtualFile topLevelRoot = topLevel.getAttachment(Attachments.DEPLOYMENT_ROOT).getRoot();
+            for (int i = 0; i < paths.length; i++) {
+                paths[i] = pathWithin(pending.get(i).getRoot(), topLevelRoot);
             }
+        }
 
-            final VirtualFile virtualFile = resourceRoot.getRoot();
-            final Indexer indexer = new Indexer();
-            try {
-                final VisitorAttributes visitorAttributes = new VisitorAttributes();
-                visitorAttributes.setLeavesOnly(true);
-                visitorAttributes.setRecurseFilter(new VirtualFileFilter() {
-                    public boolean accepts(VirtualFile file) {
-                        return indexIgnorePaths == null || !indexIgnorePaths.contains(file.getPathNameRelativeTo(virtualFile));
-                    }
-                });
+        final long start = System.nanoTime();
+        final AtomicLong cpuNanos = new AtomicLong();
+        final AtomicLong helperCpuNanos = new AtomicLong();
+        final Index[] indexes = index(pending, hash, paths, cpuNanos, helperCpuNanos);
+        final DeploymentProfile profile = phaseContext.getDeploymentUnit().getAttachment(Attachments.DEPLOYMENT_PROFILE);
+        if (profile != null) {
+            profile.indexingCompleted(phaseContext.getPhase(), System.nanoTime() - start, cpuNanos.get(), helperCpuNanos.get());
+        }
+        for (int i = 0; i < indexes.length; i++) {
+            pending.get(i).putAttachment(Attachments.ANNOTATION_INDEX, indexes[i]);
+        }
+    }
 
-                final List<VirtualFile> classChildren = virtualFile.getChildren(new SuffixMatchFilter(".class", visitorAttributes));
-                for (VirtualFile classFile : classChildren) {
-                    InputStream inputStream = null;
+    public void undeploy(final DeploymentUnit context) {
+    }
+
+    /**
+     * Index the resource roots, adding the CPU time of every indexing thread to {@code cpuNanos}, and that of the
+     * threads other than the deploying thread to {@code helperCpuNanos}.
+     */
+    private Index[] index(final List<ResourceRoot> resourceRoots, final byte[] hash, final String[] paths, final AtomicLong cpuNanos, final AtomicLong helperCpuNanos) throws DeploymentUnitProcessingException {
+        final Index[] indexes = new Index[resourceRoots.size()];
+        final Thread deployingThread = Thread.currentThread();
+        final AtomicInteger next = new AtomicInteger();
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        final Runnable worker = new Runnable() {
+            public void run() {
+                final ClassBuffer buffer = new ClassBuffer();
+                final long cpuStart = DeploymentProfile.currentThreadCpuTime();
+                int i;
+                while (failure.get() == null && (i = next.getAndIncrement()) < indexes.length) {
                     try {
-                        inputStream = classFile.openStream();
-                        indexer.index(inputStream);
-                    }catch (Exception e){
-                        throw new IOException("Could not index class "+classFile.getPathNameRelativeTo(virtualFile)+" in archive '"+virtualFile+"'",e);
-                    } finally {
-                        VFSUtils.safeClose(inputStream);
+                        indexes[i] = index(resourceRoots.get(i), hash, paths[i], buffer);
+                    } catch (Throwable t) {
+                        failure.compareAndSet(null, t);
                     }
                 }
-                final Index index = indexer.complete();
-                resourceRoot.putAttachment(Attachments.ANNOTATION_INDEX, index);
-            } catch (Throwable t) {
-                throw new DeploymentUnitProcessingException("Failed to index deployment root for annotations", t);
+                final long used = DeploymentProfile.currentThreadCpuTime() - cpuStart;
+                cpuNanos.addAndGet(used);
+                if (Thread.currentThread() != deployingThread) {
+                    helperCpuNanos.addAndGet(used);
+                }
+            }
+        };
+
+        final List<Future<?>> helpers = new ArrayList<Future<?>>();
+        if (executor != null) {
+            final int count = Math.min(indexes.length, Runtime.getRuntime().availableProcessors()) - 1;
+            try {
+                for (int i = 0; i < count; i++) {
+                    helpers.add(executor.submit(worker));
+                }
+            } catch (RejectedExecutionException e) {
+                // index with the helpers submitted so far
+            }
+        }
+        // the deploying thread takes part, so the roots are indexed even if the executor is busy
+        worker.run();
+        try {
+            for (Future<?> helper : helpers) {
+                // a helper which has not started yet would find nothing left to index
+                if (!helper.cancel(false)) {
+                    helper.get();
+                }
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DeploymentUnitProcessingException("Interrupted while indexing deployment roots for annotations", e);
+        } catch (ExecutionException e) {
+            failure.compareAndSet(null, e.getCause());
         }
+        if (failure.get() != null) {
+            throw new DeploymentUnitProcessingException("Failed to index deployment root for annotations", failure.get());
+        }
+        return indexes;
     }
 
-    public void undeploy(final DeploymentUnit context) {
+    private Index index(final ResourceRoot resourceRoot, final byte[] hash, final String path, final ClassBuffer buffer) throws IOException {
+        final VirtualFile prebuilt = resourceRoot.getRoot().getChild(PREBUILT_INDEX);
+        if (prebuilt.isFile()) {
+            try {
+                final InputStream in = prebuilt.openStream();
+                try {
+                    return new IndexReader(in).read();
+                } finally {
+                    VFSUtils.safeClose(in);
+                }
+            } catch (Exception e) {
+                log.warnf(e, "Could not read annotation index %s, indexing %s instead", prebuilt, resourceRoot.getRoot());
+            }
+        }
+        if (path != null) {
+            final Index cached = cache.get(hash, path);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        final Index index = scan(resourceRoot, buffer);
+        if (path != null) {
+            cache.put(hash, path, index);
+        }
+        return index;
+    }
+
+    private static Index scan(final ResourceRoot resourceRoot, final ClassBuffer buffer) throws IOException {
+        final List<String> indexIgnorePathList = resourceRoot.getAttachment(Attachments.INDEX_IGNORE_PATHS);
+        final Set<String> indexIgnorePaths;
+        if (indexIgnorePathList != null && !indexIgnorePathList.isEmpty()) {
+            indexIgnorePaths = new HashSet<String>(indexIgnorePathList);
+        } else {
+            indexIgnorePaths = null;
+        }
+
+        final VirtualFile virtualFile = resourceRoot.getRoot();
+        final Indexer indexer = new Indexer();
+        final VisitorAttributes visitorAttributes = new VisitorAttributes();
+        visitorAttributes.setLeavesOnly(true);
+        visitorAttributes.setRecurseFilter(new VirtualFileFilter() {
+            public boolean accepts(VirtualFile file) {
+                return indexIgnorePaths == null || !indexIgnorePaths.contains(file.getPathNameRelativeTo(virtualFile));
+            }
+        });
+
+        final List<VirtualFile> classChildren = virtualFile.getChildren(new SuffixMatchFilter(".class", visitorAttributes));
+        for (VirtualFile classFile : classChildren) {
+            try {
+                indexer.index(buffer.read(classFile));
+            } catch (Exception e) {
+                throw new IOException("Could not index class " + classFile.getPathNameRelativeTo(virtualFile) + " in archive '" + virtualFile + "'", e);
+            }
+        }
+        return indexer.complete();
+    }
+
+    /**
+     * Gets the path of a resource root within the top level deployment root, or {@code null} if the root is not
+     * part of the deployment contents, in which case it can not be cached by the hash of the deployment.
+     */
+    private static String pathWithin(final VirtualFile root, final VirtualFile topLevelRoot) {
+        if (root.equals(topLevelRoot)) {
+            return "";
+        }
+        for (VirtualFile parent = root.getParent(); parent != null; parent = parent.getParent()) {
+            if (parent.equals(topLevelRoot)) {
+                return root.getPathNameRelativeTo(topLevelRoot);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reads a class file with bulk reads into a buffer reused for all the classes indexed by one thread, rather than
+     * letting the indexer pull the few bytes it needs at a time from the archive stream.
+     */
+    private static final class ClassBuffer {
+        private byte[] bytes = new byte[8192];
+
+        InputStream read(final VirtualFile classFile) throws IOException {
+            final long size = classFile.getSize();
+            if (size > bytes.length && size < Integer.MAX_VALUE) {
+                bytes = new byte[(int) size];
+            }
+            final InputStream inputStream = classFile.openStream();
+            try {
+                int length = 0;
+                int read;
+                while ((read = inputStream.read(bytes, length, bytes.length - length)) != -1) {
+                    length += read;
+                    if (length == bytes.length) {
+                        bytes = Arrays.copyOf(bytes, bytes.length << 1);
+                    }
+                }
+                return new ByteArrayInputStream(bytes, 0, length);
+            } finally {
+                VFSUtils.safeClose(inputStream);
+            }
+        }
     }
 }
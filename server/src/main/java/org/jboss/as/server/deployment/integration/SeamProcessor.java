@@ -123,7 +123,7 @@ public class SeamProcessor implements DeploymentUnitProcessor {
                 builder.setInitialMode(ServiceController.Mode.ACTIVE).install();
                 serviceTarget = null; // our cleanup service install work is done
 
-                ResourceLoader resourceLoader = new VFSResourceLoader(SEAM_INT_JAR, vf);
+                ResourceLoader resourceLoader = new VFSResourceLoader(SEAM_INT_JAR, vf, true);
                 seamIntResourceLoader = ResourceLoaderSpec.createResourceLoaderSpec(resourceLoader);
             }
             return seamIntResourceLoader;
@@ -24,6 +24,7 @@ package org.jboss.as.server.deployment.module;
 
 import org.jboss.as.server.deployment.Attachments;
 import org.jboss.as.server.deployment.DeploymentPhaseContext;
+import org.jboss.as.server.deployment.DeploymentProfile;
 import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
 import org.jboss.as.server.deployment.DeploymentUnitProcessor;
@@ -75,7 +76,13 @@ public class DeploymentRootMountProcessor implements DeploymentUnitProcessor {
             Closeable handle = null;
             try {
                 final boolean mountExploded = MountExplodedMarker.isMountExploded(deploymentUnit);
+                final long start = System.nanoTime();
+                final long cpuStart = DeploymentProfile.currentThreadCpuTime();
                 handle = serverDeploymentRepository.mountDeploymentContent(deploymentContents, deploymentRoot, mountExploded);
+                final DeploymentProfile profile = deploymentUnit.getAttachment(Attachments.DEPLOYMENT_PROFILE);
+                if (profile != null) {
+                    profile.mountCompleted(phaseContext.getPhase(), System.nanoTime() - start, DeploymentProfile.currentThreadCpuTime() - cpuStart);
+                }
                 mountHandle = new MountHandle(handle);
             } catch (IOException e) {
                 failed = true;
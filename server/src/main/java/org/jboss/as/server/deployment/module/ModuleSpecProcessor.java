@@ -210,8 +210,9 @@ public class ModuleSpecProcessor implements DeploymentUnitProcessor {
             specBuilder.addResourceRoot(resourceLoaderSpec);
         }
 
+        final boolean indexPaths = isContentImmutable(deploymentUnit);
         for (ResourceRoot resourceRoot : resourceRoots) {
-            addResourceRoot(specBuilder, resourceRoot);
+            addResourceRoot(specBuilder, resourceRoot, indexPaths);
         }
 
         createDependencies(phaseContext, specBuilder, dependencies);
@@ -277,19 +278,29 @@ public class ModuleSpecProcessor implements DeploymentUnitProcessor {
             }
     }
 
-    private static void addResourceRoot(final ModuleSpec.Builder specBuilder, final ResourceRoot resource)
+    /**
+     * Whether the contents of a deployment do not change while it is deployed, which is the case unless it is an
+     * exploded deployment used in place, without mounting it.
+     */
+    private static boolean isContentImmutable(final DeploymentUnit deploymentUnit) {
+        final DeploymentUnit topLevel = deploymentUnit.getParent() == null ? deploymentUnit : deploymentUnit.getParent();
+        final ResourceRoot deploymentRoot = topLevel.getAttachment(Attachments.DEPLOYMENT_ROOT);
+        return deploymentRoot != null && deploymentRoot.getMountHandle() != null;
+    }
+
+    private static void addResourceRoot(final ModuleSpec.Builder specBuilder, final ResourceRoot resource, final boolean indexPaths)
             throws DeploymentUnitProcessingException {
         try {
             if(resource.getExportFilters().isEmpty()) {
             specBuilder.addResourceRoot(ResourceLoaderSpec.createResourceLoaderSpec(new VFSResourceLoader(resource
-                    .getRootName(), resource.getRoot())));
+                    .getRootName(), resource.getRoot(), indexPaths)));
             } else {
                 final MultiplePathFilterBuilder filterBuilder = PathFilters.multiplePathFilterBuilder(true);
                 for(FilterSpecification filter : resource.getExportFilters()) {
                     filterBuilder.addFilter(filter.getPathFilter(), filter.isInclude());
                 }
                 specBuilder.addResourceRoot(ResourceLoaderSpec.createResourceLoaderSpec(new VFSResourceLoader(resource
-                    .getRootName(), resource.getRoot()), filterBuilder.create()));
+                    .getRootName(), resource.getRoot(), indexPaths), filterBuilder.create()));
             }
         } catch (IOException e) {
             throw new DeploymentUnitProcessingException("Failed to create VFSResourceLoader for root ["
@@ -34,9 +34,8 @@ import org.jboss.modules.ResourceLoader;
 import org.jboss.vfs.VFS;
 import org.jboss.vfs.VFSUtils;
 import org.jboss.vfs.VirtualFile;
-import org.jboss.vfs.VirtualFileFilter;
+import org.jboss.vfs.VirtualFileVisitor;
 import org.jboss.vfs.VisitorAttributes;
-import org.jboss.vfs.util.FilterVirtualFileVisitor;
 
 import java.io.BufferedReader;
 import java.io.IOException;
@@ -46,12 +45,20 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.jar.Attributes;
 import java.util.jar.Manifest;
 
 /**
  * Resource loader capable of loading resources from VFS archives.
+ * <p/>
+ * If asked to, the first lookup walks the root once and keeps the paths of its directories, so that the many lookups
+ * of classes and resources from packages which are not in this root, made while a module searches all of its roots,
+ * are answered without going to the VFS.  Directories added to the root afterwards are not found, so this must only
+ * be asked for roots whose contents do not change.
  *
  * @author John Bailey
  */
@@ -61,6 +68,10 @@ public class VFSResourceLoader implements ResourceLoader {
     private final String rootName;
     private final Manifest manifest;
     private final URL rootUrl;
+    // shared by all the classes from this root which are not signed
+    private final CodeSource codeSource;
+    private final boolean indexPaths;
+    private volatile PathIndex index;
 
     /**
      * Construct new instance.
@@ -70,16 +81,62 @@ public class VFSResourceLoader implements ResourceLoader {
      * @throws IOException if the manifest could not be read or the root URL is invalid
      */
     public VFSResourceLoader(final String rootName, final VirtualFile root) throws IOException {
+        this(rootName, root, false);
+    }
+
+    /**
+     * Construct new instance.
+     *
+     * @param rootName The module root name
+     * @param root The root virtual file
+     * @param indexPaths {@code true} to index the directories of the root, if its contents do not change
+     * @throws IOException if the manifest could not be read or the root URL is invalid
+     */
+    public VFSResourceLoader(final String rootName, final VirtualFile root, final boolean indexPaths) throws IOException {
         this.root = root;
         this.rootName = rootName;
+        this.indexPaths = indexPaths;
         manifest = VFSUtils.getManifest(root);
         rootUrl = root.asFileURL();
+        codeSource = new CodeSource(rootUrl, (CodeSigner[]) null);
+    }
+
+    private PathIndex getIndex() {
+        if (!indexPaths) {
+            return null;
+        }
+        PathIndex index = this.index;
+        if (index == null) {
+            synchronized (this) {
+                index = this.index;
+                if (index == null) {
+                    this.index = index = PathIndex.create(root);
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Get an entry of the root, without going to the VFS if the directories of the root are indexed and the
+     * directory of the entry is not one of them.
+     *
+     * @param path the path of the entry, relative to the root
+     * @return the entry, or {@code null} if there is none
+     */
+    private VirtualFile getEntry(final String path) {
+        final PathIndex index = getIndex();
+        if (index != null && !index.containsDirectoryOf(path)) {
+            return null;
+        }
+        final VirtualFile file = root.getChild(path);
+        return file.exists() ? file : null;
     }
 
     /** {@inheritDoc} */
     public ClassSpec getClassSpec(final String name) throws IOException {
-        final VirtualFile file = root.getChild(name);
-        if (!file.exists()) {
+        final VirtualFile file = getEntry(name);
+        if (file == null) {
             return null;
         }
         final long size = file.getSize();
@@ -96,7 +153,8 @@ public class VFSResourceLoader implements ResourceLoader {
                 // done
                 is.close();
                 spec.setBytes(bytes);
-                spec.setCodeSource(new CodeSource(rootUrl, file.getCodeSigners()));
+                final CodeSigner[] codeSigners = file.getCodeSigners();
+                spec.setCodeSource(codeSigners == null ? codeSource : new CodeSource(rootUrl, codeSigners));
                 return spec;
             } else {
                 throw new IOException("Resource is too large to be a valid class file");
@@ -150,8 +208,8 @@ public class VFSResourceLoader implements ResourceLoader {
     /** {@inheritDoc} */
     public Resource getResource(final String name) {
         try {
-            final VirtualFile file = root.getChild(PathUtils.canonicalize(name));
-            if (!file.exists()) {
+            final VirtualFile file = getEntry(PathUtils.canonicalize(name));
+            if (file == null) {
                 return null;
             }
             return new VFSEntryResource(file, file.toURL());
@@ -184,24 +242,61 @@ public class VFSResourceLoader implements ResourceLoader {
             }
         }
 
-        FilterVirtualFileVisitor visitor = new FilterVirtualFileVisitor(new VirtualFileFilter() {
-            @Override
-            public boolean accepts(VirtualFile file) {
-                return file.isDirectory();
+        final PathIndex pathIndex = getIndex();
+        return new ArrayList<String>((pathIndex == null ? PathIndex.create(root) : pathIndex).getDirectories());
+    }
+
+    /**
+     * The paths of the directories of a root, relative to the root.  If the root could not be walked the index is
+     * incomplete, and every directory may be in the root.
+     */
+    static final class PathIndex {
+        private final Set<String> directories;
+
+        private PathIndex(final Set<String> directories) {
+            this.directories = directories;
+        }
+
+        static PathIndex create(final VirtualFile root) {
+            final Set<String> directories = new HashSet<String>();
+            directories.add("");
+            try {
+                root.visit(new VirtualFileVisitor() {
+                    public VisitorAttributes getAttributes() {
+                        return VisitorAttributes.RECURSE;
+                    }
+
+                    public void visit(final VirtualFile file) {
+                        if (file.isDirectory()) {
+                            directories.add(file.getPathNameRelativeTo(root));
+                        }
+                    }
+                });
+            } catch (IOException e) {
+                return new PathIndex(null);
             }
-        }, VisitorAttributes.RECURSE);
-        try {
-            root.visit(visitor);
-        } catch (IOException e) {
-            index.clear();
+            return new PathIndex(directories);
         }
 
-        index.add("");
-        for (VirtualFile dir : visitor.getMatched()) {
-            index.add(dir.getPathNameRelativeTo(root));
+        boolean containsDirectoryOf(final String path) {
+            if (directories == null) {
+                return true;
+            }
+            int start = 0;
+            while (start < path.length() && path.charAt(start) == '/') {
+                start++;
+            }
+            int end = path.length();
+            while (end > start && path.charAt(end - 1) == '/') {
+                end--;
+            }
+            final int slash = path.lastIndexOf('/', end - 1);
+            return directories.contains(slash < start ? "" : path.substring(start, slash));
         }
 
-        return index;
+        Collection<String> getDirectories() {
+            return directories == null ? Collections.singleton("") : directories;
+        }
     }
 
     static class VFSEntryResource implements Resource {
@@ -35,56 +35,80 @@ import java.util.HashMap;
 import java.util.Map;
 
 /**
- * A short-lived index of all the declared fields and methods of a class.
+ * An index of all the declared fields and methods of a class.
  * <p/>
- * The ClassReflectionIndex is only available during the deployment.
+ * The fields, methods and constructors are each resolved on first use, so that a class which is only looked at for
+ * its methods does not pay for indexing its fields. The index may be used by several threads at once; a kind of
+ * member looked up concurrently for the first time may be resolved more than once, but only one result is ever
+ * published. The lookups by type and by type name of a kind of member are built together from the same reflection
+ * call, so both return the same member objects.
  *
  * @param <T> the type being indexed
  * @author <a href="mailto:david.lloyd@redhat.com">David M. Lloyd</a>
  */
 public final class ClassReflectionIndex<T> {
     private final Class<T> indexedClass;
-    private final Map<String, Field> fields;
-    private final Map<ParamList, Constructor<T>> constructors;
-    private final Map<ParamNameList, Constructor<T>> constructorsByTypeName;
-    private final Map<String, Map<ParamList, Map<Class<?>, Method>>> methods;
-    private final Map<String, Map<ParamNameList, Map<String, Method>>> methodsByTypeName;
-
-    @SuppressWarnings({"unchecked"})
-    ClassReflectionIndex(final Class<T> indexedClass, final DeploymentReflectionIndex deploymentReflectionIndex) {
+    private volatile Map<String, Field> fields;
+    private volatile Constructors<T> constructors;
+    private volatile Methods methods;
+
+    ClassReflectionIndex(final Class<T> indexedClass) {
         this.indexedClass = indexedClass;
-        // -- fields --
-        final Field[] declaredFields = indexedClass.getDeclaredFields();
-        final Map<String, Field> fields = new HashMap<String, Field>();
-        for (Field field : declaredFields) {
-            field.setAccessible(true);
-            fields.put(field.getName(), field);
-        }
-        this.fields = fields;
-        // -- methods --
-        final Method[] declaredMethods = indexedClass.getDeclaredMethods();
-        final Map<String, Map<ParamList, Map<Class<?>, Method>>> methods = new HashMap<String, Map<ParamList, Map<Class<?>, Method>>>();
-        final Map<String, Map<ParamNameList, Map<String, Method>>> methodsByTypeName = new HashMap<String, Map<ParamNameList, Map<String, Method>>>();
-        for (Method method : declaredMethods) {
-            method.setAccessible(true);
-            addMethod(methods, method);
-            addMethodByTypeName(methodsByTypeName, method);
-        }
-
-        this.methods = methods;
-        this.methodsByTypeName = methodsByTypeName;
-        // -- constructors --
-        final Constructor<T>[] declaredConstructors = (Constructor<T>[]) indexedClass.getDeclaredConstructors();
-        final Map<ParamNameList, Constructor<T>> constructorsByTypeName = new HashMap<ParamNameList, Constructor<T>>();
-        final Map<ParamList, Constructor<T>> constructors = new HashMap<ParamList, Constructor<T>>();
-        for (Constructor<T> constructor : declaredConstructors) {
-            constructor.setAccessible(true);
-            Class<?>[] parameterTypes = constructor.getParameterTypes();
-            constructors.put(createParamList(parameterTypes), constructor);
-            constructorsByTypeName.put(createParamNameList(parameterTypes), constructor);
-        }
-        this.constructorsByTypeName = constructorsByTypeName;
-        this.constructors = constructors;
+    }
+
+    private Map<String, Field> fields() {
+        Map<String, Field> fields = this.fields;
+        if (fields == null) {
+            final Field[] declaredFields = indexedClass.getDeclaredFields();
+            fields = new HashMap<String, Field>();
+            for (Field field : declaredFields) {
+                field.setAccessible(true);
+                fields.put(field.getName(), field);
+            }
+            this.fields = fields;
+        }
+        return fields;
+    }
+
+    private Methods methods() {
+        Methods methods = this.methods;
+        if (methods == null) {
+            methods = new Methods(indexedClass.getDeclaredMethods());
+            this.methods = methods;
+        }
+        return methods;
+    }
+
+    private Constructors<T> constructors() {
+        Constructors<T> constructors = this.constructors;
+        if (constructors == null) {
+            constructors = new Constructors<T>(indexedClass);
+            this.constructors = constructors;
+        }
+        return constructors;
+    }
+
+    /**
+     * Get the number of members resolved so far, counting a member once for each of the lookup tables it is in.
+     * This is a measure of the memory retained by the index.
+     *
+     * @return the number of resolved members
+     */
+    int getResolvedMemberCount() {
+        int count = 0;
+        final Map<String, Field> fields = this.fields;
+        if (fields != null) {
+            count += fields.size();
+        }
+        final Methods methods = this.methods;
+        if (methods != null) {
+            count += 2 * methods.count;
+        }
+        final Constructors<T> constructors = this.constructors;
+        if (constructors != null) {
+            count += constructors.byType.size() + constructors.byTypeName.size();
+        }
+        return count;
     }
 
     private static final ParamList EMPTY = new ParamList(new Class<?>[0]);
@@ -162,7 +186,7 @@ public final class ClassReflectionIndex<T> {
      * @return the field, or {@code null} if no field of that name exists
      */
     public Field getField(String name) {
-        return fields.get(name);
+        return fields().get(name);
     }
 
     /**
@@ -171,7 +195,7 @@ public final class ClassReflectionIndex<T> {
      * @return The (possibly empty) collection of all declared fields on this object
      */
     public Collection<Field> getFields() {
-        return Collections.unmodifiableCollection(fields.values());
+        return Collections.unmodifiableCollection(fields().values());
     }
 
     /**
@@ -183,7 +207,7 @@ public final class ClassReflectionIndex<T> {
      * @return the method, or {@code null} if no method of that description exists
      */
     public Method getMethod(Class<?> returnType, String name, Class<?>... paramTypes) {
-        final Map<ParamList, Map<Class<?>, Method>> nameMap = methods.get(name);
+        final Map<ParamList, Map<Class<?>, Method>> nameMap = methods().byType.get(name);
         if (nameMap == null) {
             return null;
         }
@@ -213,7 +237,7 @@ public final class ClassReflectionIndex<T> {
      * @return the method, or {@code null} if no method of that description exists
      */
     public Method getMethod(String returnType, String name, String... paramTypeNames) {
-        final Map<ParamNameList, Map<String, Method>> nameMap = methodsByTypeName.get(name);
+        final Map<ParamNameList, Map<String, Method>> nameMap = methods().byTypeName.get(name);
         if (nameMap == null) {
             return null;
         }
@@ -231,7 +255,7 @@ public final class ClassReflectionIndex<T> {
      * @return the method, or {@code null} if no method of that description exists
      */
     public Method getMethod(MethodIdentifier methodIdentifier) {
-        final Map<ParamNameList, Map<String, Method>> nameMap = methodsByTypeName.get(methodIdentifier.getName());
+        final Map<ParamNameList, Map<String, Method>> nameMap = methods().byTypeName.get(methodIdentifier.getName());
         if (nameMap == null) {
             return null;
         }
@@ -250,7 +274,7 @@ public final class ClassReflectionIndex<T> {
      * @return the (possibly empty) collection of methods matching the description
      */
     public Collection<Method> getMethods(String name, Class<?>... paramTypes) {
-        final Map<ParamList, Map<Class<?>, Method>> nameMap = methods.get(name);
+        final Map<ParamList, Map<Class<?>, Method>> nameMap = methods().byType.get(name);
         if (nameMap == null) {
             return Collections.emptySet();
         }
@@ -269,7 +293,7 @@ public final class ClassReflectionIndex<T> {
      * @return the (possibly empty) collection of methods matching the description
      */
     public Collection<Method> getMethods(String name, String... paramTypeNames) {
-        final Map<ParamNameList, Map<String, Method>> nameMap = methodsByTypeName.get(name);
+        final Map<ParamNameList, Map<String, Method>> nameMap = methods().byTypeName.get(name);
         if (nameMap == null) {
             return Collections.emptySet();
         }
@@ -287,7 +311,7 @@ public final class ClassReflectionIndex<T> {
      * @return the (possibly empty) collection of methods with the given name
      */
     public Collection<Method> getAllMethods(String name) {
-        final Map<ParamList, Map<Class<?>, Method>> nameMap = methods.get(name);
+        final Map<ParamList, Map<Class<?>, Method>> nameMap = methods().byType.get(name);
         if (nameMap == null) {
             return Collections.emptySet();
         }
@@ -306,7 +330,7 @@ public final class ClassReflectionIndex<T> {
      * @return the (possibly empty) collection of methods with the given name and parameter count
      */
     public Collection<Method> getAllMethods(String name, int paramCount) {
-        final Map<ParamList, Map<Class<?>, Method>> nameMap = methods.get(name);
+        final Map<ParamList, Map<Class<?>, Method>> nameMap = methods().byType.get(name);
         if (nameMap == null) {
             return Collections.emptySet();
         }
@@ -328,7 +352,7 @@ public final class ClassReflectionIndex<T> {
      */
     public Collection<Method> getMethods() {
         final Collection<Method> methods = new ArrayList<Method>();
-        for (Map.Entry<String, Map<ParamList, Map<Class<?>, Method>>> entry : this.methods.entrySet()) {
+        for (Map.Entry<String, Map<ParamList, Map<Class<?>, Method>>> entry : methods().byType.entrySet()) {
             final Map<ParamList, Map<Class<?>, Method>> nameMap = entry.getValue();
             for (Map<Class<?>, Method> map : nameMap.values()) {
                 methods.addAll(map.values());
@@ -343,7 +367,7 @@ public final class ClassReflectionIndex<T> {
      * @return the constructors
      */
     public Collection<Constructor<T>> getConstructors() {
-        return Collections.unmodifiableCollection(constructors.values());
+        return Collections.unmodifiableCollection(constructors().byType.values());
     }
 
     /**
@@ -353,7 +377,7 @@ public final class ClassReflectionIndex<T> {
      * @return the constructor, or {@code null} of no such constructor exists
      */
     public Constructor<T> getConstructor(Class<?>... paramTypes) {
-        return constructors.get(createParamList(paramTypes));
+        return constructors().byType.get(createParamList(paramTypes));
     }
 
     /**
@@ -363,7 +387,37 @@ public final class ClassReflectionIndex<T> {
      * @return the constructor, or {@code null} of no such constructor exists
      */
     public Constructor<T> getConstructor(String... paramTypeNames) {
-        return constructorsByTypeName.get(createParamNameList(paramTypeNames));
+        return constructors().byTypeName.get(createParamNameList(paramTypeNames));
+    }
+
+    private static final class Methods {
+        private final Map<String, Map<ParamList, Map<Class<?>, Method>>> byType = new HashMap<String, Map<ParamList, Map<Class<?>, Method>>>();
+        private final Map<String, Map<ParamNameList, Map<String, Method>>> byTypeName = new HashMap<String, Map<ParamNameList, Map<String, Method>>>();
+        private final int count;
+
+        Methods(final Method[] declaredMethods) {
+            for (Method method : declaredMethods) {
+                method.setAccessible(true);
+                addMethod(byType, method);
+                addMethodByTypeName(byTypeName, method);
+            }
+            count = declaredMethods.length;
+        }
+    }
+
+    private static final class Constructors<T> {
+        private final Map<ParamList, Constructor<T>> byType = new HashMap<ParamList, Constructor<T>>();
+        private final Map<ParamNameList, Constructor<T>> byTypeName = new HashMap<ParamNameList, Constructor<T>>();
+
+        @SuppressWarnings({"unchecked"})
+        Constructors(final Class<T> indexedClass) {
+            for (Constructor<T> constructor : (Constructor<T>[]) indexedClass.getDeclaredConstructors()) {
+                constructor.setAccessible(true);
+                final Class<?>[] types = constructor.getParameterTypes();
+                byType.put(createParamList(types), constructor);
+                byTypeName.put(createParamNameList(types), constructor);
+            }
+        }
     }
 
     private static final class ParamList {
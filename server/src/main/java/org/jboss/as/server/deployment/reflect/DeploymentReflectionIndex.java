@@ -23,16 +23,24 @@
 package org.jboss.as.server.deployment.reflect;
 
 import java.security.Permission;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.jboss.as.server.moduleservice.ServiceModuleLoader;
+import org.jboss.modules.Module;
 
 /**
  * A reflection index for a deployment.
+ * <p/>
+ * Classes of the deployment are indexed per deployment. Classes of the JDK and of static modules do not change
+ * during the life of the server, so their indexes are kept in a single table shared by all the deployments.
  *
  * @author <a href="mailto:david.lloyd@redhat.com">David M. Lloyd</a>
  */
 public final class DeploymentReflectionIndex {
-    private final Map<Class<?>, ClassReflectionIndex<?>> classes = new HashMap<Class<?>, ClassReflectionIndex<?>>();
+    private static final ConcurrentMap<Class<?>, ClassReflectionIndex<?>> sharedClasses = new ConcurrentHashMap<Class<?>, ClassReflectionIndex<?>>();
+
+    private final ConcurrentMap<Class<?>, ClassReflectionIndex<?>> classes = new ConcurrentHashMap<Class<?>, ClassReflectionIndex<?>>();
 
     DeploymentReflectionIndex() {
     }
@@ -59,15 +67,73 @@ public final class DeploymentReflectionIndex {
      * @return the index
      */
     @SuppressWarnings({"unchecked"})
-    public synchronized <T> ClassReflectionIndex<T> getClassIndex(Class<T> clazz) {
+    public <T> ClassReflectionIndex<T> getClassIndex(Class<T> clazz) {
         try {
+            final ConcurrentMap<Class<?>, ClassReflectionIndex<?>> classes = isShared(clazz) ? sharedClasses : this.classes;
             ClassReflectionIndex<T> index = (ClassReflectionIndex<T>) classes.get(clazz);
             if (index == null) {
-                classes.put(clazz, index = new ClassReflectionIndex<T>(clazz, this));
+                index = new ClassReflectionIndex<T>(clazz);
+                final ClassReflectionIndex<T> existing = (ClassReflectionIndex<T>) classes.putIfAbsent(clazz, index);
+                if (existing != null) {
+                    index = existing;
+                }
             }
             return index;
         } catch (Throwable e) {
             throw new RuntimeException("Error getting reflective information for class " + clazz, e);
         }
     }
+
+    /**
+     * Get the number of classes indexed by this deployment index, not counting the shared classes.
+     *
+     * @return the number of classes
+     */
+    public int getIndexedClassCount() {
+        return classes.size();
+    }
+
+    /**
+     * Get the number of fields, methods and constructors resolved by this deployment index, not counting those of
+     * the shared classes. This is a measure of the memory retained by the index.
+     *
+     * @return the number of members
+     */
+    public long getResolvedMemberCount() {
+        return countMembers(classes);
+    }
+
+    /**
+     * Get the number of classes in the index shared by all deployments.
+     *
+     * @return the number of classes
+     */
+    public static int getSharedIndexedClassCount() {
+        return sharedClasses.size();
+    }
+
+    /**
+     * Get the number of fields, methods and constructors resolved in the index shared by all deployments.
+     *
+     * @return the number of members
+     */
+    public static long getSharedResolvedMemberCount() {
+        return countMembers(sharedClasses);
+    }
+
+    private static long countMembers(final ConcurrentMap<Class<?>, ClassReflectionIndex<?>> classes) {
+        long count = 0;
+        for (ClassReflectionIndex<?> index : classes.values()) {
+            count += index.getResolvedMemberCount();
+        }
+        return count;
+    }
+
+    private static boolean isShared(final Class<?> clazz) {
+        if (clazz.getClassLoader() == null) {
+            return true;
+        }
+        final Module module = Module.forClass(clazz);
+        return module != null && !module.getIdentifier().getName().startsWith(ServiceModuleLoader.MODULE_PREFIX);
+    }
 }
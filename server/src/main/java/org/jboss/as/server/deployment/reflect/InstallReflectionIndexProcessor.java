@@ -27,6 +27,7 @@ import org.jboss.as.server.deployment.DeploymentPhaseContext;
 import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
 import org.jboss.as.server.deployment.DeploymentUnitProcessor;
+import org.jboss.logging.Logger;
 
 /**
  * The processor to install the reflection index.
@@ -35,6 +36,8 @@ import org.jboss.as.server.deployment.DeploymentUnitProcessor;
  */
 public final class InstallReflectionIndexProcessor implements DeploymentUnitProcessor {
 
+    private static final Logger log = Logger.getLogger("org.jboss.as.server.deployment.reflect");
+
     /** {@inheritDoc} */
     public void deploy(final DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
         DeploymentUnit deploymentUnit = phaseContext.getDeploymentUnit();
@@ -47,6 +50,11 @@ public final class InstallReflectionIndexProcessor implements DeploymentUnitProc
 
     /** {@inheritDoc} */
     public void undeploy(final DeploymentUnit context) {
-        context.removeAttachment(Attachments.REFLECTION_INDEX);
+        final DeploymentReflectionIndex index = context.removeAttachment(Attachments.REFLECTION_INDEX);
+        if (index != null && context.getParent() == null && log.isDebugEnabled()) {
+            log.debugf("Reflection index of %s held %d classes with %d resolved members; the shared index holds %d classes with %d resolved members",
+                    context.getName(), index.getIndexedClassCount(), index.getResolvedMemberCount(),
+                    DeploymentReflectionIndex.getSharedIndexedClassCount(), DeploymentReflectionIndex.getSharedResolvedMemberCount());
+        }
     }
 }
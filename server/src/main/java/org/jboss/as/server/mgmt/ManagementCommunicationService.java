@@ -56,13 +56,31 @@ import org.jboss.msc.value.InjectedValue;
 public class ManagementCommunicationService implements Service<ManagementCommunicationService>, ConnectionHandler {
     public static final ServiceName SERVICE_NAME = ServiceName.JBOSS.append("server", "controller", "management", "communication");
 
+    /** By default each management connection is read by its own thread */
+    public static final int DEFAULT_IO_THREADS = 0;
+
     private final InjectedValue<NetworkInterfaceBinding> interfaceBindingValue = new InjectedValue<NetworkInterfaceBinding>();
     private final InjectedValue<Integer> portValue = new InjectedValue<Integer>();
     private final InjectedValue<ExecutorService> executorServiceValue = new InjectedValue<ExecutorService>();
     private final InjectedValue<ThreadFactory> threadFactoryValue = new InjectedValue<ThreadFactory>();
     private final ConcurrentMap<Byte, ManagementOperationHandler> handlers = new ConcurrentHashMap<Byte, ManagementOperationHandler>();
+    private final int ioThreads;
     private ProtocolServer server;
 
+    public ManagementCommunicationService() {
+        this(DEFAULT_IO_THREADS);
+    }
+
+    /**
+     * Construct a new instance.
+     *
+     * @param ioThreads the number of threads serving all connections with non-blocking I/O, or {@code 0} to read
+     *                  each connection with its own thread
+     */
+    public ManagementCommunicationService(final int ioThreads) {
+        this.ioThreads = ioThreads;
+    }
+
     /**
      * Starts the service.  Will start a socket listener to listen for management operation requests.
      *
@@ -79,7 +97,11 @@ public class ManagementCommunicationService implements Service<ManagementCommuni
             config.setBindAddress(new InetSocketAddress(interfaceBinding.getAddress(), port));
             config.setThreadFactory(threadFactory);
             config.setReadExecutor(executorService);
-            config.setSocketFactory(ServerSocketFactory.getDefault());
+            if (ioThreads > 0) {
+                config.setIoThreads(ioThreads);
+            } else {
+                config.setSocketFactory(ServerSocketFactory.getDefault());
+            }
             config.setBacklog(50);
             config.setConnectionHandler(this);
 
@@ -71,10 +71,19 @@ public class NativeManagementAddHandler implements ModelAddOperationHandler, Des
 
         final String interfaceName = operation.require(ModelDescriptionConstants.INTERFACE).asString();
         final int port = operation.require(ModelDescriptionConstants.PORT).asInt();
+        final int ioThreads;
+        if (operation.hasDefined(ModelDescriptionConstants.IO_THREADS)) {
+            ioThreads = operation.get(ModelDescriptionConstants.IO_THREADS).asInt();
+        } else {
+            ioThreads = ManagementCommunicationService.DEFAULT_IO_THREADS;
+        }
 
         final ModelNode subModel = context.getSubModel();
         subModel.get(ModelDescriptionConstants.INTERFACE).set(interfaceName);
         subModel.get(ModelDescriptionConstants.PORT).set(port);
+        if (operation.hasDefined(ModelDescriptionConstants.IO_THREADS)) {
+            subModel.get(ModelDescriptionConstants.IO_THREADS).set(ioThreads);
+        }
 
         if (context.getRuntimeContext() != null) {
             context.getRuntimeContext().setRuntimeTask(new RuntimeTask() {
@@ -86,7 +95,7 @@ public class NativeManagementAddHandler implements ModelAddOperationHandler, Des
                     final ThreadGroup threadGroup = new ThreadGroup("ManagementCommunication-threads");
                     final ThreadFactory threadFactory = new JBossThreadFactory(threadGroup, Boolean.FALSE, null, "%G - %t", null, null, AccessController.getContext());
 
-                    final ManagementCommunicationService managementCommunicationService = new ManagementCommunicationService();
+                    final ManagementCommunicationService managementCommunicationService = new ManagementCommunicationService(ioThreads);
                     serviceTarget.addService(ManagementCommunicationService.SERVICE_NAME, managementCommunicationService)
                             .addDependency(
                                     NetworkInterfaceService.JBOSS_NETWORK_INTERFACE.append(interfaceName),
@@ -0,0 +1,271 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILED;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATION_HEADERS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ROLLBACK_ON_RUNTIME_FAILURE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
+import static org.jboss.as.server.ServerModelControllerImplUnitTestCase.DESC_PROVIDER;
+import static org.jboss.as.server.ServerModelControllerImplUnitTestCase.NULL_REPO;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.BasicOperationResult;
+import org.jboss.as.controller.ModelUpdateOperationHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationResult;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.ResultHandler;
+import org.jboss.as.controller.RuntimeTask;
+import org.jboss.as.controller.RuntimeTaskContext;
+import org.jboss.as.controller.client.OperationBuilder;
+import org.jboss.as.controller.registry.ModelNodeRegistration;
+import org.jboss.as.server.ServerModelControllerImplUnitTestCase.NullConfigurationPersister;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.AbstractServiceListener;
+import org.jboss.msc.service.Service;
+import org.jboss.msc.service.ServiceBuilder;
+import org.jboss.msc.service.ServiceContainer;
+import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ServiceName;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StartException;
+import org.jboss.msc.service.StopContext;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests of operations on different top-level resources of a {@link ServerControllerImpl} executing their
+ * runtime tasks at the same time, each of which must only wait for and report the problems of its own services.
+ *
+ * @author agent
+ */
+public class ServerControllerConcurrentOperationsUnitTestCase {
+
+    private static final String DEPLOY = "deploy";
+    private static final String FAIL = "fail";
+    private static final ServiceName TEST = ServiceName.JBOSS.append("test");
+
+    private ServiceContainer container;
+    private ServerControllerImpl controller;
+    private ExecutorService executor;
+    /** The runtime tasks of the operations wait at this barrier, so they only proceed once they all execute */
+    private CyclicBarrier barrier;
+
+    @Before
+    public void setupController() {
+        container = ServiceContainer.Factory.create("test");
+        barrier = new CyclicBarrier(2);
+        controller = new TestServerController(container, new DeployHandler(barrier));
+        container.addListener(controller.getServerStateMonitorListener());
+        controller.finishBoot();
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @After
+    public void shutdownServiceContainer() throws InterruptedException {
+        executor.shutdownNow();
+        container.shutdown();
+        container.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testConcurrentOperationsReportOwnFailures() throws Exception {
+        final Future<ModelNode> good = deploy("a", Failure.NONE);
+        final Future<ModelNode> bad = deploy("b", Failure.SERVICE);
+
+        final ModelNode goodResult = good.get(10, TimeUnit.SECONDS);
+        assertEquals(goodResult.toString(), SUCCESS, goodResult.get(OUTCOME).asString());
+        final ModelNode badResult = bad.get(10, TimeUnit.SECONDS);
+        assertEquals(FAILED, badResult.get(OUTCOME).asString());
+        final String failure = badResult.get(FAILURE_DESCRIPTION).toString();
+        assertTrue(failure, failure.contains(TEST.append("b").toString()));
+        assertFalse(failure, failure.contains(TEST.append("a").toString()));
+    }
+
+    @Test
+    public void testChildServiceFailureIsReportedToItsOperation() throws Exception {
+        final Future<ModelNode> good = deploy("a", Failure.NONE);
+        final Future<ModelNode> bad = deploy("b", Failure.CHILD);
+
+        final ModelNode goodResult = good.get(10, TimeUnit.SECONDS);
+        assertEquals(goodResult.toString(), SUCCESS, goodResult.get(OUTCOME).asString());
+        final ModelNode badResult = bad.get(10, TimeUnit.SECONDS);
+        assertEquals(FAILED, badResult.get(OUTCOME).asString());
+        final String failure = badResult.get(FAILURE_DESCRIPTION).toString();
+        assertTrue(failure, failure.contains(TEST.append("b", "child").toString()));
+    }
+
+    @Test
+    public void testConcurrentOperationsSucceed() throws Exception {
+        final Future<ModelNode> first = deploy("a", Failure.NONE);
+        final Future<ModelNode> second = deploy("b", Failure.NONE);
+
+        assertEquals(SUCCESS, first.get(10, TimeUnit.SECONDS).get(OUTCOME).asString());
+        assertEquals(SUCCESS, second.get(10, TimeUnit.SECONDS).get(OUTCOME).asString());
+        assertEquals(ServiceController.State.UP, container.getRequiredService(TEST.append("a")).getState());
+        assertEquals(ServiceController.State.UP, container.getRequiredService(TEST.append("b")).getState());
+    }
+
+    private Future<ModelNode> deploy(final String name, final Failure failure) {
+        final ModelNode op = new ModelNode();
+        op.get(OP).set(DEPLOY);
+        op.get(OP_ADDR).add("deployment", name);
+        op.get(FAIL).set(failure.name());
+        op.get(OPERATION_HEADERS, ROLLBACK_ON_RUNTIME_FAILURE).set(false);
+        return executor.submit(new Callable<ModelNode>() {
+            public ModelNode call() throws Exception {
+                return controller.execute(OperationBuilder.Factory.create(op).build());
+            }
+        });
+    }
+
+    private enum Failure {
+        NONE,
+        SERVICE,
+        CHILD,
+    }
+
+    /**
+     * Install the {@code jboss.test.<name>} service of {@code deployment=<name>} once the runtime tasks of all the
+     * operations are executing, and wait for it, or for the child service it installs, to start or fail.
+     */
+    private static class DeployHandler implements ModelUpdateOperationHandler {
+        private final CyclicBarrier barrier;
+
+        DeployHandler(final CyclicBarrier barrier) {
+            this.barrier = barrier;
+        }
+
+        @Override
+        public OperationResult execute(final OperationContext context, final ModelNode operation, final ResultHandler resultHandler)
+                throws OperationFailedException {
+            final String name = PathAddress.pathAddress(operation.require(OP_ADDR)).getLastElement().getValue();
+            final Failure failure = Failure.valueOf(operation.require(FAIL).asString());
+            context.getRuntimeContext().setRuntimeTask(new RuntimeTask() {
+                @Override
+                public void execute(final RuntimeTaskContext context) throws OperationFailedException {
+                    try {
+                        barrier.await(10, TimeUnit.SECONDS);
+                    } catch (Exception e) {
+                        throw new OperationFailedException(e, new ModelNode().set("The operations did not overlap"));
+                    }
+                    final SettledListener settled = new SettledListener();
+                    final ServiceBuilder<Void> builder = context.getServiceTarget().addService(TEST.append(name), new TestService(failure, settled));
+                    if (failure != Failure.CHILD) {
+                        builder.addListener(settled);
+                    }
+                    builder.install();
+                    settled.await();
+                    resultHandler.handleResultComplete();
+                }
+            });
+            return new BasicOperationResult();
+        }
+    }
+
+    private static class TestService implements Service<Void> {
+        private final Failure failure;
+        private final SettledListener settled;
+
+        TestService(final Failure failure, final SettledListener settled) {
+            this.failure = failure;
+            this.settled = settled;
+        }
+
+        @Override
+        public void start(final StartContext context) throws StartException {
+            if (failure == Failure.SERVICE) {
+                throw new StartException("Bad service!");
+            }
+            if (failure == Failure.CHILD) {
+                context.getChildTarget().addService(context.getController().getName().append("child"),
+                        new TestService(Failure.SERVICE, settled)).addListener(settled).install();
+            }
+        }
+
+        @Override
+        public void stop(final StopContext context) {
+        }
+
+        @Override
+        public Void getValue() {
+            return null;
+        }
+    }
+
+    /**
+     * Lets the runtime task of an operation wait for the service it watches to start or fail.
+     */
+    private static class SettledListener extends AbstractServiceListener<Object> {
+        private final CountDownLatch latch = new CountDownLatch(1);
+
+        @Override
+        public void serviceStarted(final ServiceController<?> controller) {
+            latch.countDown();
+        }
+
+        @Override
+        public void serviceFailed(final ServiceController<?> controller, final StartException reason) {
+            latch.countDown();
+        }
+
+        void await() throws OperationFailedException {
+            try {
+                if (!latch.await(10, TimeUnit.SECONDS)) {
+                    throw new OperationFailedException(new ModelNode().set("The service did not settle"));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new OperationFailedException(e, new ModelNode().set("Interrupted"));
+            }
+        }
+    }
+
+    private static class TestServerController extends ServerControllerImpl {
+        TestServerController(final ServiceContainer container, final DeployHandler deployHandler) {
+            super(container, container.subTarget(), null, new NullConfigurationPersister(), NULL_REPO, Executors.newCachedThreadPool());
+            getModel().get("deployment", "a").setEmptyObject();
+            getModel().get("deployment", "b").setEmptyObject();
+            final ModelNodeRegistration deployments = getRegistry().registerSubModel(PathElement.pathElement("deployment"), DESC_PROVIDER);
+            deployments.registerOperationHandler(DEPLOY, deployHandler, DESC_PROVIDER, false);
+        }
+    }
+}
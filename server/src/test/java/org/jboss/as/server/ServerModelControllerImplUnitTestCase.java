@@ -650,6 +650,11 @@ public class ServerModelControllerImplUnitTestCase {
             return new byte[20];
         }
 
+        @Override
+        public byte[] addContent(InputStream stream, byte[] expectedHash) throws IOException {
+            return addContent(stream);
+        }
+
         @Override
         public VirtualFile getContent(byte[] hash) {
             throw new RuntimeException("NYI: .getContent");
@@ -0,0 +1,262 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.jboss.as.controller.HashUtil;
+import org.jboss.as.server.deployment.impl.ContentRepositoryImpl;
+import org.jboss.as.server.deployment.module.ResourceRoot;
+import org.jboss.vfs.VFS;
+import org.jboss.vfs.VFSUtils;
+import org.jboss.vfs.VirtualFile;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link DeploymentMetadataCache}.
+ *
+ * @author agent
+ */
+public class DeploymentMetadataCacheTestCase {
+
+    private File root;
+    private File cacheDir;
+    private File contentDir;
+    private File deploymentDir;
+    private TestContentRepository repository;
+    private DeploymentMetadataCache cache;
+
+    @Before
+    public void setUp() throws IOException {
+        root = File.createTempFile("metadata", "cache");
+        root.delete();
+        root.mkdirs();
+        cacheDir = new File(root, "deployment-metadata");
+        contentDir = new File(root, "content");
+        deploymentDir = new File(root, "deployment");
+        new File(deploymentDir, "WEB-INF").mkdirs();
+        repository = new TestContentRepository(contentDir);
+        cache = new DeploymentMetadataCache(cacheDir, contentDir, "1");
+    }
+
+    @After
+    public void tearDown() {
+        delete(root);
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        final DeploymentUnit deploymentUnit = deployment(addContent("one"), cache);
+        final VirtualFile webXml = descriptor("WEB-INF/web.xml");
+        assertNull(DeploymentMetadataCache.getMetadata(deploymentUnit, webXml, String.class));
+
+        DeploymentMetadataCache.putMetadata(deploymentUnit, webXml, String.class, "web");
+        DeploymentMetadataCache.putMetadata(deploymentUnit, descriptor("WEB-INF/jboss-web.xml"), String.class, "jboss-web");
+
+        assertEquals("web", DeploymentMetadataCache.getMetadata(deploymentUnit, webXml, String.class));
+        assertEquals("jboss-web", DeploymentMetadataCache.getMetadata(deploymentUnit, descriptor("WEB-INF/jboss-web.xml"), String.class));
+        // entries are per metadata type and per content
+        assertNull(DeploymentMetadataCache.getMetadata(deploymentUnit, webXml, Integer.class));
+        assertNull(DeploymentMetadataCache.getMetadata(deployment(addContent("two"), cache), webXml, String.class));
+        // sub deployments use the hash of their top level deployment
+        final DeploymentUnit subDeployment = new DeploymentUnitImpl(deploymentUnit, "sub.jar", null);
+        assertEquals("web", DeploymentMetadataCache.getMetadata(subDeployment, webXml, String.class));
+    }
+
+    @Test
+    public void testDisabledCacheHoldsNothing() throws Exception {
+        final DeploymentUnit deploymentUnit = deployment(addContent("one"), null);
+        final VirtualFile webXml = descriptor("WEB-INF/web.xml");
+
+        DeploymentMetadataCache.putMetadata(deploymentUnit, webXml, String.class, "web");
+
+        assertNull(DeploymentMetadataCache.getMetadata(deploymentUnit, webXml, String.class));
+        assertFalse(cacheDir.exists());
+    }
+
+    @Test
+    public void testOtherVersionIsDropped() throws Exception {
+        final byte[] hash = addContent("one");
+        final VirtualFile webXml = descriptor("WEB-INF/web.xml");
+        DeploymentMetadataCache.putMetadata(deployment(hash, cache), webXml, String.class, "web");
+        final File file = cache.fileFor(deployment(hash, cache), webXml, String.class);
+        assertTrue(file.isFile());
+
+        final DeploymentMetadataCache upgraded = new DeploymentMetadataCache(cacheDir, contentDir, "2");
+        assertNull(DeploymentMetadataCache.getMetadata(deployment(hash, upgraded), webXml, String.class));
+        assertFalse(file.exists());
+
+        // the descriptor parsed again is stored for the new version
+        DeploymentMetadataCache.putMetadata(deployment(hash, upgraded), webXml, String.class, "web2");
+        assertEquals("web2", DeploymentMetadataCache.getMetadata(deployment(hash, upgraded), webXml, String.class));
+    }
+
+    @Test
+    public void testCorruptEntryIsDeleted() throws Exception {
+        final DeploymentUnit deploymentUnit = deployment(addContent("one"), cache);
+        final VirtualFile webXml = descriptor("WEB-INF/web.xml");
+        DeploymentMetadataCache.putMetadata(deploymentUnit, webXml, String.class, "web");
+        final File file = cache.fileFor(deploymentUnit, webXml, String.class);
+        write(file, "not metadata".getBytes());
+
+        assertNull(DeploymentMetadataCache.getMetadata(deploymentUnit, webXml, String.class));
+        assertFalse(file.exists());
+    }
+
+    @Test
+    public void testPartialEntryIsDeleted() throws Exception {
+        final DeploymentUnit deploymentUnit = deployment(addContent("one"), cache);
+        final VirtualFile webXml = descriptor("WEB-INF/web.xml");
+        DeploymentMetadataCache.putMetadata(deploymentUnit, webXml, String.class, "some parsed web metadata");
+        final File file = cache.fileFor(deploymentUnit, webXml, String.class);
+        final byte[] bytes = read(file);
+        final byte[] partial = new byte[bytes.length - 4];
+        System.arraycopy(bytes, 0, partial, 0, partial.length);
+        write(file, partial);
+
+        assertNull(DeploymentMetadataCache.getMetadata(deploymentUnit, webXml, String.class));
+        assertFalse(file.exists());
+    }
+
+    @Test
+    public void testFileForContentOfTheRepositoryOnly() throws Exception {
+        final byte[] hash = addContent("one");
+        final VirtualFile webXml = descriptor("WEB-INF/web.xml");
+
+        final File file = cache.fileFor(deployment(hash, cache), webXml, String.class);
+        assertNotNull(file);
+        assertEquals(new File(cacheDir, HashUtil.bytesToHexString(hash)), file.getParentFile());
+        // a descriptor outside of the deployment root
+        final File other = new File(root, "other");
+        other.mkdirs();
+        assertNull(cache.fileFor(deployment(hash, cache), VFS.getChild(other.toURI()).getChild("web.xml"), String.class));
+        // content not from the repository has no hash
+        final DeploymentUnit unmanaged = deployment(null, cache);
+        assertNull(cache.fileFor(unmanaged, webXml, String.class));
+        DeploymentMetadataCache.putMetadata(unmanaged, webXml, String.class, "web");
+        assertNull(DeploymentMetadataCache.getMetadata(unmanaged, webXml, String.class));
+        assertFalse(cacheDir.exists());
+    }
+
+    @Test
+    public void testPurgeKeepsLiveContent() throws Exception {
+        final byte[] live = addContent("live");
+        final byte[] removed = addContent("removed");
+        final VirtualFile webXml = descriptor("WEB-INF/web.xml");
+        DeploymentMetadataCache.putMetadata(deployment(live, cache), webXml, String.class, "live");
+        DeploymentMetadataCache.putMetadata(deployment(removed, cache), webXml, String.class, "removed");
+        final File unrelated = new File(cacheDir, "unrelated");
+        unrelated.mkdirs();
+        repository.removeContent(removed);
+
+        cache.purge();
+
+        assertEquals("live", DeploymentMetadataCache.getMetadata(deployment(live, cache), webXml, String.class));
+        assertFalse(new File(cacheDir, HashUtil.bytesToHexString(removed)).exists());
+        assertTrue(unrelated.isDirectory());
+    }
+
+    @Test
+    public void testPurgeOfMissingCache() {
+        // nothing was ever cached
+        cache.purge();
+        assertFalse(cacheDir.exists());
+    }
+
+    private DeploymentUnit deployment(final byte[] hash, final DeploymentMetadataCache cache) {
+        final DeploymentUnit deploymentUnit = new DeploymentUnitImpl(null, "test.war", null);
+        deploymentUnit.putAttachment(Attachments.DEPLOYMENT_ROOT, new ResourceRoot(VFS.getChild(deploymentDir.toURI()), null));
+        if (hash != null) {
+            deploymentUnit.putAttachment(Attachments.DEPLOYMENT_HASH, hash);
+        }
+        if (cache != null) {
+            deploymentUnit.putAttachment(Attachments.DEPLOYMENT_METADATA_CACHE, cache);
+        }
+        return deploymentUnit;
+    }
+
+    private VirtualFile descriptor(final String path) {
+        return VFS.getChild(deploymentDir.toURI()).getChild(path);
+    }
+
+    private byte[] addContent(final String content) throws IOException {
+        return repository.addContent(new ByteArrayInputStream(content.getBytes()));
+    }
+
+    private static byte[] read(final File file) throws IOException {
+        final byte[] bytes = new byte[(int) file.length()];
+        final InputStream in = new FileInputStream(file);
+        try {
+            int read = 0;
+            while (read < bytes.length) {
+                final int count = in.read(bytes, read, bytes.length - read);
+                if (count < 0) {
+                    break;
+                }
+                read += count;
+            }
+        } finally {
+            VFSUtils.safeClose(in);
+        }
+        return bytes;
+    }
+
+    private static void write(final File file, final byte[] bytes) throws IOException {
+        final OutputStream out = new FileOutputStream(file);
+        try {
+            out.write(bytes);
+        } finally {
+            VFSUtils.safeClose(out);
+        }
+    }
+
+    private static void delete(final File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+
+    private static class TestContentRepository extends ContentRepositoryImpl {
+        TestContentRepository(final File root) {
+            super(root);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link DeploymentProfile}.
+ *
+ * @author agent
+ */
+public class DeploymentProfileTestCase {
+
+    private static final DeploymentUnitProcessor FIRST = new TestProcessor();
+    private static final DeploymentUnitProcessor SECOND = new DeploymentUnitProcessor() {
+        public void deploy(final DeploymentPhaseContext phaseContext) {
+        }
+
+        public void undeploy(final DeploymentUnit context) {
+        }
+    };
+
+    @Test
+    public void testPhaseTimes() {
+        final DeploymentProfile profile = new DeploymentProfile();
+        assertEquals(-1, profile.getPhaseTime(Phase.STRUCTURE));
+        assertEquals(-1, profile.getPhaseCpuTime(Phase.STRUCTURE));
+
+        profile.phaseStarted(Phase.STRUCTURE);
+        profile.processorCompleted(Phase.STRUCTURE, FIRST, millis(10), millis(4));
+        profile.processorCompleted(Phase.STRUCTURE, SECOND, millis(20), millis(5));
+        // processors of the same class are added up
+        profile.processorCompleted(Phase.STRUCTURE, FIRST, millis(1), millis(1));
+        profile.phaseCompleted(Phase.STRUCTURE, millis(25));
+
+        assertEquals(25, profile.getPhaseTime(Phase.STRUCTURE));
+        // the CPU time of a phase is that of its processors
+        assertEquals(10, profile.getPhaseCpuTime(Phase.STRUCTURE));
+        final Map<String, Long> times = profile.getProcessorTimes(Phase.STRUCTURE);
+        assertEquals(2, times.size());
+        assertEquals(Long.valueOf(11), times.get(FIRST.getClass().getName()));
+        assertEquals(Long.valueOf(20), times.get(SECOND.getClass().getName()));
+        assertEquals(Long.valueOf(5), profile.getProcessorCpuTimes(Phase.STRUCTURE).get(FIRST.getClass().getName()));
+        assertTrue(profile.getProcessorTimes(Phase.PARSE).isEmpty());
+    }
+
+    @Test
+    public void testMountAndIndexTimes() {
+        final DeploymentProfile profile = new DeploymentProfile();
+        profile.phaseStarted(Phase.STRUCTURE);
+        profile.mountCompleted(Phase.STRUCTURE, millis(3), millis(2));
+        profile.indexingCompleted(Phase.STRUCTURE, millis(7), millis(12), millis(8));
+        profile.indexingCompleted(Phase.STRUCTURE, millis(1), millis(1), 0);
+
+        assertEquals(3, profile.getMountTime());
+        assertEquals(2, profile.getMountCpuTime());
+        assertEquals(8, profile.getIndexTime());
+        assertEquals(13, profile.getIndexCpuTime());
+    }
+
+    @Test
+    public void testRestartedPhaseReplacesItsTimes() {
+        final DeploymentProfile profile = new DeploymentProfile();
+        runStructure(profile, 30);
+        profile.phaseStarted(Phase.PARSE);
+        profile.processorCompleted(Phase.PARSE, SECOND, millis(6), millis(6));
+        profile.phaseCompleted(Phase.PARSE, millis(6));
+
+        runStructure(profile, 40);
+
+        // every time of the restarted phase is that of its latest run
+        assertEquals(40, profile.getPhaseTime(Phase.STRUCTURE));
+        assertEquals(Long.valueOf(40), profile.getProcessorTimes(Phase.STRUCTURE).get(FIRST.getClass().getName()));
+        assertEquals(40, profile.getMountTime());
+        assertEquals(40, profile.getIndexTime());
+        // the times of the other phases are kept until those run again
+        assertEquals(6, profile.getPhaseTime(Phase.PARSE));
+        assertEquals(Long.valueOf(6), profile.getProcessorTimes(Phase.PARSE).get(SECOND.getClass().getName()));
+    }
+
+    @Test
+    public void testStartedPhaseHasNoTimeUntilCompleted() {
+        final DeploymentProfile profile = new DeploymentProfile();
+        runStructure(profile, 30);
+
+        profile.phaseStarted(Phase.STRUCTURE);
+        assertEquals(-1, profile.getPhaseTime(Phase.STRUCTURE));
+        assertTrue(profile.getProcessorTimes(Phase.STRUCTURE).isEmpty());
+        assertEquals(0, profile.getMountTime());
+        assertEquals(0, profile.getIndexTime());
+    }
+
+    @Test
+    public void testPhaseCpuTimeIncludesIndexingHelpers() {
+        final DeploymentProfile profile = new DeploymentProfile();
+        profile.phaseStarted(Phase.PARSE);
+        profile.indexingCompleted(Phase.PARSE, millis(10), millis(30), millis(20));
+        profile.processorCompleted(Phase.PARSE, FIRST, millis(12), millis(11));
+        profile.phaseCompleted(Phase.PARSE, millis(12));
+
+        assertEquals(Long.valueOf(11), profile.getProcessorCpuTimes(Phase.PARSE).get(FIRST.getClass().getName()));
+        assertEquals(31, profile.getPhaseCpuTime(Phase.PARSE));
+        assertEquals(30, profile.getIndexCpuTime());
+    }
+
+    @Test
+    public void testSnapshotIsNotAffectedByRestart() {
+        final DeploymentProfile profile = new DeploymentProfile();
+        runStructure(profile, 30);
+        final DeploymentProfile snapshot = profile.snapshot();
+
+        profile.phaseStarted(Phase.STRUCTURE);
+        assertEquals(-1, profile.getPhaseTime(Phase.STRUCTURE));
+        assertEquals(30, snapshot.getPhaseTime(Phase.STRUCTURE));
+        assertEquals(Long.valueOf(30), snapshot.getProcessorTimes(Phase.STRUCTURE).get(FIRST.getClass().getName()));
+        assertEquals(Long.valueOf(0), snapshot.getProcessorCpuTimes(Phase.STRUCTURE).get(FIRST.getClass().getName()));
+        assertEquals(30, snapshot.getIndexTime());
+    }
+
+    private static void runStructure(final DeploymentProfile profile, final long millis) {
+        profile.phaseStarted(Phase.STRUCTURE);
+        profile.mountCompleted(Phase.STRUCTURE, millis(millis), 0);
+        profile.indexingCompleted(Phase.STRUCTURE, millis(millis), 0, 0);
+        profile.processorCompleted(Phase.STRUCTURE, FIRST, millis(millis), 0);
+        profile.phaseCompleted(Phase.STRUCTURE, millis(millis));
+    }
+
+    private static long millis(final long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    private static class TestProcessor implements DeploymentUnitProcessor {
+        public void deploy(final DeploymentPhaseContext phaseContext) {
+        }
+
+        public void undeploy(final DeploymentUnit context) {
+        }
+    }
+}
@@ -0,0 +1,280 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.msc.service.ServiceContainer;
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests of the scheduling of the processors of a phase by {@link DeployerChains} and
+ * {@link DeploymentUnitPhaseService}.
+ *
+ * @author agent
+ */
+public class DeploymentUnitPhaseServiceTestCase {
+
+    private static final AttachmentKey<String> FIRST = AttachmentKey.create(String.class);
+    private static final AttachmentKey<String> SECOND = AttachmentKey.create(String.class);
+
+    private final List<String> events = Collections.synchronizedList(new ArrayList<String>());
+    private ServiceContainer container;
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        container = ServiceContainer.Factory.create("test");
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        container.shutdown();
+        container.awaitTermination(5, TimeUnit.SECONDS);
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testSegments() {
+        final DeploymentUnitProcessor writer = new TestProcessor("writer", keys(), keys(FIRST));
+        final DeploymentUnitProcessor reader = new TestProcessor("reader", keys(FIRST), keys());
+        final DeploymentUnitProcessor independent = new TestProcessor("independent", keys(), keys(SECOND));
+        final DeploymentUnitProcessor barrier = new PlainProcessor("barrier");
+        final DeploymentUnitProcessor last = new TestProcessor("last", keys(FIRST), keys(SECOND));
+        final DeployerChains chains = new DeployerChains(phases(writer, reader, independent, barrier, last));
+
+        final List<DeployerChains.Segment> segments = chains.getSegments(Phase.STRUCTURE);
+        assertEquals(3, segments.size());
+        final DeployerChains.Segment segment = segments.get(0);
+        assertEquals(3, segment.size());
+        assertEquals(0, segment.getPredecessorCount(0));
+        assertEquals(1, segment.getPredecessorCount(1));
+        assertEquals(0, segment.getPredecessorCount(2));
+        assertArrayEquals(new int[] { 1 }, segment.getSuccessors(0));
+        assertArrayEquals(new int[0], segment.getSuccessors(1));
+        assertEquals(barrier, segments.get(1).getProcessor(0));
+        assertEquals(last, segments.get(2).getProcessor(0));
+    }
+
+    @Test
+    public void testIndependentProcessorsRunConcurrently() throws Exception {
+        Assume.assumeTrue(Runtime.getRuntime().availableProcessors() > 1);
+        final CyclicBarrier barrier = new CyclicBarrier(2);
+        final TestProcessor first = new TestProcessor("first", keys(), keys(FIRST), barrier);
+        final TestProcessor second = new TestProcessor("second", keys(), keys(SECOND), barrier);
+        final CompletingProcessor completing = new CompletingProcessor();
+
+        deploy(phases(first, second, completing), executor);
+        assertTrue(completing.done.await(10, TimeUnit.SECONDS));
+        assertTrue(events.contains("deploy first"));
+        assertTrue(events.contains("deploy second"));
+    }
+
+    @Test
+    public void testConflictingProcessorsRunInChainOrder() throws Exception {
+        final CompletingProcessor completing = new CompletingProcessor();
+        deploy(phases(new TestProcessor("writer", keys(), keys(FIRST)), new TestProcessor("reader", keys(FIRST), keys(SECOND)),
+                new TestProcessor("overwriter", keys(), keys(SECOND)), new PlainProcessor("barrier"),
+                new TestProcessor("after", keys(), keys(FIRST)), completing), executor);
+        assertTrue(completing.done.await(10, TimeUnit.SECONDS));
+
+        assertEquals(Arrays.asList("deploy writer", "done writer", "deploy reader", "done reader", "deploy overwriter",
+                "done overwriter", "deploy barrier", "done barrier", "deploy after", "done after"), events);
+    }
+
+    @Test
+    public void testProcessorsRunWithoutExecutor() throws Exception {
+        final CompletingProcessor completing = new CompletingProcessor();
+        deploy(phases(new TestProcessor("first", keys(), keys(FIRST)), new TestProcessor("second", keys(), keys(SECOND)), completing), null);
+        assertTrue(completing.done.await(10, TimeUnit.SECONDS));
+
+        assertEquals(Arrays.asList("deploy first", "done first", "deploy second", "done second"), events);
+    }
+
+    @Test
+    public void testFailureUndeploysStartedProcessors() throws Exception {
+        final CountDownLatch undeployed = new CountDownLatch(2);
+        final TestProcessor first = new TestProcessor("first", keys(), keys(FIRST)) {
+            @Override
+            public void undeploy(final DeploymentUnit context) {
+                super.undeploy(context);
+                undeployed.countDown();
+            }
+        };
+        final TestProcessor failing = new TestProcessor("failing", keys(), keys(SECOND)) {
+            @Override
+            public void deploy(final DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
+                events.add("deploy failing");
+                throw new DeploymentUnitProcessingException("failing");
+            }
+
+            @Override
+            public void undeploy(final DeploymentUnit context) {
+                super.undeploy(context);
+                undeployed.countDown();
+            }
+        };
+        final TestProcessor dependent = new TestProcessor("dependent", keys(SECOND), keys());
+        final PlainProcessor later = new PlainProcessor("later");
+
+        deploy(phases(first, failing, dependent, later), executor);
+        assertTrue(undeployed.await(10, TimeUnit.SECONDS));
+
+        assertFalse(events.contains("deploy dependent"));
+        assertFalse(events.contains("deploy later"));
+        assertFalse(events.contains("undeploy dependent"));
+        // processors are undone in reverse chain order
+        assertTrue(events.indexOf("undeploy failing") < events.indexOf("undeploy first"));
+    }
+
+    @Test
+    public void testProcessorTimesAreProfiled() throws Exception {
+        final CompletingProcessor completing = new CompletingProcessor();
+        final DeploymentUnit deploymentUnit = deploy(phases(new TestProcessor("first", keys(), keys(FIRST)),
+                new TestProcessor("second", keys(), keys(SECOND)), completing), executor);
+        assertTrue(completing.done.await(10, TimeUnit.SECONDS));
+
+        final DeploymentProfile profile = deploymentUnit.getAttachment(Attachments.DEPLOYMENT_PROFILE);
+        assertTrue(profile.getProcessorTimes(Phase.STRUCTURE).containsKey(TestProcessor.class.getName()));
+    }
+
+    private DeploymentUnit deploy(final EnumMap<Phase, List<DeploymentUnitProcessor>> phases, final ExecutorService executor) {
+        DeployerChainsService.addService(container, phases, executor);
+        final DeploymentUnit deploymentUnit = new DeploymentUnitImpl(null, "test.jar", container);
+        deploymentUnit.putAttachment(Attachments.DEPLOYMENT_PROFILE, new DeploymentProfile());
+        final DeploymentUnitPhaseService<?> phaseService = DeploymentUnitPhaseService.create(deploymentUnit, Phase.STRUCTURE);
+        container.addService(Services.deploymentUnitName("test.jar", Phase.STRUCTURE), phaseService)
+                .addDependency(Services.JBOSS_DEPLOYMENT_CHAINS, DeployerChains.class, phaseService.getDeployerChainsInjector())
+                .install();
+        return deploymentUnit;
+    }
+
+    /**
+     * The given processors in the first phase, and no processor in the others.
+     */
+    private static EnumMap<Phase, List<DeploymentUnitProcessor>> phases(final DeploymentUnitProcessor... processors) {
+        final EnumMap<Phase, List<DeploymentUnitProcessor>> phases = new EnumMap<Phase, List<DeploymentUnitProcessor>>(Phase.class);
+        for (Phase phase : Phase.values()) {
+            phases.put(phase, new ArrayList<DeploymentUnitProcessor>());
+        }
+        phases.get(Phase.STRUCTURE).addAll(Arrays.asList(processors));
+        return phases;
+    }
+
+    private static Collection<AttachmentKey<?>> keys(final AttachmentKey<?>... keys) {
+        return Arrays.<AttachmentKey<?>>asList(keys);
+    }
+
+    private class TestProcessor implements ConcurrentDeploymentUnitProcessor {
+        private final String name;
+        private final Collection<AttachmentKey<?>> reads;
+        private final Collection<AttachmentKey<?>> writes;
+        private final CyclicBarrier barrier;
+
+        TestProcessor(final String name, final Collection<AttachmentKey<?>> reads, final Collection<AttachmentKey<?>> writes) {
+            this(name, reads, writes, null);
+        }
+
+        TestProcessor(final String name, final Collection<AttachmentKey<?>> reads, final Collection<AttachmentKey<?>> writes, final CyclicBarrier barrier) {
+            this.name = name;
+            this.reads = reads;
+            this.writes = writes;
+            this.barrier = barrier;
+        }
+
+        public void deploy(final DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
+            events.add("deploy " + name);
+            if (barrier != null) {
+                try {
+                    // only returns if the other processor sharing the barrier is running at the same time
+                    barrier.await(10, TimeUnit.SECONDS);
+                } catch (Exception e) {
+                    throw new DeploymentUnitProcessingException(e);
+                }
+            }
+            events.add("done " + name);
+        }
+
+        public void undeploy(final DeploymentUnit context) {
+            events.add("undeploy " + name);
+        }
+
+        public Collection<AttachmentKey<?>> getReadAttachments() {
+            return reads;
+        }
+
+        public Collection<AttachmentKey<?>> getWrittenAttachments() {
+            return writes;
+        }
+    }
+
+    private class PlainProcessor implements DeploymentUnitProcessor {
+        private final String name;
+
+        PlainProcessor(final String name) {
+            this.name = name;
+        }
+
+        public void deploy(final DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
+            events.add("deploy " + name);
+            events.add("done " + name);
+        }
+
+        public void undeploy(final DeploymentUnit context) {
+            events.add("undeploy " + name);
+        }
+    }
+
+    /**
+     * The last processor of the phase, signalling that the processors before it have completed.
+     */
+    private static class CompletingProcessor implements DeploymentUnitProcessor {
+        private final CountDownLatch done = new CountDownLatch(1);
+
+        public void deploy(final DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
+            done.countDown();
+        }
+
+        public void undeploy(final DeploymentUnit context) {
+        }
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2010, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.server.deployment;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.BYTES;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HASH;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.ResultHandler;
+import org.jboss.as.server.deployment.impl.ContentRepositoryImpl;
+import org.jboss.dmr.ModelNode;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests of the handling of the content hash by {@link DeploymentUploadBytesHandler}
+ *
+ * @author agent
+ */
+public class DeploymentUploadBytesHandlerTestCase {
+
+    private static final byte[] CONTENT = "deployment content".getBytes();
+
+    private File root;
+
+    @Before
+    public void setUp() throws IOException {
+        root = File.createTempFile("content", "repository");
+        root.delete();
+    }
+
+    @After
+    public void tearDown() {
+        delete(root);
+    }
+
+    @Test
+    public void testKnownContentNeedNotBeIncluded() throws Exception {
+        final TestContentRepository repository = new TestContentRepository(root, false);
+        final byte[] hash = repository.addContent(new ByteArrayInputStream(CONTENT));
+
+        final ModelNode operation = new ModelNode();
+        operation.get(HASH).set(hash);
+        assertArrayEquals(hash, upload(repository, operation));
+    }
+
+    @Test
+    public void testKnownContentIsNotOpened() throws Exception {
+        final TestContentRepository repository = new TestContentRepository(root, true);
+        final byte[] hash = repository.addContent(new ByteArrayInputStream(CONTENT));
+
+        final ModelNode operation = new ModelNode();
+        operation.get(HASH).set(hash);
+        operation.get(BYTES).set(CONTENT);
+        final RecordingResultHandler resultHandler = new RecordingResultHandler();
+        new AbstractDeploymentUploadHandler(repository) {
+            @Override
+            protected boolean isContentIncluded(final ModelNode operation) {
+                return true;
+            }
+
+            @Override
+            protected InputStream getContentInputStream(final OperationContext context, final ModelNode operation) {
+                throw new AssertionError("The content was opened although the repository has it");
+            }
+        }.execute(null, operation, resultHandler);
+        assertArrayEquals(hash, resultHandler.result.asBytes());
+    }
+
+    @Test
+    public void testUnknownContentMustBeIncluded() throws Exception {
+        final TestContentRepository repository = new TestContentRepository(root, false);
+
+        final ModelNode operation = new ModelNode();
+        operation.get(HASH).set(new byte[20]);
+        try {
+            upload(repository, operation);
+            fail("Upload of unknown content without the content succeeded");
+        } catch (OperationFailedException expected) {
+        }
+    }
+
+    @Test
+    public void testCorruptContentIsReplacedWhenVerifying() throws Exception {
+        final TestContentRepository repository = new TestContentRepository(root, true);
+        final byte[] hash = repository.addContent(new ByteArrayInputStream(CONTENT));
+        final File file = repository.getFile(hash);
+        write(file, "corrupt".getBytes());
+
+        final ModelNode operation = new ModelNode();
+        operation.get(HASH).set(hash);
+        operation.get(BYTES).set(CONTENT);
+        assertArrayEquals(hash, upload(repository, operation));
+        assertArrayEquals(CONTENT, read(file));
+    }
+
+    @Test
+    public void testCorruptContentMustBeIncludedWhenVerifying() throws Exception {
+        final TestContentRepository repository = new TestContentRepository(root, true);
+        final byte[] hash = repository.addContent(new ByteArrayInputStream(CONTENT));
+        write(repository.getFile(hash), "corrupt".getBytes());
+
+        final ModelNode operation = new ModelNode();
+        operation.get(HASH).set(hash);
+        try {
+            upload(repository, operation);
+            fail("Upload without the content succeeded although the stored content is corrupt");
+        } catch (OperationFailedException expected) {
+        }
+    }
+
+    @Test
+    public void testInvalidHashIsRejected() throws Exception {
+        final TestContentRepository repository = new TestContentRepository(root, false);
+
+        final ModelNode operation = new ModelNode();
+        operation.get(HASH).set(new ModelNode().add("not a hash"));
+        operation.get(BYTES).set(CONTENT);
+        try {
+            upload(repository, operation);
+            fail("Upload with an invalid hash succeeded");
+        } catch (OperationFailedException expected) {
+        }
+    }
+
+    private static byte[] upload(final TestContentRepository repository, final ModelNode operation) throws OperationFailedException {
+        final RecordingResultHandler resultHandler = new RecordingResultHandler();
+        new DeploymentUploadBytesHandler(repository).execute(null, operation, resultHandler);
+        assertTrue(resultHandler.complete);
+        assertNotNull(resultHandler.result);
+        return resultHandler.result.asBytes();
+    }
+
+    private static void write(final File file, final byte[] bytes) throws IOException {
+        final FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(bytes);
+        } finally {
+            out.close();
+        }
+    }
+
+    private static byte[] read(final File file) throws IOException {
+        final byte[] bytes = new byte[(int) file.length()];
+        final FileInputStream in = new FileInputStream(file);
+        try {
+            assertEquals(bytes.length, in.read(bytes));
+        } finally {
+            in.close();
+        }
+        return bytes;
+    }
+
+    private static void delete(final File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+
+    private static class TestContentRepository extends ContentRepositoryImpl {
+        TestContentRepository(final File root, final boolean verifyContent) {
+            super(root, verifyContent);
+        }
+
+        File getFile(final byte[] hash) {
+            return getDeploymentContentFile(hash);
+        }
+    }
+
+    private static class RecordingResultHandler implements ResultHandler {
+        private ModelNode result;
+        private boolean complete;
+
+        @Override
+        public void handleResultFragment(final String[] location, final ModelNode result) {
+            this.result = result;
+        }
+
+        @Override
+        public void handleResultComplete() {
+            complete = true;
+        }
+
+        @Override
+        public void handleFailed(final ModelNode failureDescription) {
+            fail(failureDescription.toString());
+        }
+
+        @Override
+        public void handleCancellation() {
+            fail("cancelled");
+        }
+    }
+}
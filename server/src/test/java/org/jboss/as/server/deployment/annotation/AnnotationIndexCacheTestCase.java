@@ -0,0 +1,274 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.annotation;
+
+import static org.jboss.as.server.deployment.annotation.AnnotationIndexProcessorTestCase.copyClass;
+import static org.jboss.as.server.deployment.annotation.AnnotationIndexProcessorTestCase.delete;
+import static org.jboss.as.server.deployment.annotation.AnnotationIndexProcessorTestCase.write;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.HashUtil;
+import org.jboss.as.server.deployment.Attachments;
+import org.jboss.as.server.deployment.annotation.AnnotationIndexProcessorTestCase.TestDeploymentUnit;
+import org.jboss.as.server.deployment.annotation.AnnotationIndexProcessorTestCase.TestPhaseContext;
+import org.jboss.as.server.deployment.impl.ContentRepositoryImpl;
+import org.jboss.as.server.deployment.module.ResourceRoot;
+import org.jboss.jandex.DotName;
+import org.jboss.jandex.Index;
+import org.jboss.jandex.IndexWriter;
+import org.jboss.jandex.Indexer;
+import org.jboss.vfs.VFS;
+import org.jboss.vfs.VFSUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link AnnotationIndexCache} and of its use by {@link AnnotationIndexProcessor}.
+ *
+ * @author agent
+ */
+public class AnnotationIndexCacheTestCase {
+
+    private File root;
+    private File cacheDir;
+    private TestContentRepository repository;
+    private AnnotationIndexCache cache;
+
+    @Before
+    public void setUp() throws IOException {
+        root = File.createTempFile("annotation", "cache");
+        root.delete();
+        root.mkdirs();
+        cacheDir = new File(root, "annotation-index");
+        repository = new TestContentRepository(new File(root, "content"));
+        cache = new AnnotationIndexCache(cacheDir, repository);
+    }
+
+    @After
+    public void tearDown() {
+        delete(root);
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        final byte[] hash = addContent("one");
+        assertNull(cache.get(hash, ""));
+
+        cache.put(hash, "", index(String.class));
+        cache.put(hash, "lib/a.jar", index(Integer.class));
+
+        assertIndexes(cache.get(hash, ""), String.class);
+        assertIndexes(cache.get(hash, "lib/a.jar"), Integer.class);
+        assertNull(cache.get(hash, "lib/b.jar"));
+        assertNull(cache.get(addContent("two"), ""));
+    }
+
+    @Test
+    public void testUnreadableEntryIsDeleted() throws Exception {
+        final byte[] hash = addContent("one");
+        cache.put(hash, "", index(String.class));
+        final File[] files = new File(cacheDir, HashUtil.bytesToHexString(hash)).listFiles();
+        assertEquals(1, files.length);
+        write(files[0], "not an index".getBytes());
+
+        assertNull(cache.get(hash, ""));
+        assertFalse(files[0].exists());
+    }
+
+    @Test
+    public void testPurgeKeepsLiveContent() throws Exception {
+        final byte[] live = addContent("live");
+        final byte[] removed = addContent("removed");
+        cache.put(live, "", index(String.class));
+        cache.put(removed, "", index(String.class));
+        final File unrelated = new File(cacheDir, "unrelated");
+        unrelated.mkdirs();
+        repository.removeContent(removed);
+
+        cache.purge();
+
+        assertIndexes(cache.get(live, ""), String.class);
+        assertNull(cache.get(removed, ""));
+        assertFalse(new File(cacheDir, HashUtil.bytesToHexString(removed)).exists());
+        assertTrue(unrelated.isDirectory());
+    }
+
+    @Test
+    public void testPurgeInBackgroundOfDeployments() throws Exception {
+        final byte[][] removed = new byte[20][];
+        for (int i = 0; i < removed.length; i++) {
+            removed[i] = addContent("removed" + i);
+            cache.put(removed[i], "", index(Integer.class));
+            repository.removeContent(removed[i]);
+        }
+        final byte[][] live = new byte[20][];
+        for (int i = 0; i < live.length; i++) {
+            live[i] = addContent("live" + i);
+        }
+
+        // as on server start, the purge runs while deployments store and read their indexes
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final CountDownLatch start = new CountDownLatch(1);
+            final Future<?> purge = executor.submit(new Callable<Void>() {
+                public Void call() throws Exception {
+                    start.await();
+                    cache.purge();
+                    return null;
+                }
+            });
+            final Future<?> deploy = executor.submit(new Callable<Void>() {
+                public Void call() throws Exception {
+                    start.await();
+                    for (byte[] hash : live) {
+                        cache.put(hash, "", index(String.class));
+                        assertIndexes(cache.get(hash, ""), String.class);
+                    }
+                    return null;
+                }
+            });
+            start.countDown();
+            purge.get(10, TimeUnit.SECONDS);
+            deploy.get(10, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdown();
+        }
+
+        for (byte[] hash : live) {
+            assertIndexes(cache.get(hash, ""), String.class);
+        }
+        for (byte[] hash : removed) {
+            assertFalse(new File(cacheDir, HashUtil.bytesToHexString(hash)).exists());
+        }
+    }
+
+    @Test
+    public void testProcessorReusesCachedIndexes() throws Exception {
+        final byte[] hash = addContent("deployment");
+        final File deploymentRoot = new File(root, "deployment");
+        copyClass(String.class, deploymentRoot);
+        copyClass(Integer.class, new File(deploymentRoot, "lib/a.jar"));
+
+        final AnnotationIndexProcessor processor = new AnnotationIndexProcessor(null, cache);
+        final TestPhaseContext first = deployment(deploymentRoot, hash);
+        processor.deploy(first);
+        assertIndexes(resourceRoot(first).getAttachment(Attachments.ANNOTATION_INDEX), Integer.class);
+
+        // the content of a hash never changes, so a redeploy must not scan it again
+        delete(new File(deploymentRoot, "lib/a.jar/java"));
+        final TestPhaseContext second = deployment(deploymentRoot, hash);
+        processor.deploy(second);
+        assertIndexes(resourceRoot(second).getAttachment(Attachments.ANNOTATION_INDEX), Integer.class);
+        assertIndexes(second.getDeploymentUnit().getAttachment(Attachments.DEPLOYMENT_ROOT).getAttachment(Attachments.ANNOTATION_INDEX), String.class, Integer.class);
+
+        // content without a hash is always scanned
+        final TestPhaseContext unmanaged = deployment(deploymentRoot, null);
+        processor.deploy(unmanaged);
+        assertIndexes(resourceRoot(unmanaged).getAttachment(Attachments.ANNOTATION_INDEX));
+    }
+
+    @Test
+    public void testPrebuiltIndexIsNotScanned() throws Exception {
+        final File deploymentRoot = new File(root, "deployment");
+        copyClass(String.class, deploymentRoot);
+        final File prebuilt = new File(deploymentRoot, "META-INF/jandex.idx");
+        prebuilt.getParentFile().mkdirs();
+        final OutputStream out = new FileOutputStream(prebuilt);
+        try {
+            new IndexWriter(out).write(index(Integer.class));
+        } finally {
+            VFSUtils.safeClose(out);
+        }
+
+        final TestPhaseContext context = deployment(deploymentRoot, null);
+        new AnnotationIndexProcessor(null, cache).deploy(context);
+        assertIndexes(context.getDeploymentUnit().getAttachment(Attachments.DEPLOYMENT_ROOT).getAttachment(Attachments.ANNOTATION_INDEX), Integer.class);
+    }
+
+    private TestPhaseContext deployment(final File deploymentRoot, final byte[] hash) {
+        final TestDeploymentUnit deploymentUnit = new TestDeploymentUnit("test.ear");
+        deploymentUnit.putAttachment(Attachments.DEPLOYMENT_ROOT, new ResourceRoot(VFS.getChild(deploymentRoot.toURI()), null));
+        deploymentUnit.addToAttachmentList(Attachments.RESOURCE_ROOTS, new ResourceRoot(VFS.getChild(new File(deploymentRoot, "lib/a.jar").toURI()), null));
+        if (hash != null) {
+            deploymentUnit.putAttachment(Attachments.DEPLOYMENT_HASH, hash);
+        }
+        return new TestPhaseContext(deploymentUnit);
+    }
+
+    private static ResourceRoot resourceRoot(final TestPhaseContext context) {
+        return context.getDeploymentUnit().getAttachment(Attachments.RESOURCE_ROOTS).get(0);
+    }
+
+    private byte[] addContent(final String content) throws IOException {
+        return repository.addContent(new ByteArrayInputStream(content.getBytes()));
+    }
+
+    private static Index index(final Class<?> clazz) throws IOException {
+        final Indexer indexer = new Indexer();
+        final InputStream in = clazz.getResourceAsStream("/" + clazz.getName().replace('.', '/') + ".class");
+        try {
+            indexer.index(in);
+        } finally {
+            VFSUtils.safeClose(in);
+        }
+        return indexer.complete();
+    }
+
+    private static void assertIndexes(final Index index, final Class<?>... classes) {
+        assertNotNull(index);
+        int found = 0;
+        for (Class<?> clazz : new Class<?>[] { String.class, Integer.class }) {
+            final boolean expected = Arrays.asList(classes).contains(clazz);
+            assertEquals(clazz.getName(), expected, index.getClassByName(DotName.createSimple(clazz.getName())) != null);
+            if (expected) {
+                found++;
+            }
+        }
+        assertEquals(classes.length, found);
+    }
+
+    private static class TestContentRepository extends ContentRepositoryImpl {
+        TestContentRepository(final File root) {
+            super(root);
+        }
+    }
+}
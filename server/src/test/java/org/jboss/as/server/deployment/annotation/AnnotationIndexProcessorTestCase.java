@@ -0,0 +1,299 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.annotation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.as.server.deployment.AttachmentKey;
+import org.jboss.as.server.deployment.Attachments;
+import org.jboss.as.server.deployment.DeploymentPhaseContext;
+import org.jboss.as.server.deployment.DeploymentUnit;
+import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
+import org.jboss.as.server.deployment.Phase;
+import org.jboss.as.server.deployment.Services;
+import org.jboss.as.server.deployment.SimpleAttachable;
+import org.jboss.as.server.deployment.module.ResourceRoot;
+import org.jboss.jandex.DotName;
+import org.jboss.jandex.Index;
+import org.jboss.jandex.Indexer;
+import org.jboss.msc.inject.Injector;
+import org.jboss.msc.service.ServiceName;
+import org.jboss.msc.service.ServiceRegistry;
+import org.jboss.msc.service.ServiceTarget;
+import org.jboss.vfs.VFS;
+import org.jboss.vfs.VFSUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests of the parallel indexing of the resource roots of a deployment by {@link AnnotationIndexProcessor}.
+ *
+ * @author agent
+ */
+public class AnnotationIndexProcessorTestCase {
+
+    private static final Class<?>[] CLASSES = { String.class, Integer.class, Long.class, Short.class, Byte.class,
+            Character.class, Boolean.class, Double.class };
+
+    private File root;
+    private CountingExecutor executor;
+
+    @Before
+    public void setUp() throws IOException {
+        root = File.createTempFile("annotation", "index");
+        root.delete();
+        root.mkdirs();
+        executor = new CountingExecutor();
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+        delete(root);
+    }
+
+    @Test
+    public void testRootsAreIndexedInParallel() throws Exception {
+        final TestPhaseContext context = deployment(CLASSES.length);
+        new AnnotationIndexProcessor(executor, null).deploy(context);
+
+        assertRootsIndexed(context);
+        final int helpers = Math.min(CLASSES.length, Runtime.getRuntime().availableProcessors()) - 1;
+        assertEquals(helpers, executor.submitted.get());
+    }
+
+    @Test
+    public void testRootsAreIndexedWhenTheExecutorRejectsTasks() throws Exception {
+        executor.shutdown();
+        final TestPhaseContext context = deployment(CLASSES.length);
+        new AnnotationIndexProcessor(executor, null).deploy(context);
+
+        assertRootsIndexed(context);
+        assertEquals(0, executor.submitted.get());
+    }
+
+    @Test
+    public void testRootsAreIndexedWithoutExecutor() throws Exception {
+        final TestPhaseContext context = deployment(CLASSES.length);
+        new AnnotationIndexProcessor().deploy(context);
+
+        assertRootsIndexed(context);
+    }
+
+    @Test
+    public void testFailureIsReported() throws Exception {
+        final TestPhaseContext context = deployment(CLASSES.length);
+        final File corrupt = new File(root, "root3/Corrupt.class");
+        write(corrupt, "not a class".getBytes());
+        try {
+            new AnnotationIndexProcessor(executor, null).deploy(context);
+            fail("Indexing a corrupt class did not fail");
+        } catch (DeploymentUnitProcessingException expected) {
+        }
+        // indexes are only attached once every root has been indexed
+        for (ResourceRoot resourceRoot : context.getDeploymentUnit().getAttachment(Attachments.RESOURCE_ROOTS)) {
+            assertNull(resourceRoot.getAttachment(Attachments.ANNOTATION_INDEX));
+        }
+    }
+
+    @Test
+    public void testIndexedRootsAreSkipped() throws Exception {
+        final TestPhaseContext context = deployment(2);
+        final ResourceRoot indexed = context.getDeploymentUnit().getAttachment(Attachments.RESOURCE_ROOTS).get(0);
+        final Index existing = new Indexer().complete();
+        indexed.putAttachment(Attachments.ANNOTATION_INDEX, existing);
+        final ResourceRoot excluded = context.getDeploymentUnit().getAttachment(Attachments.RESOURCE_ROOTS).get(1);
+        excluded.putAttachment(Attachments.INDEX_RESOURCE_ROOT, Boolean.FALSE);
+
+        new AnnotationIndexProcessor(executor, null).deploy(context);
+
+        assertEquals(existing, indexed.getAttachment(Attachments.ANNOTATION_INDEX));
+        assertNull(excluded.getAttachment(Attachments.ANNOTATION_INDEX));
+        assertNotNull(context.getDeploymentUnit().getAttachment(Attachments.DEPLOYMENT_ROOT).getAttachment(Attachments.ANNOTATION_INDEX));
+    }
+
+    /**
+     * Create a deployment with an empty deployment root and {@code count} resource roots, root {@code i} holding
+     * the class file of {@code CLASSES[i]}.
+     */
+    private TestPhaseContext deployment(final int count) throws IOException {
+        final File deploymentRoot = new File(root, "deployment");
+        deploymentRoot.mkdirs();
+        final TestDeploymentUnit deploymentUnit = new TestDeploymentUnit("test.jar");
+        deploymentUnit.putAttachment(Attachments.DEPLOYMENT_ROOT, new ResourceRoot(VFS.getChild(deploymentRoot.toURI()), null));
+        for (int i = 0; i < count; i++) {
+            final File resourceRoot = new File(root, "root" + i);
+            copyClass(CLASSES[i], resourceRoot);
+            deploymentUnit.addToAttachmentList(Attachments.RESOURCE_ROOTS, new ResourceRoot(VFS.getChild(resourceRoot.toURI()), null));
+        }
+        return new TestPhaseContext(deploymentUnit);
+    }
+
+    private static void assertRootsIndexed(final TestPhaseContext context) {
+        final List<ResourceRoot> resourceRoots = context.getDeploymentUnit().getAttachment(Attachments.RESOURCE_ROOTS);
+        for (int i = 0; i < resourceRoots.size(); i++) {
+            final Index index = resourceRoots.get(i).getAttachment(Attachments.ANNOTATION_INDEX);
+            assertNotNull(index);
+            for (int j = 0; j < resourceRoots.size(); j++) {
+                final boolean present = index.getClassByName(DotName.createSimple(CLASSES[j].getName())) != null;
+                assertEquals("Class " + CLASSES[j].getName() + " in the index of root " + i, i == j, present);
+            }
+        }
+        assertNotNull(context.getDeploymentUnit().getAttachment(Attachments.DEPLOYMENT_ROOT).getAttachment(Attachments.ANNOTATION_INDEX));
+    }
+
+    static void copyClass(final Class<?> clazz, final File root) throws IOException {
+        final String name = clazz.getName().replace('.', '/') + ".class";
+        final InputStream in = clazz.getResourceAsStream("/" + name);
+        try {
+            final OutputStream out = open(new File(root, name));
+            try {
+                VFSUtils.copyStream(in, out);
+            } finally {
+                VFSUtils.safeClose(out);
+            }
+        } finally {
+            VFSUtils.safeClose(in);
+        }
+    }
+
+    static void write(final File file, final byte[] bytes) throws IOException {
+        final OutputStream out = open(file);
+        try {
+            out.write(bytes);
+        } finally {
+            VFSUtils.safeClose(out);
+        }
+    }
+
+    private static OutputStream open(final File file) throws IOException {
+        file.getParentFile().mkdirs();
+        return new FileOutputStream(file);
+    }
+
+    static void delete(final File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+
+    /**
+     * Counts the tasks it accepts.
+     */
+    private static final class CountingExecutor extends ThreadPoolExecutor {
+        final AtomicInteger submitted = new AtomicInteger();
+
+        CountingExecutor() {
+            super(4, 4, 1, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>());
+        }
+
+        @Override
+        public void execute(final Runnable command) {
+            super.execute(command);
+            submitted.incrementAndGet();
+        }
+    }
+
+    static final class TestDeploymentUnit extends SimpleAttachable implements DeploymentUnit {
+        private final String name;
+
+        TestDeploymentUnit(final String name) {
+            this.name = name;
+        }
+
+        public ServiceName getServiceName() {
+            return Services.deploymentUnitName(name);
+        }
+
+        public DeploymentUnit getParent() {
+            return null;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public ServiceRegistry getServiceRegistry() {
+            return null;
+        }
+    }
+
+    static final class TestPhaseContext extends SimpleAttachable implements DeploymentPhaseContext {
+        private final DeploymentUnit deploymentUnit;
+
+        TestPhaseContext(final DeploymentUnit deploymentUnit) {
+            this.deploymentUnit = deploymentUnit;
+        }
+
+        public ServiceName getPhaseServiceName() {
+            return deploymentUnit.getServiceName().append(getPhase().name());
+        }
+
+        public ServiceTarget getServiceTarget() {
+            return null;
+        }
+
+        public ServiceRegistry getServiceRegistry() {
+            return null;
+        }
+
+        public DeploymentUnit getDeploymentUnit() {
+            return deploymentUnit;
+        }
+
+        public Phase getPhase() {
+            return Phase.PARSE;
+        }
+
+        public <T> void addDependency(final ServiceName serviceName, final AttachmentKey<T> attachmentKey) {
+            throw new UnsupportedOperationException();
+        }
+
+        public <T> void addDependency(final ServiceName serviceName, final Class<T> type, final Injector<T> injector) {
+            throw new UnsupportedOperationException();
+        }
+
+        public <T> void addDeploymentDependency(final ServiceName serviceName, final AttachmentKey<T> attachmentKey) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
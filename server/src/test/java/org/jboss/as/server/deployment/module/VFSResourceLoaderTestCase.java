@@ -0,0 +1,174 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.module;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+
+import org.jboss.modules.ClassSpec;
+import org.jboss.vfs.VFS;
+import org.jboss.vfs.VFSUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests of the lookups of {@link VFSResourceLoader} in roots whose directories are indexed and in roots whose
+ * directories are not.
+ *
+ * @author agent
+ */
+public class VFSResourceLoaderTestCase {
+
+    private File root;
+
+    @Before
+    public void setUp() throws IOException {
+        root = File.createTempFile("vfs", "loader");
+        root.delete();
+        write("org/test/A.class", "A");
+        write("META-INF/test.txt", "test");
+    }
+
+    @After
+    public void tearDown() {
+        delete(root);
+    }
+
+    @Test
+    public void testIndexedRootFindsItsEntries() throws Exception {
+        final VFSResourceLoader loader = loader(true);
+
+        assertBytes("A", loader.getClassSpec("org/test/A.class"));
+        assertNotNull(loader.getResource("META-INF/test.txt"));
+        assertNotNull(loader.getResource("/META-INF/test.txt"));
+        assertNull(loader.getClassSpec("org/test/B.class"));
+        assertNull(loader.getClassSpec("org/other/A.class"));
+        assertNull(loader.getResource("other/test.txt"));
+        assertEquals(new HashSet<String>(Arrays.asList("", "org", "org/test", "META-INF")), new HashSet<String>(loader.getPaths()));
+    }
+
+    @Test
+    public void testUnindexedRootFindsItsEntries() throws Exception {
+        final VFSResourceLoader loader = loader(false);
+
+        assertBytes("A", loader.getClassSpec("org/test/A.class"));
+        assertNotNull(loader.getResource("META-INF/test.txt"));
+        assertNull(loader.getClassSpec("org/test/B.class"));
+        assertNull(loader.getClassSpec("org/other/A.class"));
+        assertEquals(new HashSet<String>(Arrays.asList("", "org", "org/test", "META-INF")), new HashSet<String>(loader.getPaths()));
+    }
+
+    @Test
+    public void testIndexedRootOnlyMissesNewDirectories() throws Exception {
+        final VFSResourceLoader loader = loader(true);
+        assertNull(loader.getClassSpec("org/test/B.class"));
+
+        write("org/test/B.class", "B");
+        write("org/added/C.class", "C");
+
+        // entries are looked up in the VFS once their directory is known to be in the root
+        assertBytes("B", loader.getClassSpec("org/test/B.class"));
+        assertNull(loader.getClassSpec("org/added/C.class"));
+        assertFalse(loader.getPaths().contains("org/added"));
+    }
+
+    @Test
+    public void testUnindexedRootSeesNewEntries() throws Exception {
+        final VFSResourceLoader loader = loader(false);
+        assertNull(loader.getClassSpec("org/added/C.class"));
+
+        write("org/added/C.class", "C");
+
+        assertBytes("C", loader.getClassSpec("org/added/C.class"));
+        assertTrue(loader.getPaths().contains("org/added"));
+    }
+
+    @Test
+    public void testUnsignedClassesShareTheirCodeSource() throws Exception {
+        write("org/test/B.class", "B");
+        final VFSResourceLoader loader = loader(true);
+
+        final ClassSpec a = loader.getClassSpec("org/test/A.class");
+        final ClassSpec b = loader.getClassSpec("org/test/B.class");
+        assertSame(a.getCodeSource(), b.getCodeSource());
+    }
+
+    @Test
+    public void testIndexOfDirectories() {
+        final VFSResourceLoader.PathIndex index = VFSResourceLoader.PathIndex.create(VFS.getChild(root.toURI()));
+
+        assertTrue(index.containsDirectoryOf("A.class"));
+        assertTrue(index.containsDirectoryOf("org/test/A.class"));
+        assertTrue(index.containsDirectoryOf("/org/test/A.class"));
+        assertTrue(index.containsDirectoryOf("org/test/"));
+        assertFalse(index.containsDirectoryOf("org/test/sub/A.class"));
+        assertFalse(index.containsDirectoryOf("com/test/A.class"));
+        // only the directories are kept, not the files
+        final Collection<String> directories = index.getDirectories();
+        assertEquals(4, directories.size());
+        assertFalse(directories.contains("org/test/A.class"));
+    }
+
+    private VFSResourceLoader loader(final boolean indexPaths) throws IOException {
+        return new VFSResourceLoader("test", VFS.getChild(root.toURI()), indexPaths);
+    }
+
+    private static void assertBytes(final String expected, final ClassSpec spec) {
+        assertNotNull(spec);
+        assertEquals(expected, new String(spec.getBytes()));
+    }
+
+    private void write(final String path, final String content) throws IOException {
+        final File file = new File(root, path);
+        file.getParentFile().mkdirs();
+        final OutputStream out = new FileOutputStream(file);
+        try {
+            out.write(content.getBytes());
+        } finally {
+            VFSUtils.safeClose(out);
+        }
+    }
+
+    private static void delete(final File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
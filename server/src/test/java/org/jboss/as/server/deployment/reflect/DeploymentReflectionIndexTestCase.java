@@ -0,0 +1,170 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.reflect;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Unit tests of the sharing and the lazy resolution of the class indexes of {@link DeploymentReflectionIndex}.
+ *
+ * @author agent
+ */
+public class DeploymentReflectionIndexTestCase {
+
+    @Test
+    public void testJdkClassesAreShared() {
+        final DeploymentReflectionIndex first = DeploymentReflectionIndex.create();
+        final DeploymentReflectionIndex second = DeploymentReflectionIndex.create();
+
+        final ClassReflectionIndex<ArrayList> index = first.getClassIndex(ArrayList.class);
+        assertSame(index, second.getClassIndex(ArrayList.class));
+        assertEquals(0, first.getIndexedClassCount());
+        assertEquals(0, second.getIndexedClassCount());
+        assertTrue(DeploymentReflectionIndex.getSharedIndexedClassCount() >= 1);
+
+        // the members of a shared class are counted once, in the shared table
+        assertNotNull(index.getMethod(void.class, "clear"));
+        assertTrue(index.getResolvedMemberCount() > 0);
+        assertTrue(DeploymentReflectionIndex.getSharedResolvedMemberCount() >= index.getResolvedMemberCount());
+        assertEquals(0, first.getResolvedMemberCount());
+    }
+
+    @Test
+    public void testOtherClassesAreIndexedPerDeployment() {
+        final DeploymentReflectionIndex first = DeploymentReflectionIndex.create();
+        final DeploymentReflectionIndex second = DeploymentReflectionIndex.create();
+
+        final ClassReflectionIndex<Bean> index = first.getClassIndex(Bean.class);
+        assertSame(index, first.getClassIndex(Bean.class));
+        assertNotSame(index, second.getClassIndex(Bean.class));
+        assertEquals(1, first.getIndexedClassCount());
+        assertEquals(1, second.getIndexedClassCount());
+    }
+
+    @Test
+    public void testMembersAreResolvedOnFirstUse() throws Exception {
+        final DeploymentReflectionIndex deploymentIndex = DeploymentReflectionIndex.create();
+        final ClassReflectionIndex<Bean> index = deploymentIndex.getClassIndex(Bean.class);
+        assertEquals(0, deploymentIndex.getResolvedMemberCount());
+
+        assertEquals(Bean.class.getDeclaredField("name"), index.getField("name"));
+        final int fields = Bean.class.getDeclaredFields().length;
+        assertEquals(fields, deploymentIndex.getResolvedMemberCount());
+
+        // the lookups by type and by type name are resolved together
+        assertEquals(Bean.class.getDeclaredMethod("setName", String.class), index.getMethod(void.class, "setName", String.class));
+        final int methods = Bean.class.getDeclaredMethods().length;
+        assertEquals(fields + 2 * methods, deploymentIndex.getResolvedMemberCount());
+
+        assertEquals(Bean.class.getDeclaredMethod("getName"), index.getMethod(String.class.getName(), "getName"));
+        assertEquals(fields + 2 * methods, deploymentIndex.getResolvedMemberCount());
+
+        assertNotNull(index.getConstructor(String.class));
+        assertEquals(fields + 2 * methods + 2 * Bean.class.getDeclaredConstructors().length, deploymentIndex.getResolvedMemberCount());
+    }
+
+    @Test
+    public void testLookupsByTypeAndByTypeNameAgree() {
+        final ClassReflectionIndex<Bean> index = DeploymentReflectionIndex.create().getClassIndex(Bean.class);
+        assertSame(index.getMethod(void.class, "setName", String.class), index.getMethod("void", "setName", String.class.getName()));
+        assertSame(index.getMethod(String.class, "getName"), index.getMethod(String.class.getName(), "getName"));
+        assertSame(index.getConstructor(String.class), index.getConstructor(String.class.getName()));
+    }
+
+    @Test
+    public void testConcurrentLookups() throws Exception {
+        final DeploymentReflectionIndex deploymentIndex = DeploymentReflectionIndex.create();
+        final int threads = 8;
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final CountDownLatch start = new CountDownLatch(1);
+            final List<Future<ClassReflectionIndex<Bean>>> lookups = new ArrayList<Future<ClassReflectionIndex<Bean>>>();
+            final List<Future<Collection<Method>>> methods = new ArrayList<Future<Collection<Method>>>();
+            for (int i = 0; i < threads; i++) {
+                lookups.add(executor.submit(new Callable<ClassReflectionIndex<Bean>>() {
+                    public ClassReflectionIndex<Bean> call() throws Exception {
+                        start.await();
+                        return deploymentIndex.getClassIndex(Bean.class);
+                    }
+                }));
+                methods.add(executor.submit(new Callable<Collection<Method>>() {
+                    public Collection<Method> call() throws Exception {
+                        start.await();
+                        return deploymentIndex.getClassIndex(Bean.class).getMethods();
+                    }
+                }));
+            }
+            start.countDown();
+
+            final ClassReflectionIndex<Bean> index = deploymentIndex.getClassIndex(Bean.class);
+            for (Future<ClassReflectionIndex<Bean>> lookup : lookups) {
+                assertSame(index, lookup.get(10, TimeUnit.SECONDS));
+            }
+            final HashSet<Method> expected = new HashSet<Method>();
+            for (Method method : Bean.class.getDeclaredMethods()) {
+                expected.add(method);
+            }
+            for (Future<Collection<Method>> resolved : methods) {
+                assertEquals(expected, new HashSet<Method>(resolved.get(10, TimeUnit.SECONDS)));
+            }
+            assertEquals(1, deploymentIndex.getIndexedClassCount());
+            assertEquals(2 * expected.size(), deploymentIndex.getResolvedMemberCount());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    public static class Bean {
+        private String name;
+
+        public Bean(final String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(final String name) {
+            this.name = name;
+        }
+    }
+}
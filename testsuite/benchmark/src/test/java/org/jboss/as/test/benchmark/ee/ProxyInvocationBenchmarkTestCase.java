@@ -0,0 +1,93 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.test.benchmark.ee;
+
+import org.jboss.as.ee.component.ProxyInvocationHandler;
+import org.jboss.invocation.Interceptor;
+import org.jboss.invocation.InterceptorContext;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.Map;
+import java.util.logging.Logger;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Measures the per-call overhead of invoking a local view whose interceptor chain does nothing, i.e. the cost of
+ * the proxy and of setting up the {@link InterceptorContext}.
+ *
+ * @author agent
+ */
+public class ProxyInvocationBenchmarkTestCase {
+
+    private static final Logger log = Logger.getLogger(ProxyInvocationBenchmarkTestCase.class.getName());
+
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASURED_ITERATIONS = 10;
+    private static final int CALLS_PER_ITERATION = 1000000;
+
+    public interface LocalView {
+        int echo(int value);
+    }
+
+    @Test
+    public void testNoOpLocalView() throws Exception {
+        final Interceptor noOp = new Interceptor() {
+            @Override
+            public Object processInvocation(final InterceptorContext context) throws Exception {
+                return context.getParameters()[0];
+            }
+        };
+        final Method echo = LocalView.class.getMethod("echo", int.class);
+        final Map<Method, Interceptor> interceptors = Collections.singletonMap(echo, noOp);
+        final LocalView view = (LocalView) Proxy.newProxyInstance(LocalView.class.getClassLoader(), new Class<?>[] {LocalView.class},
+                new ProxyInvocationHandler(interceptors, null, null, null));
+
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            run(view);
+        }
+        long best = Long.MAX_VALUE;
+        long total = 0;
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            final long nanos = run(view);
+            best = Math.min(best, nanos);
+            total += nanos;
+        }
+        log.info(String.format("No-op local view invocation: %.1f ns/call average, %.1f ns/call best",
+                (double) total / MEASURED_ITERATIONS / CALLS_PER_ITERATION, (double) best / CALLS_PER_ITERATION));
+    }
+
+    private static long run(final LocalView view) {
+        int sum = 0;
+        final long start = System.nanoTime();
+        for (int i = 0; i < CALLS_PER_ITERATION; i++) {
+            sum += view.echo(1);
+        }
+        final long nanos = System.nanoTime() - start;
+        // use the result so the calls can not be eliminated
+        assertEquals(CALLS_PER_ITERATION, sum);
+        return nanos;
+    }
+}
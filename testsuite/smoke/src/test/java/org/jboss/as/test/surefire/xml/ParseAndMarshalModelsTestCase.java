@@ -410,6 +410,11 @@ public class ParseAndMarshalModelsTestCase {
                             return null;
                         }
 
+                        @Override
+                        public byte[] addContent(InputStream stream, byte[] expectedHash) throws IOException {
+                            return addContent(stream);
+                        }
+
                         @Override
                         public VirtualFile getContent(byte[] hash) {
                             throw new RuntimeException("NYI: .getContent");
@@ -492,6 +497,11 @@ public class ParseAndMarshalModelsTestCase {
             return null;
         }
 
+        @Override
+        public byte[] addContent(InputStream stream, byte[] expectedHash) throws IOException {
+            return addContent(stream);
+        }
+
         @Override
         public VirtualFile getContent(byte[] hash) {
             throw new RuntimeException("NYI: org.jboss.as.test.surefire.xml.ParseAndMarshalModelsTestCase.MockContentRepository.getContent");
@@ -22,13 +22,19 @@
 
 package org.jboss.as.web.deployment;
 
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
 import org.jboss.as.ee.structure.Attachments;
 import org.jboss.as.ee.structure.DeploymentType;
 import org.jboss.as.ee.structure.DeploymentTypeMarker;
+import org.jboss.as.server.deployment.AttachmentKey;
+import org.jboss.as.server.deployment.ConcurrentDeploymentUnitProcessor;
 import org.jboss.as.server.deployment.DeploymentPhaseContext;
 import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
-import org.jboss.as.server.deployment.DeploymentUnitProcessor;
 import org.jboss.as.server.deployment.module.ResourceRoot;
 import org.jboss.metadata.ear.spec.EarMetaData;
 import org.jboss.metadata.ear.spec.ModuleMetaData;
@@ -44,7 +50,10 @@ import org.jboss.metadata.web.jboss.JBossWebMetaData;
  *
  * @author John Bailey
  */
-public class EarContextRootProcessor implements DeploymentUnitProcessor {
+public class EarContextRootProcessor implements ConcurrentDeploymentUnitProcessor {
+
+    private static final List<AttachmentKey<?>> READ_ATTACHMENTS = Collections.unmodifiableList(Arrays.<AttachmentKey<?>>asList(Attachments.DEPLOYMENT_TYPE, org.jboss.as.server.deployment.Attachments.DEPLOYMENT_ROOT));
+    private static final List<AttachmentKey<?>> WRITTEN_ATTACHMENTS = Collections.<AttachmentKey<?>>singletonList(WarMetaData.ATTACHMENT_KEY);
 
     public void deploy(final DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
         final DeploymentUnit deploymentUnit = phaseContext.getDeploymentUnit();
@@ -90,6 +99,14 @@ public class EarContextRootProcessor implements DeploymentUnitProcessor {
         }
     }
 
+    public Collection<AttachmentKey<?>> getReadAttachments() {
+        return READ_ATTACHMENTS;
+    }
+
+    public Collection<AttachmentKey<?>> getWrittenAttachments() {
+        return WRITTEN_ATTACHMENTS;
+    }
+
     public void undeploy(final DeploymentUnit context) {
     }
 }
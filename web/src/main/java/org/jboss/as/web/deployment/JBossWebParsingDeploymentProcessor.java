@@ -23,6 +23,10 @@ package org.jboss.as.web.deployment;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 
 import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamReader;
@@ -30,18 +34,24 @@ import javax.xml.stream.XMLStreamReader;
 import org.jboss.as.ee.structure.DeploymentType;
 import org.jboss.as.ee.structure.DeploymentTypeMarker;
 import org.jboss.as.server.deployment.Attachments;
+import org.jboss.as.server.deployment.AttachmentKey;
+import org.jboss.as.server.deployment.ConcurrentDeploymentUnitProcessor;
+import org.jboss.as.server.deployment.DeploymentMetadataCache;
 import org.jboss.as.server.deployment.DeploymentPhaseContext;
 import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
-import org.jboss.as.server.deployment.DeploymentUnitProcessor;
 import org.jboss.metadata.parser.jbossweb.JBossWebMetaDataParser;
 import org.jboss.metadata.parser.util.NoopXmlResolver;
+import org.jboss.metadata.web.jboss.JBossWebMetaData;
 import org.jboss.vfs.VirtualFile;
 
 /**
  * @author Jean-Frederic Clere
  */
-public class JBossWebParsingDeploymentProcessor implements DeploymentUnitProcessor {
+public class JBossWebParsingDeploymentProcessor implements ConcurrentDeploymentUnitProcessor {
+
+    private static final List<AttachmentKey<?>> READ_ATTACHMENTS = Collections.unmodifiableList(Arrays.<AttachmentKey<?>>asList(org.jboss.as.ee.structure.Attachments.DEPLOYMENT_TYPE, Attachments.DEPLOYMENT_ROOT));
+    private static final List<AttachmentKey<?>> WRITTEN_ATTACHMENTS = Collections.<AttachmentKey<?>>singletonList(WarMetaData.ATTACHMENT_KEY);
 
     private static final String JBOSS_WEB_XML = "WEB-INF/jboss-web.xml";
 
@@ -55,13 +65,20 @@ public class JBossWebParsingDeploymentProcessor implements DeploymentUnitProcess
         WarMetaData warMetaData = deploymentUnit.getAttachment(WarMetaData.ATTACHMENT_KEY);
         assert warMetaData != null;
         if (jbossWebXml.exists()) {
+            final JBossWebMetaData cached = DeploymentMetadataCache.getMetadata(deploymentUnit, jbossWebXml, JBossWebMetaData.class);
+            if (cached != null) {
+                warMetaData.setJbossWebMetaData(cached);
+                return;
+            }
             InputStream is = null;
             try {
                 is = jbossWebXml.openStream();
                 final XMLInputFactory inputFactory = XMLInputFactory.newInstance();
                 inputFactory.setXMLResolver(NoopXmlResolver.create());
                 XMLStreamReader xmlReader = inputFactory.createXMLStreamReader(is);
-                warMetaData.setJbossWebMetaData(JBossWebMetaDataParser.parse(xmlReader));
+                final JBossWebMetaData jbossWebMetaData = JBossWebMetaDataParser.parse(xmlReader);
+                warMetaData.setJbossWebMetaData(jbossWebMetaData);
+                DeploymentMetadataCache.putMetadata(deploymentUnit, jbossWebXml, JBossWebMetaData.class, jbossWebMetaData);
             } catch (Exception e) {
                 throw new DeploymentUnitProcessingException("Failed to parse " + jbossWebXml, e);
             } finally {
@@ -76,6 +93,14 @@ public class JBossWebParsingDeploymentProcessor implements DeploymentUnitProcess
         }
     }
 
+    public Collection<AttachmentKey<?>> getReadAttachments() {
+        return READ_ATTACHMENTS;
+    }
+
+    public Collection<AttachmentKey<?>> getWrittenAttachments() {
+        return WRITTEN_ATTACHMENTS;
+    }
+
     public void undeploy(DeploymentUnit context) {
     }
 }
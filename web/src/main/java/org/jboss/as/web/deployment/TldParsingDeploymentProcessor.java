@@ -23,6 +23,9 @@ package org.jboss.as.web.deployment;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -33,10 +36,11 @@ import javax.xml.stream.XMLStreamReader;
 import org.jboss.as.ee.structure.DeploymentType;
 import org.jboss.as.ee.structure.DeploymentTypeMarker;
 import org.jboss.as.server.deployment.Attachments;
+import org.jboss.as.server.deployment.AttachmentKey;
+import org.jboss.as.server.deployment.ConcurrentDeploymentUnitProcessor;
 import org.jboss.as.server.deployment.DeploymentPhaseContext;
 import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
-import org.jboss.as.server.deployment.DeploymentUnitProcessor;
 import org.jboss.as.server.deployment.module.ResourceRoot;
 import org.jboss.metadata.parser.jsp.TldMetaDataParser;
 import org.jboss.metadata.parser.util.NoopXmlResolver;
@@ -46,7 +50,10 @@ import org.jboss.vfs.VirtualFile;
 /**
  * @author Remy Maucherat
  */
-public class TldParsingDeploymentProcessor implements DeploymentUnitProcessor {
+public class TldParsingDeploymentProcessor implements ConcurrentDeploymentUnitProcessor {
+
+    private static final List<AttachmentKey<?>> READ_ATTACHMENTS = Collections.unmodifiableList(Arrays.<AttachmentKey<?>>asList(org.jboss.as.ee.structure.Attachments.DEPLOYMENT_TYPE, Attachments.DEPLOYMENT_ROOT, Attachments.RESOURCE_ROOTS));
+    private static final List<AttachmentKey<?>> WRITTEN_ATTACHMENTS = Collections.<AttachmentKey<?>>singletonList(TldsMetaData.ATTACHMENT_KEY);
 
     private static final String TLD = ".tld";
     private static final String META_INF = "META-INF";
@@ -92,6 +99,14 @@ public class TldParsingDeploymentProcessor implements DeploymentUnitProcessor {
         }
     }
 
+    public Collection<AttachmentKey<?>> getReadAttachments() {
+        return READ_ATTACHMENTS;
+    }
+
+    public Collection<AttachmentKey<?>> getWrittenAttachments() {
+        return WRITTEN_ATTACHMENTS;
+    }
+
     public void undeploy(final DeploymentUnit context) {
     }
 
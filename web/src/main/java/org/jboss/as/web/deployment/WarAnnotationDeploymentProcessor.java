@@ -22,6 +22,9 @@
 package org.jboss.as.web.deployment;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -40,10 +43,12 @@ import org.jboss.annotation.javaee.DisplayNames;
 import org.jboss.annotation.javaee.Icons;
 import org.jboss.as.ee.structure.DeploymentType;
 import org.jboss.as.ee.structure.DeploymentTypeMarker;
+import org.jboss.as.server.deployment.Attachments;
+import org.jboss.as.server.deployment.AttachmentKey;
+import org.jboss.as.server.deployment.ConcurrentDeploymentUnitProcessor;
 import org.jboss.as.server.deployment.DeploymentPhaseContext;
 import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
-import org.jboss.as.server.deployment.DeploymentUnitProcessor;
 import org.jboss.as.server.deployment.annotation.AnnotationIndexUtils;
 import org.jboss.as.server.deployment.module.ResourceRoot;
 import org.jboss.jandex.AnnotationInstance;
@@ -87,7 +92,10 @@ import org.jboss.metadata.web.spec.WebMetaData;
  * @author Emanuel Muckenhuber
  * @author Remy Maucherat
  */
-public class WarAnnotationDeploymentProcessor implements DeploymentUnitProcessor {
+public class WarAnnotationDeploymentProcessor implements ConcurrentDeploymentUnitProcessor {
+
+    private static final List<AttachmentKey<?>> READ_ATTACHMENTS = Collections.unmodifiableList(Arrays.<AttachmentKey<?>>asList(org.jboss.as.ee.structure.Attachments.DEPLOYMENT_TYPE, Attachments.PROCESS_CHILD_ANNOTATION_INDEX, Attachments.RESOURCE_ROOTS, Attachments.DEPLOYMENT_ROOT));
+    private static final List<AttachmentKey<?>> WRITTEN_ATTACHMENTS = Collections.<AttachmentKey<?>>singletonList(WarMetaData.ATTACHMENT_KEY);
 
     private static final DotName webFilter = DotName.createSimple(WebFilter.class.getName());
     private static final DotName webListener = DotName.createSimple(WebListener.class.getName());
@@ -122,6 +130,14 @@ public class WarAnnotationDeploymentProcessor implements DeploymentUnitProcessor
         }
     }
 
+    public Collection<AttachmentKey<?>> getReadAttachments() {
+        return READ_ATTACHMENTS;
+    }
+
+    public Collection<AttachmentKey<?>> getWrittenAttachments() {
+        return WRITTEN_ATTACHMENTS;
+    }
+
     public void undeploy(final DeploymentUnit context) {
     }
 
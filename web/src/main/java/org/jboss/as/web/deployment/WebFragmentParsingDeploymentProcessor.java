@@ -23,6 +23,9 @@ package org.jboss.as.web.deployment;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -33,10 +36,12 @@ import javax.xml.stream.XMLStreamReader;
 import org.jboss.as.ee.structure.DeploymentType;
 import org.jboss.as.ee.structure.DeploymentTypeMarker;
 import org.jboss.as.server.deployment.Attachments;
+import org.jboss.as.server.deployment.AttachmentKey;
+import org.jboss.as.server.deployment.ConcurrentDeploymentUnitProcessor;
+import org.jboss.as.server.deployment.DeploymentMetadataCache;
 import org.jboss.as.server.deployment.DeploymentPhaseContext;
 import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
-import org.jboss.as.server.deployment.DeploymentUnitProcessor;
 import org.jboss.as.server.deployment.module.ResourceRoot;
 import org.jboss.metadata.parser.servlet.WebFragmentMetaDataParser;
 import org.jboss.metadata.parser.util.NoopXmlResolver;
@@ -46,7 +51,10 @@ import org.jboss.vfs.VirtualFile;
 /**
  * @author Remy Maucherat
  */
-public class WebFragmentParsingDeploymentProcessor implements DeploymentUnitProcessor {
+public class WebFragmentParsingDeploymentProcessor implements ConcurrentDeploymentUnitProcessor {
+
+    private static final List<AttachmentKey<?>> READ_ATTACHMENTS = Collections.unmodifiableList(Arrays.<AttachmentKey<?>>asList(org.jboss.as.ee.structure.Attachments.DEPLOYMENT_TYPE, Attachments.RESOURCE_ROOTS));
+    private static final List<AttachmentKey<?>> WRITTEN_ATTACHMENTS = Collections.<AttachmentKey<?>>singletonList(WarMetaData.ATTACHMENT_KEY);
 
     private static final String WEB_FRAGMENT_XML = "META-INF/web-fragment.xml";
 
@@ -70,13 +78,20 @@ public class WebFragmentParsingDeploymentProcessor implements DeploymentUnitProc
             if (resourceRoot.getRoot().getLowerCaseName().endsWith(".jar")) {
                 VirtualFile webFragment = resourceRoot.getRoot().getChild(WEB_FRAGMENT_XML);
                 if (webFragment.exists() && webFragment.isFile()) {
+                    final WebFragmentMetaData cached = DeploymentMetadataCache.getMetadata(deploymentUnit, webFragment, WebFragmentMetaData.class);
+                    if (cached != null) {
+                        webFragments.put(resourceRoot.getRootName(), cached);
+                        continue;
+                    }
                     InputStream is = null;
                     try {
                         is = webFragment.openStream();
                         final XMLInputFactory inputFactory = XMLInputFactory.newInstance();
                         inputFactory.setXMLResolver(NoopXmlResolver.create());
                         XMLStreamReader xmlReader = inputFactory.createXMLStreamReader(is);
-                        webFragments.put(resourceRoot.getRootName(), WebFragmentMetaDataParser.parse(xmlReader));
+                        final WebFragmentMetaData webFragmentMetaData = WebFragmentMetaDataParser.parse(xmlReader);
+                        webFragments.put(resourceRoot.getRootName(), webFragmentMetaData);
+                        DeploymentMetadataCache.putMetadata(deploymentUnit, webFragment, WebFragmentMetaData.class, webFragmentMetaData);
                     } catch (Exception e) {
                         throw new DeploymentUnitProcessingException("Failed to parse " + webFragment, e);
                     } finally {
@@ -93,6 +108,14 @@ public class WebFragmentParsingDeploymentProcessor implements DeploymentUnitProc
         }
     }
 
+    public Collection<AttachmentKey<?>> getReadAttachments() {
+        return READ_ATTACHMENTS;
+    }
+
+    public Collection<AttachmentKey<?>> getWrittenAttachments() {
+        return WRITTEN_ATTACHMENTS;
+    }
+
     public void undeploy(final DeploymentUnit context) {
     }
 }
@@ -23,6 +23,10 @@ package org.jboss.as.web.deployment;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 
 import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamReader;
@@ -30,19 +34,25 @@ import javax.xml.stream.XMLStreamReader;
 import org.jboss.as.ee.structure.DeploymentType;
 import org.jboss.as.ee.structure.DeploymentTypeMarker;
 import org.jboss.as.server.deployment.Attachments;
+import org.jboss.as.server.deployment.AttachmentKey;
+import org.jboss.as.server.deployment.ConcurrentDeploymentUnitProcessor;
+import org.jboss.as.server.deployment.DeploymentMetadataCache;
 import org.jboss.as.server.deployment.DeploymentPhaseContext;
 import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
-import org.jboss.as.server.deployment.DeploymentUnitProcessor;
 import org.jboss.as.server.deployment.module.ResourceRoot;
 import org.jboss.metadata.parser.servlet.WebMetaDataParser;
 import org.jboss.metadata.parser.util.NoopXmlResolver;
+import org.jboss.metadata.web.spec.WebMetaData;
 import org.jboss.vfs.VirtualFile;
 
 /**
  * @author Jean-Frederic Clere
  */
-public class WebParsingDeploymentProcessor implements DeploymentUnitProcessor {
+public class WebParsingDeploymentProcessor implements ConcurrentDeploymentUnitProcessor {
+
+    private static final List<AttachmentKey<?>> READ_ATTACHMENTS = Collections.unmodifiableList(Arrays.<AttachmentKey<?>>asList(org.jboss.as.ee.structure.Attachments.DEPLOYMENT_TYPE, Attachments.DEPLOYMENT_ROOT));
+    private static final List<AttachmentKey<?>> WRITTEN_ATTACHMENTS = Collections.<AttachmentKey<?>>singletonList(WarMetaData.ATTACHMENT_KEY);
 
     private static final String WEB_XML = "WEB-INF/web.xml";
 
@@ -56,13 +66,20 @@ public class WebParsingDeploymentProcessor implements DeploymentUnitProcessor {
         WarMetaData warMetaData = deploymentUnit.getAttachment(WarMetaData.ATTACHMENT_KEY);
         assert warMetaData != null;
         if (webXml.exists()) {
+            final WebMetaData cached = DeploymentMetadataCache.getMetadata(deploymentUnit, webXml, WebMetaData.class);
+            if (cached != null) {
+                warMetaData.setWebMetaData(cached);
+                return;
+            }
             InputStream is = null;
             try {
                 is = webXml.openStream();
                 final XMLInputFactory inputFactory = XMLInputFactory.newInstance();
                 inputFactory.setXMLResolver(NoopXmlResolver.create());
                 XMLStreamReader xmlReader = inputFactory.createXMLStreamReader(is);
-                warMetaData.setWebMetaData(WebMetaDataParser.parse(xmlReader));
+                final WebMetaData webMetaData = WebMetaDataParser.parse(xmlReader);
+                warMetaData.setWebMetaData(webMetaData);
+                DeploymentMetadataCache.putMetadata(deploymentUnit, webXml, WebMetaData.class, webMetaData);
             } catch (Exception e) {
                 throw new DeploymentUnitProcessingException("Failed to parse " + webXml, e);
             } finally {
@@ -77,6 +94,14 @@ public class WebParsingDeploymentProcessor implements DeploymentUnitProcessor {
         }
     }
 
+    public Collection<AttachmentKey<?>> getReadAttachments() {
+        return READ_ATTACHMENTS;
+    }
+
+    public Collection<AttachmentKey<?>> getWrittenAttachments() {
+        return WRITTEN_ATTACHMENTS;
+    }
+
     public void undeploy(final DeploymentUnit context) {
     }
 }